@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+
+package org.neo4j.benchmarks.csv;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.csv.reader.CharSeeker;
+import org.neo4j.csv.reader.CharSeekers;
+import org.neo4j.csv.reader.Configuration;
+import org.neo4j.csv.reader.Extractors;
+import org.neo4j.csv.reader.Mark;
+import org.neo4j.csv.reader.Readables;
+
+/**
+ * Seeking through and extracting values from CSV data the way the importer reads its input files, without any of
+ * the file system in between.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Fork( 1 )
+@Warmup( iterations = 5 )
+@Measurement( iterations = 5 )
+public class CharSeekerBenchmark
+{
+    private static final int LINES = 100_000;
+    private static final int COMMA = ',';
+
+    private final Extractors extractors = new Extractors( ';' );
+    private final Mark mark = new Mark();
+    private String data;
+
+    @Setup
+    public void setUp()
+    {
+        StringBuilder builder = new StringBuilder();
+        for ( int i = 0; i < LINES; i++ )
+        {
+            builder.append( i ).append( ",name-" ).append( i ).append( ',' ).append( i % 100 ).append( '\n' );
+        }
+        data = builder.toString();
+    }
+
+    @Benchmark
+    public long seekAllFields() throws IOException
+    {
+        long fields = 0;
+        try ( CharSeeker seeker = CharSeekers.charSeeker( Readables.wrap( data ), Configuration.DEFAULT, false ) )
+        {
+            while ( seeker.seek( mark, COMMA ) )
+            {
+                fields++;
+            }
+        }
+        return fields;
+    }
+
+    @Benchmark
+    public long extractLongFields() throws IOException
+    {
+        long sum = 0;
+        try ( CharSeeker seeker = CharSeekers.charSeeker( Readables.wrap( data ), Configuration.DEFAULT, false ) )
+        {
+            while ( seeker.seek( mark, COMMA ) )
+            {
+                // id
+                sum += seeker.extract( mark, extractors.long_() ).longValue();
+                // name
+                seeker.seek( mark, COMMA );
+                // age
+                seeker.seek( mark, COMMA );
+                sum += seeker.extract( mark, extractors.long_() ).longValue();
+            }
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+
+package org.neo4j.benchmarks.gbptree;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.benchmarks.BenchmarkPageCache;
+import org.neo4j.benchmarks.gbptree.LongLayout.LongHolder;
+import org.neo4j.cursor.RawCursor;
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.Hit;
+import org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector;
+import org.neo4j.index.internal.gbptree.Writer;
+import org.neo4j.io.fs.DefaultFileSystemAbstraction;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.kernel.impl.scheduler.JobSchedulerFactory;
+import org.neo4j.scheduler.JobScheduler;
+
+/**
+ * Point lookups, range scans and inserts in a {@link GBPTree} that fits in the page cache.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Fork( 1 )
+@Warmup( iterations = 5 )
+@Measurement( iterations = 5 )
+public class GBPTreeBenchmark
+{
+    private static final int INITIAL_KEYS = 1_000_000;
+    private static final int SCAN_LENGTH = 100;
+
+    private final LongLayout layout = new LongLayout();
+    private final SplittableRandom rng = new SplittableRandom();
+    private final LongHolder from = layout.newKey();
+    private final LongHolder to = layout.newKey();
+    private final LongHolder key = layout.newKey();
+    private final LongHolder value = layout.newValue();
+
+    private FileSystemAbstraction fs;
+    private JobScheduler jobScheduler;
+    private PageCache pageCache;
+    private File file;
+    private GBPTree<LongHolder,LongHolder> tree;
+    private long nextKey;
+
+    @Setup( Level.Iteration )
+    public void setUp() throws IOException
+    {
+        fs = new DefaultFileSystemAbstraction();
+        jobScheduler = JobSchedulerFactory.createInitialisedScheduler();
+        pageCache = BenchmarkPageCache.createPageCache( fs, jobScheduler, "512 MiB" );
+        file = File.createTempFile( "gbptree", ".bench" );
+        fs.deleteFile( file );
+        tree = new GBPTree<>( pageCache, file, layout, 0, GBPTree.NO_MONITOR, GBPTree.NO_HEADER_READER,
+                GBPTree.NO_HEADER_WRITER, RecoveryCleanupWorkCollector.immediate() );
+        try ( Writer<LongHolder,LongHolder> writer = tree.writer() )
+        {
+            for ( nextKey = 0; nextKey < INITIAL_KEYS; nextKey++ )
+            {
+                key.value = nextKey;
+                value.value = nextKey;
+                writer.put( key, value );
+            }
+        }
+    }
+
+    @TearDown( Level.Iteration )
+    public void tearDown() throws Exception
+    {
+        tree.close();
+        pageCache.close();
+        jobScheduler.close();
+        fs.deleteFile( file );
+        fs.close();
+    }
+
+    @Benchmark
+    public long pointLookup() throws IOException
+    {
+        from.value = rng.nextInt( INITIAL_KEYS );
+        to.value = from.value + 1;
+        try ( RawCursor<Hit<LongHolder,LongHolder>,IOException> seek = tree.seek( from, to ) )
+        {
+            return seek.next() ? seek.get().value().value : -1;
+        }
+    }
+
+    @Benchmark
+    public long rangeScan() throws IOException
+    {
+        from.value = rng.nextInt( INITIAL_KEYS - SCAN_LENGTH );
+        to.value = from.value + SCAN_LENGTH;
+        long sum = 0;
+        try ( RawCursor<Hit<LongHolder,LongHolder>,IOException> seek = tree.seek( from, to ) )
+        {
+            while ( seek.next() )
+            {
+                sum += seek.get().value().value;
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public void appendInsert() throws IOException
+    {
+        // One writer per insert, like a single-entry index update would do.
+        try ( Writer<LongHolder,LongHolder> writer = tree.writer() )
+        {
+            key.value = nextKey++;
+            value.value = key.value;
+            writer.put( key, value );
+        }
+    }
+}
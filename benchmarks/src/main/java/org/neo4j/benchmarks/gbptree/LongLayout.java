@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+
+package org.neo4j.benchmarks.gbptree;
+
+import org.neo4j.index.internal.gbptree.Layout;
+import org.neo4j.io.pagecache.PageCursor;
+
+/**
+ * Fixed size layout with a single long in both key and value, the smallest entries a {@code GBPTree} can hold,
+ * which puts the focus on the tree itself rather than on serialization.
+ */
+class LongLayout extends Layout.Adapter<LongLayout.LongHolder,LongLayout.LongHolder>
+{
+    static final class LongHolder
+    {
+        long value;
+    }
+
+    @Override
+    public int compare( LongHolder o1, LongHolder o2 )
+    {
+        return Long.compare( o1.value, o2.value );
+    }
+
+    @Override
+    public LongHolder newKey()
+    {
+        return new LongHolder();
+    }
+
+    @Override
+    public LongHolder copyKey( LongHolder key, LongHolder into )
+    {
+        into.value = key.value;
+        return into;
+    }
+
+    @Override
+    public LongHolder newValue()
+    {
+        return new LongHolder();
+    }
+
+    @Override
+    public int keySize( LongHolder key )
+    {
+        return Long.BYTES;
+    }
+
+    @Override
+    public int valueSize( LongHolder value )
+    {
+        return Long.BYTES;
+    }
+
+    @Override
+    public void writeKey( PageCursor cursor, LongHolder key )
+    {
+        cursor.putLong( key.value );
+    }
+
+    @Override
+    public void writeValue( PageCursor cursor, LongHolder value )
+    {
+        cursor.putLong( value.value );
+    }
+
+    @Override
+    public void readKey( PageCursor cursor, LongHolder into, int keySize )
+    {
+        into.value = cursor.getLong();
+    }
+
+    @Override
+    public void readValue( PageCursor cursor, LongHolder into, int valueSize )
+    {
+        into.value = cursor.getLong();
+    }
+
+    @Override
+    public boolean fixedSize()
+    {
+        return true;
+    }
+
+    @Override
+    public long identifier()
+    {
+        return Layout.namedIdentifier( "bnch", 1 );
+    }
+
+    @Override
+    public int majorVersion()
+    {
+        return 0;
+    }
+
+    @Override
+    public int minorVersion()
+    {
+        return 1;
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+
+package org.neo4j.benchmarks.lock;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.kernel.configuration.Config;
+import org.neo4j.kernel.impl.enterprise.lock.forseti.ForsetiLockManager;
+import org.neo4j.kernel.impl.locking.Locks;
+import org.neo4j.kernel.impl.locking.ResourceTypes;
+import org.neo4j.storageengine.api.lock.LockTracer;
+import org.neo4j.time.Clocks;
+
+/**
+ * Acquiring and releasing locks through the Forseti lock manager, both on the same hot node from several threads
+ * and on random nodes that are unlikely to be contended.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Fork( 1 )
+@Warmup( iterations = 5 )
+@Measurement( iterations = 5 )
+public class ForsetiBenchmark
+{
+    private static final long HOT_NODE = 42;
+    private static final int NODES = 1_000_000;
+
+    Locks locks;
+
+    @Setup
+    public void setUp()
+    {
+        locks = new ForsetiLockManager( Config.defaults(), Clocks.systemClock(), ResourceTypes.values() );
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        locks.close();
+    }
+
+    @State( Scope.Thread )
+    public static class LockClient
+    {
+        final SplittableRandom rng = new SplittableRandom();
+        Locks.Client client;
+
+        @Setup
+        public void setUp( ForsetiBenchmark benchmark )
+        {
+            client = benchmark.locks.newClient();
+        }
+
+        @TearDown
+        public void tearDown()
+        {
+            client.close();
+        }
+    }
+
+    @Benchmark
+    @Threads( 4 )
+    public void sharedLockOnHotNode( LockClient lockClient )
+    {
+        Locks.Client client = lockClient.client;
+        client.acquireShared( LockTracer.NONE, ResourceTypes.NODE, HOT_NODE );
+        client.releaseShared( ResourceTypes.NODE, HOT_NODE );
+    }
+
+    @Benchmark
+    @Threads( 4 )
+    public void sharedLockOnRandomNode( LockClient lockClient )
+    {
+        Locks.Client client = lockClient.client;
+        long nodeId = lockClient.rng.nextInt( NODES );
+        client.acquireShared( LockTracer.NONE, ResourceTypes.NODE, nodeId );
+        client.releaseShared( ResourceTypes.NODE, nodeId );
+    }
+
+    @Benchmark
+    @Threads( 4 )
+    public void exclusiveLockOnRandomNode( LockClient lockClient )
+    {
+        Locks.Client client = lockClient.client;
+        long nodeId = lockClient.rng.nextInt( NODES );
+        client.acquireExclusive( LockTracer.NONE, ResourceTypes.NODE, nodeId );
+        client.releaseExclusive( ResourceTypes.NODE, nodeId );
+    }
+
+    @Benchmark
+    public void uncontendedExclusiveLock( LockClient lockClient )
+    {
+        Locks.Client client = lockClient.client;
+        client.acquireExclusive( LockTracer.NONE, ResourceTypes.NODE, HOT_NODE );
+        client.releaseExclusive( ResourceTypes.NODE, HOT_NODE );
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+
+package org.neo4j.benchmarks.packstream;
+
+import io.netty.buffer.ByteBuf;
+
+import java.nio.ByteBuffer;
+
+import org.neo4j.bolt.v1.packstream.PackOutput;
+
+/**
+ * {@link PackOutput} straight into a {@link ByteBuf}, without the chunking of the Bolt transport, so that
+ * {@link PackStreamBenchmark} measures the PackStream encoding on its own.
+ */
+class ByteBufOutput implements PackOutput
+{
+    private ByteBuf buf;
+
+    void start( ByteBuf newBuf )
+    {
+        this.buf = newBuf;
+    }
+
+    @Override
+    public void beginMessage()
+    {
+    }
+
+    @Override
+    public void messageSucceeded()
+    {
+    }
+
+    @Override
+    public void messageFailed()
+    {
+    }
+
+    @Override
+    public PackOutput flush()
+    {
+        return this;
+    }
+
+    @Override
+    public PackOutput writeByte( byte value )
+    {
+        buf.writeByte( value );
+        return this;
+    }
+
+    @Override
+    public PackOutput writeBytes( ByteBuffer data )
+    {
+        buf.writeBytes( data );
+        return this;
+    }
+
+    @Override
+    public PackOutput writeBytes( byte[] data, int offset, int amountToWrite )
+    {
+        buf.writeBytes( data, offset, amountToWrite );
+        return this;
+    }
+
+    @Override
+    public PackOutput writeShort( short value )
+    {
+        buf.writeShort( value );
+        return this;
+    }
+
+    @Override
+    public PackOutput writeInt( int value )
+    {
+        buf.writeInt( value );
+        return this;
+    }
+
+    @Override
+    public PackOutput writeLong( long value )
+    {
+        buf.writeLong( value );
+        return this;
+    }
+
+    @Override
+    public PackOutput writeDouble( double value )
+    {
+        buf.writeDouble( value );
+        return this;
+    }
+
+    @Override
+    public void close()
+    {
+        buf = null;
+    }
+}
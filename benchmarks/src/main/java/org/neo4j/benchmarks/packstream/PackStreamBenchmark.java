@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+
+package org.neo4j.benchmarks.packstream;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.bolt.v1.packstream.ByteBufInput;
+import org.neo4j.bolt.v1.packstream.PackStream;
+
+/**
+ * Packing and unpacking a result record the shape of a typical Bolt RECORD message: a list with a string, an integer,
+ * a float and a small map.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Fork( 1 )
+@Warmup( iterations = 5 )
+@Measurement( iterations = 5 )
+public class PackStreamBenchmark
+{
+    private static final byte RECORD = 0x71;
+
+    private final ByteBufOutput output = new ByteBufOutput();
+    private final ByteBufInput input = new ByteBufInput();
+    private final PackStream.Packer packer = new PackStream.Packer( output );
+    private final PackStream.Unpacker unpacker = new PackStream.Unpacker( input );
+    private ByteBuf buf;
+    private ByteBuf packedRecord;
+
+    @Setup
+    public void setUp() throws IOException
+    {
+        buf = PooledByteBufAllocator.DEFAULT.directBuffer( 1024 );
+        packedRecord = PooledByteBufAllocator.DEFAULT.directBuffer( 1024 );
+        output.start( packedRecord );
+        packRecord( 0 );
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        buf.release();
+        packedRecord.release();
+    }
+
+    @Benchmark
+    public int pack() throws IOException
+    {
+        buf.clear();
+        output.start( buf );
+        packRecord( 1234 );
+        return buf.writerIndex();
+    }
+
+    @Benchmark
+    public long unpack() throws IOException
+    {
+        input.start( packedRecord.duplicate() );
+        try
+        {
+            unpacker.unpackStructHeader();
+            unpacker.unpackStructSignature();
+            long fields = unpacker.unpackListHeader();
+            long sum = fields;
+            sum += unpacker.unpackString().length();
+            sum += unpacker.unpackLong();
+            sum += (long) unpacker.unpackDouble();
+            long entries = unpacker.unpackMapHeader();
+            for ( int i = 0; i < entries; i++ )
+            {
+                sum += unpacker.unpackString().length();
+                sum += unpacker.unpackLong();
+            }
+            return sum;
+        }
+        finally
+        {
+            input.stop();
+        }
+    }
+
+    private void packRecord( long id ) throws IOException
+    {
+        packer.packStructHeader( 1, RECORD );
+        packer.packListHeader( 4 );
+        packer.pack( "Johan Svensson" );
+        packer.pack( id );
+        packer.pack( 3.14 );
+        packer.packMapHeader( 2 );
+        packer.pack( "born" );
+        packer.pack( 1970L );
+        packer.pack( "since" );
+        packer.pack( 2002L );
+        packer.flush();
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+
+package org.neo4j.benchmarks.packstream;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.bolt.messaging.Neo4jPack;
+import org.neo4j.bolt.v1.messaging.Neo4jPackV1;
+import org.neo4j.bolt.v1.transport.ChunkedOutput;
+import org.neo4j.values.AnyValue;
+import org.neo4j.values.storable.Values;
+import org.neo4j.values.virtual.VirtualValues;
+
+import static org.neo4j.bolt.transport.TransportThrottleGroup.NO_THROTTLE;
+
+/**
+ * Serializing wide RECORD messages through the {@link ChunkedOutput} of the Bolt transport into pooled buffers, the
+ * way result rows are written to the network. Every row contains strings as read from the store, integers and nodes.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Fork( 1 )
+@Warmup( iterations = 5 )
+@Measurement( iterations = 5 )
+public class RecordSerializationBenchmark
+{
+    private static final byte RECORD = 0x71;
+    private static final int RECORDS = 100;
+
+    @Param( {"3", "30", "300"} )
+    public int columns;
+
+    private EmbeddedChannel channel;
+    private ChunkedOutput output;
+    private Neo4jPack.Packer packer;
+    private AnyValue[] fields;
+
+    @Setup
+    public void setUp()
+    {
+        channel = new EmbeddedChannel();
+        channel.config().setAllocator( PooledByteBufAllocator.DEFAULT );
+        output = new ChunkedOutput( channel, NO_THROTTLE );
+        packer = new Neo4jPackV1().newPacker( output );
+
+        fields = new AnyValue[columns];
+        for ( int i = 0; i < columns; i += 3 )
+        {
+            fields[i] = Values.utf8Value( ("Johan Svensson " + i).getBytes( StandardCharsets.UTF_8 ) );
+            fields[i + 1] = Values.longValue( 1_000_000L * i );
+            fields[i + 2] = VirtualValues.nodeValue( i, Values.stringArray( "Person", "Developer" ),
+                    VirtualValues.map( new String[]{"name", "born"},
+                            new AnyValue[]{Values.utf8Value( "Johan".getBytes( StandardCharsets.UTF_8 ) ), Values.longValue( 1970 )} ) );
+        }
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        output.close();
+        channel.finishAndReleaseAll();
+    }
+
+    @Benchmark
+    public long serializeRecords() throws IOException
+    {
+        for ( int record = 0; record < RECORDS; record++ )
+        {
+            output.beginMessage();
+            packer.packStructHeader( 1, RECORD );
+            packer.packListHeader( fields.length );
+            for ( AnyValue field : fields )
+            {
+                packer.pack( field );
+            }
+            output.messageSucceeded();
+        }
+        output.flush();
+
+        long written = 0;
+        ByteBuf buf;
+        while ( (buf = channel.readOutbound()) != null )
+        {
+            written += buf.readableBytes();
+            buf.release();
+        }
+        return written;
+    }
+}
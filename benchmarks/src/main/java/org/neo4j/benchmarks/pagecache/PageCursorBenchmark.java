@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+
+package org.neo4j.benchmarks.pagecache;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.StandardOpenOption;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.benchmarks.BenchmarkPageCache;
+import org.neo4j.io.fs.DefaultFileSystemAbstraction;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.kernel.impl.scheduler.JobSchedulerFactory;
+import org.neo4j.scheduler.JobScheduler;
+
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
+
+/**
+ * Pinning and unpinning of pages that are already in memory, through {@code MuninnPageCursor}. This is what every
+ * record and index access pays, before it gets to look at any data.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Fork( 1 )
+@Warmup( iterations = 5 )
+@Measurement( iterations = 5 )
+public class PageCursorBenchmark
+{
+    static final int FILE_PAGES = 10_000;
+
+    private FileSystemAbstraction fs;
+    private JobScheduler jobScheduler;
+    private PageCache pageCache;
+    private File file;
+    PagedFile pagedFile;
+
+    @Setup
+    public void setUp() throws IOException
+    {
+        fs = new DefaultFileSystemAbstraction();
+        jobScheduler = JobSchedulerFactory.createInitialisedScheduler();
+        // Big enough to keep the whole file in memory, so we only measure hits.
+        pageCache = BenchmarkPageCache.createPageCache( fs, jobScheduler, "128 MiB" );
+        file = File.createTempFile( "pagecursor", ".bench" );
+        pagedFile = pageCache.map( file, pageCache.pageSize(), StandardOpenOption.CREATE );
+        try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK ) )
+        {
+            for ( int pageId = 0; pageId < FILE_PAGES; pageId++ )
+            {
+                cursor.next();
+                cursor.putLong( pageId );
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception
+    {
+        pagedFile.close();
+        pageCache.close();
+        jobScheduler.close();
+        fs.deleteFile( file );
+        fs.close();
+    }
+
+    @State( Scope.Thread )
+    public static class ReadCursor
+    {
+        final SplittableRandom rng = new SplittableRandom();
+        PageCursor cursor;
+
+        @Setup
+        public void setUp( PageCursorBenchmark benchmark ) throws IOException
+        {
+            cursor = benchmark.pagedFile.io( 0, PF_SHARED_READ_LOCK );
+        }
+
+        @TearDown
+        public void tearDown()
+        {
+            cursor.close();
+        }
+    }
+
+    @State( Scope.Thread )
+    public static class WriteCursor
+    {
+        final SplittableRandom rng = new SplittableRandom();
+        PageCursor cursor;
+
+        @Setup
+        public void setUp( PageCursorBenchmark benchmark ) throws IOException
+        {
+            cursor = benchmark.pagedFile.io( 0, PF_SHARED_WRITE_LOCK );
+        }
+
+        @TearDown
+        public void tearDown()
+        {
+            cursor.close();
+        }
+    }
+
+    @Benchmark
+    public long pinRandomPageForReading( ReadCursor reader ) throws IOException
+    {
+        PageCursor cursor = reader.cursor;
+        cursor.next( reader.rng.nextInt( FILE_PAGES ) );
+        long value;
+        do
+        {
+            value = cursor.getLong( 0 );
+        }
+        while ( cursor.shouldRetry() );
+        return value;
+    }
+
+    @Benchmark
+    @Threads( 4 )
+    public long pinRandomPageForReadingConcurrently( ReadCursor reader ) throws IOException
+    {
+        return pinRandomPageForReading( reader );
+    }
+
+    @Benchmark
+    public void pinRandomPageForWriting( WriteCursor writer ) throws IOException
+    {
+        PageCursor cursor = writer.cursor;
+        long pageId = writer.rng.nextInt( FILE_PAGES );
+        cursor.next( pageId );
+        cursor.putLong( 0, pageId );
+    }
+
+    @Benchmark
+    public long openPinAndCloseCursor( ReadCursor reader ) throws IOException
+    {
+        try ( PageCursor cursor = pagedFile.io( reader.rng.nextInt( FILE_PAGES ), PF_SHARED_READ_LOCK ) )
+        {
+            cursor.next();
+            long value;
+            do
+            {
+                value = cursor.getLong( 0 );
+            }
+            while ( cursor.shouldRetry() );
+            return value;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+
+package org.neo4j.benchmarks.txstate;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.kernel.impl.api.state.TxState;
+import org.neo4j.values.storable.Values;
+
+/**
+ * Building up the transaction state of a write transaction, which is what every created node, label, property and
+ * relationship goes through before commit.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Fork( 1 )
+@Warmup( iterations = 5 )
+@Measurement( iterations = 5 )
+public class TxStateBenchmark
+{
+    private static final int LABEL = 1;
+    private static final int PROPERTY_KEY = 2;
+    private static final int RELATIONSHIP_TYPE = 3;
+
+    @Param( {"100", "10000"} )
+    public int nodes;
+
+    @Benchmark
+    public TxState createNodes()
+    {
+        TxState txState = new TxState();
+        for ( long nodeId = 0; nodeId < nodes; nodeId++ )
+        {
+            txState.nodeDoCreate( nodeId );
+        }
+        return txState;
+    }
+
+    @Benchmark
+    public TxState createNodesWithLabelAndProperty()
+    {
+        TxState txState = new TxState();
+        for ( long nodeId = 0; nodeId < nodes; nodeId++ )
+        {
+            txState.nodeDoCreate( nodeId );
+            txState.nodeDoAddLabel( LABEL, nodeId );
+            txState.nodeDoAddProperty( nodeId, PROPERTY_KEY, Values.longValue( nodeId ) );
+        }
+        return txState;
+    }
+
+    @Benchmark
+    public TxState createChainOfRelationships()
+    {
+        TxState txState = new TxState();
+        for ( long nodeId = 0; nodeId < nodes; nodeId++ )
+        {
+            txState.nodeDoCreate( nodeId );
+            if ( nodeId > 0 )
+            {
+                txState.relationshipDoCreate( nodeId - 1, RELATIONSHIP_TYPE, nodeId - 1, nodeId );
+            }
+        }
+        return txState;
+    }
+}
@@ -27,6 +27,7 @@ import org.neo4j.bolt.runtime.BoltConnection;
 import org.neo4j.bolt.runtime.BoltResponseHandler;
 import org.neo4j.bolt.runtime.Neo4jError;
 import org.neo4j.bolt.v1.packstream.PackStream;
+import org.neo4j.bolt.v1.runtime.Job;
 import org.neo4j.kernel.api.exceptions.Status;
 
 import static java.util.function.Function.identity;
@@ -86,7 +87,8 @@ public abstract class BoltRequestMessageReader
             RequestMessage message = decoder.decode( unpacker );
             BoltResponseHandler responseHandler = decoder.responseHandler();
 
-            connection.enqueue( stateMachine -> stateMachine.process( message, responseHandler ) );
+            Job job = stateMachine -> stateMachine.process( message, responseHandler );
+            connection.enqueue( message.safeToProcessOnIoThread() ? Job.nonBlocking( job ) : job );
         }
         catch ( PackStream.PackStreamException e )
         {
@@ -22,4 +22,13 @@ package org.neo4j.bolt.messaging;
 public interface RequestMessage
 {
     boolean safeToProcessInAnyState();
+
+    /**
+     * @return {@code true} if processing this message never blocks, i.e. never executes queries, commits or rolls back transactions
+     * or waits for locks, which makes it safe to process on the network I/O thread that received it.
+     */
+    default boolean safeToProcessOnIoThread()
+    {
+        return false;
+    }
 }
@@ -82,6 +82,12 @@ public interface BoltConnection
      */
     void enqueue( Job job );
 
+    /**
+     * Signals that all messages of the current network read have been decoded and enqueued. Responses of jobs that were
+     * enqueued by a single read might be held back until this point, so that they can be written to the network together.
+     */
+    void readCompleted();
+
     /**
      * Executes a batch of queued jobs, which is executed in an another thread (which is part of a thread pool)
      *
@@ -89,6 +95,15 @@ public interface BoltConnection
      */
     boolean processNextBatch();
 
+    /**
+     * Executes the queued jobs that never block, in the calling network I/O thread, stopping at the first job that might block.
+     * At most one batch of jobs is executed, so that a single connection cannot hold up the other connections served by the same
+     * thread. The remaining jobs are left in the queue, to be executed by {@link #processNextBatch()}.
+     *
+     * @return false when no more processing should take place (i.e. connection is closed)
+     */
+    boolean processNonBlockingJobs();
+
     /**
      * Invoked when an exception is caught during the scheduling of the pending jobs. The caught exception would mostly
      * be {@link RejectedExecutionException} which is thrown by the thread pool executor when it fails to accept
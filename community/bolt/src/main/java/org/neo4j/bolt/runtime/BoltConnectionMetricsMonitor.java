@@ -32,6 +32,8 @@ public interface BoltConnectionMetricsMonitor
 
     void messageProcessingStarted( long queueTime );
 
+    void messageProcessedInline();
+
     void messageProcessingCompleted( long processingTime );
 
     void messageProcessingFailed();
@@ -30,6 +30,18 @@ public interface BoltResponseHandler
 {
     void onRecords( BoltResult result, boolean pull ) throws Exception;
 
+    /**
+     * Pulls or discards at most the given number of records of the result.
+     *
+     * @return {@code true} if the result has more records left, otherwise {@code false}.
+     * @see BoltResult#handleRecords(BoltResult.Visitor, long)
+     */
+    default boolean onRecords( BoltResult result, boolean pull, long size ) throws Exception
+    {
+        onRecords( result, pull );
+        return false;
+    }
+
     void onMetadata( String key, AnyValue value );
 
     /** Called when the state machine ignores an operation, because it is waiting for an error to be acknowledged */
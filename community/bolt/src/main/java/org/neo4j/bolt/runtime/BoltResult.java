@@ -35,6 +35,20 @@ public interface BoltResult extends AutoCloseable
 
     void accept( Visitor visitor ) throws Exception;
 
+    /**
+     * Visits at most the given number of records, leaving the rest of them to later calls. Metadata describing the
+     * result as a whole is only added once the last record has been visited.
+     *
+     * @param visitor visitor of records and metadata.
+     * @param size maximum number of records to visit, or a negative number for all of them.
+     * @return {@code true} if there are more records to visit, otherwise {@code false}.
+     */
+    default boolean handleRecords( Visitor visitor, long size ) throws Exception
+    {
+        accept( visitor );
+        return false;
+    }
+
     @Override
     void close();
 
@@ -32,6 +32,9 @@ import org.neo4j.bolt.v2.BoltProtocolV2;
 import org.neo4j.bolt.v3.BoltProtocolV3;
 import org.neo4j.bolt.v3.BoltStateMachineV3;
 import org.neo4j.bolt.v3.runtime.TransactionStateMachineV3SPI;
+import org.neo4j.bolt.v4.BoltProtocolV4;
+import org.neo4j.bolt.v4.BoltStateMachineV4;
+import org.neo4j.bolt.v4.runtime.TransactionStateMachineV4SPI;
 import org.neo4j.dbms.database.DatabaseManager;
 import org.neo4j.graphdb.factory.GraphDatabaseSettings;
 import org.neo4j.kernel.configuration.Config;
@@ -72,6 +75,10 @@ public class BoltStateMachineFactoryImpl implements BoltStateMachineFactory
         {
             return newStateMachineV3( boltChannel );
         }
+        else if ( protocolVersion == BoltProtocolV4.VERSION )
+        {
+            return newStateMachineV4( boltChannel );
+        }
         else
         {
             throw new IllegalArgumentException( "Failed to create a state machine for protocol version " + protocolVersion );
@@ -92,6 +99,13 @@ public class BoltStateMachineFactoryImpl implements BoltStateMachineFactory
         return new BoltStateMachineV3( boltSPI, boltChannel, clock );
     }
 
+    private BoltStateMachine newStateMachineV4( BoltChannel boltChannel )
+    {
+        TransactionStateMachineSPI transactionSPI = new TransactionStateMachineV4SPI( getActiveDatabase(), boltChannel, getAwaitDuration(), clock );
+        BoltStateMachineSPI boltSPI = new BoltStateMachineV1SPI( usageData, logging, authentication, transactionSPI );
+        return new BoltStateMachineV4( boltSPI, boltChannel, clock );
+    }
+
     private Duration getAwaitDuration()
     {
         long bookmarkReadyTimeout = config.get( GraphDatabaseSettings.bookmark_ready_timeout ).toMillis();
@@ -33,6 +33,7 @@ import org.neo4j.bolt.BoltChannel;
 import org.neo4j.bolt.BoltServer;
 import org.neo4j.bolt.v1.packstream.PackOutput;
 import org.neo4j.bolt.v1.runtime.Job;
+import org.neo4j.function.ThrowingAction;
 import org.neo4j.kernel.api.exceptions.Status;
 import org.neo4j.logging.Log;
 import org.neo4j.logging.internal.LogService;
@@ -61,6 +62,8 @@ public class DefaultBoltConnection implements BoltConnection
 
     private final AtomicBoolean shouldClose = new AtomicBoolean();
     private final AtomicBoolean closed = new AtomicBoolean();
+    private final AtomicBoolean readInProgress = new AtomicBoolean();
+    private final AtomicBoolean flushPending = new AtomicBoolean();
 
     public DefaultBoltConnection( BoltChannel channel, PackOutput output, BoltStateMachine machine, LogService logService,
             BoltConnectionLifetimeListener listener,
@@ -130,9 +133,24 @@ public class DefaultBoltConnection implements BoltConnection
     @Override
     public void enqueue( Job job )
     {
+        readInProgress.set( true );
         enqueueInternal( job );
     }
 
+    @Override
+    public void readCompleted()
+    {
+        readInProgress.set( false );
+        if ( flushPending.getAndSet( false ) )
+        {
+            // the worker that deferred the flush might be waiting for the next job, wake it up to flush
+            enqueueInternal( ignore ->
+            {
+
+            } );
+        }
+    }
+
     @Override
     public boolean processNextBatch()
     {
@@ -141,7 +159,7 @@ public class DefaultBoltConnection implements BoltConnection
 
     protected boolean processNextBatch( int batchCount, boolean exitIfNoJobsAvailable )
     {
-        try
+        return process( true, () ->
         {
             boolean waitForMessage = false;
             boolean loop = false;
@@ -182,14 +200,7 @@ public class DefaultBoltConnection implements BoltConnection
                         }
                     }
                     notifyDrained( batch );
-
-                    // execute each job that's in the batch
-                    while ( batch.size() > 0 )
-                    {
-                        Job current = batch.remove( 0 );
-
-                        current.perform( machine );
-                    }
+                    performBatch();
 
                     // do we have any condition that require this connection to
                     // stick to the current thread (i.e. is there an open statement
@@ -198,8 +209,9 @@ public class DefaultBoltConnection implements BoltConnection
                     waitForMessage = loop;
                 }
 
-                // we processed all pending messages, let's flush underlying channel
-                if ( queue.size() == 0 || maxBatchSize == 1 )
+                // we processed all pending messages, let's flush underlying channel unless
+                // the rest of a pipelined batch is still being read from the network
+                if ( maxBatchSize == 1 || queue.size() == 0 && !deferFlush( loop ) )
                 {
                     output.flush();
                 }
@@ -211,6 +223,83 @@ public class DefaultBoltConnection implements BoltConnection
             {
                 assert !machine.hasOpenStatement();
             }
+        } );
+    }
+
+    @Override
+    public boolean processNonBlockingJobs()
+    {
+        boolean open = process( false, () ->
+        {
+            while ( batch.size() < maxBatchSize && !willClose() )
+            {
+                Job next = queue.peek();
+                if ( next == null || !next.isNonBlocking() )
+                {
+                    break;
+                }
+                batch.add( queue.poll() );
+            }
+            notifyDrained( batch );
+            performBatch();
+
+            if ( queue.isEmpty() )
+            {
+                output.flush();
+            }
+        } );
+        if ( open && willClose() && queue.isEmpty() )
+        {
+            // closing the state machine rolls back any open transaction, which might block, so wake up a worker thread to close instead
+            enqueueInternal( ignore ->
+            {
+
+            } );
+        }
+        return open;
+    }
+
+    /**
+     * Decides whether or not to hold back the flush of the responses written so far. Drivers pipeline the statements of an
+     * explicit transaction, which makes the queue run empty while the rest of them are still being decoded from the same
+     * network read. A connection that sticks to its worker thread will process those too, so its flush is deferred until the
+     * read completes and done at most once per read. {@link #readCompleted()} enqueues an empty job when the worker has to
+     * flush after all.
+     *
+     * @param sticky whether or not this connection stays on the current thread to wait for more jobs.
+     * @return {@code true} if the flush is deferred, otherwise {@code false}.
+     */
+    private boolean deferFlush( boolean sticky )
+    {
+        if ( !sticky )
+        {
+            flushPending.set( false );
+            return false;
+        }
+        flushPending.set( true );
+        return readInProgress.get() || !flushPending.getAndSet( false );
+    }
+
+    private void performBatch() throws BoltConnectionFatality
+    {
+        // execute each job that's in the batch
+        while ( batch.size() > 0 )
+        {
+            Job current = batch.remove( 0 );
+
+            current.perform( machine );
+        }
+    }
+
+    /**
+     * @param closeIfNeeded whether or not to close this connection right away, if it should be closed after the jobs were executed.
+     * @return false if this connection is closed.
+     */
+    private boolean process( boolean closeIfNeeded, ThrowingAction<Exception> jobs )
+    {
+        try
+        {
+            jobs.apply();
         }
         catch ( BoltConnectionAuthFatality ex )
         {
@@ -237,7 +326,7 @@ public class DefaultBoltConnection implements BoltConnection
         }
         finally
         {
-            if ( willClose() )
+            if ( closeIfNeeded && willClose() )
             {
                 close();
             }
@@ -50,11 +50,22 @@ public class ExecutorBoltScheduler implements BoltScheduler, BoltConnectionLifet
     private final Duration keepAlive;
     private final int queueSize;
     private final ExecutorService forkJoinPool;
+    private final boolean inlineNonBlockingJobs;
 
     private ExecutorService threadPool;
 
     public ExecutorBoltScheduler( String connector, ExecutorFactory executorFactory, JobScheduler scheduler, LogService logService, int corePoolSize,
             int maxPoolSize, Duration keepAlive, int queueSize, ExecutorService forkJoinPool )
+    {
+        this( connector, executorFactory, scheduler, logService, corePoolSize, maxPoolSize, keepAlive, queueSize, forkJoinPool, false );
+    }
+
+    /**
+     * @param inlineNonBlockingJobs whether jobs that never block are executed on the network I/O thread of their connection, as
+     * they are submitted, rather than being handed over to a worker thread from the thread pool.
+     */
+    public ExecutorBoltScheduler( String connector, ExecutorFactory executorFactory, JobScheduler scheduler, LogService logService, int corePoolSize,
+            int maxPoolSize, Duration keepAlive, int queueSize, ExecutorService forkJoinPool, boolean inlineNonBlockingJobs )
     {
         this.connector = connector;
         this.executorFactory = executorFactory;
@@ -65,6 +76,7 @@ public class ExecutorBoltScheduler implements BoltScheduler, BoltConnectionLifet
         this.keepAlive = keepAlive;
         this.queueSize = queueSize;
         this.forkJoinPool = forkJoinPool;
+        this.inlineNonBlockingJobs = inlineNonBlockingJobs;
     }
 
     boolean isRegistered( BoltConnection connection )
@@ -131,7 +143,7 @@ public class ExecutorBoltScheduler implements BoltScheduler, BoltConnectionLifet
     @Override
     public void enqueued( BoltConnection to, Job job )
     {
-        handleSubmission( to );
+        handleSubmission( to, job );
     }
 
     @Override
@@ -140,7 +152,45 @@ public class ExecutorBoltScheduler implements BoltScheduler, BoltConnectionLifet
 
     }
 
-    private void handleSubmission( BoltConnection connection )
+    private void handleSubmission( BoltConnection connection, Job job )
+    {
+        if ( inlineNonBlockingJobs && job.isNonBlocking() && connection.channel().eventLoop().inEventLoop() )
+        {
+            processInline( connection );
+        }
+        else
+        {
+            scheduleBatch( connection );
+        }
+    }
+
+    private void processInline( BoltConnection connection )
+    {
+        // claim the connection, unless its jobs are already being processed by a worker thread which then also
+        // takes care of the job just submitted
+        CompletableFuture<Boolean> inlineWorkItem = new CompletableFuture<>();
+        if ( activeWorkItems.putIfAbsent( connection.id(), inlineWorkItem ) != null )
+        {
+            return;
+        }
+
+        boolean shouldContinueScheduling;
+        try
+        {
+            shouldContinueScheduling = connection.processNonBlockingJobs();
+        }
+        finally
+        {
+            activeWorkItems.remove( connection.id(), inlineWorkItem );
+        }
+
+        if ( shouldContinueScheduling && connection.hasPendingJobs() )
+        {
+            scheduleBatch( connection );
+        }
+    }
+
+    private void scheduleBatch( BoltConnection connection )
     {
         activeWorkItems.computeIfAbsent( connection.id(),
                 key -> scheduleBatchOrHandleError( connection ).whenCompleteAsync( ( result, error ) -> handleCompletion( connection, result, error ),
@@ -203,7 +253,7 @@ public class ExecutorBoltScheduler implements BoltScheduler, BoltConnectionLifet
         {
             if ( shouldContinueScheduling && connection.hasPendingJobs() )
             {
-                handleSubmission( connection );
+                scheduleBatch( connection );
             }
         }
     }
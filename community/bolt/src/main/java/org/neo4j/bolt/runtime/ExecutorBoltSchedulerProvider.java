@@ -60,7 +60,8 @@ public class ExecutorBoltSchedulerProvider extends LifecycleAdapter implements B
             BoltScheduler boltScheduler =
                     new ExecutorBoltScheduler( connector.key(), executorFactory, scheduler, logService, config.get( connector.thread_pool_min_size ),
                             config.get( connector.thread_pool_max_size ), config.get( connector.thread_pool_keep_alive ),
-                            config.get( connector.unsupported_thread_pool_queue_size ), forkJoinThreadPool );
+                            config.get( connector.unsupported_thread_pool_queue_size ), forkJoinThreadPool,
+                            config.get( connector.unsupported_inline_non_blocking_jobs ) );
             boltScheduler.start();
             boltSchedulers.put( connector.key(), boltScheduler );
         } );
@@ -20,6 +20,7 @@
 package org.neo4j.bolt.runtime;
 
 import java.time.Clock;
+import java.util.function.BooleanSupplier;
 
 import org.neo4j.bolt.BoltChannel;
 import org.neo4j.bolt.v1.packstream.PackOutput;
@@ -59,10 +60,14 @@ public class MetricsReportingBoltConnection extends DefaultBoltConnection
     {
         metricsMonitor.messageReceived();
         long queuedAt = clock.millis();
-        super.enqueue( machine ->
+        Job reportingJob = machine ->
         {
             long queueTime = clock.millis() - queuedAt;
             metricsMonitor.messageProcessingStarted( queueTime );
+            if ( job.isNonBlocking() && channel().eventLoop().inEventLoop() )
+            {
+                metricsMonitor.messageProcessedInline();
+            }
             try
             {
                 job.perform( machine );
@@ -73,17 +78,29 @@ public class MetricsReportingBoltConnection extends DefaultBoltConnection
                 metricsMonitor.messageProcessingFailed();
                 throw t;
             }
-       } );
+        };
+        super.enqueue( job.isNonBlocking() ? Job.nonBlocking( reportingJob ) : reportingJob );
     }
 
     @Override
     public boolean processNextBatch( int batchCount, boolean exitIfNoJobsAvailable )
+    {
+        return reportActivation( () -> super.processNextBatch( batchCount, exitIfNoJobsAvailable ) );
+    }
+
+    @Override
+    public boolean processNonBlockingJobs()
+    {
+        return reportActivation( super::processNonBlockingJobs );
+    }
+
+    private boolean reportActivation( BooleanSupplier processing )
     {
         metricsMonitor.connectionActivated();
 
         try
         {
-            boolean continueProcessing = super.processNextBatch( batchCount, exitIfNoJobsAvailable );
+            boolean continueProcessing = processing.getAsBoolean();
 
             if ( !continueProcessing )
             {
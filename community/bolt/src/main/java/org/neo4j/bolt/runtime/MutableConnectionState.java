@@ -59,6 +59,16 @@ public class MutableConnectionState implements BoltResponseHandler
         }
     }
 
+    @Override
+    public boolean onRecords( BoltResult result, boolean pull, long size ) throws Exception
+    {
+        if ( responseHandler != null )
+        {
+            return responseHandler.onRecords( result, pull, size );
+        }
+        return false;
+    }
+
     @Override
     public void onMetadata( String key, AnyValue value )
     {
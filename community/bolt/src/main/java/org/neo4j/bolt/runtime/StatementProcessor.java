@@ -24,6 +24,7 @@ import java.util.Map;
 
 import org.neo4j.bolt.v1.runtime.bookmarking.Bookmark;
 import org.neo4j.function.ThrowingConsumer;
+import org.neo4j.function.ThrowingFunction;
 import org.neo4j.internal.kernel.api.exceptions.KernelException;
 import org.neo4j.internal.kernel.api.exceptions.TransactionFailureException;
 import org.neo4j.values.virtual.MapValue;
@@ -40,6 +41,15 @@ public interface StatementProcessor
 
     Bookmark streamResult( ThrowingConsumer<BoltResult,Exception> resultConsumer ) throws Exception;
 
+    /**
+     * Like {@link #streamResult(ThrowingConsumer)}, except that the consumer may leave records of the result for later, which
+     * it tells by returning {@code true}. The result, and the transaction it belongs to, are then kept open, and
+     * {@link #hasOpenStatement()} keeps returning {@code true}, until a later call has consumed the rest of the result.
+     *
+     * @return bookmark once the result of an auto-commit transaction has been fully consumed, otherwise {@code null}.
+     */
+    Bookmark streamResultBatch( ThrowingFunction<BoltResult,Boolean,Exception> batchConsumer ) throws Exception;
+
     Bookmark commitTransaction() throws KernelException;
 
     void rollbackTransaction() throws KernelException;
@@ -87,6 +97,12 @@ public interface StatementProcessor
             throw new UnsupportedOperationException( "Unable to stream results" );
         }
 
+        @Override
+        public Bookmark streamResultBatch( ThrowingFunction<BoltResult,Boolean,Exception> batchConsumer ) throws Exception
+        {
+            throw new UnsupportedOperationException( "Unable to stream results" );
+        }
+
         @Override
         public Bookmark commitTransaction() throws KernelException
         {
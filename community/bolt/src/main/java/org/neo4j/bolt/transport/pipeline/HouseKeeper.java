@@ -36,6 +36,13 @@ public class HouseKeeper extends ChannelInboundHandlerAdapter
         this.logging = logging;
     }
 
+    @Override
+    public void channelReadComplete( ChannelHandlerContext ctx )
+    {
+        connection.readCompleted();
+        ctx.fireChannelReadComplete();
+    }
+
     @Override
     public void channelInactive( ChannelHandlerContext ctx )
     {
@@ -131,7 +131,7 @@ public class Neo4jPackV1 implements Neo4jPack
             packListHeader( labels.length() );
             for ( int i = 0; i < labels.length(); i++ )
             {
-                labels.value( i ).writeTo( this );
+                pack( labels.stringValue( i ) );
             }
             properties.writeTo( this );
         }
@@ -37,22 +37,37 @@ public class ResultHandler extends MessageProcessingHandler
     @Override
     public void onRecords( final BoltResult result, final boolean pull ) throws Exception
     {
-        result.accept( new BoltResult.Visitor()
+        result.accept( new RecordWritingVisitor( pull ) );
+    }
+
+    @Override
+    public boolean onRecords( BoltResult result, boolean pull, long size ) throws Exception
+    {
+        return result.handleRecords( new RecordWritingVisitor( pull ), size );
+    }
+
+    private class RecordWritingVisitor implements BoltResult.Visitor
+    {
+        private final boolean pull;
+
+        RecordWritingVisitor( boolean pull )
         {
-            @Override
-            public void visit( QueryResult.Record record ) throws Exception
-            {
-                if ( pull )
-                {
-                    messageWriter.write( new RecordMessage( record ) );
-                }
-            }
+            this.pull = pull;
+        }
 
-            @Override
-            public void addMetadata( String key, AnyValue value )
+        @Override
+        public void visit( QueryResult.Record record ) throws Exception
+        {
+            if ( pull )
             {
-                onMetadata( key, value );
+                messageWriter.write( new RecordMessage( record ) );
             }
-        } );
+        }
+
+        @Override
+        public void addMetadata( String key, AnyValue value )
+        {
+            onMetadata( key, value );
+        }
     }
 }
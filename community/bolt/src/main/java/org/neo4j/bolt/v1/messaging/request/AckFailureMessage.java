@@ -37,6 +37,12 @@ public class AckFailureMessage implements RequestMessage
         return true;
     }
 
+    @Override
+    public boolean safeToProcessOnIoThread()
+    {
+        return true;
+    }
+
     @Override
     public String toString()
     {
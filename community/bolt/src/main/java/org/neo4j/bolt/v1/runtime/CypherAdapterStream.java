@@ -76,6 +76,14 @@ public class CypherAdapterStream implements BoltResult
             return true;
         } );
         addRecordStreamingTime( visitor, clock.millis() - start );
+        addResultMetadata( visitor );
+    }
+
+    /**
+     * Adds the metadata describing the result as a whole, which is available once all records have been streamed.
+     */
+    protected void addResultMetadata( Visitor visitor )
+    {
         QueryExecutionType qt = delegate.executionType();
         visitor.addMetadata( "type", Values.stringValue( queryTypeCode( qt.queryType() ) ) );
 
@@ -25,4 +25,30 @@ import org.neo4j.bolt.runtime.BoltStateMachine;
 public interface Job
 {
     void perform( BoltStateMachine machine ) throws BoltConnectionFatality;
+
+    /**
+     * @return {@code true} if performing this job never blocks, which makes it safe to perform on a network I/O thread.
+     */
+    default boolean isNonBlocking()
+    {
+        return false;
+    }
+
+    static Job nonBlocking( Job job )
+    {
+        return new Job()
+        {
+            @Override
+            public void perform( BoltStateMachine machine ) throws BoltConnectionFatality
+            {
+                job.perform( machine );
+            }
+
+            @Override
+            public boolean isNonBlocking()
+            {
+                return true;
+            }
+        };
+    }
 }
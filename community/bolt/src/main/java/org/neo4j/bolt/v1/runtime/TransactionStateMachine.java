@@ -34,6 +34,7 @@ import org.neo4j.bolt.v1.runtime.bookmarking.Bookmark;
 import org.neo4j.bolt.v1.runtime.spi.BookmarkResult;
 import org.neo4j.cypher.InvalidSemanticsException;
 import org.neo4j.function.ThrowingConsumer;
+import org.neo4j.function.ThrowingFunction;
 import org.neo4j.graphdb.TransactionTerminatedException;
 import org.neo4j.internal.kernel.api.exceptions.KernelException;
 import org.neo4j.internal.kernel.api.exceptions.TransactionFailureException;
@@ -133,6 +134,22 @@ public class TransactionStateMachine implements StatementProcessor
         }
     }
 
+    @Override
+    public Bookmark streamResultBatch( ThrowingFunction<BoltResult,Boolean,Exception> batchConsumer ) throws Exception
+    {
+        before();
+        try
+        {
+            ensureNoPendingTerminationNotice();
+
+            return state.streamResultBatch( ctx, spi, batchConsumer );
+        }
+        finally
+        {
+            after();
+        }
+    }
+
     @Override
     public Bookmark commitTransaction() throws KernelException
     {
@@ -335,6 +352,33 @@ public class TransactionStateMachine implements StatementProcessor
                         }
                     }
 
+                    @Override
+                    Bookmark streamResultBatch( MutableTransactionState ctx, TransactionStateMachineSPI spi,
+                            ThrowingFunction<BoltResult,Boolean,Exception> batchConsumer ) throws Exception
+                    {
+                        assert ctx.currentResult != null;
+
+                        boolean hasMore = false;
+                        try
+                        {
+                            hasMore = consumeResultBatch( ctx, batchConsumer );
+                            if ( hasMore )
+                            {
+                                // the transaction stays open for the records that are still to be streamed
+                                return null;
+                            }
+                            closeTransaction( ctx, true );
+                            return newestBookmark( spi );
+                        }
+                        finally
+                        {
+                            if ( !hasMore )
+                            {
+                                closeTransaction( ctx, false );
+                            }
+                        }
+                    }
+
                     @Override
                     State commitTransaction( MutableTransactionState ctx, TransactionStateMachineSPI spi ) throws KernelException
                     {
@@ -396,6 +440,15 @@ public class TransactionStateMachine implements StatementProcessor
                         return null; // Explict tx shall not get a bookmark in PULL_ALL or DISCARD_ALL
                     }
 
+                    @Override
+                    Bookmark streamResultBatch( MutableTransactionState ctx, TransactionStateMachineSPI spi,
+                            ThrowingFunction<BoltResult,Boolean,Exception> batchConsumer ) throws Exception
+                    {
+                        assert ctx.currentResult != null;
+                        consumeResultBatch( ctx, batchConsumer );
+                        return null; // Explict tx shall not get a bookmark in PULL or DISCARD
+                    }
+
                     @Override
                     State commitTransaction( MutableTransactionState ctx, TransactionStateMachineSPI spi ) throws KernelException
                     {
@@ -424,6 +477,9 @@ public class TransactionStateMachine implements StatementProcessor
         abstract Bookmark streamResult( MutableTransactionState ctx, TransactionStateMachineSPI spi, ThrowingConsumer<BoltResult,Exception> resultConsumer )
                 throws Exception;
 
+        abstract Bookmark streamResultBatch( MutableTransactionState ctx, TransactionStateMachineSPI spi,
+                ThrowingFunction<BoltResult,Boolean,Exception> batchConsumer ) throws Exception;
+
         abstract State commitTransaction( MutableTransactionState ctx, TransactionStateMachineSPI spi ) throws KernelException;
 
         abstract State rollbackTransaction( MutableTransactionState ctx, TransactionStateMachineSPI spi ) throws KernelException;
@@ -498,6 +554,35 @@ public class TransactionStateMachine implements StatementProcessor
             return success;
         }
 
+        /**
+         * @return {@code true} if the current result has more records left, in which case it is kept open, otherwise {@code false}.
+         */
+        boolean consumeResultBatch( MutableTransactionState ctx, ThrowingFunction<BoltResult,Boolean,Exception> batchConsumer ) throws Exception
+        {
+            boolean hasMore = false;
+            boolean success = false;
+            try
+            {
+                hasMore = batchConsumer.apply( ctx.currentResult );
+                success = true;
+            }
+            finally
+            {
+                if ( !success || !hasMore )
+                {
+                    ctx.currentResult.close();
+                    ctx.currentResult = null;
+
+                    if ( ctx.currentResultHandle != null )
+                    {
+                        ctx.currentResultHandle.close( success );
+                        ctx.currentResultHandle = null;
+                    }
+                }
+            }
+            return hasMore;
+        }
+
         void startExecution( MutableTransactionState ctx, BoltResultHandle resultHandle ) throws KernelException
         {
             ctx.currentResultHandle = resultHandle;
@@ -75,7 +75,7 @@ public class FailedState implements BoltStateMachineState
         return "FAILED";
     }
 
-    private static boolean shouldIgnore( RequestMessage message )
+    protected boolean shouldIgnore( RequestMessage message )
     {
         return message instanceof RunMessage || message instanceof PullAllMessage || message instanceof DiscardAllMessage
                 || message instanceof CommitMessage || message instanceof RollbackMessage;
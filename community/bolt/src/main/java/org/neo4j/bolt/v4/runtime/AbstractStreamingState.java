@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.bolt.v4.runtime;
+
+import org.neo4j.bolt.messaging.RequestMessage;
+import org.neo4j.bolt.runtime.BoltStateMachineState;
+import org.neo4j.bolt.runtime.StateMachineContext;
+import org.neo4j.bolt.v1.runtime.bookmarking.Bookmark;
+import org.neo4j.bolt.v3.runtime.FailSafeBoltStateMachineState;
+import org.neo4j.bolt.v4.messaging.request.DiscardNMessage;
+import org.neo4j.bolt.v4.messaging.request.PullNMessage;
+import org.neo4j.values.storable.BooleanValue;
+
+import static org.neo4j.util.Preconditions.checkState;
+
+/**
+ * When STREAMING, a result is available as a stream of records, which are PULLed or DISCARDed in batches of the size
+ * asked for by the client. The result is kept open between the batches, and the state left only once all of it has been
+ * PULLed or DISCARDed. Until then, the metadata of the response tells that there are more records left.
+ */
+public abstract class AbstractStreamingState extends FailSafeBoltStateMachineState
+{
+    static final String HAS_MORE_KEY = "has_more";
+
+    protected BoltStateMachineState readyState;
+
+    @Override
+    public BoltStateMachineState processUnsafe( RequestMessage message, StateMachineContext context ) throws Throwable
+    {
+        if ( message instanceof PullNMessage )
+        {
+            return processStreamResultMessage( true, ((PullNMessage) message).n(), context );
+        }
+        if ( message instanceof DiscardNMessage )
+        {
+            return processStreamResultMessage( false, ((DiscardNMessage) message).n(), context );
+        }
+        return null;
+    }
+
+    public void setReadyState( BoltStateMachineState readyState )
+    {
+        this.readyState = readyState;
+    }
+
+    private BoltStateMachineState processStreamResultMessage( boolean pull, long size, StateMachineContext context ) throws Throwable
+    {
+        Bookmark bookmark = context.connectionState().getStatementProcessor().streamResultBatch(
+                recordStream -> context.connectionState().getResponseHandler().onRecords( recordStream, pull, size ) );
+        if ( context.connectionState().getStatementProcessor().hasOpenStatement() )
+        {
+            context.connectionState().onMetadata( HAS_MORE_KEY, BooleanValue.TRUE );
+            return this;
+        }
+        return resultConsumed( bookmark, context );
+    }
+
+    /**
+     * Called once all records of the result have been PULLed or DISCARDed.
+     *
+     * @return the state to move to.
+     */
+    protected abstract BoltStateMachineState resultConsumed( Bookmark bookmark, StateMachineContext context );
+
+    @Override
+    protected void assertInitialized()
+    {
+        checkState( readyState != null, "Ready state not set" );
+        super.assertInitialized();
+    }
+}
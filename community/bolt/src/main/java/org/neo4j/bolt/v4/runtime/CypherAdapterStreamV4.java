@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.bolt.v4.runtime;
+
+import java.time.Clock;
+import java.util.Map;
+
+import org.neo4j.bolt.v1.runtime.spi.ImmutableRecord;
+import org.neo4j.bolt.v3.runtime.CypherAdapterStreamV3;
+import org.neo4j.cypher.result.QueryResult;
+import org.neo4j.graphdb.Result;
+import org.neo4j.kernel.impl.util.ValueUtils;
+import org.neo4j.values.AnyValue;
+
+/**
+ * Streams records by pulling them from the {@link Result} one at a time, instead of having them all pushed by
+ * {@link QueryResult#accept(QueryResult.QueryResultVisitor)}, so that streaming can stop after a batch of records and
+ * continue from there later on, without holding the rest of the result in memory. Streaming all records of a result
+ * that has not been pulled from yet goes straight through the visitor, as before.
+ */
+class CypherAdapterStreamV4 extends CypherAdapterStreamV3
+{
+    private final Result rows;
+    private final Clock clock;
+    private boolean pulled;
+    private long recordStreamingTime;
+
+    CypherAdapterStreamV4( QueryResult delegate, Result rows, Clock clock )
+    {
+        super( delegate, clock );
+        this.rows = rows;
+        this.clock = clock;
+    }
+
+    @Override
+    public void accept( Visitor visitor ) throws Exception
+    {
+        handleRecords( visitor, -1 );
+    }
+
+    @Override
+    public boolean handleRecords( Visitor visitor, long size ) throws Exception
+    {
+        if ( !pulled && size < 0 )
+        {
+            super.accept( visitor );
+            return false;
+        }
+
+        pulled = true;
+        long start = clock.millis();
+        String[] fieldNames = fieldNames();
+        for ( long i = 0; (size < 0 || i < size) && rows.hasNext(); i++ )
+        {
+            Map<String,Object> row = rows.next();
+            AnyValue[] fields = new AnyValue[fieldNames.length];
+            for ( int f = 0; f < fieldNames.length; f++ )
+            {
+                fields[f] = ValueUtils.of( row.get( fieldNames[f] ) );
+            }
+            visitor.visit( new ImmutableRecord( fields ) );
+        }
+        boolean hasMore = rows.hasNext();
+        recordStreamingTime += clock.millis() - start;
+        if ( !hasMore )
+        {
+            addRecordStreamingTime( visitor, recordStreamingTime );
+            addResultMetadata( visitor );
+        }
+        return hasMore;
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.bolt.v4.runtime;
+
+import java.time.Clock;
+import java.time.Duration;
+
+import org.neo4j.bolt.BoltChannel;
+import org.neo4j.bolt.runtime.BoltResult;
+import org.neo4j.bolt.runtime.BoltResultHandle;
+import org.neo4j.bolt.v3.runtime.TransactionStateMachineV3SPI;
+import org.neo4j.cypher.internal.javacompat.QueryResultProvider;
+import org.neo4j.graphdb.Result;
+import org.neo4j.kernel.impl.query.TransactionalContext;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.values.virtual.MapValue;
+
+public class TransactionStateMachineV4SPI extends TransactionStateMachineV3SPI
+{
+    public TransactionStateMachineV4SPI( GraphDatabaseAPI db, BoltChannel boltChannel, Duration txAwaitDuration, Clock clock )
+    {
+        super( db, boltChannel, txAwaitDuration, clock );
+    }
+
+    @Override
+    protected BoltResultHandle newBoltResultHandle( String statement, MapValue params, TransactionalContext transactionalContext )
+    {
+        return new BoltResultHandleV4( statement, params, transactionalContext );
+    }
+
+    private class BoltResultHandleV4 extends BoltResultHandleV1
+    {
+        BoltResultHandleV4( String statement, MapValue params, TransactionalContext transactionalContext )
+        {
+            super( statement, params, transactionalContext );
+        }
+
+        @Override
+        protected BoltResult newBoltResult( QueryResultProvider result, Clock clock )
+        {
+            // the provider is the Result returned by the query execution engine, which can be iterated record by record
+            return new CypherAdapterStreamV4( result.queryResult(), (Result) result, clock );
+        }
+    }
+}
@@ -20,6 +20,7 @@
 package org.neo4j.bolt.messaging;
 
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 
 import java.io.IOException;
 import java.util.List;
@@ -30,6 +31,10 @@ import org.neo4j.bolt.runtime.BoltResponseHandler;
 import org.neo4j.bolt.runtime.BoltStateMachine;
 import org.neo4j.bolt.runtime.Neo4jError;
 import org.neo4j.bolt.runtime.SynchronousBoltConnection;
+import org.neo4j.bolt.v1.messaging.request.AckFailureMessage;
+import org.neo4j.bolt.v1.messaging.request.ResetMessage;
+import org.neo4j.bolt.v1.runtime.Job;
+import org.neo4j.bolt.v3.messaging.request.GoodbyeMessage;
 import org.neo4j.kernel.api.exceptions.Status;
 
 import static java.util.Collections.emptyList;
@@ -109,6 +114,30 @@ class BoltRequestMessageReaderTest
         verify( stateMachine ).process( message, responseHandler );
     }
 
+    @Test
+    public void shouldOnlyEnqueueMessagesThatNeverBlockAsNonBlockingJobs() throws Exception
+    {
+        assertEnqueuedAsNonBlocking( AckFailureMessage.INSTANCE, true );
+        // RESET and GOODBYE can roll back an open transaction
+        assertEnqueuedAsNonBlocking( ResetMessage.INSTANCE, false );
+        assertEnqueuedAsNonBlocking( GoodbyeMessage.GOODBYE_MESSAGE, false );
+    }
+
+    private static void assertEnqueuedAsNonBlocking( RequestMessage message, boolean nonBlocking ) throws Exception
+    {
+        Unpacker unpacker = mock( Unpacker.class );
+        when( unpacker.unpackStructSignature() ).thenReturn( 'a' );
+        BoltConnection connection = connectionMock();
+        RequestMessageDecoder decoder = new TestRequestMessageDecoder( 'a', responseHandlerMock(), message );
+        BoltRequestMessageReader reader = new TestBoltRequestMessageReader( connection, responseHandlerMock(), singletonList( decoder ) );
+
+        reader.read( unpacker );
+
+        ArgumentCaptor<Job> job = ArgumentCaptor.forClass( Job.class );
+        verify( connection ).enqueue( job.capture() );
+        assertEquals( nonBlocking, job.getValue().isNonBlocking(), message.toString() );
+    }
+
     private static BoltConnection connectionMock()
     {
         return mock( BoltConnection.class );
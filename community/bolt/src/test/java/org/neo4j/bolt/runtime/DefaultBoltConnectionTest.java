@@ -28,6 +28,7 @@ import org.mockito.ArgumentMatchers;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Future;
 import java.util.concurrent.RejectedExecutionException;
 
@@ -43,6 +44,7 @@ import org.neo4j.logging.internal.LogService;
 import org.neo4j.logging.internal.SimpleLogService;
 import org.neo4j.test.rule.concurrent.OtherThreadRule;
 
+import static java.util.Arrays.asList;
 import static org.hamcrest.CoreMatchers.any;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.is;
@@ -56,6 +58,7 @@ import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -227,6 +230,75 @@ public class DefaultBoltConnectionTest
         assertTrue( drainedJobs.containsAll( pushedJobs.subList( 10, 15 ) ) );
     }
 
+    @Test
+    public void processNonBlockingJobsShouldStopAtFirstBlockingJob()
+    {
+        List<Job> drainedJobs = new ArrayList<>();
+        BoltConnection connection = newConnection();
+        doAnswer( inv -> drainedJobs.addAll( inv.getArgument( 1 ) ) ).when( queueMonitor ).drained( same( connection ), anyCollection() );
+
+        Job nonBlocking1 = Job.nonBlocking( Jobs.noop() );
+        Job nonBlocking2 = Job.nonBlocking( Jobs.noop() );
+        Job blocking = Jobs.noop();
+        Job nonBlocking3 = Job.nonBlocking( Jobs.noop() );
+        connection.enqueue( nonBlocking1 );
+        connection.enqueue( nonBlocking2 );
+        connection.enqueue( blocking );
+        connection.enqueue( nonBlocking3 );
+
+        assertTrue( connection.processNonBlockingJobs() );
+
+        assertEquals( asList( nonBlocking1, nonBlocking2 ), drainedJobs );
+        assertTrue( connection.hasPendingJobs() );
+
+        drainedJobs.clear();
+        assertTrue( connection.processNonBlockingJobs() );
+
+        assertEquals( 0, drainedJobs.size() );
+
+        connection.processNextBatch();
+
+        assertEquals( asList( blocking, nonBlocking3 ), drainedJobs );
+        assertFalse( connection.hasPendingJobs() );
+    }
+
+    @Test
+    public void processNonBlockingJobsShouldDrainMaxBatchSizeItemsOnEachCall()
+    {
+        List<Job> drainedJobs = new ArrayList<>();
+        BoltConnection connection = newConnection( 10 );
+        doAnswer( inv -> drainedJobs.addAll( inv.getArgument( 1 ) ) ).when( queueMonitor ).drained( same( connection ), anyCollection() );
+
+        for ( int i = 0; i < 15; i++ )
+        {
+            connection.enqueue( Job.nonBlocking( Jobs.noop() ) );
+        }
+
+        connection.processNonBlockingJobs();
+
+        assertEquals( 10, drainedJobs.size() );
+        assertTrue( connection.hasPendingJobs() );
+    }
+
+    @Test
+    public void processNonBlockingJobsShouldLeaveClosingConnectionToProcessNextBatch()
+    {
+        BoltConnection connection = newConnection();
+        connection.enqueue( Job.nonBlocking( machine ->
+        {
+            throw new BoltProtocolBreachFatality( "fatal bolt error" );
+        } ) );
+
+        assertTrue( connection.processNonBlockingJobs() );
+
+        verify( stateMachine, never() ).close();
+        assertTrue( connection.hasPendingJobs() );
+
+        assertFalse( connection.processNextBatch() );
+
+        verify( stateMachine ).close();
+    }
+
     @Test
     public void interruptShouldInterruptStateMachine()
     {
@@ -397,6 +469,55 @@ public class DefaultBoltConnectionTest
         verify( stateMachine ).close();
     }
 
+    @Test
+    public void processNextBatchShouldFlushWhenNotStickingOnThread() throws Exception
+    {
+        PackOutput output = mock( PackOutput.class );
+        BoltConnection connection = newConnection( output, 10 );
+        connection.enqueue( Jobs.noop() );
+
+        connection.processNextBatch();
+
+        verify( output ).flush();
+    }
+
+    @Test
+    public void processNextBatchShouldDeferFlushUntilReadCompletedWhenStickingOnThread() throws Exception
+    {
+        PackOutput output = mock( PackOutput.class );
+        BoltConnection connection = newConnection( output, 10 );
+        CountDownLatch processed = new CountDownLatch( 2 );
+        connection.enqueue( machine -> processed.countDown() );
+        connection.enqueue( machine -> processed.countDown() );
+
+        // force to a message waiting loop, as within an explicit transaction
+        when( stateMachine.shouldStickOnThread() ).thenReturn( true );
+
+        Future<Boolean> future = otherThread.execute( state -> connection.processNextBatch() );
+        processed.await();
+
+        verify( output, never() ).flush();
+
+        connection.readCompleted();
+
+        verify( output, timeout( 10_000 ) ).flush();
+
+        connection.stop();
+        otherThread.get().awaitFuture( future );
+    }
+
+    @Test
+    public void readCompletedShouldNotEnqueueJobWhenNoFlushIsPending()
+    {
+        BoltConnection connection = newConnection();
+        connection.enqueue( Jobs.noop() );
+        connection.processNextBatch();
+
+        connection.readCompleted();
+
+        assertFalse( connection.hasPendingJobs() );
+    }
+
     private DefaultBoltConnection newConnection()
     {
         return newConnection( 10 );
@@ -404,7 +525,12 @@ public class DefaultBoltConnectionTest
 
     private DefaultBoltConnection newConnection( int maxBatchSize )
     {
-        return new DefaultBoltConnection( boltChannel, mock( PackOutput.class ), stateMachine, logService, connectionListener, queueMonitor, maxBatchSize );
+        return newConnection( mock( PackOutput.class ), maxBatchSize );
+    }
+
+    private DefaultBoltConnection newConnection( PackOutput output, int maxBatchSize )
+    {
+        return new DefaultBoltConnection( boltChannel, output, stateMachine, logService, connectionListener, queueMonitor, maxBatchSize );
     }
 
 }
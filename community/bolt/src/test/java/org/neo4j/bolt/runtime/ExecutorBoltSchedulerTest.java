@@ -19,6 +19,8 @@
  */
 package org.neo4j.bolt.runtime;
 
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoop;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -36,6 +38,7 @@ import java.util.concurrent.atomic.AtomicReference;
 
 import org.neo4j.bolt.BoltServer;
 import org.neo4j.bolt.testing.Jobs;
+import org.neo4j.bolt.v1.runtime.Job;
 import org.neo4j.function.Predicates;
 import org.neo4j.kernel.configuration.Config;
 import org.neo4j.logging.AssertableLogProvider;
@@ -60,6 +63,7 @@ import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -76,6 +80,9 @@ public class ExecutorBoltSchedulerTest
     private final JobScheduler jobScheduler = mock( JobScheduler.class );
     private final ExecutorBoltScheduler boltScheduler =
             new ExecutorBoltScheduler( CONNECTOR_KEY, executorFactory, jobScheduler, logService, 0, 10, Duration.ofMinutes( 1 ), 0, ForkJoinPool.commonPool() );
+    private final ExecutorBoltScheduler inliningBoltScheduler =
+            new ExecutorBoltScheduler( CONNECTOR_KEY, executorFactory, jobScheduler, logService, 0, 10, Duration.ofMinutes( 1 ), 0, ForkJoinPool.commonPool(),
+                    true );
 
     @Before
     public void setup()
@@ -87,6 +94,7 @@ public class ExecutorBoltSchedulerTest
     public void cleanup() throws Throwable
     {
         boltScheduler.stop();
+        inliningBoltScheduler.stop();
     }
 
     @Test
@@ -316,6 +324,88 @@ public class ExecutorBoltSchedulerTest
         exitCondition.set( true );
     }
 
+    @Test
+    public void enqueuedNonBlockingJobShouldBeProcessedInlineOnEventLoop() throws Throwable
+    {
+        String id = UUID.randomUUID().toString();
+        BoltConnection connection = newConnectionOnEventLoop( id );
+        when( connection.processNonBlockingJobs() ).thenReturn( true );
+        when( connection.hasPendingJobs() ).thenReturn( false );
+
+        inliningBoltScheduler.start();
+        inliningBoltScheduler.created( connection );
+        inliningBoltScheduler.enqueued( connection, Job.nonBlocking( Jobs.noop() ) );
+
+        verify( connection ).processNonBlockingJobs();
+        verify( connection, never() ).processNextBatch();
+        assertFalse( inliningBoltScheduler.isActive( connection ) );
+    }
+
+    @Test
+    public void enqueuedNonBlockingJobShouldScheduleRemainingJobsAfterInlineProcessing() throws Throwable
+    {
+        String id = UUID.randomUUID().toString();
+        AtomicInteger processNextBatchCount = new AtomicInteger();
+        BoltConnection connection = newConnectionOnEventLoop( id );
+        when( connection.processNonBlockingJobs() ).thenReturn( true );
+        when( connection.hasPendingJobs() ).thenReturn( true, false );
+        when( connection.processNextBatch() ).thenAnswer( inv -> processNextBatchCount.incrementAndGet() > 0 );
+
+        inliningBoltScheduler.start();
+        inliningBoltScheduler.created( connection );
+        inliningBoltScheduler.enqueued( connection, Job.nonBlocking( Jobs.noop() ) );
+
+        Predicates.await( () -> processNextBatchCount.get() > 0, 1, MINUTES );
+        verify( connection ).processNonBlockingJobs();
+    }
+
+    @Test
+    public void enqueuedBlockingJobShouldNotBeProcessedInline() throws Throwable
+    {
+        String id = UUID.randomUUID().toString();
+        AtomicInteger processNextBatchCount = new AtomicInteger();
+        BoltConnection connection = newConnectionOnEventLoop( id );
+        when( connection.processNextBatch() ).thenAnswer( inv -> processNextBatchCount.incrementAndGet() > 0 );
+
+        inliningBoltScheduler.start();
+        inliningBoltScheduler.created( connection );
+        inliningBoltScheduler.enqueued( connection, Jobs.noop() );
+
+        Predicates.await( () -> processNextBatchCount.get() > 0, 1, MINUTES );
+        verify( connection, never() ).processNonBlockingJobs();
+    }
+
+    @Test
+    public void enqueuedNonBlockingJobShouldNotBeProcessedInlineWhenWorkerIsActive() throws Throwable
+    {
+        String id = UUID.randomUUID().toString();
+        AtomicBoolean exitCondition = new AtomicBoolean();
+        BoltConnection connection = newConnectionOnEventLoop( id );
+        when( connection.processNextBatch() ).thenAnswer( inv -> awaitExit( exitCondition ) );
+
+        inliningBoltScheduler.start();
+        inliningBoltScheduler.created( connection );
+        inliningBoltScheduler.enqueued( connection, Jobs.noop() );
+        Predicates.await( () -> inliningBoltScheduler.isActive( connection ), 1, MINUTES );
+
+        inliningBoltScheduler.enqueued( connection, Job.nonBlocking( Jobs.noop() ) );
+
+        verify( connection, never() ).processNonBlockingJobs();
+        exitCondition.set( true );
+        Predicates.await( () -> !inliningBoltScheduler.isActive( connection ), 1, MINUTES );
+    }
+
+    private BoltConnection newConnectionOnEventLoop( String id )
+    {
+        EventLoop eventLoop = mock( EventLoop.class );
+        when( eventLoop.inEventLoop() ).thenReturn( true );
+        Channel channel = mock( Channel.class );
+        when( channel.eventLoop() ).thenReturn( eventLoop );
+        BoltConnection result = newConnection( id );
+        when( result.channel() ).thenReturn( channel );
+        return result;
+    }
+
     private BoltConnection newConnection( String id )
     {
         BoltConnection result = mock( BoltConnection.class );
@@ -97,12 +97,23 @@ public class SynchronousBoltConnection implements BoltConnection
         }
     }
 
+    @Override
+    public void readCompleted()
+    {
+    }
+
     @Override
     public boolean processNextBatch()
     {
         return true;
     }
 
+    @Override
+    public boolean processNonBlockingJobs()
+    {
+        return true;
+    }
+
     @Override
     public void handleSchedulingError( Throwable t )
     {
@@ -73,6 +73,17 @@ public class HouseKeeperTest
         verify( next, never() ).channelInactive( any() );
     }
 
+    @Test
+    public void shouldNotifyConnectionOnChannelReadComplete()
+    {
+        BoltConnection connection = mock( BoltConnection.class );
+        channel = new EmbeddedChannel( new HouseKeeper( connection, NullLogService.getInstance() ) );
+
+        channel.pipeline().fireChannelReadComplete();
+
+        verify( connection ).readCompleted();
+    }
+
     @Test
     public void shouldStopConnectionOnExceptionCaught()
     {
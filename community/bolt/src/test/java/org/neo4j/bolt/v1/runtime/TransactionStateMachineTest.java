@@ -42,11 +42,14 @@ import org.neo4j.values.virtual.MapValue;
 import static java.util.Arrays.asList;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
@@ -380,6 +383,34 @@ class TransactionStateMachineTest
         assertNull( stateMachine.ctx.currentTransaction );
     }
 
+    @Test
+    void shouldKeepResultAndTransactionOpenUntilLastBatchIsStreamed() throws Exception
+    {
+        KernelTransaction transaction = newTransaction();
+        BoltResultHandle resultHandle = newResultHandle();
+        TransactionStateMachineV1SPI stateMachineSPI = newTransactionStateMachineSPI( transaction, resultHandle );
+        TransactionStateMachine stateMachine = newTransactionStateMachine( stateMachineSPI );
+
+        stateMachine.run( "SOME STATEMENT", null );
+
+        // first batch leaves records for later
+        assertNull( stateMachine.streamResultBatch( boltResult -> true ) );
+        assertTrue( stateMachine.hasOpenStatement() );
+        assertNotNull( stateMachine.ctx.currentResult );
+        assertNotNull( stateMachine.ctx.currentTransaction );
+        verify( resultHandle, never() ).close( anyBoolean() );
+        verify( transaction, never() ).close();
+
+        // last batch closes the result and commits the transaction
+        assertNotNull( stateMachine.streamResultBatch( boltResult -> false ) );
+        assertFalse( stateMachine.hasOpenStatement() );
+        assertNull( stateMachine.ctx.currentResult );
+        assertNull( stateMachine.ctx.currentTransaction );
+        verify( resultHandle ).close( true );
+        verify( transaction ).success();
+        verify( transaction ).close();
+    }
+
     @Test
     void shouldCloseResultHandlesWhenExecutionFailsInExplicitTransaction() throws Exception
     {
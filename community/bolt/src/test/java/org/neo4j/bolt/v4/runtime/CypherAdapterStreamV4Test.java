@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.bolt.v4.runtime;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.neo4j.bolt.runtime.BoltResult;
+import org.neo4j.bolt.v1.runtime.spi.ImmutableRecord;
+import org.neo4j.cypher.result.QueryResult;
+import org.neo4j.graphdb.QueryStatistics;
+import org.neo4j.graphdb.Result;
+import org.neo4j.values.AnyValue;
+import org.neo4j.values.storable.LongValue;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonMap;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.neo4j.graphdb.QueryExecutionType.QueryType.READ_ONLY;
+import static org.neo4j.graphdb.QueryExecutionType.query;
+import static org.neo4j.values.storable.Values.longValue;
+import static org.neo4j.values.storable.Values.stringValue;
+
+class CypherAdapterStreamV4Test
+{
+    @Test
+    void shouldStreamRecordsInBatches() throws Exception
+    {
+        // Given
+        QueryResult result = queryResult( 1, 2, 3, 4, 5 );
+        Result rows = rows( 1, 2, 3, 4, 5 );
+        CypherAdapterStreamV4 stream = new CypherAdapterStreamV4( result, rows, Clock.systemUTC() );
+        RecordingVisitor visitor = new RecordingVisitor();
+
+        // When
+        boolean hasMore = stream.handleRecords( visitor, 2 );
+
+        // Then only the records of the batch are read from the result
+        assertTrue( hasMore );
+        assertEquals( asList( 1L, 2L ), visitor.records );
+        assertTrue( visitor.metadata.isEmpty() );
+        verify( rows, times( 2 ) ).next();
+
+        // When
+        hasMore = stream.handleRecords( visitor, 2 );
+
+        // Then
+        assertTrue( hasMore );
+        assertEquals( asList( 1L, 2L, 3L, 4L ), visitor.records );
+        assertTrue( visitor.metadata.isEmpty() );
+        verify( rows, times( 4 ) ).next();
+
+        // When
+        hasMore = stream.handleRecords( visitor, 2 );
+
+        // Then
+        assertFalse( hasMore );
+        assertEquals( asList( 1L, 2L, 3L, 4L, 5L ), visitor.records );
+        assertEquals( stringValue( "r" ), visitor.metadata.get( "type" ) );
+        assertTrue( visitor.metadata.containsKey( "t_last" ) );
+        verify( rows, times( 5 ) ).next();
+        verify( result, never() ).accept( any() );
+    }
+
+    @Test
+    void shouldStreamRemainingRecordsAfterBatch() throws Exception
+    {
+        // Given
+        QueryResult result = queryResult( 1, 2, 3 );
+        Result rows = rows( 1, 2, 3 );
+        CypherAdapterStreamV4 stream = new CypherAdapterStreamV4( result, rows, Clock.systemUTC() );
+        RecordingVisitor visitor = new RecordingVisitor();
+
+        // When
+        assertTrue( stream.handleRecords( visitor, 1 ) );
+        assertFalse( stream.handleRecords( visitor, -1 ) );
+
+        // Then the rest of a partially pulled result is read from where the batch stopped
+        assertEquals( asList( 1L, 2L, 3L ), visitor.records );
+        assertEquals( stringValue( "r" ), visitor.metadata.get( "type" ) );
+        verify( result, never() ).accept( any() );
+    }
+
+    @Test
+    void shouldStreamAllRecordsThroughVisitorWhenAllAreAskedFor() throws Exception
+    {
+        // Given
+        QueryResult result = queryResult( 1, 2, 3 );
+        Result rows = rows( 1, 2, 3 );
+        CypherAdapterStreamV4 stream = new CypherAdapterStreamV4( result, rows, Clock.systemUTC() );
+        RecordingVisitor visitor = new RecordingVisitor();
+
+        // When
+        boolean hasMore = stream.handleRecords( visitor, -1 );
+
+        // Then
+        assertFalse( hasMore );
+        assertEquals( asList( 1L, 2L, 3L ), visitor.records );
+        assertEquals( stringValue( "r" ), visitor.metadata.get( "type" ) );
+        assertTrue( visitor.metadata.containsKey( "t_last" ) );
+        verify( result, times( 1 ) ).accept( any() );
+        verify( rows, never() ).next();
+    }
+
+    @Test
+    void shouldNotReportMoreRecordsWhenBatchEndsWithLastRecord() throws Exception
+    {
+        // Given
+        QueryResult result = queryResult( 1, 2 );
+        Result rows = rows( 1, 2 );
+        CypherAdapterStreamV4 stream = new CypherAdapterStreamV4( result, rows, Clock.systemUTC() );
+        RecordingVisitor visitor = new RecordingVisitor();
+
+        // When
+        boolean hasMore = stream.handleRecords( visitor, 2 );
+
+        // Then
+        assertFalse( hasMore );
+        assertEquals( asList( 1L, 2L ), visitor.records );
+        assertEquals( stringValue( "r" ), visitor.metadata.get( "type" ) );
+    }
+
+    private static QueryResult queryResult( long... values ) throws Exception
+    {
+        QueryStatistics queryStatistics = mock( QueryStatistics.class );
+        QueryResult result = mock( QueryResult.class );
+        when( result.fieldNames() ).thenReturn( new String[]{"a"} );
+        when( result.executionType() ).thenReturn( query( READ_ONLY ) );
+        when( result.queryStatistics() ).thenReturn( queryStatistics );
+        when( result.getNotifications() ).thenReturn( Collections.emptyList() );
+        doAnswer( invocation ->
+        {
+            QueryResult.QueryResultVisitor<?> visitor = invocation.getArgument( 0 );
+            for ( long value : values )
+            {
+                visitor.visit( new ImmutableRecord( new AnyValue[]{longValue( value )} ) );
+            }
+            return null;
+        } ).when( result ).accept( any() );
+        return result;
+    }
+
+    private static Result rows( long... values )
+    {
+        List<Map<String,Object>> rows = new ArrayList<>();
+        for ( long value : values )
+        {
+            rows.add( singletonMap( "a", value ) );
+        }
+        Iterator<Map<String,Object>> iterator = rows.iterator();
+        Result result = mock( Result.class );
+        when( result.hasNext() ).thenAnswer( invocation -> iterator.hasNext() );
+        when( result.next() ).thenAnswer( invocation -> iterator.next() );
+        return result;
+    }
+
+    private static class RecordingVisitor implements BoltResult.Visitor
+    {
+        private final List<Long> records = new ArrayList<>();
+        private final Map<String,AnyValue> metadata = new HashMap<>();
+
+        @Override
+        public void visit( QueryResult.Record record )
+        {
+            records.add( ((LongValue) record.fields()[0]).longValue() );
+        }
+
+        @Override
+        public void addMetadata( String key, AnyValue value )
+        {
+            metadata.put( key, value );
+        }
+    }
+}
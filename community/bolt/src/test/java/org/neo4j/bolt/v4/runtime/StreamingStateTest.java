@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.bolt.v4.runtime;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.neo4j.bolt.messaging.RequestMessage;
+import org.neo4j.bolt.runtime.BoltResponseHandler;
+import org.neo4j.bolt.runtime.BoltResult;
+import org.neo4j.bolt.runtime.BoltStateMachineState;
+import org.neo4j.bolt.runtime.MutableConnectionState;
+import org.neo4j.bolt.runtime.StatementProcessor;
+import org.neo4j.bolt.runtime.StateMachineContext;
+import org.neo4j.bolt.v1.runtime.bookmarking.Bookmark;
+import org.neo4j.bolt.v4.messaging.request.DiscardNMessage;
+import org.neo4j.bolt.v4.messaging.request.PullNMessage;
+import org.neo4j.function.ThrowingFunction;
+import org.neo4j.values.storable.BooleanValue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.neo4j.helpers.collection.MapUtil.map;
+import static org.neo4j.kernel.impl.util.ValueUtils.asMapValue;
+import static org.neo4j.values.storable.Values.stringValue;
+
+class StreamingStateTest
+{
+    private final AbstractStreamingState state = new StreamingState();
+    private final BoltStateMachineState readyState = mock( BoltStateMachineState.class );
+    private final StateMachineContext context = mock( StateMachineContext.class );
+    private final StatementProcessor statementProcessor = mock( StatementProcessor.class );
+    private final BoltResponseHandler responseHandler = mock( BoltResponseHandler.class );
+    private final BoltResult result = mock( BoltResult.class );
+
+    @BeforeEach
+    void setUp() throws Exception
+    {
+        state.setReadyState( readyState );
+        state.setFailedState( mock( BoltStateMachineState.class ) );
+        state.setInterruptedState( mock( BoltStateMachineState.class ) );
+
+        MutableConnectionState connectionState = new MutableConnectionState();
+        connectionState.setStatementProcessor( statementProcessor );
+        connectionState.setResponseHandler( responseHandler );
+        when( context.connectionState() ).thenReturn( connectionState );
+
+        when( statementProcessor.streamResultBatch( any() ) ).thenAnswer( invocation ->
+        {
+            ThrowingFunction<BoltResult,Boolean,Exception> batchConsumer = invocation.getArgument( 0 );
+            return batchConsumer.apply( result ) ? null : new Bookmark( 42 );
+        } );
+    }
+
+    @Test
+    void shouldStayStreamingWithoutBookmarkWhileRecordsAreLeft() throws Exception
+    {
+        when( responseHandler.onRecords( result, true, 10 ) ).thenReturn( true );
+        when( statementProcessor.hasOpenStatement() ).thenReturn( true );
+
+        BoltStateMachineState nextState = state.process( new PullNMessage( asMapValue( map( "n", 10L ) ) ), context );
+
+        assertEquals( state, nextState );
+        verify( responseHandler ).onRecords( result, true, 10 );
+        verify( responseHandler ).onMetadata( "has_more", BooleanValue.TRUE );
+        verify( responseHandler, never() ).onMetadata( eq( "bookmark" ), any() );
+    }
+
+    @Test
+    void shouldAttachBookmarkOnceLastRecordIsPulled() throws Exception
+    {
+        when( responseHandler.onRecords( result, true, 10 ) ).thenReturn( false );
+        when( statementProcessor.hasOpenStatement() ).thenReturn( false );
+
+        BoltStateMachineState nextState = state.process( new PullNMessage( asMapValue( map( "n", 10L ) ) ), context );
+
+        assertEquals( readyState, nextState );
+        verify( responseHandler ).onMetadata( "bookmark", stringValue( new Bookmark( 42 ).toString() ) );
+        verify( responseHandler, never() ).onMetadata( eq( "has_more" ), any() );
+    }
+
+    @Test
+    void shouldAttachBookmarkOnceLastRecordIsDiscarded() throws Exception
+    {
+        when( responseHandler.onRecords( result, false, -1 ) ).thenReturn( false );
+        when( statementProcessor.hasOpenStatement() ).thenReturn( false );
+
+        BoltStateMachineState nextState = state.process( new DiscardNMessage( asMapValue( map( "n", -1L ) ) ), context );
+
+        assertEquals( readyState, nextState );
+        verify( responseHandler ).onRecords( result, false, -1 );
+        verify( responseHandler ).onMetadata( eq( "bookmark" ), any() );
+        verify( responseHandler, never() ).onMetadata( eq( "has_more" ), any() );
+    }
+
+    @Test
+    void shouldNotProcessOtherMessages() throws Exception
+    {
+        assertNull( state.process( mock( RequestMessage.class ), context ) );
+        verify( responseHandler, never() ).onMetadata( anyString(), any() );
+    }
+}
@@ -144,6 +144,9 @@ public interface Status
         TransactionTimedOut( ClientError,
                 "The transaction has not completed within the specified timeout (dbms.transaction.timeout). You may want to retry with a longer " +
                 "timeout." ),
+        TransactionMemoryLimitExceeded( ClientError,
+                "The transaction state grew larger than the configured limit for a single transaction " +
+                "(dbms.tx_state.max_off_heap_memory_per_transaction). You may want to split the work into smaller transactions." ),
         InvalidBookmark( ClientError,
                 "Supplied bookmark cannot be interpreted. You should only supply a bookmark previously that was " +
                 "previously generated by Neo4j. Maybe you have generated your own bookmark, " +
@@ -50,6 +50,10 @@ public enum Group
     INDEX_SAMPLING( "IndexSampling" ),
     /** Background index update applier, for eventually consistent indexes. */
     INDEX_UPDATING( "IndexUpdating", ExecutorServiceFactory.singleThread() ), // Single-threaded to serialise updates with opening/closing/flushing of indexes.
+    /** Reads and deserializes transactions from the log ahead of them being applied, during recovery. */
+    RECOVERY_LOG_READER( "RecoveryLogReader" ),
+    /** Creates and zero-fills the next transaction log file ahead of log rotation. */
+    TRANSACTION_LOG_PREALLOCATION( "TransactionLogPreallocation" ),
     /** Thread pool for anyone who want some help doing file IO in parallel. */
     FILE_IO_HELPER( "FileIOHelper" ),
     NATIVE_SECURITY( "NativeSecurity" ),
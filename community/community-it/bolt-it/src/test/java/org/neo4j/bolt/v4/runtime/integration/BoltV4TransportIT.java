@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.bolt.v4.runtime.integration;
+
+import org.hamcrest.Matcher;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.List;
+import java.util.Map;
+
+import org.neo4j.bolt.v1.transport.integration.Neo4jWithSocket;
+import org.neo4j.bolt.v1.transport.integration.TransportTestUtil;
+import org.neo4j.bolt.v1.transport.socket.client.SecureSocketConnection;
+import org.neo4j.bolt.v1.transport.socket.client.SecureWebSocketConnection;
+import org.neo4j.bolt.v1.transport.socket.client.SocketConnection;
+import org.neo4j.bolt.v1.transport.socket.client.TransportConnection;
+import org.neo4j.bolt.v1.transport.socket.client.WebSocketConnection;
+import org.neo4j.bolt.v3.messaging.request.BeginMessage;
+import org.neo4j.bolt.v3.messaging.request.HelloMessage;
+import org.neo4j.bolt.v3.messaging.request.RunMessage;
+import org.neo4j.bolt.v4.messaging.request.DiscardNMessage;
+import org.neo4j.bolt.v4.messaging.request.PullNMessage;
+import org.neo4j.helpers.HostnamePort;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.allOf;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasEntry;
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.not;
+import static org.neo4j.bolt.v1.messaging.util.MessageMatchers.msgRecord;
+import static org.neo4j.bolt.v1.messaging.util.MessageMatchers.msgSuccess;
+import static org.neo4j.bolt.v1.runtime.spi.StreamMatchers.eqRecord;
+import static org.neo4j.bolt.v1.transport.integration.TransportTestUtil.eventuallyReceives;
+import static org.neo4j.bolt.v3.messaging.request.CommitMessage.COMMIT_MESSAGE;
+import static org.neo4j.bolt.v4.messaging.BoltProtocolV4ComponentFactory.newMessageEncoder;
+import static org.neo4j.bolt.v4.messaging.BoltProtocolV4ComponentFactory.newNeo4jPack;
+import static org.neo4j.graphdb.factory.GraphDatabaseSettings.auth_enabled;
+import static org.neo4j.helpers.collection.MapUtil.map;
+import static org.neo4j.kernel.impl.util.ValueUtils.asMapValue;
+import static org.neo4j.values.storable.Values.longValue;
+
+@RunWith( Parameterized.class )
+public class BoltV4TransportIT
+{
+    private static final String USER_AGENT = "TestClient/4.0";
+
+    @Rule
+    public Neo4jWithSocket server = new Neo4jWithSocket( getClass(), settings -> settings.put( auth_enabled.name(), "false" ) );
+
+    @Parameterized.Parameter
+    public Class<? extends TransportConnection> connectionClass;
+
+    private HostnamePort address;
+    private TransportConnection connection;
+    private TransportTestUtil util;
+
+    @Parameterized.Parameters( name = "{0}" )
+    public static List<Class<? extends TransportConnection>> transports()
+    {
+        return asList( SocketConnection.class, WebSocketConnection.class, SecureSocketConnection.class, SecureWebSocketConnection.class );
+    }
+
+    @Before
+    public void setUp() throws Exception
+    {
+        address = server.lookupDefaultConnector();
+        connection = connectionClass.newInstance();
+        util = new TransportTestUtil( newNeo4jPack(), newMessageEncoder() );
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        if ( connection != null )
+        {
+            connection.disconnect();
+        }
+    }
+
+    @Test
+    public void shouldPullRecordsInBatches() throws Throwable
+    {
+        // When
+        negotiateBoltV4();
+        connection.send( util.chunk(
+                new RunMessage( "UNWIND [1,2,3] AS a RETURN a" ),
+                pull( 2 ),
+                pull( 2 ) ) );
+
+        // Then
+        Matcher<Map<? extends String,?>> entryFieldMatcher = hasEntry( is( "fields" ), equalTo( asList( "a" ) ) );
+        assertThat( connection, util.eventuallyReceives(
+                msgSuccess( allOf( entryFieldMatcher, hasKey( "t_first" ) ) ),
+                msgRecord( eqRecord( equalTo( longValue( 1L ) ) ) ),
+                msgRecord( eqRecord( equalTo( longValue( 2L ) ) ) ),
+                msgSuccess( allOf( hasEntry( is( "has_more" ), equalTo( true ) ), not( hasKey( "bookmark" ) ), not( hasKey( "t_last" ) ) ) ),
+                msgRecord( eqRecord( equalTo( longValue( 3L ) ) ) ),
+                msgSuccess( allOf( not( hasKey( "has_more" ) ), hasKey( "bookmark" ), hasKey( "t_last" ) ) ) ) );
+    }
+
+    @Test
+    public void shouldDiscardRecordsInBatches() throws Throwable
+    {
+        // When
+        negotiateBoltV4();
+        connection.send( util.chunk(
+                new RunMessage( "UNWIND [1,2,3] AS a RETURN a" ),
+                discard( 2 ),
+                pull( -1 ) ) );
+
+        // Then
+        assertThat( connection, util.eventuallyReceives(
+                msgSuccess( allOf( hasKey( "fields" ), hasKey( "t_first" ) ) ),
+                msgSuccess( allOf( hasEntry( is( "has_more" ), equalTo( true ) ), not( hasKey( "bookmark" ) ) ) ),
+                msgRecord( eqRecord( equalTo( longValue( 3L ) ) ) ),
+                msgSuccess( allOf( not( hasKey( "has_more" ) ), hasKey( "bookmark" ) ) ) ) );
+    }
+
+    @Test
+    public void shouldDiscardAllRecords() throws Throwable
+    {
+        // When
+        negotiateBoltV4();
+        connection.send( util.chunk(
+                new RunMessage( "UNWIND [1,2,3] AS a RETURN a" ),
+                discard( -1 ) ) );
+
+        // Then
+        assertThat( connection, util.eventuallyReceives(
+                msgSuccess( allOf( hasKey( "fields" ), hasKey( "t_first" ) ) ),
+                msgSuccess( allOf( not( hasKey( "has_more" ) ), hasKey( "t_last" ), hasKey( "bookmark" ) ) ) ) );
+    }
+
+    @Test
+    public void shouldPullRecordsInBatchesInExplicitTransaction() throws Throwable
+    {
+        // When
+        negotiateBoltV4();
+        connection.send( util.chunk(
+                new BeginMessage(),
+                new RunMessage( "UNWIND [1,2,3] AS a RETURN a" ),
+                pull( 2 ),
+                pull( 2 ),
+                COMMIT_MESSAGE ) );
+
+        // Then
+        assertThat( connection, util.eventuallyReceives(
+                msgSuccess(),
+                msgSuccess( allOf( hasKey( "fields" ), hasKey( "t_first" ) ) ),
+                msgRecord( eqRecord( equalTo( longValue( 1L ) ) ) ),
+                msgRecord( eqRecord( equalTo( longValue( 2L ) ) ) ),
+                msgSuccess( allOf( hasEntry( is( "has_more" ), equalTo( true ) ), not( hasKey( "bookmark" ) ) ) ),
+                msgRecord( eqRecord( equalTo( longValue( 3L ) ) ) ),
+                msgSuccess( allOf( not( hasKey( "has_more" ) ), not( hasKey( "bookmark" ) ) ) ),
+                msgSuccess( allOf( hasKey( "bookmark" ) ) ) ) );
+    }
+
+    private void negotiateBoltV4() throws Exception
+    {
+        connection.connect( address )
+                .send( util.acceptedVersions( 4, 0, 0, 0 ) )
+                .send( util.chunk( new HelloMessage( map( "user_agent", USER_AGENT ) ) ) );
+
+        assertThat( connection, eventuallyReceives( new byte[]{0, 0, 0, 4} ) );
+        assertThat( connection, util.eventuallyReceives( msgSuccess() ) );
+    }
+
+    private static PullNMessage pull( long n ) throws Exception
+    {
+        return new PullNMessage( asMapValue( map( "n", n ) ) );
+    }
+
+    private static DiscardNMessage discard( long n ) throws Exception
+    {
+        return new DiscardNMessage( asMapValue( map( "n", n ) ) );
+    }
+}
@@ -83,7 +83,9 @@ trait LogicalPlanningTestSupport2 extends CypherTestSupport with AstConstruction
     csvBufferSize = Configuration.DEFAULT_BUFFER_SIZE_4MB,
     nonIndexedLabelWarningThreshold = 10000,
     planWithMinimumCardinalityEstimates = true,
-    lenientCreateRelationship = false
+    lenientCreateRelationship = false,
+    maxRowsInMemory = 0,
+    spillDirectory = null
   )
   val realConfig = new RealLogicalPlanningConfiguration(cypherCompilerConfig)
 
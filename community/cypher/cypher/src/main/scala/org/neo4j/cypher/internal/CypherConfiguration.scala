@@ -19,6 +19,7 @@
  */
 package org.neo4j.cypher.internal
 
+import java.io.File
 import java.util.concurrent.TimeUnit
 
 import org.neo4j.cypher.internal.compatibility.CypherRuntimeConfiguration
@@ -50,6 +51,8 @@ object CypherConfiguration {
       config.get(GraphDatabaseSettings.cypher_plan_with_minimum_cardinality_estimates),
       CypherExpressionEngineOption(config.get(GraphDatabaseSettings.cypher_expression_engine)),
       config.get(GraphDatabaseSettings.cypher_lenient_create_relationship),
+      config.get(GraphDatabaseSettings.cypher_query_max_rows_in_memory).longValue(),
+      config.get(GraphDatabaseSettings.cypher_query_spill_directory),
       config.get(GraphDatabaseSettings.cypher_worker_count),
       config.get(GraphDatabaseSettings.cypher_morsel_size),
       config.get(GraphDatabaseSettings.enable_morsel_runtime_trace),
@@ -87,6 +90,8 @@ case class CypherConfiguration(version: CypherVersion,
                                planWithMinimumCardinalityEstimates: Boolean,
                                expressionEngineOption: CypherExpressionEngineOption,
                                lenientCreateRelationship: Boolean,
+                               maxRowsInMemory: Long,
+                               spillDirectory: File,
                                workers: Int,
                                morselSize: Int,
                                doSchedulerTracing: Boolean,
@@ -114,6 +119,8 @@ case class CypherConfiguration(version: CypherVersion,
       csvBufferSize = csvBufferSize,
       nonIndexedLabelWarningThreshold = config.get(GraphDatabaseSettings.query_non_indexed_label_warning_threshold).longValue(),
       planWithMinimumCardinalityEstimates = planWithMinimumCardinalityEstimates,
-      lenientCreateRelationship = lenientCreateRelationship
+      lenientCreateRelationship = lenientCreateRelationship,
+      maxRowsInMemory = maxRowsInMemory,
+      spillDirectory = spillDirectory
     )
 }
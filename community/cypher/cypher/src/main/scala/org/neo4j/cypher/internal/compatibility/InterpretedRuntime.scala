@@ -49,7 +49,9 @@ object InterpretedRuntime extends CypherRuntime[RuntimeContext] {
                                                                         context.readOnly,
                                                                         columns,
                                                                         logicalPlan,
-                                                                        context.config.lenientCreateRelationship)
+                                                                        context.config.lenientCreateRelationship,
+                                                                        context.config.maxRowsInMemory,
+                                                                        context.config.spillDirectory)
 
     new InterpretedExecutionPlan(periodicCommitInfo,
                                  resultBuilderFactory,
@@ -209,6 +209,9 @@ class MapExecutionContext(private val m: MutableMap[String, AnyValue], private v
 
   override def getCachedPropertyAt(offset: Int): Value = fail()
 
+  def cachedPropertyEntries: Iterator[(CachedNodeProperty, Value)] =
+    if (cachedProperties == null) Iterator.empty else cachedProperties.iterator
+
   private def cloneFromMap(newMap: MutableMap[String, AnyValue]): ExecutionContext = {
     val newCachedProperties = if (cachedProperties == null) null else cachedProperties.clone()
     new MapExecutionContext(newMap, newCachedProperties)
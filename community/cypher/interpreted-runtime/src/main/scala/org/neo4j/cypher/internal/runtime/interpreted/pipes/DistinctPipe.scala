@@ -21,13 +21,11 @@ package org.neo4j.cypher.internal.runtime.interpreted.pipes
 
 import org.neo4j.cypher.internal.runtime.interpreted.ExecutionContext
 import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Expression
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.{MapRowFormat, SpillingDistinct}
 import org.opencypher.v9_0.util.Eagerly
 import org.opencypher.v9_0.util.attribution.Id
-import org.neo4j.values.AnyValue
 import org.neo4j.values.virtual.VirtualValues
 
-import scala.collection.mutable
-
 case class DistinctPipe(source: Pipe, expressions: Map[String, Expression])
                        (val id: Id = Id.INVALID_ID) extends PipeWithSource(source) {
 
@@ -45,19 +43,8 @@ case class DistinctPipe(source: Pipe, expressions: Map[String, Expression])
 
     /*
      * The filtering is done by extracting from the context the values of all return expressions, and keeping them
-     * in a set.
+     * in a set, for as long as it fits into the memory budget of the query.
      */
-    var seen = mutable.Set[AnyValue]()
-
-    result.filter { ctx =>
-      val values = VirtualValues.list(keyNames.map(ctx): _*)
-
-      if (seen.contains(values)) {
-        false
-      } else {
-        seen += values
-        true
-      }
-    }
+    SpillingDistinct(result, ctx => VirtualValues.list(keyNames.map(ctx): _*), new MapRowFormat, state)
   }
 }
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes
+
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.SpillDirectory
+
+/**
+  * Limits the number of rows that the eager operators of a query, like sort, distinct and aggregation, keep in memory
+  * at the same time. Operators reserve room for every row they hold on to, and write their rows to disk once the budget
+  * is used up. An operator holding fewer than a small number of rows is always allowed to keep the next one, so that it
+  * can make progress even when other operators of the same query hold the whole budget.
+  *
+  * Queries are executed by a single thread, so the budget is not thread safe.
+  *
+  * @param maxRows the maximum number of rows to keep in memory, or [[QueryMemoryBudget.UNLIMITED]].
+  * @param spillDirectory where rows that do not fit into the budget are written.
+  */
+class QueryMemoryBudget(val maxRows: Long, val spillDirectory: SpillDirectory = SpillDirectory.temporary) {
+
+  private val minRowsPerOperator = math.min(maxRows, QueryMemoryBudget.MIN_ROWS_PER_OPERATOR)
+  private var reservedRows = 0L
+
+  def isUnlimited: Boolean = maxRows == QueryMemoryBudget.UNLIMITED
+
+  /**
+    * Reserves room for one more row.
+    *
+    * @param heldRows the number of rows currently held by the reserving operator.
+    * @return false if there is no room for the row, meaning that the operator should write its rows to disk.
+    */
+  def tryReserveRow(heldRows: Long): Boolean =
+    if (isUnlimited) {
+      true
+    } else if (reservedRows < maxRows || heldRows < minRowsPerOperator) {
+      reservedRows += 1
+      true
+    } else {
+      false
+    }
+
+  def releaseRows(rows: Long): Unit =
+    if (!isUnlimited) {
+      reservedRows -= rows
+    }
+
+  def reservedRowCount: Long = reservedRows
+}
+
+object QueryMemoryBudget {
+  val UNLIMITED = 0L
+  val MIN_ROWS_PER_OPERATOR = 1024L
+
+  def unlimited: QueryMemoryBudget = new QueryMemoryBudget(UNLIMITED)
+}
@@ -22,6 +22,7 @@ package org.neo4j.cypher.internal.runtime.interpreted.pipes
 import java.util.Comparator
 
 import org.neo4j.cypher.internal.runtime.interpreted.ExecutionContext
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.{MapRowFormat, SpillingSort}
 import org.opencypher.v9_0.util.attribution.Id
 import org.neo4j.values.{AnyValue, AnyValues}
 
@@ -32,11 +33,8 @@ case class SortPipe(source: Pipe, orderBy: Seq[ColumnOrder])
 
   private val comparator = ExecutionContextOrdering.asComparator(orderBy)
 
-  protected def internalCreateResults(input: Iterator[ExecutionContext], state: QueryState): Iterator[ExecutionContext] = {
-    val array = input.toArray
-    java.util.Arrays.sort(array, comparator)
-    array.toIterator
-  }
+  protected def internalCreateResults(input: Iterator[ExecutionContext], state: QueryState): Iterator[ExecutionContext] =
+    SpillingSort(input, comparator, new MapRowFormat, state)
 }
 
 case class ExecutionContextOrdering(order: ColumnOrder) extends scala.Ordering[ExecutionContext] {
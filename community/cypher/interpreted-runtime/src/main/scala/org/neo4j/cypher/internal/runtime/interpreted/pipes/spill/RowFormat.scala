@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes.spill
+
+import java.io.{DataInputStream, DataOutputStream}
+
+import org.neo4j.cypher.internal.runtime.QueryContext
+import org.neo4j.cypher.internal.runtime.interpreted.{ExecutionContext, MapExecutionContext, MutableMaps}
+import org.neo4j.cypher.internal.v3_5.logical.plans.CachedNodeProperty
+import org.neo4j.values.AnyValue
+import org.neo4j.values.storable.Value
+
+import scala.collection.mutable
+import scala.collection.mutable.ArrayBuffer
+
+/**
+  * Writes rows to and reads rows from disk, for operators that hold more rows than fit into the memory budget of a query.
+  * An instance is used for the rows of a single operator, and may keep state about them in memory, like dictionaries of
+  * the keys used by the rows.
+  */
+trait RowFormat {
+  def write(row: ExecutionContext, out: DataOutputStream): Unit
+
+  def read(in: DataInputStream, query: QueryContext): ExecutionContext
+}
+
+/**
+  * Format of the rows of the interpreted runtime. Variable names and cached properties are written as indexes into
+  * dictionaries, since all rows of an operator share the same few of them.
+  */
+class MapRowFormat extends RowFormat {
+
+  private val keys = new Dictionary[String]
+  private val cachedPropertyKeys = new Dictionary[CachedNodeProperty]
+
+  override def write(row: ExecutionContext, out: DataOutputStream): Unit = {
+    val context = row.asInstanceOf[MapExecutionContext]
+    out.writeInt(context.size)
+    context.foreach {
+      case (key, value) =>
+        out.writeInt(keys.indexOf(key))
+        SpilledValues.write(value, out)
+    }
+    context.cachedPropertyEntries.foreach {
+      case (key, value) =>
+        out.writeInt(cachedPropertyKeys.indexOf(key))
+        SpilledValues.write(value, out)
+    }
+    out.writeInt(-1)
+  }
+
+  override def read(in: DataInputStream, query: QueryContext): ExecutionContext = {
+    val size = in.readInt()
+    val values = MutableMaps.create[String, AnyValue](size)
+    for (_ <- 0 until size) {
+      val key = keys(in.readInt())
+      values.put(key, SpilledValues.read(in, query))
+    }
+    val context = ExecutionContext(values)
+    var index = in.readInt()
+    while (index != -1) {
+      context.setCachedProperty(cachedPropertyKeys(index), SpilledValues.read(in, query).asInstanceOf[Value])
+      index = in.readInt()
+    }
+    context
+  }
+}
+
+private class Dictionary[T] {
+  private val entries = new ArrayBuffer[T]
+  private val indexes = mutable.HashMap[T, Int]()
+
+  def indexOf(entry: T): Int = indexes.getOrElseUpdate(entry, {
+    entries += entry
+    entries.size - 1
+  })
+
+  def apply(index: Int): T = entries(index)
+}
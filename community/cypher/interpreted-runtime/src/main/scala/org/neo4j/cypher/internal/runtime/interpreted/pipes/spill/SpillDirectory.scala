@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes.spill
+
+import java.io.{File, InputStream, OutputStream}
+import java.util.UUID
+
+import org.neo4j.io.fs.{DefaultFileSystemAbstraction, FileSystemAbstraction}
+
+/**
+  * Location of the files that queries spill rows to when they exceed their memory budget.
+  */
+class SpillDirectory(fs: FileSystemAbstraction, val directory: File) {
+
+  def newFile(): File = {
+    fs.mkdirs(directory)
+    new File(directory, s"cypher-${UUID.randomUUID()}.spill")
+  }
+
+  def openOutput(file: File): OutputStream = fs.openAsOutputStream(file, false)
+
+  def openInput(file: File): InputStream = fs.openAsInputStream(file)
+
+  def delete(file: File): Unit = fs.deleteFile(file)
+}
+
+object SpillDirectory {
+
+  private lazy val defaultFileSystem = new DefaultFileSystemAbstraction
+
+  /**
+    * @param directory the configured spill directory, or null to spill to the temporary directory of the JVM.
+    */
+  def apply(directory: File): SpillDirectory =
+    new SpillDirectory(defaultFileSystem, if (directory != null) directory else temporaryDirectory)
+
+  def temporary: SpillDirectory = apply(null)
+
+  private def temporaryDirectory = new File(System.getProperty("java.io.tmpdir"))
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes.spill
+
+import java.io._
+
+import org.neo4j.cypher.internal.runtime.interpreted.ExecutionContext
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
+
+/**
+  * Temporary file holding rows that did not fit into the memory budget of a query. Rows are first written, and then
+  * read back once, in the order they were written. The file is created in the [[SpillDirectory]] of the query, and
+  * deleted as soon as all of its rows have been read.
+  *
+  * The file is registered with the resources of the query, so that it is also deleted when the query is closed before
+  * all of its rows have been read.
+  */
+class SpillFile(format: RowFormat, state: QueryState) extends AutoCloseable {
+
+  private val query = state.query
+  private val directory = state.memoryBudget.spillDirectory
+  private val file = directory.newFile()
+  query.resources.trace(this)
+
+  private var out = new DataOutputStream(new BufferedOutputStream(directory.openOutput(file), SpillFile.BUFFER_SIZE))
+  private var in: DataInputStream = _
+  private var rowCount = 0L
+  private var closed = false
+
+  def write(row: ExecutionContext): Unit = {
+    format.write(row, out)
+    rowCount += 1
+  }
+
+  def size: Long = rowCount
+
+  /**
+    * Finishes writing to this file, releasing the file handle until the rows are read.
+    */
+  def finishWriting(): Unit = {
+    if (out != null) {
+      out.close()
+      out = null
+    }
+  }
+
+  /**
+    * Finishes writing to this file and opens it for reading.
+    *
+    * @return the rows of this file, in the order they were written.
+    */
+  def rows(): Iterator[ExecutionContext] = {
+    finishWriting()
+    if (rowCount == 0) {
+      query.resources.release(this)
+      return Iterator.empty
+    }
+    in = new DataInputStream(new BufferedInputStream(directory.openInput(file), SpillFile.BUFFER_SIZE))
+
+    new Iterator[ExecutionContext] {
+      private var remaining = rowCount
+
+      override def hasNext: Boolean = remaining > 0
+
+      override def next(): ExecutionContext = {
+        if (remaining == 0) {
+          Iterator.empty.next()
+        }
+        val row = format.read(in, query)
+        remaining -= 1
+        if (remaining == 0) {
+          query.resources.release(SpillFile.this)
+        }
+        row
+      }
+    }
+  }
+
+  override def close(): Unit = {
+    if (!closed) {
+      closed = true
+      if (out != null) {
+        out.close()
+      }
+      if (in != null) {
+        in.close()
+      }
+      directory.delete(file)
+    }
+  }
+}
+
+object SpillFile {
+  private val BUFFER_SIZE = 32 * 1024
+}
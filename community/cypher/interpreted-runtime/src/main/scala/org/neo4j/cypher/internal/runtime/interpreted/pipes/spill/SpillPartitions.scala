@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes.spill
+
+import org.neo4j.cypher.internal.runtime.interpreted.ExecutionContext
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
+import org.neo4j.values.AnyValue
+
+import scala.util.hashing.MurmurHash3
+
+/**
+  * Spreads rows over a number of files by the hash of a key, so that all rows with the same key end up in the same file,
+  * and the rows of every file can be processed on their own. Rows that are partitioned again, because a single partition
+  * still does not fit into memory, are spread by a different hash at every level.
+  */
+class SpillPartitions(format: RowFormat, state: QueryState, level: Int) {
+
+  private val files = new Array[SpillFile](SpillPartitions.PARTITIONS)
+
+  def write(row: ExecutionContext, key: AnyValue): Unit = {
+    val partition = MurmurHash3.finalizeHash(MurmurHash3.mix(level, key.hashCode()), 0) & (SpillPartitions.PARTITIONS - 1)
+    if (files(partition) == null) {
+      files(partition) = new SpillFile(format, state)
+    }
+    files(partition).write(row)
+  }
+
+  /**
+    * @return the rows of each non-empty partition. A partition is read only when its iterator is requested.
+    */
+  def partitions: Iterator[Iterator[ExecutionContext]] = files.iterator.filter(_ != null).map(_.rows())
+}
+
+object SpillPartitions {
+  val PARTITIONS = 64
+
+  /**
+    * Rows are partitioned at most this many times. Deeper than that, rows of the same partition most likely share
+    * the same key hash, and are kept in memory regardless of the budget.
+    */
+  val MAX_LEVEL = 4
+}
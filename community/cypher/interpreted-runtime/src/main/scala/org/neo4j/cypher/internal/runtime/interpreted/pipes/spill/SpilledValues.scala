@@ -0,0 +1,344 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes.spill
+
+import java.io.{DataInputStream, DataOutputStream}
+import java.nio.charset.StandardCharsets.UTF_8
+import java.time._
+
+import org.neo4j.cypher.internal.runtime.QueryContext
+import org.neo4j.kernel.impl.core.{NodeProxy, RelationshipProxy}
+import org.neo4j.kernel.impl.util.{NodeProxyWrappingNodeValue, RelationshipProxyWrappingValue}
+import org.neo4j.values.AnyValue
+import org.neo4j.values.storable.ValueWriter.ArrayType
+import org.neo4j.values.storable._
+import org.neo4j.values.virtual._
+import org.opencypher.v9_0.util.InternalException
+
+/**
+  * Binary encoding of the values of rows that are written to disk by operators exceeding the memory budget of a query.
+  *
+  * Nodes and relationships of the store are written as their ids only, and read back as entities of the current
+  * transaction, just like the slotted runtime keeps them in long slots. Nodes and relationships that are not backed by the
+  * store are written in full when they carry their labels, type and properties as values, and rejected when they wrap
+  * entities that only exist in memory, like virtual nodes returned by procedures. Storable values are written through
+  * their [[ValueWriter]] events.
+  */
+object SpilledValues {
+
+  private val NULL: Byte = 0
+  private val TRUE: Byte = 1
+  private val FALSE: Byte = 2
+  private val BYTE: Byte = 3
+  private val SHORT: Byte = 4
+  private val INT: Byte = 5
+  private val LONG: Byte = 6
+  private val FLOAT: Byte = 7
+  private val DOUBLE: Byte = 8
+  private val STRING: Byte = 9
+  private val CHAR: Byte = 10
+  private val BYTE_ARRAY: Byte = 11
+  private val ARRAY: Byte = 12
+  private val POINT: Byte = 13
+  private val DURATION: Byte = 14
+  private val DATE: Byte = 15
+  private val LOCAL_TIME: Byte = 16
+  private val TIME: Byte = 17
+  private val LOCAL_DATE_TIME: Byte = 18
+  private val DATE_TIME: Byte = 19
+  private val LIST: Byte = 20
+  private val MAP: Byte = 21
+  private val NODE: Byte = 22
+  private val RELATIONSHIP: Byte = 23
+  private val PATH: Byte = 24
+  private val NODE_VALUE: Byte = 25
+  private val RELATIONSHIP_VALUE: Byte = 26
+
+  private val arrayTypes = ArrayType.values()
+
+  def write(value: AnyValue, out: DataOutputStream): Unit = value match {
+    case node: VirtualNodeValue =>
+      writeNode(node, out)
+
+    case relationship: VirtualRelationshipValue =>
+      writeRelationship(relationship, out)
+
+    case path: PathValue =>
+      val nodes = path.nodes()
+      val relationships = path.relationships()
+      out.writeByte(PATH)
+      out.writeInt(relationships.length)
+      nodes.foreach(writeNode(_, out))
+      relationships.foreach(writeRelationship(_, out))
+
+    case list: ListValue =>
+      out.writeByte(LIST)
+      out.writeInt(list.size())
+      val iterator = list.iterator()
+      while (iterator.hasNext) {
+        write(iterator.next(), out)
+      }
+
+    case map: MapValue =>
+      out.writeByte(MAP)
+      out.writeInt(map.size())
+      val keys = map.keySet().iterator()
+      while (keys.hasNext) {
+        val key = keys.next()
+        out.writeUTF(key)
+        write(map.get(key), out)
+      }
+
+    case storable: Value =>
+      storable.writeTo(new StorableValueWriter(out))
+
+    case _ =>
+      throw new InternalException(s"Cannot write value of type ${value.getClass.getSimpleName} to disk")
+  }
+
+  private def writeNode(node: VirtualNodeValue, out: DataOutputStream): Unit = node match {
+    case _: NodeReference if node.id() >= 0 =>
+      out.writeByte(NODE)
+      out.writeLong(node.id())
+
+    case wrapping: NodeProxyWrappingNodeValue if wrapping.nodeProxy().isInstanceOf[NodeProxy] =>
+      out.writeByte(NODE)
+      out.writeLong(node.id())
+
+    case value: NodeValue if !value.isInstanceOf[NodeProxyWrappingNodeValue] =>
+      out.writeByte(NODE_VALUE)
+      out.writeLong(value.id())
+      write(value.labels(), out)
+      write(value.properties(), out)
+
+    case _ =>
+      throw new InternalException(s"Cannot write node ${node.id()} to disk, since it is not stored in the database")
+  }
+
+  private def writeRelationship(relationship: VirtualRelationshipValue, out: DataOutputStream): Unit = relationship match {
+    case _: RelationshipReference if relationship.id() >= 0 =>
+      out.writeByte(RELATIONSHIP)
+      out.writeLong(relationship.id())
+
+    case wrapping: RelationshipProxyWrappingValue if wrapping.relationshipProxy().isInstanceOf[RelationshipProxy] =>
+      out.writeByte(RELATIONSHIP)
+      out.writeLong(relationship.id())
+
+    case value: RelationshipValue if !value.isInstanceOf[RelationshipProxyWrappingValue] =>
+      out.writeByte(RELATIONSHIP_VALUE)
+      out.writeLong(value.id())
+      writeNode(value.startNode(), out)
+      writeNode(value.endNode(), out)
+      write(value.`type`(), out)
+      write(value.properties(), out)
+
+    case _ =>
+      throw new InternalException(s"Cannot write relationship ${relationship.id()} to disk, since it is not stored in the database")
+  }
+
+  def read(in: DataInputStream, query: QueryContext): AnyValue = in.readByte() match {
+    case NULL => Values.NO_VALUE
+    case TRUE => Values.TRUE
+    case FALSE => Values.FALSE
+    case BYTE => Values.byteValue(in.readByte())
+    case SHORT => Values.shortValue(in.readShort())
+    case INT => Values.intValue(in.readInt())
+    case LONG => Values.longValue(in.readLong())
+    case FLOAT => Values.floatValue(in.readFloat())
+    case DOUBLE => Values.doubleValue(in.readDouble())
+    case STRING => Values.utf8Value(readBytes(in))
+    case CHAR => Values.charValue(in.readChar())
+    case BYTE_ARRAY => Values.byteArray(readBytes(in))
+    case ARRAY => readArray(in, query)
+    case POINT =>
+      val crs = CoordinateReferenceSystem.get(in.readInt())
+      Values.pointValue(crs, Array.fill(in.readInt())(in.readDouble()): _*)
+    case DURATION => DurationValue.duration(in.readLong(), in.readLong(), in.readLong(), in.readInt())
+    case DATE => DateValue.epochDate(in.readLong())
+    case LOCAL_TIME => LocalTimeValue.localTime(in.readLong())
+    case TIME => TimeValue.time(OffsetTime.of(LocalTime.ofNanoOfDay(in.readLong()), ZoneOffset.ofTotalSeconds(in.readInt())))
+    case LOCAL_DATE_TIME => LocalDateTimeValue.localDateTime(in.readLong(), in.readInt())
+    case DATE_TIME => DateTimeValue.datetime(in.readLong(), in.readInt(), ZoneId.of(in.readUTF()))
+    case LIST => VirtualValues.list(Array.fill(in.readInt())(read(in, query)): _*)
+    case MAP =>
+      val size = in.readInt()
+      val keys = new Array[String](size)
+      val values = new Array[AnyValue](size)
+      for (i <- 0 until size) {
+        keys(i) = in.readUTF()
+        values(i) = read(in, query)
+      }
+      VirtualValues.map(keys, values)
+    case NODE => query.nodeOps.getById(in.readLong())
+    case RELATIONSHIP => query.relationshipOps.getById(in.readLong())
+    case NODE_VALUE =>
+      VirtualValues.nodeValue(in.readLong(), read(in, query).asInstanceOf[TextArray], read(in, query).asInstanceOf[MapValue])
+    case RELATIONSHIP_VALUE =>
+      VirtualValues.relationshipValue(in.readLong(), read(in, query).asInstanceOf[NodeValue], read(in, query).asInstanceOf[NodeValue],
+                                      read(in, query).asInstanceOf[TextValue], read(in, query).asInstanceOf[MapValue])
+    case PATH =>
+      val length = in.readInt()
+      val nodes = Array.fill(length + 1)(read(in, query).asInstanceOf[NodeValue])
+      val relationships = Array.fill(length)(read(in, query).asInstanceOf[RelationshipValue])
+      VirtualValues.path(nodes, relationships)
+    case tag =>
+      throw new InternalException(s"Unknown type $tag of value read from disk")
+  }
+
+  private def readBytes(in: DataInputStream): Array[Byte] = {
+    val bytes = new Array[Byte](in.readInt())
+    in.readFully(bytes)
+    bytes
+  }
+
+  private def readArray(in: DataInputStream, query: QueryContext): ArrayValue = {
+    val arrayType = arrayTypes(in.readByte())
+    val elements = Array.fill(in.readInt())(read(in, query).asInstanceOf[Value])
+    arrayType match {
+      case ArrayType.BYTE => Values.byteArray(elements.map(_.asInstanceOf[ByteValue].value()))
+      case ArrayType.SHORT => Values.shortArray(elements.map(_.asInstanceOf[ShortValue].value()))
+      case ArrayType.INT => Values.intArray(elements.map(_.asInstanceOf[IntValue].value()))
+      case ArrayType.LONG => Values.longArray(elements.map(_.asInstanceOf[LongValue].value()))
+      case ArrayType.FLOAT => Values.floatArray(elements.map(_.asInstanceOf[FloatValue].value()))
+      case ArrayType.DOUBLE => Values.doubleArray(elements.map(_.asInstanceOf[DoubleValue].value()))
+      case ArrayType.BOOLEAN => Values.booleanArray(elements.map(_.asInstanceOf[BooleanValue].booleanValue()))
+      case ArrayType.STRING => Values.stringArray(elements.map(_.asInstanceOf[TextValue].stringValue()): _*)
+      case ArrayType.CHAR => Values.charArray(elements.map(_.asInstanceOf[CharValue].value()))
+      case ArrayType.POINT => Values.pointArray(elements)
+      case ArrayType.ZONED_DATE_TIME => Values.dateTimeArray(elements.map(_.asInstanceOf[DateTimeValue].asObjectCopy()))
+      case ArrayType.LOCAL_DATE_TIME => Values.localDateTimeArray(elements.map(_.asInstanceOf[LocalDateTimeValue].asObjectCopy()))
+      case ArrayType.DATE => Values.dateArray(elements.map(_.asInstanceOf[DateValue].asObjectCopy()))
+      case ArrayType.ZONED_TIME => Values.timeArray(elements.map(_.asInstanceOf[TimeValue].asObjectCopy()))
+      case ArrayType.LOCAL_TIME => Values.localTimeArray(elements.map(_.asInstanceOf[LocalTimeValue].asObjectCopy()))
+      case ArrayType.DURATION => Values.durationArray(elements.map(_.asInstanceOf[DurationValue]))
+    }
+  }
+
+  private class StorableValueWriter(out: DataOutputStream) extends ValueWriter[RuntimeException] {
+
+    override def writeNull(): Unit = out.writeByte(NULL)
+
+    override def writeBoolean(value: Boolean): Unit = out.writeByte(if (value) TRUE else FALSE)
+
+    override def writeInteger(value: Byte): Unit = {
+      out.writeByte(BYTE)
+      out.writeByte(value)
+    }
+
+    override def writeInteger(value: Short): Unit = {
+      out.writeByte(SHORT)
+      out.writeShort(value)
+    }
+
+    override def writeInteger(value: Int): Unit = {
+      out.writeByte(INT)
+      out.writeInt(value)
+    }
+
+    override def writeInteger(value: Long): Unit = {
+      out.writeByte(LONG)
+      out.writeLong(value)
+    }
+
+    override def writeFloatingPoint(value: Float): Unit = {
+      out.writeByte(FLOAT)
+      out.writeFloat(value)
+    }
+
+    override def writeFloatingPoint(value: Double): Unit = {
+      out.writeByte(DOUBLE)
+      out.writeDouble(value)
+    }
+
+    override def writeString(value: String): Unit = {
+      val bytes = value.getBytes(UTF_8)
+      writeUTF8(bytes, 0, bytes.length)
+    }
+
+    override def writeUTF8(bytes: Array[Byte], offset: Int, length: Int): Unit = {
+      out.writeByte(STRING)
+      out.writeInt(length)
+      out.write(bytes, offset, length)
+    }
+
+    override def writeString(value: Char): Unit = {
+      out.writeByte(CHAR)
+      out.writeChar(value)
+    }
+
+    override def beginArray(size: Int, arrayType: ArrayType): Unit = {
+      out.writeByte(ARRAY)
+      out.writeByte(arrayType.ordinal())
+      out.writeInt(size)
+    }
+
+    override def endArray(): Unit = {}
+
+    override def writeByteArray(value: Array[Byte]): Unit = {
+      out.writeByte(BYTE_ARRAY)
+      out.writeInt(value.length)
+      out.write(value)
+    }
+
+    override def writePoint(crs: CoordinateReferenceSystem, coordinate: Array[Double]): Unit = {
+      out.writeByte(POINT)
+      out.writeInt(crs.getCode)
+      out.writeInt(coordinate.length)
+      coordinate.foreach(out.writeDouble)
+    }
+
+    override def writeDuration(months: Long, days: Long, seconds: Long, nanos: Int): Unit = {
+      out.writeByte(DURATION)
+      out.writeLong(months)
+      out.writeLong(days)
+      out.writeLong(seconds)
+      out.writeInt(nanos)
+    }
+
+    override def writeDate(localDate: LocalDate): Unit = {
+      out.writeByte(DATE)
+      out.writeLong(localDate.toEpochDay)
+    }
+
+    override def writeLocalTime(localTime: LocalTime): Unit = {
+      out.writeByte(LOCAL_TIME)
+      out.writeLong(localTime.toNanoOfDay)
+    }
+
+    override def writeTime(offsetTime: OffsetTime): Unit = {
+      out.writeByte(TIME)
+      out.writeLong(offsetTime.toLocalTime.toNanoOfDay)
+      out.writeInt(offsetTime.getOffset.getTotalSeconds)
+    }
+
+    override def writeLocalDateTime(localDateTime: LocalDateTime): Unit = {
+      out.writeByte(LOCAL_DATE_TIME)
+      out.writeLong(localDateTime.toEpochSecond(ZoneOffset.UTC))
+      out.writeInt(localDateTime.getNano)
+    }
+
+    override def writeDateTime(zonedDateTime: ZonedDateTime): Unit = {
+      out.writeByte(DATE_TIME)
+      out.writeLong(zonedDateTime.toEpochSecond)
+      out.writeInt(zonedDateTime.getNano)
+      out.writeUTF(zonedDateTime.getZone.getId)
+    }
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes.spill
+
+import org.neo4j.cypher.internal.runtime.interpreted.ExecutionContext
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.aggregation.AggregationFunction
+import org.neo4j.values.AnyValue
+
+import scala.collection.mutable
+
+/**
+  * Aggregates rows by grouping key. Groups are kept in memory for as long as they fit into the memory budget of the
+  * query. After that, rows of groups that are not already in memory are partitioned to disk by grouping key, and each
+  * partition is aggregated on its own once the groups in memory have been produced. Every group is thereby aggregated
+  * from all of its rows at once, which works for all aggregation functions.
+  */
+object SpillingAggregation {
+
+  def apply(input: Iterator[ExecutionContext],
+            groupingKey: ExecutionContext => AnyValue,
+            newGroup: () => Seq[AggregationFunction],
+            result: (AnyValue, Seq[AggregationFunction]) => ExecutionContext,
+            format: RowFormat,
+            state: QueryState): Iterator[ExecutionContext] =
+    aggregate(input, groupingKey, newGroup, result, format, state, level = 0)
+
+  private def aggregate(input: Iterator[ExecutionContext],
+                        groupingKey: ExecutionContext => AnyValue,
+                        newGroup: () => Seq[AggregationFunction],
+                        result: (AnyValue, Seq[AggregationFunction]) => ExecutionContext,
+                        format: RowFormat,
+                        state: QueryState,
+                        level: Int): Iterator[ExecutionContext] = {
+    val budget = state.memoryBudget
+    val canSpill = level < SpillPartitions.MAX_LEVEL
+    val groups = mutable.LinkedHashMap[AnyValue, Seq[AggregationFunction]]()
+    var reserved = 0L
+    var spilled: SpillPartitions = null
+
+    input.foreach(ctx => {
+      val groupingValue: AnyValue = groupingKey(ctx)
+      var functions = groups.getOrElse(groupingValue, null)
+      if (functions == null) {
+        if (spilled == null && budget.tryReserveRow(groups.size)) {
+          reserved += 1
+          functions = newGroup()
+        } else if (spilled == null && !canSpill) {
+          functions = newGroup()
+        } else if (spilled == null) {
+          spilled = new SpillPartitions(format, state, level)
+        }
+        if (functions != null) {
+          groups.put(groupingValue, functions)
+        }
+      }
+      if (functions != null) {
+        functions.foreach(func => func(ctx, state))
+      } else {
+        spilled.write(ctx, groupingValue)
+      }
+    })
+
+    groups.iterator.map {
+      case (key, aggregator) => result(key, aggregator)
+    } ++ {
+      budget.releaseRows(reserved)
+      groups.clear()
+      if (spilled == null) {
+        Iterator.empty
+      } else {
+        spilled.partitions.flatMap(aggregate(_, groupingKey, newGroup, result, format, state, level + 1))
+      }
+    }
+  }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes.spill
+
+import org.neo4j.cypher.internal.runtime.interpreted.ExecutionContext
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
+import org.neo4j.values.AnyValue
+
+import scala.collection.mutable
+
+/**
+  * Filters out rows with keys that have been seen before. Rows are produced lazily for as long as the seen keys fit
+  * into the memory budget of the query. After that, rows with new keys are partitioned to disk by key, and each
+  * partition is filtered on its own once the input is exhausted.
+  */
+object SpillingDistinct {
+
+  def apply(input: Iterator[ExecutionContext],
+            key: ExecutionContext => AnyValue,
+            format: RowFormat,
+            state: QueryState): Iterator[ExecutionContext] = distinct(input, key, format, state, level = 0)
+
+  private def distinct(input: Iterator[ExecutionContext],
+                       key: ExecutionContext => AnyValue,
+                       format: RowFormat,
+                       state: QueryState,
+                       level: Int): Iterator[ExecutionContext] = {
+    val budget = state.memoryBudget
+    val canSpill = level < SpillPartitions.MAX_LEVEL
+    val seen = mutable.Set[AnyValue]()
+    var reserved = 0L
+    var spilled: SpillPartitions = null
+
+    val inMemory = input.filter { ctx =>
+      val values = key(ctx)
+      if (seen.contains(values)) {
+        false
+      } else if (spilled == null && budget.tryReserveRow(seen.size)) {
+        reserved += 1
+        seen += values
+        true
+      } else if (spilled == null && !canSpill) {
+        seen += values
+        true
+      } else {
+        if (spilled == null) {
+          spilled = new SpillPartitions(format, state, level)
+        }
+        spilled.write(ctx, values)
+        false
+      }
+    }
+
+    inMemory ++ {
+      budget.releaseRows(reserved)
+      seen.clear()
+      if (spilled == null) {
+        Iterator.empty
+      } else {
+        spilled.partitions.flatMap(distinct(_, key, format, state, level + 1))
+      }
+    }
+  }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes.spill
+
+import org.neo4j.cypher.internal.runtime.interpreted.ExecutionContext
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
+
+import scala.collection.mutable.ArrayBuffer
+
+/**
+  * Consumes all rows before producing any of them. Rows are kept in memory for as long as they fit into the memory
+  * budget of the query, the remaining rows are written to disk and read back after the rows in memory.
+  */
+object SpillingEager {
+
+  def apply(input: Iterator[ExecutionContext], format: RowFormat, state: QueryState): Iterator[ExecutionContext] = {
+    val budget = state.memoryBudget
+    if (budget.isUnlimited) {
+      return input.toIndexedSeq.iterator
+    }
+
+    val buffer = new ArrayBuffer[ExecutionContext]()
+    var spilled: SpillFile = null
+    input.foreach(ctx => {
+      if (spilled == null && budget.tryReserveRow(buffer.size)) {
+        buffer += ctx
+      } else {
+        if (spilled == null) {
+          spilled = new SpillFile(format, state)
+        }
+        spilled.write(ctx)
+      }
+    })
+
+    buffer.iterator ++ {
+      budget.releaseRows(buffer.size)
+      buffer.clear()
+      if (spilled == null) Iterator.empty else spilled.rows()
+    }
+  }
+}
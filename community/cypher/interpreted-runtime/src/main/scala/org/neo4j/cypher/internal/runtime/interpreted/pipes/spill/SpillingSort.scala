@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes.spill
+
+import java.util
+import java.util.Comparator
+
+import org.neo4j.cypher.internal.runtime.interpreted.ExecutionContext
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
+
+import scala.collection.mutable.ArrayBuffer
+
+/**
+  * Sorts rows in memory as long as they fit into the memory budget of the query. Otherwise, the rows held in memory
+  * are sorted and written to disk as a run whenever the budget is used up, and the runs are merged while producing
+  * the output. Rows that compare as equal are kept in input order, just like when sorting in memory.
+  */
+object SpillingSort {
+
+  /**
+    * The maximum number of runs merged at once. More runs than that are first merged into longer runs.
+    */
+  val MAX_MERGE_WIDTH = 64
+
+  def apply(input: Iterator[ExecutionContext],
+            comparator: Comparator[ExecutionContext],
+            format: RowFormat,
+            state: QueryState): Iterator[ExecutionContext] = {
+    val budget = state.memoryBudget
+    if (budget.isUnlimited) {
+      val array = input.toArray
+      util.Arrays.sort(array, comparator)
+      return array.toIterator
+    }
+
+    val buffer = new util.ArrayList[ExecutionContext]()
+    val runs = new ArrayBuffer[SpillFile]()
+
+    def writeRun(): Unit = {
+      buffer.sort(comparator)
+      val run = new SpillFile(format, state)
+      var i = 0
+      while (i < buffer.size()) {
+        run.write(buffer.get(i))
+        i += 1
+      }
+      run.finishWriting()
+      runs += run
+      budget.releaseRows(buffer.size())
+      buffer.clear()
+    }
+
+    while (input.hasNext) {
+      val row = input.next()
+      if (!budget.tryReserveRow(buffer.size())) {
+        writeRun()
+        budget.tryReserveRow(0)
+      }
+      buffer.add(row)
+    }
+
+    if (runs.isEmpty) {
+      buffer.sort(comparator)
+      return new Iterator[ExecutionContext] {
+        private var index = 0
+
+        override def hasNext: Boolean = index < buffer.size()
+
+        override def next(): ExecutionContext = {
+          val row = buffer.get(index)
+          buffer.set(index, null)
+          index += 1
+          budget.releaseRows(1)
+          row
+        }
+      }
+    }
+
+    writeRun()
+    var toMerge: Seq[SpillFile] = runs
+    while (toMerge.size > MAX_MERGE_WIDTH) {
+      val run = new SpillFile(format, state)
+      merge(toMerge.take(MAX_MERGE_WIDTH), comparator).foreach(run.write)
+      run.finishWriting()
+      toMerge = run +: toMerge.drop(MAX_MERGE_WIDTH)
+    }
+    merge(toMerge, comparator)
+  }
+
+  /**
+    * Merges the given runs. Runs are opened for reading only here, so that no more than [[MAX_MERGE_WIDTH]] of them are
+    * open at the same time.
+    */
+  private def merge(runs: Seq[SpillFile], comparator: Comparator[ExecutionContext]): Iterator[ExecutionContext] = {
+    val heads = new util.PriorityQueue[RunHead](runs.size, new Comparator[RunHead] {
+      override def compare(a: RunHead, b: RunHead): Int = {
+        val result = comparator.compare(a.row, b.row)
+        if (result != 0) result else Integer.compare(a.run, b.run)
+      }
+    })
+    for ((rows, run) <- runs.map(_.rows()).zipWithIndex if rows.hasNext) {
+      heads.add(new RunHead(rows.next(), run, rows))
+    }
+
+    new Iterator[ExecutionContext] {
+      override def hasNext: Boolean = !heads.isEmpty
+
+      override def next(): ExecutionContext = {
+        val head = heads.poll()
+        if (head == null) {
+          Iterator.empty.next()
+        }
+        val row = head.row
+        if (head.rows.hasNext) {
+          head.row = head.rows.next()
+          heads.add(head)
+        }
+        row
+      }
+    }
+  }
+
+  private class RunHead(var row: ExecutionContext, val run: Int, val rows: Iterator[ExecutionContext])
+}
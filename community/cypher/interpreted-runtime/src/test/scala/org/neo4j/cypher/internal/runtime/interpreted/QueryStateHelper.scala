@@ -19,12 +19,16 @@
  */
 package org.neo4j.cypher.internal.runtime.interpreted
 
+import java.io.File
+
 import org.mockito.invocation.InvocationOnMock
 import org.mockito.stubbing.Answer
 import org.mockito.{ArgumentMatchers, Mockito}
-import org.neo4j.cypher.internal.runtime.QueryContext
+import org.neo4j.cypher.internal.runtime.{QueryContext, ResourceManager}
 import org.neo4j.cypher.internal.runtime.interpreted.TransactionBoundQueryContext.IndexSearchMonitor
-import org.neo4j.cypher.internal.runtime.interpreted.pipes.{ExternalCSVResource, NullPipeDecorator, PipeDecorator, QueryState}
+import org.neo4j.cypher.internal.runtime.interpreted.pipes._
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.SpillDirectory
+import org.neo4j.graphdb.mockfs.EphemeralFileSystemAbstraction
 import org.neo4j.graphdb.spatial.Point
 import org.neo4j.graphdb.{Node, Relationship}
 import org.neo4j.kernel.GraphDatabaseQueryService
@@ -48,10 +52,20 @@ object QueryStateHelper {
                 resources: ExternalCSVResource = null,
                 params: MapValue = EMPTY_MAP,
                 decorator: PipeDecorator = NullPipeDecorator,
-                initialContext: Option[ExecutionContext] = None
+                initialContext: Option[ExecutionContext] = None,
+                memoryBudget: QueryMemoryBudget = QueryMemoryBudget.unlimited
                ):QueryState =
     new QueryState(query, resources, params, decorator,
-      triadicState = mutable.Map.empty, repeatableReads = mutable.Map.empty, initialContext = initialContext)
+      triadicState = mutable.Map.empty, repeatableReads = mutable.Map.empty, initialContext = initialContext,
+      memoryBudget = memoryBudget)
+
+  def emptyWithMemoryBudget(maxRows: Long,
+                            spillDirectory: SpillDirectory = new SpillDirectory(new EphemeralFileSystemAbstraction, new File("spill"))
+                           ): QueryState = {
+    val query = Mockito.mock(classOf[QueryContext])
+    Mockito.when(query.resources).thenReturn(new ResourceManager)
+    emptyWith(query = query, memoryBudget = new QueryMemoryBudget(maxRows, spillDirectory))
+  }
 
   private val locker: PropertyContainerLocker = new PropertyContainerLocker
 
@@ -24,7 +24,7 @@ import org.neo4j.cypher.internal.runtime.interpreted.ValueComparisonHelper._
 import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.{Expression, Literal, Multiply, Variable}
 import org.opencypher.v9_0.util.symbols._
 import org.opencypher.v9_0.util.test_helpers.CypherFunSuite
-import org.neo4j.values.storable.Values.stringArray
+import org.neo4j.values.storable.Values.{intValue, stringArray}
 import org.neo4j.values.virtual.MapValue
 
 import scala.collection.JavaConverters._
@@ -79,6 +79,20 @@ class DistinctPipeTest extends CypherFunSuite {
     result.head("x").asInstanceOf[MapValue].get("prop") should equal(stringArray("a", "b"))
   }
 
+  test("distinct handles more distinct rows than fit into the memory budget") {
+    //GIVEN
+    val pipe = createDistinctPipe((0 until 1000).map(i => Map[String, Any]("x" -> i % 300)).toList)
+    val state = QueryStateHelper.emptyWithMemoryBudget(10)
+
+    //WHEN
+    val result = pipe.createResults(state).toList
+
+    //THEN
+    result.map(_("x")) should contain theSameElementsAs (0 until 300).map(intValue)
+    state.query.resources.allResources shouldBe empty
+    state.memoryBudget.reservedRowCount should equal(0)
+  }
+
   def createDistinctPipe(input: List[Map[String, Any]], expressions: Map[String, Expression] = Map("x" -> Variable("x"))) = {
     val source = new FakePipe(input, "x" -> CTNumber)
     DistinctPipe(source, expressions)()
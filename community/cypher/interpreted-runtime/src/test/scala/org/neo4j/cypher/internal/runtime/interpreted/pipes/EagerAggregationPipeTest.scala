@@ -144,6 +144,24 @@ class EagerAggregationPipeTest extends CypherFunSuite {
     getResults(aggregationPipe) should equal(List(Map("count(name)" -> longValue(3))))
   }
 
+  test("should aggregate more groups than fit into the memory budget") {
+    val source = new FakePipe((0 until 1000).map(i => Map[String, Any]("a" -> i % 300, "b" -> i)), createSymbolTableFor("a"))
+
+    val grouping = createReturnItemsFor("a")
+    val aggregation = Map("count(*)" -> CountStar(), "sum(b)" -> Sum(Variable("b")))
+    val aggregationPipe = EagerAggregationPipe(source, grouping, aggregation)()
+    val state = QueryStateHelper.emptyWithMemoryBudget(10)
+
+    val result = aggregationPipe.createResults(state).map(_.toMap).toList
+
+    result should contain theSameElementsAs (0 until 300).map { a =>
+      val bs = a until 1000 by 300
+      Map[String, AnyValue]("a" -> intValue(a), "count(*)" -> longValue(bs.size), "sum(b)" -> longValue(bs.sum))
+    }
+    state.query.resources.allResources shouldBe empty
+    state.memoryBudget.reservedRowCount should equal(0)
+  }
+
   private def createSymbolTableFor(name: String): (String, CypherType) = name -> CTNode
 
   private def getResults(p: Pipe) = p.createResults(QueryStateHelper.empty).map(_.toMap).toList
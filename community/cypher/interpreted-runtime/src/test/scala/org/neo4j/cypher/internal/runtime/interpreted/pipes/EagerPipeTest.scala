@@ -21,6 +21,7 @@ package org.neo4j.cypher.internal.runtime.interpreted.pipes
 
 import org.neo4j.cypher.internal.runtime.{QueryContext, QueryTransactionalContext}
 import org.neo4j.cypher.internal.runtime.interpreted.{ExecutionContext, QueryContextAdaptation, QueryStateHelper}
+import org.neo4j.values.storable.Values.intValue
 import org.opencypher.v9_0.util.test_helpers.CypherFunSuite
 
 class EagerPipeTest extends CypherFunSuite {
@@ -44,4 +45,16 @@ class EagerPipeTest extends CypherFunSuite {
     lazyIterator shouldBe empty
     resultIterator should not be empty
   }
+
+  test("should keep the order of more rows than fit into the memory budget") {
+    val src = new FakePipe((0 until 1000).map(i => Map[String, Any]("x" -> i)))
+    val eager = EagerPipe(src)()
+    val state = QueryStateHelper.emptyWithMemoryBudget(10)
+
+    val result = eager.createResults(state).toList
+
+    result.map(_("x")) should equal((0 until 1000).map(intValue))
+    state.query.resources.allResources shouldBe empty
+    state.memoryBudget.reservedRowCount should equal(0)
+  }
 }
@@ -19,9 +19,13 @@
  */
 package org.neo4j.cypher.internal.runtime.interpreted.pipes
 
+import java.io.{File, FilterInputStream, InputStream}
+
 import org.junit.Assert._
 import org.neo4j.cypher.internal.runtime.interpreted.ValueComparisonHelper._
 import org.neo4j.cypher.internal.runtime.interpreted.QueryStateHelper
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.{SpillDirectory, SpillingSort}
+import org.neo4j.graphdb.mockfs.{DelegatingFileSystemAbstraction, EphemeralFileSystemAbstraction}
 import org.opencypher.v9_0.util.symbols._
 import org.opencypher.v9_0.util.test_helpers.CypherFunSuite
 import org.neo4j.values.storable.Values
@@ -93,4 +97,50 @@ class SortPipeTest extends CypherFunSuite with MockitoSugar {
       Map("y" -> intValue(2)),
       Map("y" -> Values.NO_VALUE)))
   }
+
+  test("should sort more rows than fit into the memory budget") {
+    val list: Seq[MutableMap[String, Any]] = (0 until 1000).map(i => MutableMap[String, Any]("x" -> (i * 7919) % 1000, "y" -> s"row$i"))
+    val source = new FakePipe(list, "x" -> CTNumber, "y" -> CTString)
+    val sortPipe = new SortPipe(source, List(Ascending("x")))()
+    val state = QueryStateHelper.emptyWithMemoryBudget(10)
+
+    val result = sortPipe.createResults(state).toList
+
+    result.map(_("x")) should equal((0 until 1000).map(intValue))
+    result.map(_("y")).distinct should have size 1000
+    state.query.resources.allResources shouldBe empty
+    state.memoryBudget.reservedRowCount should equal(0)
+  }
+
+  test("should open no more spilled runs than it merges at once") {
+    val fs = new OpenInputCountingFileSystem
+    val directory = new File("spill")
+    val list: Seq[MutableMap[String, Any]] = (0 until 2000).map(i => MutableMap[String, Any]("x" -> (i * 7919) % 2000))
+    val source = new FakePipe(list, "x" -> CTNumber)
+    val sortPipe = new SortPipe(source, List(Ascending("x")))()
+    val state = QueryStateHelper.emptyWithMemoryBudget(10, new SpillDirectory(fs, directory))
+
+    val result = sortPipe.createResults(state).toList
+
+    result.map(_("x")) should equal((0 until 2000).map(intValue))
+    fs.maxOpenInputs should be > 1
+    fs.maxOpenInputs should be <= SpillingSort.MAX_MERGE_WIDTH
+    fs.listFiles(directory) shouldBe empty
+  }
+
+  private class OpenInputCountingFileSystem extends DelegatingFileSystemAbstraction(new EphemeralFileSystemAbstraction) {
+    private var openInputs = 0
+    var maxOpenInputs = 0
+
+    override def openAsInputStream(fileName: File): InputStream = {
+      openInputs += 1
+      maxOpenInputs = math.max(maxOpenInputs, openInputs)
+      new FilterInputStream(super.openAsInputStream(fileName)) {
+        override def close(): Unit = {
+          openInputs -= 1
+          super.close()
+        }
+      }
+    }
+  }
 }
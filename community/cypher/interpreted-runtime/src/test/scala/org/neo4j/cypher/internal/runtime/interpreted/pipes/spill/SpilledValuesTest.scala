@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes.spill
+
+import java.io.{ByteArrayInputStream, ByteArrayOutputStream, DataInputStream, DataOutputStream}
+import java.time._
+
+import org.mockito.Mockito.when
+import org.neo4j.cypher.internal.runtime.{Operations, QueryContext}
+import org.neo4j.graphdb.Node
+import org.neo4j.kernel.impl.util.ValueUtils
+import org.neo4j.values.AnyValue
+import org.neo4j.values.storable.CoordinateReferenceSystem.WGS84
+import org.neo4j.values.storable.Values._
+import org.neo4j.values.storable.{DateTimeValue, DateValue, DurationValue, LocalTimeValue, TimeValue}
+import org.neo4j.values.virtual.{NodeValue, PathValue, RelationshipValue, VirtualValues}
+import org.neo4j.values.virtual.VirtualValues.{list, map}
+import org.opencypher.v9_0.util.InternalException
+import org.opencypher.v9_0.util.test_helpers.CypherFunSuite
+
+class SpilledValuesTest extends CypherFunSuite {
+
+  private val query = mock[QueryContext]
+
+  Seq[AnyValue](
+    NO_VALUE,
+    TRUE,
+    byteValue(-3),
+    shortValue(1024),
+    intValue(Int.MinValue),
+    longValue(Long.MaxValue),
+    floatValue(1.5f),
+    doubleValue(-0.25),
+    charValue('x'),
+    stringValue("räksmörgås"),
+    utf8Value("utf8".getBytes("UTF-8")),
+    longArray(Array(1L, 2L, 3L)),
+    stringArray("a", "b"),
+    byteArray(Array[Byte](1, 2)),
+    pointValue(WGS84, 12.5, 56.8),
+    DateValue.date(2018, 8, 31),
+    LocalTimeValue.localTime(12, 30, 15, 42),
+    TimeValue.time(12, 30, 15, 42, ZoneOffset.ofHours(2)),
+    DateTimeValue.datetime(2018, 8, 31, 12, 30, 15, 42, ZoneId.of("Europe/Stockholm")),
+    DurationValue.duration(1, 2, 3, 4),
+    list(intValue(1), stringValue("two"), list(NO_VALUE)),
+    map(Array("a", "b"), Array[AnyValue](intValue(1), list(stringValue("c"))))
+  ).foreach { value =>
+    test(s"should read back $value") {
+      roundTrip(value) should equal(value)
+    }
+  }
+
+  test("should read back nodes of the store by id") {
+    val nodeOps = mock[Operations[NodeValue]]
+    val node = VirtualValues.nodeValue(42, stringArray("L"), VirtualValues.EMPTY_MAP)
+    when(query.nodeOps).thenReturn(nodeOps)
+    when(nodeOps.getById(42)).thenReturn(node)
+
+    roundTrip(VirtualValues.node(42)) should equal(node)
+  }
+
+  test("should read back relationships of the store by id") {
+    val relationshipOps = mock[Operations[RelationshipValue]]
+    val relationship = VirtualValues.relationshipValue(7, VirtualValues.nodeValue(1, stringArray(), VirtualValues.EMPTY_MAP),
+      VirtualValues.nodeValue(2, stringArray(), VirtualValues.EMPTY_MAP), stringValue("R"), VirtualValues.EMPTY_MAP)
+    when(query.relationshipOps).thenReturn(relationshipOps)
+    when(relationshipOps.getById(7)).thenReturn(relationship)
+
+    roundTrip(VirtualValues.relationship(7)) should equal(relationship)
+  }
+
+  test("should write nodes and relationships not backed by the store in full") {
+    val start = VirtualValues.nodeValue(-1, stringArray("A", "B"), map(Array("name"), Array[AnyValue](stringValue("start"))))
+    val end = VirtualValues.nodeValue(-2, stringArray(), VirtualValues.EMPTY_MAP)
+    val relationship = VirtualValues.relationshipValue(-3, start, end, stringValue("R"), map(Array("weight"), Array[AnyValue](intValue(3))))
+
+    val read = roundTrip(VirtualValues.path(Array(start, end), Array(relationship))).asInstanceOf[PathValue]
+
+    read.nodes()(0).labels() should equal(start.labels())
+    read.nodes()(0).properties() should equal(start.properties())
+    read.relationships()(0).id() should equal(-3)
+    read.relationships()(0).`type`() should equal(relationship.`type`())
+    read.relationships()(0).properties() should equal(relationship.properties())
+    read.relationships()(0).endNode().id() should equal(-2)
+  }
+
+  test("should not write virtual nodes that only exist in memory") {
+    val node = mock[Node]
+    when(node.getId).thenReturn(-1L)
+
+    an[InternalException] should be thrownBy roundTrip(ValueUtils.fromNodeProxy(node))
+  }
+
+  private def roundTrip(value: AnyValue): AnyValue = {
+    val bytes = new ByteArrayOutputStream()
+    val out = new DataOutputStream(bytes)
+    SpilledValues.write(value, out)
+    out.close()
+    val in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray))
+    val read = SpilledValues.read(in, query)
+    in.read() should equal(-1)
+    read
+  }
+}
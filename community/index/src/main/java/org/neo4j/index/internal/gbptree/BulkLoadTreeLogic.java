@@ -0,0 +1,265 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import org.eclipse.collections.api.list.primitive.MutableLongList;
+import org.eclipse.collections.impl.list.mutable.primitive.LongArrayList;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.index.internal.gbptree.TreeNode.Overflow;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PagedFile;
+
+import static org.neo4j.index.internal.gbptree.PageCursorUtil.checkOutOfBounds;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
+
+/**
+ * Builds a tree bottom-up from entries in strictly ascending key order. Entries are appended to the rightmost leaf
+ * until it's full, then a new leaf is started to its right and the splitter between the two is added to the
+ * rightmost internal node on the level above, which in turn may overflow and propagate further up. The nodes
+ * currently being written, one per level, each have a {@link PageCursor} of their own.
+ * <p>
+ * All nodes are new nodes from the {@link IdProvider}, written in unstable generation. The tree being built is
+ * disconnected from the current root until its {@link #finish() root} is published by the caller, so
+ * concurrent readers and crash recovery only ever see either the old or the new tree.
+ * <p>
+ * Leaves are packed fully. Internal nodes are packed fully too, except that when an internal node overflows its
+ * last key and child is moved over to the new node, so that no internal node is left without keys.
+ * <p>
+ * All acquired ids are remembered, so that they can be {@link #releaseAcquiredIds() released} again if the load fails.
+ */
+class BulkLoadTreeLogic<KEY,VALUE>
+{
+    private final PagedFile pagedFile;
+    private final TreeNode<KEY,VALUE> bTreeNode;
+    private final Layout<KEY,VALUE> layout;
+    private final IdProvider idProvider;
+    private final long stableGeneration;
+    private final long unstableGeneration;
+
+    private final Level leaf;
+    private final List<Level> internalLevels = new ArrayList<>();
+    private final MutableLongList acquiredIds = new LongArrayList();
+    private final KEY previousKey;
+    private boolean hasPreviousKey;
+
+    BulkLoadTreeLogic( PagedFile pagedFile, TreeNode<KEY,VALUE> bTreeNode, Layout<KEY,VALUE> layout, IdProvider idProvider,
+            long stableGeneration, long unstableGeneration )
+    {
+        this.pagedFile = pagedFile;
+        this.bTreeNode = bTreeNode;
+        this.layout = layout;
+        this.idProvider = idProvider;
+        this.stableGeneration = stableGeneration;
+        this.unstableGeneration = unstableGeneration;
+        this.leaf = new Level();
+        this.previousKey = layout.newKey();
+    }
+
+    /**
+     * Appends {@code key} and {@code value} to the rightmost leaf, starting a new leaf if it doesn't fit.
+     *
+     * @throws IllegalArgumentException if {@code key} isn't greater than the previously added key.
+     */
+    void add( KEY key, VALUE value ) throws IOException
+    {
+        if ( hasPreviousKey && layout.compare( previousKey, key ) >= 0 )
+        {
+            throw new IllegalArgumentException( "Bulk loaded keys must be added in strictly ascending order, but " + key +
+                    " was added after " + previousKey );
+        }
+        bTreeNode.validateKeyValueSize( key, value );
+
+        if ( leaf.cursor == null )
+        {
+            startLeaf();
+        }
+        else
+        {
+            Overflow overflow = bTreeNode.leafOverflow( leaf.cursor, leaf.keyCount, key, value );
+            if ( overflow == Overflow.NO_NEED_DEFRAG )
+            {
+                bTreeNode.defragmentLeaf( leaf.cursor );
+            }
+            else if ( overflow == Overflow.YES )
+            {
+                long fullLeafId = leaf.id;
+                moveToNewNode( leaf, "new leaf" );
+                bTreeNode.initializeLeaf( leaf.cursor, stableGeneration, unstableGeneration );
+                TreeNode.setLeftSibling( leaf.cursor, fullLeafId, stableGeneration, unstableGeneration );
+                layout.minimalSplitter( previousKey, key, leaf.splitter );
+                addToInternalLevel( 0, leaf.splitter, fullLeafId, leaf.id );
+            }
+        }
+
+        bTreeNode.insertKeyValueAt( leaf.cursor, key, value, leaf.keyCount, leaf.keyCount );
+        TreeNode.setKeyCount( leaf.cursor, ++leaf.keyCount );
+        checkOutOfBounds( leaf.cursor );
+        layout.copyKey( key, previousKey );
+        hasPreviousKey = true;
+    }
+
+    /**
+     * Completes the tree and closes all cursors. The returned root isn't yet the root of the tree,
+     * that is up to the caller to publish.
+     *
+     * @return id of the root of the loaded tree, an empty leaf if no entries were added.
+     */
+    long finish() throws IOException
+    {
+        if ( leaf.cursor == null )
+        {
+            startLeaf();
+        }
+        long rootId = internalLevels.isEmpty() ? leaf.id : internalLevels.get( internalLevels.size() - 1 ).id;
+        close();
+        return rootId;
+    }
+
+    /**
+     * Closes all cursors, without completing the tree.
+     */
+    void close()
+    {
+        leaf.close();
+        internalLevels.forEach( Level::close );
+    }
+
+    /**
+     * Releases all ids acquired for the tree being built, for when it won't be published. Cursors must be {@link #close() closed}.
+     */
+    void releaseAcquiredIds() throws IOException
+    {
+        for ( int i = 0; i < acquiredIds.size(); i++ )
+        {
+            idProvider.releaseId( stableGeneration, unstableGeneration, acquiredIds.get( i ) );
+        }
+        acquiredIds.clear();
+    }
+
+    private long acquireNewId() throws IOException
+    {
+        long id = idProvider.acquireNewId( stableGeneration, unstableGeneration );
+        acquiredIds.add( id );
+        return id;
+    }
+
+    private void startLeaf() throws IOException
+    {
+        leaf.cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK );
+        leaf.id = acquireNewId();
+        PageCursorUtil.goTo( leaf.cursor, "first leaf", leaf.id );
+        bTreeNode.initializeLeaf( leaf.cursor, stableGeneration, unstableGeneration );
+    }
+
+    /**
+     * Adds {@code key} and {@code rightChild} as the rightmost entry of the internal node on the given level,
+     * creating that level with {@code leftChild} as its leftmost child if it doesn't exist yet.
+     */
+    private void addToInternalLevel( int levelIndex, KEY key, long leftChild, long rightChild ) throws IOException
+    {
+        Level level;
+        if ( levelIndex == internalLevels.size() )
+        {
+            level = new Level();
+            level.cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK );
+            level.id = acquireNewId();
+            PageCursorUtil.goTo( level.cursor, "new internal level", level.id );
+            bTreeNode.initializeInternal( level.cursor, stableGeneration, unstableGeneration );
+            bTreeNode.setChildAt( level.cursor, leftChild, 0, stableGeneration, unstableGeneration );
+            internalLevels.add( level );
+        }
+        else
+        {
+            level = internalLevels.get( levelIndex );
+            Overflow overflow = bTreeNode.internalOverflow( level.cursor, level.keyCount, key );
+            if ( overflow == Overflow.NO_NEED_DEFRAG )
+            {
+                bTreeNode.defragmentInternal( level.cursor );
+            }
+            else if ( overflow == Overflow.YES )
+            {
+                // Move the last key and child over to the new node, its key becomes the splitter on the level above
+                int lastKeyPos = level.keyCount - 1;
+                bTreeNode.keyAt( level.cursor, level.splitter, lastKeyPos, TreeNode.Type.INTERNAL );
+                long movedChild = level.lastChild;
+                bTreeNode.removeKeyAndRightChildAt( level.cursor, lastKeyPos, level.keyCount );
+                TreeNode.setKeyCount( level.cursor, lastKeyPos );
+
+                long fullNodeId = level.id;
+                moveToNewNode( level, "new internal" );
+                bTreeNode.initializeInternal( level.cursor, stableGeneration, unstableGeneration );
+                TreeNode.setLeftSibling( level.cursor, fullNodeId, stableGeneration, unstableGeneration );
+                bTreeNode.setChildAt( level.cursor, movedChild, 0, stableGeneration, unstableGeneration );
+                insertKeyAndRightChild( level, key, rightChild );
+                addToInternalLevel( levelIndex + 1, level.splitter, fullNodeId, level.id );
+                return;
+            }
+        }
+        insertKeyAndRightChild( level, key, rightChild );
+    }
+
+    private void insertKeyAndRightChild( Level level, KEY key, long rightChild )
+    {
+        bTreeNode.insertKeyAndRightChildAt( level.cursor, key, rightChild, level.keyCount, level.keyCount,
+                stableGeneration, unstableGeneration );
+        TreeNode.setKeyCount( level.cursor, ++level.keyCount );
+        level.lastChild = rightChild;
+        checkOutOfBounds( level.cursor );
+    }
+
+    /**
+     * Points the right sibling of the current node of {@code level} to a new node and moves the level's cursor there.
+     * The new node must be initialized by the caller.
+     */
+    private void moveToNewNode( Level level, String messageOnError ) throws IOException
+    {
+        long newId = acquireNewId();
+        TreeNode.setRightSibling( level.cursor, newId, stableGeneration, unstableGeneration );
+        checkOutOfBounds( level.cursor );
+        PageCursorUtil.goTo( level.cursor, messageOnError, newId );
+        level.id = newId;
+        level.keyCount = 0;
+    }
+
+    /**
+     * The rightmost node on one level of the tree, the only node on that level which is still being written to.
+     */
+    private class Level
+    {
+        private final KEY splitter = layout.newKey();
+        private PageCursor cursor;
+        private long id;
+        private int keyCount;
+        private long lastChild;
+
+        private void close()
+        {
+            if ( cursor != null )
+            {
+                cursor.close();
+                cursor = null;
+            }
+        }
+    }
+}
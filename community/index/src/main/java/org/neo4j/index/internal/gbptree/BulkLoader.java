@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Loads key/value pairs, given in strictly ascending key order, into an empty {@link GBPTree}. Instead of
+ * inserting entries one by one from the root, like {@link Writer} does, the tree is built bottom-up: leaves are
+ * filled completely and written one after the other and internal nodes are built on top of them as leaves fill up.
+ * This means no splits and sequential writes, which makes loading a big tree I/O bound.
+ * <p>
+ * Loaded entries become visible to readers first when the bulk loader is {@link #close() closed}. A bulk loader
+ * holds the {@link GBPTree#writer() writer} of the tree for as long as it is open.
+ * <p>
+ * If adding an entry fails, nothing is loaded: {@link #close() closing} the bulk loader then releases the tree nodes
+ * written so far and leaves the tree empty. Entries which aren't already in key order can be loaded through
+ * a {@link SortingBulkLoader}.
+ *
+ * @param <KEY> type of keys
+ * @param <VALUE> type of values
+ */
+public interface BulkLoader<KEY,VALUE> extends Closeable
+{
+    /**
+     * Adds the given {@code key} and {@code value} as the next entry of the tree.
+     *
+     * @param key key to add, must be greater than any previously added key.
+     * @param value value to associate with the key.
+     * @throws IllegalArgumentException if {@code key} isn't greater than the previously added key.
+     * @throws UncheckedIOException on index access error.
+     */
+    void add( KEY key, VALUE value );
+
+    /**
+     * Completes the tree on top of the added entries, makes it the tree of the index and releases the
+     * {@link GBPTree#writer() writer}. If adding an entry has failed, the tree is left empty instead.
+     *
+     * @throws IOException on index access error.
+     */
+    @Override
+    void close() throws IOException;
+}
@@ -0,0 +1,256 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import org.neo4j.io.pagecache.PageCursor;
+
+/**
+ * Gather utility methods for encoding and decoding keys in leaves of {@link TreeNodeDynamicSize} with compressed leaf keys.
+ * Every such leaf holds a base key, which is a copy of (a prefix of) the first key inserted into the leaf.
+ * Keys in the leaf are encoded relative to that base, where bytes at the same offset as in the base are not stored.
+ * Comparing at equal offsets, rather than only looking at a common prefix, means that keys starting with a
+ * differing part (e.g. an entity id) followed by a shared part (e.g. a string value) still compress well.
+ *
+ * An encoded key is a sequence of segments, each starting with a header byte:
+ * <pre>
+ * [0,l,l,l,l,l,l,l] literal segment, the l's (1-127) tells how many literal bytes follow the header
+ * [1,c,c,c,c,c,c,c] copy segment, the c's + 1 (1-128) tells how many bytes to copy from the base at the current position
+ * </pre>
+ * The current position is the number of key bytes decoded so far.
+ *
+ * As a special case an encoded key can start with a zero header byte, meaning that the rest of the encoded key
+ * is the raw key bytes. This is used whenever segment encoding would not make the key smaller and caps the
+ * encoding overhead to one byte per key.
+ */
+class CompressedKeyUtil
+{
+    static final int SIZE_ENCODING_OVERHEAD = 1;
+
+    private static final int HEADER_RAW = 0;
+    private static final int FLAG_COPY = 0x80;
+    private static final int MAX_LITERAL_LENGTH = 0x7F;
+    private static final int MAX_COPY_LENGTH = 0x80;
+    // Copying a single byte costs as much as having it as literal, so only copy runs of at least this length
+    private static final int MIN_COPY_LENGTH = 2;
+
+    private CompressedKeyUtil()
+    {
+    }
+
+    /**
+     * @param key raw key bytes.
+     * @param keySize number of bytes in {@code key} to encode.
+     * @param base base bytes to encode relative to.
+     * @param baseSize number of bytes in {@code base}.
+     * @return number of bytes {@link #encode(PageCursor, byte[], int, byte[], int)} would write for this key.
+     */
+    static int encodedSize( byte[] key, int keySize, byte[] base, int baseSize )
+    {
+        int segmentsSize = encodeSegments( null, key, keySize, base, baseSize );
+        return useSegments( keySize, segmentsSize ) ? segmentsSize : keySize + SIZE_ENCODING_OVERHEAD;
+    }
+
+    /**
+     * Writes encoded key at current offset of {@code cursor}.
+     *
+     * @param cursor {@link PageCursor} to write to, at its current offset.
+     * @param key raw key bytes.
+     * @param keySize number of bytes in {@code key} to encode.
+     * @param base base bytes to encode relative to.
+     * @param baseSize number of bytes in {@code base}.
+     */
+    static void encode( PageCursor cursor, byte[] key, int keySize, byte[] base, int baseSize )
+    {
+        int segmentsSize = encodeSegments( null, key, keySize, base, baseSize );
+        if ( useSegments( keySize, segmentsSize ) )
+        {
+            encodeSegments( cursor, key, keySize, base, baseSize );
+        }
+        else
+        {
+            cursor.putByte( (byte) HEADER_RAW );
+            cursor.putBytes( key, 0, keySize );
+        }
+    }
+
+    private static boolean useSegments( int keySize, int segmentsSize )
+    {
+        // An empty key has no segments and is always written as raw
+        return keySize > 0 && segmentsSize < keySize + SIZE_ENCODING_OVERHEAD;
+    }
+
+    /**
+     * Encode key as segments, or only calculate the size of them if {@code cursor} is {@code null}.
+     */
+    private static int encodeSegments( PageCursor cursor, byte[] key, int keySize, byte[] base, int baseSize )
+    {
+        int size = 0;
+        int pos = 0;
+        int literalStart = 0;
+        while ( pos < keySize )
+        {
+            int copyLength = 0;
+            while ( pos + copyLength < keySize && pos + copyLength < baseSize && key[pos + copyLength] == base[pos + copyLength] )
+            {
+                copyLength++;
+            }
+
+            if ( copyLength >= MIN_COPY_LENGTH )
+            {
+                size += writeLiterals( cursor, key, literalStart, pos - literalStart );
+                size += writeCopies( cursor, copyLength );
+                pos += copyLength;
+                literalStart = pos;
+            }
+            else
+            {
+                pos++;
+            }
+        }
+        size += writeLiterals( cursor, key, literalStart, pos - literalStart );
+        return size;
+    }
+
+    private static int writeLiterals( PageCursor cursor, byte[] key, int from, int length )
+    {
+        int size = 0;
+        while ( length > 0 )
+        {
+            int segmentLength = Math.min( length, MAX_LITERAL_LENGTH );
+            if ( cursor != null )
+            {
+                cursor.putByte( (byte) segmentLength );
+                cursor.putBytes( key, from, segmentLength );
+            }
+            size += 1 + segmentLength;
+            from += segmentLength;
+            length -= segmentLength;
+        }
+        return size;
+    }
+
+    private static int writeCopies( PageCursor cursor, int length )
+    {
+        int size = 0;
+        while ( length > 0 )
+        {
+            int segmentLength = Math.min( length, MAX_COPY_LENGTH );
+            if ( cursor != null )
+            {
+                cursor.putByte( (byte) (FLAG_COPY | (segmentLength - 1)) );
+            }
+            size++;
+            length -= segmentLength;
+        }
+        return size;
+    }
+
+    /**
+     * Calculates the decoded size of the encoded key at current offset of {@code cursor}, without moving the cursor.
+     * Data read may be inconsistent if read optimistically and so the encoded key is validated while read.
+     *
+     * @param cursor {@link PageCursor} placed at the start of the encoded key.
+     * @param encodedSize size of the encoded key.
+     * @param baseSize size of the base the key is encoded relative to.
+     * @return size of the decoded key, or {@code -1} if the encoded key is malformed.
+     */
+    static int decodedSize( PageCursor cursor, int encodedSize, int baseSize )
+    {
+        if ( encodedSize < SIZE_ENCODING_OVERHEAD )
+        {
+            return -1;
+        }
+        int offset = cursor.getOffset();
+        int end = offset + encodedSize;
+        if ( (cursor.getByte( offset ) & 0xFF) == HEADER_RAW )
+        {
+            return encodedSize - SIZE_ENCODING_OVERHEAD;
+        }
+
+        int size = 0;
+        while ( offset < end )
+        {
+            int header = cursor.getByte( offset ) & 0xFF;
+            offset++;
+            if ( (header & FLAG_COPY) != 0 )
+            {
+                size += (header & ~FLAG_COPY) + 1;
+                if ( size > baseSize )
+                {
+                    return -1;
+                }
+            }
+            else
+            {
+                if ( header == HEADER_RAW )
+                {
+                    return -1;
+                }
+                size += header;
+                offset += header;
+            }
+        }
+        return offset == end ? size : -1;
+    }
+
+    /**
+     * Decodes the encoded key at current offset of {@code cursor} into {@code into}, moving the cursor to the end of the encoded key.
+     * The encoded key must first have been validated by {@link #decodedSize(PageCursor, int, int)}.
+     *
+     * @param cursor {@link PageCursor} placed at the start of the encoded key.
+     * @param encodedSize size of the encoded key.
+     * @param baseOffset offset in the page where the base starts.
+     * @param into byte array to decode the key into, must fit the whole decoded key.
+     */
+    static void decode( PageCursor cursor, int encodedSize, int baseOffset, byte[] into )
+    {
+        int end = cursor.getOffset() + encodedSize;
+        int header = cursor.getByte() & 0xFF;
+        if ( header == HEADER_RAW )
+        {
+            cursor.getBytes( into, 0, encodedSize - SIZE_ENCODING_OVERHEAD );
+            return;
+        }
+
+        int pos = 0;
+        while ( true )
+        {
+            if ( (header & FLAG_COPY) != 0 )
+            {
+                int length = (header & ~FLAG_COPY) + 1;
+                for ( int i = 0; i < length; i++, pos++ )
+                {
+                    into[pos] = cursor.getByte( baseOffset + pos );
+                }
+            }
+            else
+            {
+                cursor.getBytes( into, pos, header );
+                pos += header;
+            }
+
+            if ( cursor.getOffset() >= end )
+            {
+                return;
+            }
+            header = cursor.getByte() & 0xFF;
+        }
+    }
+}
@@ -1044,6 +1044,43 @@ public class GBPTree<KEY,VALUE> implements Closeable
         return writer;
     }
 
+    /**
+     * Returns a {@link BulkLoader} able to fill this index with entries given in strictly ascending key order.
+     * The tree is built bottom-up, without any splits and with sequential writes, which makes it a lot faster
+     * than inserting the same entries using {@link #writer()}. This is only possible for an empty index.
+     * The bulk loader holds the {@link #writer() writer} and must be {@link BulkLoader#close() closed}
+     * before the writer can be acquired again.
+     *
+     * @return a {@link BulkLoader} for filling this empty index.
+     * @throws IOException on error accessing the index.
+     * @throws IllegalStateException if this index isn't empty or if the writer is already acquired.
+     */
+    public BulkLoader<KEY,VALUE> bulkLoader() throws IOException
+    {
+        writer();
+        boolean success = false;
+        try
+        {
+            PageCursor rootCursor = writer.cursor;
+            if ( !TreeNode.isLeaf( rootCursor ) || TreeNode.keyCount( rootCursor ) != 0 )
+            {
+                throw new IllegalStateException( "Bulk loading can only be done into an empty tree, but " + this + " has entries" );
+            }
+            // Keep holding the writer, but don't keep the current root pinned, it would block readers until we're done
+            writer.closeCursor();
+            BulkLoader<KEY,VALUE> bulkLoader = new SingleBulkLoader();
+            success = true;
+            return bulkLoader;
+        }
+        finally
+        {
+            if ( !success )
+            {
+                writer.close();
+            }
+        }
+    }
+
     private void setRoot( long rootId, long rootGeneration )
     {
         this.root = new Root( rootId, rootGeneration );
@@ -1278,10 +1315,21 @@ public class GBPTree<KEY,VALUE> implements Closeable
         {
             try
             {
-                treeLogic.insert( cursor, structurePropagation, key, value, valueMerger,
+                boolean inserted = treeLogic.insert( cursor, structurePropagation, key, value, valueMerger,
                         stableGeneration, unstableGeneration );
 
                 handleStructureChanges();
+                if ( !inserted )
+                {
+                    // Leaf had to be split before there was room, any merge with existing value is already done
+                    inserted = treeLogic.insert( cursor, structurePropagation, key, value, ValueMergers.overwrite(),
+                            stableGeneration, unstableGeneration );
+                    handleStructureChanges();
+                    if ( !inserted )
+                    {
+                        throw new IllegalStateException( "Failed to insert " + key + " even after splitting leaf to make room for it" );
+                    }
+                }
             }
             catch ( IOException e )
             {
@@ -1375,6 +1423,85 @@ public class GBPTree<KEY,VALUE> implements Closeable
         }
     }
 
+    private class SingleBulkLoader implements BulkLoader<KEY,VALUE>
+    {
+        private final BulkLoadTreeLogic<KEY,VALUE> treeLogic;
+        private boolean failed;
+        private boolean closed;
+
+        // Like the writer, the bulk loader holds the writer lock and so can't live past a checkpoint
+        SingleBulkLoader()
+        {
+            this.treeLogic = new BulkLoadTreeLogic<>( pagedFile, bTreeNode, layout, freeList,
+                    writer.stableGeneration, writer.unstableGeneration );
+        }
+
+        @Override
+        public void add( KEY key, VALUE value )
+        {
+            try
+            {
+                treeLogic.add( key, value );
+            }
+            catch ( IOException e )
+            {
+                failed = true;
+                appendTreeInformation( e );
+                throw new UncheckedIOException( e );
+            }
+            catch ( Throwable t )
+            {
+                failed = true;
+                appendTreeInformation( t );
+                throw t;
+            }
+        }
+
+        @Override
+        public void close() throws IOException
+        {
+            if ( closed )
+            {
+                throw new IllegalStateException( "Tried to close bulk loader of " + GBPTree.this +
+                        ", but bulk loader is already closed." );
+            }
+            closed = true;
+            boolean success = false;
+            try
+            {
+                if ( !failed )
+                {
+                    long emptyRootId = root.id();
+                    long rootId = treeLogic.finish();
+                    GBPTree.this.setRoot( rootId, writer.unstableGeneration );
+                    success = true;
+                    freeList.releaseId( writer.stableGeneration, writer.unstableGeneration, emptyRootId );
+                }
+            }
+            catch ( Throwable t )
+            {
+                appendTreeInformation( t );
+                throw t;
+            }
+            finally
+            {
+                treeLogic.close();
+                try
+                {
+                    if ( !success )
+                    {
+                        // The loaded nodes never became part of the tree, which is still the empty tree it was before
+                        treeLogic.releaseAcquiredIds();
+                    }
+                }
+                finally
+                {
+                    writer.close();
+                }
+            }
+        }
+    }
+
     public boolean wasDirtyOnStartup()
     {
         return dirtyOnStartup;
@@ -152,6 +152,25 @@ class InternalTreeLogic<KEY,VALUE>
         }
     }
 
+    /**
+     * Outcome of inserting key and value into a leaf.
+     */
+    private enum LeafInsert
+    {
+        /**
+         * Inserted without split.
+         */
+        INSERTED,
+        /**
+         * Leaf was split and key and value inserted in either of the two leaves.
+         */
+        SPLIT,
+        /**
+         * Leaf was split, but key and value weren't inserted, see {@link TreeNode#doSplitLeaf}.
+         */
+        SPLIT_NOT_INSERTED
+    }
+
     InternalTreeLogic( IdProvider idProvider, TreeNode<KEY,VALUE> bTreeNode, Layout<KEY,VALUE> layout )
     {
         this.idProvider = idProvider;
@@ -335,6 +354,10 @@ class InternalTreeLogic<KEY,VALUE>
      * generation version of root. This needs to be handled by caller.
      * <p>
      * Leaves cursor at the page which was last updated. No guarantees on offset.
+     * <p>
+     * Rarely the leaf needs to be split before there's room for the key, see {@link TreeNode#doSplitLeaf}. Then the key isn't
+     * inserted and this method returns {@code false}. Caller should then handle structure changes and insert again, using
+     * {@link ValueMergers#overwrite()} since any merge with an existing value has already been done into {@code value}.
      *
      * @param cursor {@link PageCursor} pinned to root of tree (if first insert/remove since
      * {@link #initialize(PageCursor)}) or at where last insert/remove left it.
@@ -344,18 +367,20 @@ class InternalTreeLogic<KEY,VALUE>
      * @param valueMerger {@link ValueMerger} for deciding what to do with existing keys
      * @param stableGeneration stable generation, i.e. generations <= this generation are considered stable.
      * @param unstableGeneration unstable generation, i.e. generation which is under development right now.
+     * @return {@code true} if key and value was inserted, {@code false} if caller needs to insert again.
      * @throws IOException on cursor failure
      */
-    void insert( PageCursor cursor, StructurePropagation<KEY> structurePropagation, KEY key, VALUE value,
+    boolean insert( PageCursor cursor, StructurePropagation<KEY> structurePropagation, KEY key, VALUE value,
             ValueMerger<KEY,VALUE> valueMerger, long stableGeneration, long unstableGeneration ) throws IOException
     {
         assert cursorIsAtExpectedLocation( cursor );
         bTreeNode.validateKeyValueSize( key, value );
         moveToCorrectLeaf( cursor, key, stableGeneration, unstableGeneration );
 
-        insertInLeaf( cursor, structurePropagation, key, value, valueMerger, stableGeneration, unstableGeneration );
+        boolean inserted = insertInLeaf( cursor, structurePropagation, key, value, valueMerger, stableGeneration, unstableGeneration );
 
         handleStructureChanges( cursor, structurePropagation, stableGeneration, unstableGeneration );
+        return inserted;
     }
 
     private int search( PageCursor cursor, TreeNode.Type type, KEY key, KEY readKey, int keyCount )
@@ -459,6 +484,7 @@ class InternalTreeLogic<KEY,VALUE>
         structurePropagation.midChild = current;
         structurePropagation.rightChild = newRight;
 
+        boolean inserted;
         try ( PageCursor rightCursor = cursor.openLinkedCursor( newRight ) )
         {
             // Initialize new right
@@ -496,9 +522,10 @@ class InternalTreeLogic<KEY,VALUE>
      * @param key key to be inserted
      * @param value value to be associated with key
      * @param valueMerger {@link ValueMerger} for deciding what to do with existing keys
+     * @return {@code true} if key and value was inserted, {@code false} if leaf was split without inserting them.
      * @throws IOException on cursor failure
      */
-    private void insertInLeaf( PageCursor cursor, StructurePropagation<KEY> structurePropagation, KEY key, VALUE value,
+    private boolean insertInLeaf( PageCursor cursor, StructurePropagation<KEY> structurePropagation, KEY key, VALUE value,
             ValueMerger<KEY,VALUE> valueMerger, long stableGeneration, long unstableGeneration ) throws IOException
     {
         int keyCount = TreeNode.keyCount( cursor );
@@ -506,16 +533,16 @@ class InternalTreeLogic<KEY,VALUE>
         int pos = positionOf( search );
         if ( isHit( search ) )
         {
-            overwriteValue( cursor, structurePropagation, key, value, valueMerger, pos, keyCount, stableGeneration, unstableGeneration );
-            return;
+            return overwriteValue( cursor, structurePropagation, key, value, valueMerger, pos, keyCount, stableGeneration, unstableGeneration );
         }
 
         createSuccessorIfNeeded( cursor, structurePropagation, UPDATE_MID_CHILD, stableGeneration, unstableGeneration );
 
-        doInsertInLeaf( cursor, structurePropagation, key, value, pos, keyCount, stableGeneration, unstableGeneration );
+        return doInsertInLeaf( cursor, structurePropagation, key, value, pos, keyCount, stableGeneration, unstableGeneration ) !=
+               LeafInsert.SPLIT_NOT_INSERTED;
     }
 
-    private void overwriteValue( PageCursor cursor, StructurePropagation<KEY> structurePropagation, KEY key, VALUE value,
+    private boolean overwriteValue( PageCursor cursor, StructurePropagation<KEY> structurePropagation, KEY key, VALUE value,
             ValueMerger<KEY,VALUE> valueMerger, int pos, int keyCount, long stableGeneration, long unstableGeneration ) throws IOException
     {
         // this key already exists, what shall we do? ask the valueMerger
@@ -533,25 +560,34 @@ class InternalTreeLogic<KEY,VALUE>
                 // Delete old value
                 bTreeNode.removeKeyValueAt( cursor, pos, keyCount );
                 TreeNode.setKeyCount( cursor, keyCount - 1 );
-                boolean didSplit =
+                LeafInsert leafInsert =
                         doInsertInLeaf( cursor, structurePropagation, key, mergedValue, pos, keyCount - 1, stableGeneration, unstableGeneration );
-                if ( !didSplit && bTreeNode.leafUnderflow( cursor, keyCount ) )
+                if ( leafInsert == LeafInsert.SPLIT_NOT_INSERTED )
+                {
+                    // Put back existing value, last in left leaf, for it to be overwritten when caller inserts again.
+                    // Existing value was in this leaf along with the keys that are still here so it fits.
+                    bTreeNode.insertKeyValueAt( cursor, key, readValue, pos, pos );
+                    TreeNode.setKeyCount( cursor, pos + 1 );
+                    return false;
+                }
+                if ( leafInsert == LeafInsert.INSERTED && bTreeNode.leafUnderflow( cursor, keyCount ) )
                 {
                     underflowInLeaf( cursor, structurePropagation, keyCount, stableGeneration, unstableGeneration );
                 }
             }
         }
+        return true;
     }
 
-    private boolean doInsertInLeaf( PageCursor cursor, StructurePropagation<KEY> structurePropagation, KEY key, VALUE value, int pos,
+    private LeafInsert doInsertInLeaf( PageCursor cursor, StructurePropagation<KEY> structurePropagation, KEY key, VALUE value, int pos,
             int keyCount, long stableGeneration, long unstableGeneration ) throws IOException
     {
         Overflow overflow = bTreeNode.leafOverflow( cursor, keyCount, key, value );
         if ( overflow == YES )
         {
             // Overflow, split leaf
-            splitLeaf( cursor, structurePropagation, key, value, keyCount, stableGeneration, unstableGeneration );
-            return true;
+            boolean inserted = splitLeaf( cursor, structurePropagation, key, value, keyCount, stableGeneration, unstableGeneration );
+            return inserted ? LeafInsert.SPLIT : LeafInsert.SPLIT_NOT_INSERTED;
         }
 
         if ( overflow == NO_NEED_DEFRAG )
@@ -562,7 +598,7 @@ class InternalTreeLogic<KEY,VALUE>
         // No overflow, insert key and value
         bTreeNode.insertKeyValueAt( cursor, key, value, pos, keyCount );
         TreeNode.setKeyCount( cursor, keyCount + 1 );
-        return false;
+        return LeafInsert.INSERTED;
     }
 
     /**
@@ -574,9 +610,10 @@ class InternalTreeLogic<KEY,VALUE>
      * @param newKey key to be inserted
      * @param newValue value to be inserted (in association with key)
      * @param keyCount number of keys in this leaf (it was already read anyway)
+     * @return {@code true} if new key and value was inserted, see {@link TreeNode#doSplitLeaf}.
      * @throws IOException on cursor failure
      */
-    private void splitLeaf( PageCursor cursor, StructurePropagation<KEY> structurePropagation,
+    private boolean splitLeaf( PageCursor cursor, StructurePropagation<KEY> structurePropagation,
             KEY newKey, VALUE newValue, int keyCount, long stableGeneration, long unstableGeneration )
                     throws IOException
     {
@@ -645,6 +682,7 @@ class InternalTreeLogic<KEY,VALUE>
         structurePropagation.midChild = current;
         structurePropagation.rightChild = newRight;
 
+        boolean inserted;
         try ( PageCursor rightCursor = cursor.openLinkedCursor( newRight ) )
         {
             // Initialize new right
@@ -654,7 +692,7 @@ class InternalTreeLogic<KEY,VALUE>
             TreeNode.setLeftSibling( rightCursor, current, stableGeneration, unstableGeneration );
 
             // Do split
-            bTreeNode.doSplitLeaf( cursor, keyCount, rightCursor, pos, newKey, newValue, structurePropagation.rightKey );
+            inserted = bTreeNode.doSplitLeaf( cursor, keyCount, rightCursor, pos, newKey, newValue, structurePropagation.rightKey );
         }
 
         // Update old right with new left sibling (newRight)
@@ -669,6 +707,7 @@ class InternalTreeLogic<KEY,VALUE>
 
         // Update left child
         TreeNode.setRightSibling( cursor, newRight, stableGeneration, unstableGeneration );
+        return inserted;
     }
 
     /**
@@ -110,6 +110,17 @@ public interface Layout<KEY, VALUE> extends Comparator<KEY>
      */
     boolean fixedSize();
 
+    /**
+     * Indicate if keys should be compressed in leaves of a dynamic size tree, by storing them relative to a base key of each leaf.
+     * Layouts where neighbouring keys often share bytes at the same offsets, e.g. keys with strings, benefit from this.
+     * Only decides format of trees being created, existing trees will keep the format they were created with.
+     * @return true if keys should be compressed, otherwise false.
+     */
+    default boolean compressedKeys()
+    {
+        return false;
+    }
+
     /**
      * Find shortest key (best effort) that separate left from right in sort order
      * and initialize into with result.
@@ -163,9 +163,10 @@ class Meta
                     layout.identifier(), layout.majorVersion(), layout.minorVersion() );
         }
 
+        // A layout may select a newer version of its format than the index was created with, e.g. when it starts to
+        // use compressed keys. Such index is still opened using the format version it was created with.
         Factory formatByLayout = TreeNodeSelector.selectByLayout( layout );
-        if ( formatByLayout.formatIdentifier() != formatIdentifier ||
-             formatByLayout.formatVersion() != formatVersion )
+        if ( formatByLayout.formatIdentifier() != formatIdentifier || !TreeNodeSelector.isKnownFormat( formatIdentifier, formatVersion ) )
         {
             throw new MetadataMismatchException( "Tried to open using layout not compatible with what index was created with. " +
                     "Created with formatIdentifier:%d,formatVersion:%d. Opened with formatIdentifier:%d,formatVersion%d",
@@ -198,7 +199,10 @@ class Meta
 
     private int allVersionsCombined()
     {
-        return formatIdentifier >>> SHIFT_FORMAT_IDENTIFIER | formatVersion >>> SHIFT_FORMAT_VERSION;
+        return (formatIdentifier & MASK_BYTE) << SHIFT_FORMAT_IDENTIFIER |
+               (formatVersion & MASK_BYTE) << SHIFT_FORMAT_VERSION |
+               (unusedVersionSlot3 & MASK_BYTE) << SHIFT_UNUSED_VERSION_SLOT_3 |
+               (unusedVersionSlot4 & MASK_BYTE) << SHIFT_UNUSED_VERSION_SLOT_4;
     }
 
     int getPageSize()
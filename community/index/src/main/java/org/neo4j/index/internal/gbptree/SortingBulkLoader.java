@@ -0,0 +1,432 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.ByteArrayPageCursor;
+import org.neo4j.io.pagecache.PageCursor;
+
+/**
+ * Loads entries given in any key order into a {@link BulkLoader}, by means of an external merge sort.
+ * <p>
+ * Added entries are buffered in memory. A full buffer is sorted by key and written to a temporary run file.
+ * When {@link #close() closed}, the run files and the entries left in the buffer are merged in key order into
+ * the bulk loader, which is then closed. Entries with equal keys are merged into one using the given
+ * {@link ValueMerger}. No more than {@link #MAX_MERGE_WIDTH} runs are merged at a time, runs beyond that
+ * are first merged into bigger runs.
+ * <p>
+ * Memory use is bounded by the buffer size, in number of entries, and a read buffer per run being merged.
+ * Run files are named after the given file, with a run number appended, and are deleted when closed.
+ *
+ * @param <KEY> type of keys
+ * @param <VALUE> type of values
+ */
+public class SortingBulkLoader<KEY,VALUE> implements Closeable
+{
+    static final int MAX_MERGE_WIDTH = 64;
+    private static final int RUN_IO_BUFFER_SIZE = 64 * 1024;
+    private static final int END_OF_RUN = -1;
+
+    private final Layout<KEY,VALUE> layout;
+    private final BulkLoader<KEY,VALUE> bulkLoader;
+    private final ValueMerger<KEY,VALUE> merger;
+    private final FileSystemAbstraction fs;
+    private final File runFileBase;
+    private final Entry<KEY,VALUE>[] buffer;
+    private final List<File> runs = new ArrayList<>();
+    private final Scratch scratch = new Scratch();
+    private int bufferedEntries;
+    private int runCounter;
+    private boolean closed;
+
+    /**
+     * @param layout {@link Layout} of the tree being loaded.
+     * @param bulkLoader {@link BulkLoader} to load the sorted entries into. It's closed when this loader is closed.
+     * @param merger {@link ValueMerger} merging the values of entries with equal keys.
+     * @param fs {@link FileSystemAbstraction} to write the run files to.
+     * @param runFileBase file to name run files after.
+     * @param bufferSize maximum number of entries to keep in memory, i.e. the number of entries per run.
+     */
+    @SuppressWarnings( "unchecked" )
+    public SortingBulkLoader( Layout<KEY,VALUE> layout, BulkLoader<KEY,VALUE> bulkLoader, ValueMerger<KEY,VALUE> merger,
+            FileSystemAbstraction fs, File runFileBase, int bufferSize )
+    {
+        if ( bufferSize <= 0 )
+        {
+            throw new IllegalArgumentException( "Buffer size must be positive, but was " + bufferSize );
+        }
+        this.layout = layout;
+        this.bulkLoader = bulkLoader;
+        this.merger = merger;
+        this.fs = fs;
+        this.runFileBase = runFileBase;
+        this.buffer = new Entry[bufferSize];
+    }
+
+    /**
+     * Adds the given {@code key} and {@code value}, in no particular key order. The key and value are copied,
+     * so the instances can be reused by the caller.
+     *
+     * @param key key to add.
+     * @param value value to associate with the key.
+     * @throws IOException on error writing a run file.
+     */
+    public void add( KEY key, VALUE value ) throws IOException
+    {
+        if ( bufferedEntries == buffer.length )
+        {
+            writeRun();
+        }
+        Entry<KEY,VALUE> entry = buffer[bufferedEntries];
+        if ( entry == null )
+        {
+            entry = buffer[bufferedEntries] = new Entry<>( layout.newKey(), layout.newValue() );
+        }
+        layout.copyKey( key, entry.key );
+        copyValue( value, entry.value );
+        bufferedEntries++;
+    }
+
+    /**
+     * Merges all added entries in key order into the {@link BulkLoader} and closes it. Run files are deleted.
+     *
+     * @throws IOException on error reading run files or loading the tree.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        if ( closed )
+        {
+            throw new IllegalStateException( "Sorting bulk loader is already closed" );
+        }
+        closed = true;
+        try
+        {
+            while ( runs.size() >= MAX_MERGE_WIDTH )
+            {
+                List<File> merged = new ArrayList<>( runs.subList( 0, MAX_MERGE_WIDTH ) );
+                runs.removeAll( merged );
+                File run = nextRunFile();
+                try ( RunWriter writer = new RunWriter( run ) )
+                {
+                    merge( merged, false, writer );
+                }
+                runs.add( run );
+                deleteAll( merged );
+            }
+            merge( runs, true, bulkLoader::add );
+        }
+        finally
+        {
+            deleteAll( runs );
+            bulkLoader.close();
+        }
+    }
+
+    private void writeRun() throws IOException
+    {
+        sortBuffer();
+        File run = nextRunFile();
+        runs.add( run );
+        try ( RunWriter writer = new RunWriter( run ) )
+        {
+            for ( int i = 0; i < bufferedEntries; i++ )
+            {
+                writer.add( buffer[i].key, buffer[i].value );
+            }
+        }
+        bufferedEntries = 0;
+    }
+
+    private void sortBuffer()
+    {
+        Arrays.sort( buffer, 0, bufferedEntries, ( left, right ) -> layout.compare( left.key, right.key ) );
+    }
+
+    private File nextRunFile()
+    {
+        return new File( runFileBase.getParentFile(), runFileBase.getName() + ".run-" + runCounter++ );
+    }
+
+    private void deleteAll( List<File> files )
+    {
+        files.forEach( fs::deleteFile );
+        files.clear();
+    }
+
+    /**
+     * Merges the given runs, and the entries in the buffer if {@code includeBuffer}, in key order into {@code sink},
+     * merging the values of equal keys.
+     */
+    private void merge( List<File> runFiles, boolean includeBuffer, Sink<KEY,VALUE> sink ) throws IOException
+    {
+        PriorityQueue<Source<KEY,VALUE>> sources = new PriorityQueue<>( ( left, right ) -> layout.compare( left.key(), right.key() ) );
+        List<Source<KEY,VALUE>> allSources = new ArrayList<>();
+        try
+        {
+            for ( File run : runFiles )
+            {
+                allSources.add( new RunReader( run ) );
+            }
+            if ( includeBuffer )
+            {
+                sortBuffer();
+                allSources.add( new BufferReader() );
+            }
+            for ( Source<KEY,VALUE> source : allSources )
+            {
+                if ( source.next() )
+                {
+                    sources.add( source );
+                }
+            }
+
+            KEY pendingKey = layout.newKey();
+            VALUE pendingValue = layout.newValue();
+            boolean hasPending = false;
+            Source<KEY,VALUE> source;
+            while ( (source = sources.poll()) != null )
+            {
+                if ( hasPending && layout.compare( pendingKey, source.key() ) == 0 )
+                {
+                    VALUE merged = merger.merge( pendingKey, source.key(), pendingValue, source.value() );
+                    if ( merged != null && merged != pendingValue )
+                    {
+                        copyValue( merged, pendingValue );
+                    }
+                }
+                else
+                {
+                    if ( hasPending )
+                    {
+                        sink.add( pendingKey, pendingValue );
+                    }
+                    layout.copyKey( source.key(), pendingKey );
+                    copyValue( source.value(), pendingValue );
+                    hasPending = true;
+                }
+                if ( source.next() )
+                {
+                    sources.add( source );
+                }
+            }
+            if ( hasPending )
+            {
+                sink.add( pendingKey, pendingValue );
+            }
+        }
+        finally
+        {
+            for ( Source<KEY,VALUE> source : allSources )
+            {
+                source.close();
+            }
+        }
+    }
+
+    private void copyValue( VALUE from, VALUE into )
+    {
+        int valueSize = layout.valueSize( from );
+        PageCursor cursor = scratch.cursor( valueSize );
+        layout.writeValue( cursor, from );
+        cursor.setOffset( 0 );
+        layout.readValue( cursor, into, valueSize );
+    }
+
+    private static class Entry<KEY,VALUE>
+    {
+        private final KEY key;
+        private final VALUE value;
+
+        Entry( KEY key, VALUE value )
+        {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    private interface Sink<KEY,VALUE>
+    {
+        void add( KEY key, VALUE value ) throws IOException;
+    }
+
+    private interface Source<KEY,VALUE> extends Closeable
+    {
+        boolean next() throws IOException;
+
+        KEY key();
+
+        VALUE value();
+    }
+
+    /**
+     * A byte array for serializing keys and values, grown as needed.
+     */
+    private static class Scratch
+    {
+        private byte[] bytes = new byte[0];
+        private PageCursor cursor;
+
+        PageCursor cursor( int size )
+        {
+            if ( size > bytes.length )
+            {
+                bytes = new byte[Math.max( size, bytes.length * 2 )];
+                cursor = ByteArrayPageCursor.wrap( bytes );
+            }
+            cursor.setOffset( 0 );
+            return cursor;
+        }
+    }
+
+    /**
+     * Run file format: for each entry its key size, value size, key and value, ending with {@link #END_OF_RUN}.
+     */
+    private class RunWriter implements Sink<KEY,VALUE>, Closeable
+    {
+        private final DataOutputStream out;
+        private final Scratch runScratch = new Scratch();
+
+        RunWriter( File file ) throws IOException
+        {
+            this.out = new DataOutputStream( new BufferedOutputStream( fs.openAsOutputStream( file, false ), RUN_IO_BUFFER_SIZE ) );
+        }
+
+        @Override
+        public void add( KEY key, VALUE value ) throws IOException
+        {
+            int keySize = layout.keySize( key );
+            int valueSize = layout.valueSize( value );
+            PageCursor cursor = runScratch.cursor( keySize + valueSize );
+            layout.writeKey( cursor, key );
+            layout.writeValue( cursor, value );
+            out.writeInt( keySize );
+            out.writeInt( valueSize );
+            out.write( runScratch.bytes, 0, keySize + valueSize );
+        }
+
+        @Override
+        public void close() throws IOException
+        {
+            try
+            {
+                out.writeInt( END_OF_RUN );
+            }
+            finally
+            {
+                out.close();
+            }
+        }
+    }
+
+    private class RunReader implements Source<KEY,VALUE>
+    {
+        private final DataInputStream in;
+        private final Scratch runScratch = new Scratch();
+        private final KEY key = layout.newKey();
+        private final VALUE value = layout.newValue();
+        private boolean exhausted;
+
+        RunReader( File file ) throws IOException
+        {
+            this.in = new DataInputStream( new BufferedInputStream( fs.openAsInputStream( file ), RUN_IO_BUFFER_SIZE ) );
+        }
+
+        @Override
+        public boolean next() throws IOException
+        {
+            if ( exhausted )
+            {
+                return false;
+            }
+            int keySize = in.readInt();
+            if ( keySize == END_OF_RUN )
+            {
+                exhausted = true;
+                return false;
+            }
+            int valueSize = in.readInt();
+            PageCursor cursor = runScratch.cursor( keySize + valueSize );
+            in.readFully( runScratch.bytes, 0, keySize + valueSize );
+            layout.readKey( cursor, key, keySize );
+            layout.readValue( cursor, value, valueSize );
+            return true;
+        }
+
+        @Override
+        public KEY key()
+        {
+            return key;
+        }
+
+        @Override
+        public VALUE value()
+        {
+            return value;
+        }
+
+        @Override
+        public void close() throws IOException
+        {
+            in.close();
+        }
+    }
+
+    private class BufferReader implements Source<KEY,VALUE>
+    {
+        private int index = -1;
+
+        @Override
+        public boolean next()
+        {
+            return ++index < bufferedEntries;
+        }
+
+        @Override
+        public KEY key()
+        {
+            return buffer[index].key;
+        }
+
+        @Override
+        public VALUE value()
+        {
+            return buffer[index].value;
+        }
+
+        @Override
+        public void close()
+        {
+            bufferedEntries = 0;
+        }
+    }
+}
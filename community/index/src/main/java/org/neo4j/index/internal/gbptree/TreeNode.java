@@ -355,10 +355,14 @@ abstract class TreeNode<KEY,VALUE>
      * Calculate where split should be done and move entries between leaves participating in split.
      *
      * Keys and values from left are divide between left and right and the new key and value is inserted where it belongs.
+     * If there's no way to divide them so that both leaves fit, the leaf is split at {@code insertPos} without inserting the new key.
+     * The new key then belongs last in left and needs to be inserted again, which is guaranteed to succeed.
      *
      * Key count is updated.
+     *
+     * @return {@code true} if the new key and value was inserted, otherwise {@code false}.
      */
-    abstract void doSplitLeaf( PageCursor leftCursor, int leftKeyCount, PageCursor rightCursor, int insertPos, KEY newKey, VALUE newValue,
+    abstract boolean doSplitLeaf( PageCursor leftCursor, int leftKeyCount, PageCursor rightCursor, int insertPos, KEY newKey, VALUE newValue,
             KEY newSplitter );
 
     /**
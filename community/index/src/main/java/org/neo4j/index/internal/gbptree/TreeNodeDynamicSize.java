@@ -23,9 +23,12 @@ import org.eclipse.collections.api.stack.primitive.IntStack;
 import org.eclipse.collections.api.stack.primitive.MutableIntStack;
 import org.eclipse.collections.impl.stack.mutable.primitive.IntArrayStack;
 
+import java.nio.BufferUnderflowException;
 import java.util.Arrays;
 import java.util.StringJoiner;
 
+import org.neo4j.io.pagecache.ByteArrayPageCursor;
+import org.neo4j.io.pagecache.CursorException;
 import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.util.VisibleForTesting;
 
@@ -63,11 +66,23 @@ import static org.neo4j.index.internal.gbptree.TreeNode.Type.LEAF;
  *  0         1     2           6         10            34           58         82           84          86
  *
  * See {@link DynamicSizeUtil} for more detailed layout for individual offset array entries and key / key_value entries.
+ *
+ * LEAF, with compressed leaf keys
+ * [                                   HEADER   88B                                                             ]|[KEY_OFFSETS]######[KEYS_VALUES][BASE]
+ * [NODETYPE][TYPE][GENERATION][KEYCOUNT][RIGHTSIBLING][LEFTSIBLING][SUCCESSOR][ALLOCOFFSET][DEADSPACE][BASESIZE]|[K0*,K1*,K2*]->  <-[KV0,KV2,KV1][BASE]
+ *  0         1     2           6         10            34           58         82           84         86         88
+ *
+ * In the {@link #FORMAT_VERSION_COMPRESSED_LEAF_KEYS compressed leaf keys} version of this format, leaves have a base key
+ * stored at the very end of the page and all keys in the leaf are encoded relative to it.
+ * Internal nodes have the same layout as the uncompressed version except for the longer header, their keys are
+ * already kept short by {@link Layout#minimalSplitter(Object, Object, Object)}.
+ * See {@link CompressedKeyUtil} for details about the key encoding.
  */
 public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
 {
     static final byte FORMAT_IDENTIFIER = 3;
     static final byte FORMAT_VERSION = 0;
+    static final byte FORMAT_VERSION_COMPRESSED_LEAF_KEYS = 1;
 
     /**
      * Concepts
@@ -87,9 +102,21 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
     private static final int BYTE_POS_ALLOCOFFSET = BASE_HEADER_LENGTH;
     private static final int BYTE_POS_DEADSPACE = BYTE_POS_ALLOCOFFSET + bytesPageOffset();
     private static final int HEADER_LENGTH_DYNAMIC = BYTE_POS_DEADSPACE + bytesPageOffset();
+    private static final int BYTE_POS_BASESIZE = HEADER_LENGTH_DYNAMIC;
+    private static final int HEADER_LENGTH_DYNAMIC_COMPRESSED = BYTE_POS_BASESIZE + bytesPageOffset();
+
+    /**
+     * Max size of the base key in a leaf with compressed leaf keys, further limited to a fraction of the page for small pages.
+     * Key bytes beyond the base are always stored as is.
+     */
+    private static final int MAX_BASE_SIZE = 128;
+    private static final int MAX_BASE_SIZE_PAGE_FRACTION = 16;
 
     private static final int LEAST_NUMBER_OF_ENTRIES_PER_PAGE = 2;
     private static final int MINIMUM_ENTRY_SIZE_CAP = Long.SIZE;
+    private final boolean compressLeafKeys;
+    private final int maxBaseSize;
+    private final int headerLength;
     private final int keyValueSizeCap;
     private final MutableIntStack deadKeysOffset = new IntArrayStack();
     private final MutableIntStack aliveKeysOffset = new IntArrayStack();
@@ -100,11 +127,25 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
     private final int halfSpace;
     private final KEY tmpKeyLeft;
     private final KEY tmpKeyRight;
+    // Buffers used by writer when encoding keys in leaves with compressed leaf keys
+    private final byte[] rawKey;
+    private final PageCursor rawKeyCursor;
+    private final byte[] base;
+    // Readers decode compressed leaf keys concurrently, so every thread gets a decode buffer of its own
+    private final ThreadLocal<DecodeBuffer> decodeBuffers;
 
     TreeNodeDynamicSize( int pageSize, Layout<KEY,VALUE> layout )
+    {
+        this( pageSize, layout, false );
+    }
+
+    TreeNodeDynamicSize( int pageSize, Layout<KEY,VALUE> layout, boolean compressLeafKeys )
     {
         super( pageSize, layout );
-        totalSpace = pageSize - HEADER_LENGTH_DYNAMIC;
+        this.compressLeafKeys = compressLeafKeys;
+        maxBaseSize = compressLeafKeys ? maxBaseSizeFromPageSize( pageSize ) : 0;
+        headerLength = compressLeafKeys ? HEADER_LENGTH_DYNAMIC_COMPRESSED : HEADER_LENGTH_DYNAMIC;
+        totalSpace = pageSize - headerLength;
         halfSpace = totalSpace / 2;
         keyValueSizeCap = keyValueSizeCapFromPageSize( pageSize );
 
@@ -118,6 +159,11 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
 
         tmpKeyLeft = layout.newKey();
         tmpKeyRight = layout.newKey();
+        rawKey = compressLeafKeys ? new byte[keyValueSizeCap] : null;
+        rawKeyCursor = compressLeafKeys ? ByteArrayPageCursor.wrap( rawKey ) : null;
+        base = compressLeafKeys ? new byte[maxBaseSize] : null;
+        int decodeBufferSize = keyValueSizeCap;
+        decodeBuffers = compressLeafKeys ? ThreadLocal.withInitial( () -> new DecodeBuffer( decodeBufferSize ) ) : null;
     }
 
     @VisibleForTesting
@@ -126,11 +172,20 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         return (pageSize - HEADER_LENGTH_DYNAMIC) / LEAST_NUMBER_OF_ENTRIES_PER_PAGE - SIZE_TOTAL_OVERHEAD;
     }
 
+    private static int maxBaseSizeFromPageSize( int pageSize )
+    {
+        return Math.min( MAX_BASE_SIZE, pageSize / MAX_BASE_SIZE_PAGE_FRACTION );
+    }
+
     @Override
     void writeAdditionalHeader( PageCursor cursor )
     {
         setAllocOffset( cursor, pageSize );
         setDeadSpace( cursor, 0 );
+        if ( compressLeafKeys )
+        {
+            setBaseSize( cursor, 0 );
+        }
     }
 
     @Override
@@ -142,12 +197,12 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         long keyValueSize = readKeyValueSize( cursor );
         int keySize = extractKeySize( keyValueSize );
         int valueSize = extractValueSize( keyValueSize );
-        if ( keyValueSizeTooLarge( keySize, valueSize ) || keySize < 0 )
+        if ( storedKeyValueSizeTooLarge( keySize, valueSize ) || keySize < 0 )
         {
             readUnreliableKeyValueSize( cursor, keySize, valueSize, keyValueSize, pos );
             return into;
         }
-        layout.readKey( cursor, into, keySize );
+        readKey( cursor, into, keySize, type );
         return into;
     }
 
@@ -159,15 +214,56 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         long keyValueSize = readKeyValueSize( cursor );
         int keySize = extractKeySize( keyValueSize );
         int valueSize = extractValueSize( keyValueSize );
-        if ( keyValueSizeTooLarge( keySize, valueSize ) || keySize < 0 || valueSize < 0 )
+        if ( storedKeyValueSizeTooLarge( keySize, valueSize ) || keySize < 0 || valueSize < 0 )
         {
             readUnreliableKeyValueSize( cursor, keySize, valueSize, keyValueSize, pos );
             return;
         }
-        layout.readKey( cursor, intoKey, keySize );
+        readKey( cursor, intoKey, keySize, LEAF );
         layout.readValue( cursor, intoValue, valueSize );
     }
 
+    /**
+     * Read key at current offset of {@code cursor}, decoding it first if it's a compressed leaf key.
+     * Leaves cursor at the end of the key.
+     */
+    private void readKey( PageCursor cursor, KEY into, int keySize, Type type )
+    {
+        if ( !compressLeafKeys || type == INTERNAL )
+        {
+            layout.readKey( cursor, into, keySize );
+            return;
+        }
+
+        int baseSize = getBaseSize( cursor );
+        int decodedKeySize = CompressedKeyUtil.decodedSize( cursor, keySize, baseSize );
+        if ( baseSize > maxBaseSize || decodedKeySize < 0 || decodedKeySize > keyValueSizeCap )
+        {
+            cursor.setCursorException( format( "Read unreliable compressed key, encodedKeySize=%d, decodedKeySize=%d, baseSize=%d",
+                    keySize, decodedKeySize, baseSize ) );
+            return;
+        }
+        DecodeBuffer decodeBuffer = decodeBuffers.get();
+        PageCursor decodedKeyCursor = decodeBuffer.cursor;
+        decodedKeyCursor.setOffset( 0 );
+        try
+        {
+            CompressedKeyUtil.decode( cursor, keySize, pageSize - baseSize, decodeBuffer.bytes );
+            layout.readKey( decodedKeyCursor, into, decodedKeySize );
+            decodedKeyCursor.checkAndClearCursorException();
+        }
+        catch ( IndexOutOfBoundsException | BufferUnderflowException e )
+        {
+            // Inconsistent read, key changed while we were reading it
+            cursor.setCursorException( format( "Read inconsistent compressed key, encodedKeySize=%d, decodedKeySize=%d, baseSize=%d",
+                    keySize, decodedKeySize, baseSize ) );
+        }
+        catch ( CursorException e )
+        {
+            cursor.setCursorException( e.getMessage() );
+        }
+    }
+
     @Override
     void insertKeyAndRightChildAt( PageCursor cursor, KEY key, long child, int pos, int keyCount, long stableGeneration,
             long unstableGeneration )
@@ -195,16 +291,41 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
     @Override
     void insertKeyValueAt( PageCursor cursor, KEY key, VALUE value, int pos, int keyCount )
     {
+        int keySize;
+        int rawKeySize = 0;
+        int baseSize = 0;
+        if ( compressLeafKeys )
+        {
+            rawKeySize = writeRawKey( key );
+            if ( keyCount == 0 )
+            {
+                // Leaf is empty, pick a new base for it from this key
+                resetBase( cursor, rawKeySize );
+            }
+            baseSize = readBase( cursor );
+            keySize = CompressedKeyUtil.encodedSize( rawKey, rawKeySize, base, baseSize );
+        }
+        else
+        {
+            keySize = layout.keySize( key );
+        }
+
         // Where to write key?
         int currentKeyValueOffset = getAllocOffset( cursor );
-        int keySize = layout.keySize( key );
         int valueSize = layout.valueSize( value );
         int newKeyValueOffset = currentKeyValueOffset - keySize - valueSize - getOverhead( keySize, valueSize );
 
         // Write key and value
         cursor.setOffset( newKeyValueOffset );
         putKeyValueSize( cursor, keySize, valueSize );
-        layout.writeKey( cursor, key );
+        if ( compressLeafKeys )
+        {
+            CompressedKeyUtil.encode( cursor, rawKey, rawKeySize, base, baseSize );
+        }
+        else
+        {
+            layout.writeKey( cursor, key );
+        }
         layout.writeValue( cursor, value );
 
         // Update alloc space
@@ -289,7 +410,7 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         long keyValueSize = readKeyValueSize( cursor );
         int oldKeySize = extractKeySize( keyValueSize );
         int oldValueSize = extractValueSize( keyValueSize );
-        if ( keyValueSizeTooLarge( oldKeySize, oldValueSize ) )
+        if ( storedKeyValueSizeTooLarge( oldKeySize, oldValueSize ) )
         {
             readUnreliableKeyValueSize( cursor, oldKeySize, oldValueSize, keyValueSize, pos );
         }
@@ -312,7 +433,7 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         long keyValueSize = readKeyValueSize( cursor );
         int keySize = extractKeySize( keyValueSize );
         int valueSize = extractValueSize( keyValueSize );
-        if ( keyValueSizeTooLarge( keySize, valueSize ) || keySize < 0 || valueSize < 0 )
+        if ( storedKeyValueSizeTooLarge( keySize, valueSize ) || keySize < 0 || valueSize < 0 )
         {
             readUnreliableKeyValueSize( cursor, keySize, valueSize, keyValueSize, pos );
             return into;
@@ -412,7 +533,7 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         int allocSpace = getAllocSpace( cursor, currentKeyCount, LEAF );
 
         // How much space do we need?
-        int neededSpace = totalSpaceOfKeyValue( newKey, newValue );
+        int neededSpace = totalSpaceOfKeyValue( cursor, newKey, newValue );
 
         // There is your answer!
         return neededSpace < allocSpace ? Overflow.NO :
@@ -485,7 +606,7 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         int oldOffsetCursor = 0;
         int newOffsetCursor = 0;
 
-        int aliveRangeOffset = pageSize; // Everything after this point is alive
+        int aliveRangeOffset = keysEnd( cursor ); // Everything after this point is alive
         int deadRangeOffset; // Everything between this point and aliveRangeOffset is dead space
 
         // Rightmost alive keys does not need to move
@@ -595,8 +716,10 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
     {
         int leftActiveSpace = totalActiveSpace( leftCursor, leftKeyCount );
         int rightActiveSpace = totalActiveSpace( rightCursor, rightKeyCount );
+        boolean transcode = needsTranscoding( leftCursor, rightCursor );
+        int rightBaseSize = compressLeafKeys ? getBaseSize( rightCursor ) : 0;
 
-        if ( leftActiveSpace + rightActiveSpace < totalSpace )
+        if ( spaceOfKeyValuesInRight( leftCursor, leftKeyCount, leftActiveSpace, transcode, rightBaseSize ) + rightActiveSpace < totalSpace )
         {
             // We can merge
             return -1;
@@ -610,24 +733,27 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         int prevDelta;
         int currentDelta = Math.abs( leftActiveSpace - rightActiveSpace );
         int keysToMove = 0;
-        int lastChunkSize;
+        int lastChunkSizeInLeft;
+        int lastChunkSizeInRight;
         do
         {
             keysToMove++;
-            lastChunkSize = totalSpaceOfKeyValue( leftCursor, leftKeyCount - keysToMove );
-            leftActiveSpace -= lastChunkSize;
-            rightActiveSpace += lastChunkSize;
+            lastChunkSizeInLeft = totalSpaceOfKeyValue( leftCursor, leftKeyCount - keysToMove );
+            lastChunkSizeInRight = transcode ?
+                                   transcodedSpaceOfKeyValue( leftCursor, leftKeyCount - keysToMove, rightBaseSize ) : lastChunkSizeInLeft;
+            leftActiveSpace -= lastChunkSizeInLeft;
+            rightActiveSpace += lastChunkSizeInRight;
 
             prevDelta = currentDelta;
             currentDelta = Math.abs( leftActiveSpace - rightActiveSpace );
         }
         while ( currentDelta < prevDelta );
         keysToMove--; // Move back to optimal split
-        leftActiveSpace += lastChunkSize;
-        rightActiveSpace -= lastChunkSize;
+        leftActiveSpace += lastChunkSizeInLeft;
+        rightActiveSpace -= lastChunkSizeInRight;
 
         int halfSpace = this.halfSpace;
-        boolean canRebalance = leftActiveSpace > halfSpace && rightActiveSpace > halfSpace;
+        boolean canRebalance = leftActiveSpace > halfSpace && rightActiveSpace > halfSpace && rightActiveSpace <= totalSpace;
         return canRebalance ? keysToMove : 0;
     }
 
@@ -636,17 +762,49 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
     {
         int leftActiveSpace = totalActiveSpace( leftCursor, leftKeyCount );
         int rightActiveSpace = totalActiveSpace( rightCursor, rightKeyCount );
+        boolean transcode = needsTranscoding( leftCursor, rightCursor );
+        int rightBaseSize = compressLeafKeys ? getBaseSize( rightCursor ) : 0;
         int totalSpace = this.totalSpace;
-        return totalSpace >= leftActiveSpace + rightActiveSpace;
+        return totalSpace >= spaceOfKeyValuesInRight( leftCursor, leftKeyCount, leftActiveSpace, transcode, rightBaseSize ) + rightActiveSpace;
+    }
+
+    /**
+     * Space that all keys and values in left leaf would occupy if moved to right leaf.
+     * Keys are re-encoded when moved between leaves with compressed leaf keys that have different bases, which may change their size.
+     */
+    private int spaceOfKeyValuesInRight( PageCursor leftCursor, int leftKeyCount, int leftActiveSpace, boolean transcode, int rightBaseSize )
+    {
+        if ( !transcode )
+        {
+            // Base, if any, is not moved
+            return leftActiveSpace - (compressLeafKeys ? getBaseSize( leftCursor ) : 0);
+        }
+        int space = 0;
+        for ( int pos = 0; pos < leftKeyCount; pos++ )
+        {
+            space += transcodedSpaceOfKeyValue( leftCursor, pos, rightBaseSize );
+        }
+        return space;
     }
 
     @Override
-    void doSplitLeaf( PageCursor leftCursor, int leftKeyCount, PageCursor rightCursor, int insertPos, KEY newKey,
+    boolean doSplitLeaf( PageCursor leftCursor, int leftKeyCount, PageCursor rightCursor, int insertPos, KEY newKey,
             VALUE newValue, KEY newSplitter )
     {
         // Find middle
         int keyCountAfterInsert = leftKeyCount + 1;
         int middlePos = middlePosInLeaf( leftCursor, insertPos, newKey, newValue, keyCountAfterInsert );
+        if ( compressLeafKeys )
+        {
+            // Right leaf shares base with left so that keys can be moved as they are
+            copyBase( leftCursor, rightCursor );
+            middlePos = fittingMiddlePosInLeaf( leftCursor, insertPos, newKey, newValue, keyCountAfterInsert, middlePos );
+            if ( middlePos == -1 )
+            {
+                splitLeafAtInsertPos( leftCursor, leftKeyCount, rightCursor, insertPos, newKey, newSplitter );
+                return false;
+            }
+        }
 
         KEY leftInSplit;
         KEY rightInSplit;
@@ -702,6 +860,29 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         }
         TreeNode.setKeyCount( leftCursor, middlePos );
         TreeNode.setKeyCount( rightCursor, rightKeyCount );
+        return true;
+    }
+
+    /**
+     * Split leaf with compressed leaf keys between the keys surrounding {@code insertPos}, leaving the new key to be inserted again.
+     * Both parts were in the leaf before so they fit. The splitter is picked so that the new key belongs last in left
+     * where it either fits or, being at the edge, can be split off from the other keys.
+     */
+    private void splitLeafAtInsertPos( PageCursor leftCursor, int leftKeyCount, PageCursor rightCursor, int insertPos, KEY newKey,
+            KEY newSplitter )
+    {
+        if ( insertPos == 0 || insertPos == leftKeyCount )
+        {
+            throw new IllegalStateException( format( "Expected to always be able to split leaf with new key at the edge, insertPos=%d, keyCount=%d",
+                    insertPos, leftKeyCount ) );
+        }
+        layout.minimalSplitter( newKey, keyAt( leftCursor, tmpKeyRight, insertPos, LEAF ), newSplitter );
+
+        int rightKeyCount = leftKeyCount - insertPos;
+        moveKeysAndValues( leftCursor, insertPos, rightCursor, 0, rightKeyCount );
+        defragmentLeaf( leftCursor );
+        TreeNode.setKeyCount( leftCursor, insertPos );
+        TreeNode.setKeyCount( rightCursor, rightKeyCount );
     }
 
     @Override
@@ -786,6 +967,10 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
             int fromPosInLeftNode )
     {
         defragmentLeaf( rightCursor );
+        if ( compressLeafKeys && rightKeyCount == 0 )
+        {
+            copyBase( leftCursor, rightCursor );
+        }
         int numberOfKeysToMove = leftKeyCount - fromPosInLeftNode;
 
         // Push keys and values in right sibling to the right
@@ -801,11 +986,14 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
     // NOTE: Does update keyCount
     private void moveKeysAndValues( PageCursor fromCursor, int fromPos, PageCursor toCursor, int toPos, int count )
     {
-        int firstAllocOffset = getAllocOffset( toCursor );
-        int toAllocOffset = firstAllocOffset;
+        boolean transcode = needsTranscoding( fromCursor, toCursor );
+        int toBaseSize = transcode ? getBaseSize( toCursor ) : 0;
+        int toAllocOffset = getAllocOffset( toCursor );
+        int totalMovedBytes = 0;
         for ( int i = 0; i < count; i++, toPos++ )
         {
-            toAllocOffset = moveRawKeyValue( fromCursor, fromPos + i, toCursor, toAllocOffset );
+            totalMovedBytes += totalSpaceOfKeyValue( fromCursor, fromPos + i ) - bytesKeyOffset();
+            toAllocOffset = moveRawKeyValue( fromCursor, fromPos + i, toCursor, toAllocOffset, transcode, toBaseSize );
             toCursor.setOffset( keyPosOffsetLeaf( toPos ) );
             putKeyOffset( toCursor, toAllocOffset );
         }
@@ -813,7 +1001,6 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
 
         // Update deadspace
         int deadSpace = getDeadSpace( fromCursor );
-        int totalMovedBytes = firstAllocOffset - toAllocOffset;
         setDeadSpace( fromCursor, deadSpace + totalMovedBytes );
 
         // Key count
@@ -825,22 +1012,14 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
      * Mark transferred key as dead.
      * @return new alloc offset in 'to'
      */
-    private int moveRawKeyValue( PageCursor fromCursor, int fromPos, PageCursor toCursor, int toAllocOffset )
+    private int moveRawKeyValue( PageCursor fromCursor, int fromPos, PageCursor toCursor, int toAllocOffset, boolean transcode,
+            int toBaseSize )
     {
-        // What to copy?
-        placeCursorAtActualKey( fromCursor, fromPos, LEAF );
-        int fromKeyOffset = fromCursor.getOffset();
-        long keyValueSize = readKeyValueSize( fromCursor );
-        int keySize = extractKeySize( keyValueSize );
-        int valueSize = extractValueSize( keyValueSize );
-
         // Copy
-        int toCopy = getOverhead( keySize, valueSize ) + keySize + valueSize;
-        int newRightAllocSpace = toAllocOffset - toCopy;
-        fromCursor.copyTo( fromKeyOffset, toCursor, newRightAllocSpace, toCopy );
+        int newRightAllocSpace = copyRawKeyValue( fromCursor, fromPos, toCursor, toAllocOffset, transcode, toBaseSize );
 
         // Put tombstone
-        fromCursor.setOffset( fromKeyOffset );
+        placeCursorAtActualKey( fromCursor, fromPos, LEAF );
         putTombstone( fromCursor );
         return newRightAllocSpace;
     }
@@ -849,6 +1028,10 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
     void copyKeyValuesFromLeftToRight( PageCursor leftCursor, int leftKeyCount, PageCursor rightCursor, int rightKeyCount )
     {
         defragmentLeaf( rightCursor );
+        if ( compressLeafKeys && rightKeyCount == 0 )
+        {
+            copyBase( leftCursor, rightCursor );
+        }
 
         // Push keys and values in right sibling to the right
         insertSlotsAt( rightCursor, 0, leftKeyCount, rightKeyCount, keyPosOffsetLeaf( 0 ), bytesKeyOffset() );
@@ -862,10 +1045,12 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
 
     private void copyKeysAndValues( PageCursor fromCursor, int fromPos, PageCursor toCursor, int toPos, int count )
     {
+        boolean transcode = needsTranscoding( fromCursor, toCursor );
+        int toBaseSize = transcode ? getBaseSize( toCursor ) : 0;
         int toAllocOffset = getAllocOffset( toCursor );
         for ( int i = 0; i < count; i++, toPos++ )
         {
-            toAllocOffset = copyRawKeyValue( fromCursor, fromPos + i, toCursor, toAllocOffset );
+            toAllocOffset = copyRawKeyValue( fromCursor, fromPos + i, toCursor, toAllocOffset, transcode, toBaseSize );
             toCursor.setOffset( keyPosOffsetLeaf( toPos ) );
             putKeyOffset( toCursor, toAllocOffset );
         }
@@ -875,9 +1060,11 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
     /**
      * Copy key and value from logical position in 'from' tp physical position next to current alloc offset in 'to'.
      * Does NOT mark transferred key as dead.
+     * If {@code transcode} is {@code true} the key is re-encoded relative to base of 'to', which must have been read by {@link #readBase(PageCursor)}.
      * @return new alloc offset in 'to'
      */
-    private int copyRawKeyValue( PageCursor fromCursor, int fromPos, PageCursor toCursor, int toAllocOffset )
+    private int copyRawKeyValue( PageCursor fromCursor, int fromPos, PageCursor toCursor, int toAllocOffset, boolean transcode,
+            int toBaseSize )
     {
         // What to copy?
         placeCursorAtActualKey( fromCursor, fromPos, LEAF );
@@ -886,6 +1073,22 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         int keySize = extractKeySize( keyValueSize );
         int valueSize = extractValueSize( keyValueSize );
 
+        if ( transcode )
+        {
+            int rawKeySize = decodeRawKey( fromCursor, keySize );
+            int valueOffset = fromCursor.getOffset();
+            int newKeySize = CompressedKeyUtil.encodedSize( rawKey, rawKeySize, base, toBaseSize );
+            int newRightAllocSpace = toAllocOffset - getOverhead( newKeySize, valueSize ) - newKeySize - valueSize;
+            toCursor.setOffset( newRightAllocSpace );
+            putKeyValueSize( toCursor, newKeySize, valueSize );
+            CompressedKeyUtil.encode( toCursor, rawKey, rawKeySize, base, toBaseSize );
+            if ( valueSize > 0 )
+            {
+                fromCursor.copyTo( valueOffset, toCursor, toCursor.getOffset(), valueSize );
+            }
+            return newRightAllocSpace;
+        }
+
         // Copy
         int toCopy = getOverhead( keySize, valueSize ) + keySize + valueSize;
         int newRightAllocSpace = toAllocOffset - toCopy;
@@ -903,7 +1106,8 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
     private void recordDeadAndAliveLeaf( PageCursor cursor, MutableIntStack deadKeysOffset, MutableIntStack aliveKeysOffset )
     {
         int currentOffset = getAllocOffset( cursor );
-        while ( currentOffset < pageSize )
+        int keysEnd = keysEnd( cursor );
+        while ( currentOffset < keysEnd )
         {
             cursor.setOffset( currentOffset );
             long keyValueSize = readKeyValueSize( cursor );
@@ -926,7 +1130,8 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
     private void recordDeadAndAliveInternal( PageCursor cursor, MutableIntStack deadKeysOffset, MutableIntStack aliveKeysOffset )
     {
         int currentOffset = getAllocOffset( cursor );
-        while ( currentOffset < pageSize )
+        int keysEnd = keysEnd( cursor );
+        while ( currentOffset < keysEnd )
         {
             cursor.setOffset( currentOffset );
             long keyValueSize = readKeyValueSize( cursor );
@@ -1061,26 +1266,28 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
     private int middlePosInLeaf( PageCursor cursor, int insertPos, KEY newKey, VALUE newValue, int keyCountAfterInsert )
     {
         int halfSpace = this.halfSpace;
+        // With compressed leaf keys both left and right will have a copy of the base
+        int baseSize = compressLeafKeys ? getBaseSize( cursor ) : 0;
         int middle = 0;
         int currentPos = 0;
-        int accumulatedSpace = 0;
-        int currentDelta = halfSpace;
+        int accumulatedSpace = baseSize;
+        int currentDelta = Math.abs( accumulatedSpace - halfSpace );
         int prevDelta;
-        int spaceOfNewKey = totalSpaceOfKeyValue( newKey, newValue );
+        int spaceOfNewKey = totalSpaceOfKeyValue( cursor, newKey, newValue );
         int totalSpaceIncludingNewKey = totalActiveSpace( cursor, keyCountAfterInsert - 1 ) + spaceOfNewKey;
         boolean includedNew = false;
         boolean prevPosPossible;
 
-        if ( totalSpaceIncludingNewKey > totalSpace * 2 )
+        if ( totalSpaceIncludingNewKey + baseSize > totalSpace * 2 )
         {
             throw new IllegalStateException(
                     format( "There's not enough space to insert new key, even when splitting the leaf. Space needed:%d, max space allowed:%d",
-                            totalSpaceIncludingNewKey, totalSpace * 2 ) );
+                            totalSpaceIncludingNewKey + baseSize, totalSpace * 2 ) );
         }
 
         do
         {
-            prevPosPossible = totalSpaceIncludingNewKey - accumulatedSpace <= totalSpace;
+            prevPosPossible = totalSpaceIncludingNewKey + baseSize - accumulatedSpace <= totalSpace;
 
             // We may come closer to split by keeping one more in left
             int currentSpace;
@@ -1109,6 +1316,36 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         return middle;
     }
 
+    /**
+     * With compressed leaf keys both left and right leaf hold a copy of the base, so the position found by
+     * {@link #middlePosInLeaf(PageCursor, int, Object, Object, int)} may not fit in left and sometimes no position fits at all.
+     * This happens when keys close to {@link #keyValueSizeCap()} end up next to each other.
+     *
+     * @param middlePos the pos that most equally divides the space.
+     * @return {@code middlePos} if both sides fit, otherwise the fitting pos closest to it, or {@code -1} if no pos fits.
+     */
+    private int fittingMiddlePosInLeaf( PageCursor cursor, int insertPos, KEY newKey, VALUE newValue, int keyCountAfterInsert, int middlePos )
+    {
+        int baseSize = getBaseSize( cursor );
+        int spaceOfNewKey = totalSpaceOfKeyValue( cursor, newKey, newValue );
+        int leftSpace = baseSize;
+        int rightSpace = totalActiveSpace( cursor, keyCountAfterInsert - 1 ) + spaceOfNewKey;
+        int bestPos = -1;
+        for ( int pos = 0; pos < keyCountAfterInsert - 1; pos++ )
+        {
+            int space = pos == insertPos ? spaceOfNewKey : totalSpaceOfKeyValue( cursor, pos < insertPos ? pos : pos - 1 );
+            leftSpace += space;
+            rightSpace -= space;
+            int splitPos = pos + 1;
+            if ( leftSpace <= totalSpace && rightSpace <= totalSpace &&
+                 (bestPos == -1 || Math.abs( splitPos - middlePos ) < Math.abs( bestPos - middlePos )) )
+            {
+                bestPos = splitPos;
+            }
+        }
+        return bestPos;
+    }
+
     private int totalActiveSpace( PageCursor cursor, int keyCount )
     {
         int deadSpace = getDeadSpace( cursor );
@@ -1116,10 +1353,14 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         return totalSpace - deadSpace - allocSpace;
     }
 
-    private int totalSpaceOfKeyValue( KEY key, VALUE value )
+    private int totalSpaceOfKeyValue( PageCursor cursor, KEY key, VALUE value )
+    {
+        int keySize = compressLeafKeys ? encodedKeySize( cursor, key ) : layout.keySize( key );
+        return totalSpaceOfEncodedKeyValue( keySize, layout.valueSize( value ) );
+    }
+
+    private static int totalSpaceOfEncodedKeyValue( int keySize, int valueSize )
     {
-        int keySize = layout.keySize( key );
-        int valueSize = layout.valueSize( value );
         return bytesKeyOffset() + getOverhead( keySize, valueSize ) + keySize + valueSize;
     }
 
@@ -1138,6 +1379,21 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         return bytesKeyOffset() + getOverhead( keySize, valueSize ) + keySize + valueSize;
     }
 
+    /**
+     * Space key and value at pos in leaf would occupy if re-encoded relative to a base of size {@code toBaseSize},
+     * which must have been read by {@link #readBase(PageCursor)}.
+     */
+    private int transcodedSpaceOfKeyValue( PageCursor cursor, int pos, int toBaseSize )
+    {
+        placeCursorAtActualKey( cursor, pos, LEAF );
+        long keyValueSize = readKeyValueSize( cursor );
+        int keySize = extractKeySize( keyValueSize );
+        int valueSize = extractValueSize( keyValueSize );
+        int rawKeySize = decodeRawKey( cursor, keySize );
+        int newKeySize = CompressedKeyUtil.encodedSize( rawKey, rawKeySize, base, toBaseSize );
+        return bytesKeyOffset() + getOverhead( newKeySize, valueSize ) + newKeySize + valueSize;
+    }
+
     private int totalSpaceOfKeyChild( PageCursor cursor, int pos )
     {
         placeCursorAtActualKey( cursor, pos, INTERNAL );
@@ -1145,6 +1401,140 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         return bytesKeyOffset() + getOverhead( keySize, 0 ) + childSize() + keySize;
     }
 
+    /**
+     * Serialize key into {@link #rawKey}.
+     * @return size of the raw key.
+     */
+    private int writeRawKey( KEY key )
+    {
+        rawKeyCursor.setOffset( 0 );
+        layout.writeKey( rawKeyCursor, key );
+        return layout.keySize( key );
+    }
+
+    /**
+     * Decode compressed leaf key at current offset of cursor into {@link #rawKey}, leaving cursor at the end of the key.
+     * Only to be used by writer, where data is known to be consistent.
+     * @return size of the raw key.
+     */
+    private int decodeRawKey( PageCursor cursor, int encodedKeySize )
+    {
+        int baseSize = getBaseSize( cursor );
+        int rawKeySize = CompressedKeyUtil.decodedSize( cursor, encodedKeySize, baseSize );
+        if ( rawKeySize < 0 || rawKeySize > keyValueSizeCap )
+        {
+            throw new IllegalStateException( format( "Compressed key is malformed, encodedKeySize=%d, baseSize=%d", encodedKeySize, baseSize ) );
+        }
+        CompressedKeyUtil.decode( cursor, encodedKeySize, pageSize - baseSize, rawKey );
+        return rawKeySize;
+    }
+
+    private int encodedKeySize( PageCursor cursor, KEY key )
+    {
+        int rawKeySize = writeRawKey( key );
+        int baseSize = readBase( cursor );
+        return CompressedKeyUtil.encodedSize( rawKey, rawKeySize, base, baseSize );
+    }
+
+    /**
+     * Read base of leaf into {@link #base}.
+     * @return size of the base.
+     */
+    private int readBase( PageCursor cursor )
+    {
+        int baseSize = getBaseSize( cursor );
+        cursor.setOffset( pageSize - baseSize );
+        cursor.getBytes( base, 0, baseSize );
+        return baseSize;
+    }
+
+    /**
+     * Keys moved between leaves need to be re-encoded if the leaves have different bases.
+     * Reads base of 'to' into {@link #base}.
+     */
+    private boolean needsTranscoding( PageCursor fromCursor, PageCursor toCursor )
+    {
+        if ( !compressLeafKeys )
+        {
+            return false;
+        }
+        int toBaseSize = readBase( toCursor );
+        if ( getBaseSize( fromCursor ) != toBaseSize )
+        {
+            return true;
+        }
+        int baseOffset = pageSize - toBaseSize;
+        for ( int i = 0; i < toBaseSize; i++ )
+        {
+            if ( fromCursor.getByte( baseOffset + i ) != base[i] )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Set a new base for an empty leaf, from the raw key in {@link #rawKey}. Also reclaims all dead space.
+     */
+    private void resetBase( PageCursor cursor, int rawKeySize )
+    {
+        int baseSize = Math.min( rawKeySize, maxBaseSize );
+        int baseOffset = pageSize - baseSize;
+        int prevAllocOffset = getAllocOffset( cursor );
+        cursor.setOffset( baseOffset );
+        cursor.putBytes( rawKey, 0, baseSize );
+        setBaseSize( cursor, baseSize );
+        setAllocOffset( cursor, baseOffset );
+        setDeadSpace( cursor, 0 );
+
+        // Zero pad reclaimed area
+        if ( baseOffset > prevAllocOffset )
+        {
+            zeroPad( cursor, prevAllocOffset, baseOffset - prevAllocOffset );
+        }
+    }
+
+    /**
+     * Copy base from one leaf to another leaf which has no keys.
+     */
+    private void copyBase( PageCursor fromCursor, PageCursor toCursor )
+    {
+        int baseSize = getBaseSize( fromCursor );
+        int baseOffset = pageSize - baseSize;
+        int prevAllocOffset = getAllocOffset( toCursor );
+        if ( baseSize > 0 )
+        {
+            fromCursor.copyTo( baseOffset, toCursor, baseOffset, baseSize );
+        }
+        setBaseSize( toCursor, baseSize );
+        setAllocOffset( toCursor, baseOffset );
+
+        // Zero pad reclaimed area
+        if ( baseOffset > prevAllocOffset )
+        {
+            zeroPad( toCursor, prevAllocOffset, baseOffset - prevAllocOffset );
+        }
+    }
+
+    /**
+     * @return offset where keys region ends, i.e. where base starts in leaves with compressed leaf keys.
+     */
+    private int keysEnd( PageCursor cursor )
+    {
+        return compressLeafKeys ? pageSize - getBaseSize( cursor ) : pageSize;
+    }
+
+    private void setBaseSize( PageCursor cursor, int baseSize )
+    {
+        putUnsignedShort( cursor, BYTE_POS_BASESIZE, baseSize );
+    }
+
+    private int getBaseSize( PageCursor cursor )
+    {
+        return PageCursorUtil.getUnsignedShort( cursor, BYTE_POS_BASESIZE );
+    }
+
     private void setAllocOffset( PageCursor cursor, int allocOffset )
     {
         PageCursorUtil.putUnsignedShort( cursor, BYTE_POS_ALLOCOFFSET, allocOffset );
@@ -1175,10 +1565,10 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         int keyOffset = readKeyOffset( cursor );
 
         // Verify offset is reasonable
-        if ( keyOffset >= pageSize || keyOffset < HEADER_LENGTH_DYNAMIC )
+        if ( keyOffset >= pageSize || keyOffset < headerLength )
         {
             cursor.setCursorException( format( "Tried to read key on offset=%d, headerLength=%d, pageSize=%d, pos=%d",
-                    keyOffset, HEADER_LENGTH_DYNAMIC, pageSize, pos ) );
+                    keyOffset, headerLength, pageSize, pos ) );
             return;
         }
 
@@ -1194,7 +1584,23 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
 
     private boolean keyValueSizeTooLarge( int keySize, int valueSize )
     {
-        return keySize + valueSize > keyValueSizeCap();
+        if ( keySize + valueSize > keyValueSizeCap() )
+        {
+            return true;
+        }
+        // Any two entries must fit in a leaf with an empty base, also when stored with the encoding overhead and the longer header.
+        // For layouts without values this holds for all entries within the cap.
+        return compressLeafKeys && totalSpaceOfEncodedKeyValue( keySize + CompressedKeyUtil.SIZE_ENCODING_OVERHEAD, valueSize ) > halfSpace;
+    }
+
+    /**
+     * Like {@link #keyValueSizeTooLarge(int, int)}, but for sizes read from a node, where a compressed key may be slightly larger than
+     * the raw key.
+     */
+    private boolean storedKeyValueSizeTooLarge( int keySize, int valueSize )
+    {
+        int encodingOverhead = compressLeafKeys ? CompressedKeyUtil.SIZE_ENCODING_OVERHEAD : 0;
+        return keySize + valueSize > keyValueSizeCap() + encodingOverhead;
     }
 
     private int keyPosOffset( int pos, Type type )
@@ -1211,13 +1617,13 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
 
     private int keyPosOffsetLeaf( int pos )
     {
-        return HEADER_LENGTH_DYNAMIC + pos * bytesKeyOffset();
+        return headerLength + pos * bytesKeyOffset();
     }
 
     private int keyPosOffsetInternal( int pos )
     {
         // header + childPointer + pos * (keyPosOffsetSize + childPointer)
-        return HEADER_LENGTH_DYNAMIC + childSize() + pos * keyChildSize();
+        return headerLength + childSize() + pos * keyChildSize();
     }
 
     private int keyChildSize()
@@ -1243,7 +1649,7 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
     @Override
     public String toString()
     {
-        return "TreeNodeDynamicSize[pageSize:" + pageSize + ", keyValueSizeCap:" + keyValueSizeCap() + "]";
+        return "TreeNodeDynamicSize[pageSize:" + pageSize + ", keyValueSizeCap:" + keyValueSizeCap() + ", compressLeafKeys:" + compressLeafKeys + "]";
     }
 
     private String asString( PageCursor cursor, boolean includeValue, boolean includeAllocSpace,
@@ -1259,7 +1665,8 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         // HEADER
         int allocOffset = getAllocOffset( cursor );
         int deadSpace = getDeadSpace( cursor );
-        String additionalHeader = "{" + cursor.getCurrentPageId() + "} [allocOffset=" + allocOffset + " deadSpace=" + deadSpace + "] ";
+        String additionalHeader = "{" + cursor.getCurrentPageId() + "} [allocOffset=" + allocOffset + " deadSpace=" + deadSpace +
+                (compressLeafKeys ? " baseSize=" + getBaseSize( cursor ) : "") + "] ";
 
         // OFFSET ARRAY
         String offsetArray = readOffsetArray( cursor, stableGeneration, unstableGeneration, type );
@@ -1275,8 +1682,9 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         KEY readKey = layout.newKey();
         VALUE readValue = layout.newValue();
         StringJoiner keys = new StringJoiner( " " );
+        int keysEnd = keysEnd( cursor );
         cursor.setOffset( allocOffset );
-        while ( cursor.getOffset() < cursor.getCurrentPageSize() )
+        while ( cursor.getOffset() < keysEnd )
         {
             StringJoiner singleKey = new StringJoiner( "|" );
             singleKey.add( Integer.toString( cursor.getOffset() ) );
@@ -1295,7 +1703,7 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
             {
                 singleKey.add( "_" );
             }
-            layout.readKey( cursor, readKey, keySize );
+            readKey( cursor, readKey, keySize, type );
             if ( type == LEAF )
             {
                 layout.readValue( cursor, readValue, valueSize );
@@ -1363,4 +1771,16 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         }
         return offsetArray.toString();
     }
+
+    private static class DecodeBuffer
+    {
+        private final byte[] bytes;
+        private final PageCursor cursor;
+
+        DecodeBuffer( int size )
+        {
+            bytes = new byte[size];
+            cursor = ByteArrayPageCursor.wrap( bytes );
+        }
+    }
 }
@@ -75,6 +75,30 @@ class TreeNodeSelector
         }
     };
 
+    /**
+     * Creates {@link TreeNodeDynamicSize} instances with compressed leaf keys.
+     */
+    static Factory DYNAMIC_COMPRESSED = new Factory()
+    {
+        @Override
+        public <KEY,VALUE> TreeNode<KEY,VALUE> create( int pageSize, Layout<KEY,VALUE> layout )
+        {
+            return new TreeNodeDynamicSize<>( pageSize, layout, true );
+        }
+
+        @Override
+        public byte formatIdentifier()
+        {
+            return TreeNodeDynamicSize.FORMAT_IDENTIFIER;
+        }
+
+        @Override
+        public byte formatVersion()
+        {
+            return TreeNodeDynamicSize.FORMAT_VERSION_COMPRESSED_LEAF_KEYS;
+        }
+    };
+
     /**
      * Selects a format based on the given {@link Layout}.
      *
@@ -83,8 +107,12 @@ class TreeNodeSelector
      */
     static Factory selectByLayout( Layout<?,?> layout )
     {
-        // For now the selection is done in a simple fashion, by looking at layout.fixedSize().
-        return layout.fixedSize() ? FIXED : DYNAMIC;
+        // For now the selection is done in a simple fashion, by looking at layout.fixedSize() and layout.compressedKeys().
+        if ( layout.fixedSize() )
+        {
+            return FIXED;
+        }
+        return layout.compressedKeys() ? DYNAMIC_COMPRESSED : DYNAMIC;
     }
 
     /**
@@ -96,7 +124,28 @@ class TreeNodeSelector
      */
     static Factory selectByFormat( byte formatIdentifier, byte formatVersion )
     {
-        // For now do a simple selection of the two formats we know. Moving forward this can contain
+        Factory factory = findByFormat( formatIdentifier, formatVersion );
+        if ( factory == null )
+        {
+            throw new IllegalArgumentException(
+                    format( "Unknown format identifier:%d and version:%d combination", formatIdentifier, formatVersion ) );
+        }
+        return factory;
+    }
+
+    /**
+     * @param formatIdentifier format identifier, see {@link Meta#getFormatIdentifier()}
+     * @param formatVersion format version, see {@link Meta#getFormatVersion()}.
+     * @return whether or not {@link #selectByFormat(byte, byte)} would select a format for the given format specification.
+     */
+    static boolean isKnownFormat( byte formatIdentifier, byte formatVersion )
+    {
+        return findByFormat( formatIdentifier, formatVersion ) != null;
+    }
+
+    private static Factory findByFormat( byte formatIdentifier, byte formatVersion )
+    {
+        // For now do a simple selection of the formats we know. Moving forward this can contain
         // many more identifiers and different versions of each.
         if ( formatIdentifier == TreeNodeFixedSize.FORMAT_IDENTIFIER && formatVersion == TreeNodeFixedSize.FORMAT_VERSION )
         {
@@ -106,8 +155,12 @@ class TreeNodeSelector
         {
             return DYNAMIC;
         }
-        throw new IllegalArgumentException(
-                format( "Unknown format identifier:%d and version:%d combination", formatIdentifier, formatVersion ) );
+        else if ( formatIdentifier == TreeNodeDynamicSize.FORMAT_IDENTIFIER &&
+                formatVersion == TreeNodeDynamicSize.FORMAT_VERSION_COMPRESSED_LEAF_KEYS )
+        {
+            return DYNAMIC_COMPRESSED;
+        }
+        return null;
     }
 
     /**
@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.Arrays;
+
+import org.neo4j.io.pagecache.ByteArrayPageCursor;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.RandomExtension;
+import org.neo4j.test.rule.RandomRule;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith( RandomExtension.class )
+class CompressedKeyUtilTest
+{
+    private static final int PAGE_SIZE = 8192;
+
+    @Inject
+    private RandomRule random;
+
+    private PageCursor cursor;
+
+    @BeforeEach
+    void setUp()
+    {
+        cursor = ByteArrayPageCursor.wrap( PAGE_SIZE );
+    }
+
+    @Test
+    void shouldEncodeAndDecodeRandomKeys()
+    {
+        for ( int i = 0; i < 1_000; i++ )
+        {
+            byte[] base = randomBytes( random.nextInt( 129 ) );
+            byte[] key = random.nextBoolean() ? randomBytes( random.nextInt( 1_000 ) ) : mutate( base );
+            shouldEncodeAndDecode( key, base );
+        }
+    }
+
+    @Test
+    void shouldCompressKeyWithDifferentPrefixButSameTailAsBase()
+    {
+        // given
+        byte[] base = new byte[200];
+        Arrays.fill( base, (byte) 'a' );
+        byte[] key = Arrays.copyOf( base, base.length );
+        for ( int i = 0; i < Long.BYTES; i++ )
+        {
+            base[i] = (byte) i;
+            key[i] = (byte) (i + 1);
+        }
+
+        // when
+        int encodedSize = CompressedKeyUtil.encodedSize( key, key.length, base, base.length );
+
+        // then
+        // one literal segment for the differing prefix and two copy segments for the rest of the key
+        assertEquals( 1 + Long.BYTES + 2, encodedSize );
+        shouldEncodeAndDecode( key, base );
+    }
+
+    @Test
+    void shouldNeverGrowKeyMoreThanEncodingOverhead()
+    {
+        for ( int i = 0; i < 1_000; i++ )
+        {
+            byte[] base = randomBytes( random.nextInt( 129 ) );
+            byte[] key = randomBytes( random.nextInt( 1_000 ) );
+            assertTrue( CompressedKeyUtil.encodedSize( key, key.length, base, base.length ) <= key.length + CompressedKeyUtil.SIZE_ENCODING_OVERHEAD );
+        }
+    }
+
+    @Test
+    void shouldDetectCopyBeyondBase()
+    {
+        // given
+        byte[] base = new byte[10];
+        byte[] key = new byte[10];
+        cursor.setOffset( 0 );
+        CompressedKeyUtil.encode( cursor, key, key.length, base, base.length );
+        int encodedSize = cursor.getOffset();
+
+        // when
+        cursor.setOffset( 0 );
+        int decodedSize = CompressedKeyUtil.decodedSize( cursor, encodedSize, base.length - 1 );
+
+        // then
+        assertEquals( -1, decodedSize );
+    }
+
+    @Test
+    void shouldDetectEncodedSizeNotMatchingSegments()
+    {
+        // given
+        byte[] base = new byte[10];
+        byte[] key = new byte[20];
+        Arrays.fill( key, base.length, key.length, (byte) 1 );
+        cursor.setOffset( 0 );
+        CompressedKeyUtil.encode( cursor, key, key.length, base, base.length );
+        int encodedSize = cursor.getOffset();
+
+        // when
+        cursor.setOffset( 0 );
+        int decodedSize = CompressedKeyUtil.decodedSize( cursor, encodedSize - 1, base.length );
+
+        // then
+        assertEquals( -1, decodedSize );
+    }
+
+    private void shouldEncodeAndDecode( byte[] key, byte[] base )
+    {
+        // Base lives at the end of the page, just like in a leaf
+        int baseOffset = PAGE_SIZE - base.length;
+        cursor.setOffset( baseOffset );
+        cursor.putBytes( base );
+
+        cursor.setOffset( 0 );
+        CompressedKeyUtil.encode( cursor, key, key.length, base, base.length );
+        int encodedSize = cursor.getOffset();
+        assertEquals( CompressedKeyUtil.encodedSize( key, key.length, base, base.length ), encodedSize );
+
+        cursor.setOffset( 0 );
+        int decodedSize = CompressedKeyUtil.decodedSize( cursor, encodedSize, base.length );
+        assertEquals( key.length, decodedSize );
+        byte[] decoded = new byte[decodedSize];
+        CompressedKeyUtil.decode( cursor, encodedSize, baseOffset, decoded );
+        assertArrayEquals( key, decoded );
+        assertEquals( encodedSize, cursor.getOffset() );
+    }
+
+    private byte[] mutate( byte[] base )
+    {
+        byte[] key = Arrays.copyOf( base, random.nextInt( base.length * 2 + 1 ) );
+        for ( int i = 0; i < key.length; i++ )
+        {
+            if ( i >= base.length || random.nextInt( 5 ) == 0 )
+            {
+                key[i] = (byte) random.nextInt();
+            }
+        }
+        return key;
+    }
+
+    private byte[] randomBytes( int length )
+    {
+        byte[] bytes = new byte[length];
+        random.nextBytes( bytes );
+        return bytes;
+    }
+}
@@ -0,0 +1,304 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import org.apache.commons.lang3.mutable.MutableLong;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+
+import org.neo4j.cursor.RawCursor;
+import org.neo4j.test.rule.PageCacheRule;
+import org.neo4j.test.rule.TestDirectory;
+import org.neo4j.test.rule.fs.DefaultFileSystemRule;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+import static org.junit.rules.RuleChain.outerRule;
+import static org.neo4j.index.internal.gbptree.SimpleLongLayout.longLayout;
+import static org.neo4j.io.pagecache.IOLimiter.UNLIMITED;
+import static org.neo4j.test.rule.PageCacheRule.config;
+
+@RunWith( Parameterized.class )
+public class GBPTreeBulkLoadTest
+{
+    private static final int PAGE_SIZE = 256;
+
+    @Parameters( name = "fixedSize:{0}" )
+    public static Collection<Object[]> layouts()
+    {
+        return Arrays.asList( new Object[][]{{true}, {false}} );
+    }
+
+    @Parameter
+    public boolean fixedSize;
+
+    private final DefaultFileSystemRule fs = new DefaultFileSystemRule();
+    private final TestDirectory directory = TestDirectory.testDirectory( getClass(), fs.get() );
+    private final PageCacheRule pageCacheRule = new PageCacheRule( config().withAccessChecks( true ) );
+
+    @Rule
+    public final RuleChain rules = outerRule( fs ).around( directory ).around( pageCacheRule );
+
+    @Test
+    public void shouldBulkLoadEntriesIntoMultiLevelTree() throws Exception
+    {
+        // GIVEN
+        int count = 20_000;
+        try ( GBPTree<MutableLong,MutableLong> index = index().build() )
+        {
+            // WHEN
+            bulkLoad( index, 0, count );
+
+            // THEN
+            assertEntries( index, 0, count );
+            index.consistencyCheck();
+        }
+    }
+
+    @Test
+    public void shouldBulkLoadNothing() throws Exception
+    {
+        // GIVEN
+        try ( GBPTree<MutableLong,MutableLong> index = index().build() )
+        {
+            // WHEN
+            bulkLoad( index, 0, 0 );
+
+            // THEN
+            assertEntries( index, 0, 0 );
+            index.consistencyCheck();
+        }
+    }
+
+    @Test
+    public void shouldKeepBulkLoadedEntriesAfterCheckpointAndReopen() throws Exception
+    {
+        // GIVEN
+        int count = 5_000;
+        try ( GBPTree<MutableLong,MutableLong> index = index().build() )
+        {
+            bulkLoad( index, 0, count );
+
+            // WHEN
+            index.checkpoint( UNLIMITED );
+        }
+
+        // THEN
+        try ( GBPTree<MutableLong,MutableLong> index = index().build() )
+        {
+            assertEntries( index, 0, count );
+            index.consistencyCheck();
+        }
+    }
+
+    @Test
+    public void shouldBeAbleToWriteToBulkLoadedTree() throws Exception
+    {
+        // GIVEN
+        int count = 5_000;
+        try ( GBPTree<MutableLong,MutableLong> index = index().build() )
+        {
+            bulkLoad( index, 0, count );
+
+            // WHEN inserting into full leaves, causing splits on every level
+            try ( Writer<MutableLong,MutableLong> writer = index.writer() )
+            {
+                for ( long i = count; i < count * 2; i++ )
+                {
+                    writer.put( new MutableLong( i ), new MutableLong( i * 10 ) );
+                }
+                for ( long i = 0; i < count; i += 2 )
+                {
+                    writer.remove( new MutableLong( i ) );
+                }
+            }
+
+            // THEN
+            try ( RawCursor<Hit<MutableLong,MutableLong>,IOException> seek = index.seek( new MutableLong( 0 ), new MutableLong( count * 2 ) ) )
+            {
+                long expected = 1;
+                while ( seek.next() )
+                {
+                    assertEquals( expected, seek.get().key().longValue() );
+                    expected += expected < count - 1 ? 2 : 1;
+                }
+                assertEquals( count * 2, expected );
+            }
+            index.consistencyCheck();
+        }
+    }
+
+    @Test
+    public void shouldFailOnKeysNotInStrictlyAscendingOrder() throws Exception
+    {
+        // GIVEN
+        try ( GBPTree<MutableLong,MutableLong> index = index().build();
+              BulkLoader<MutableLong,MutableLong> bulkLoader = index.bulkLoader() )
+        {
+            bulkLoader.add( new MutableLong( 10 ), new MutableLong( 10 ) );
+
+            // WHEN
+            try
+            {
+                bulkLoader.add( new MutableLong( 10 ), new MutableLong( 10 ) );
+                fail( "Should have failed" );
+            }
+            catch ( IllegalArgumentException e )
+            {
+                // THEN good
+            }
+        }
+    }
+
+    @Test
+    public void shouldLeaveTreeEmptyAndReleaseWrittenTreeNodesWhenBulkLoadFails() throws Exception
+    {
+        // GIVEN
+        int count = 5_000;
+        try ( GBPTree<MutableLong,MutableLong> index = index().build() )
+        {
+            try ( BulkLoader<MutableLong,MutableLong> bulkLoader = index.bulkLoader() )
+            {
+                for ( long i = 0; i < count; i++ )
+                {
+                    bulkLoader.add( new MutableLong( i ), new MutableLong( i * 10 ) );
+                }
+
+                // WHEN
+                try
+                {
+                    bulkLoader.add( new MutableLong( 0 ), new MutableLong( 0 ) );
+                    fail( "Should have failed" );
+                }
+                catch ( IllegalArgumentException e )
+                {
+                    // good
+                }
+            }
+
+            // THEN
+            assertEntries( index, 0, 0 );
+            index.consistencyCheck();
+
+            // and the tree can still be loaded
+            bulkLoad( index, 0, count );
+            assertEntries( index, 0, count );
+            index.consistencyCheck();
+        }
+    }
+
+    @Test
+    public void shouldFailToBulkLoadIntoNonEmptyTree() throws Exception
+    {
+        // GIVEN
+        try ( GBPTree<MutableLong,MutableLong> index = index().build() )
+        {
+            try ( Writer<MutableLong,MutableLong> writer = index.writer() )
+            {
+                writer.put( new MutableLong( 1 ), new MutableLong( 1 ) );
+            }
+
+            // WHEN
+            try
+            {
+                index.bulkLoader();
+                fail( "Should have failed" );
+            }
+            catch ( IllegalStateException e )
+            {
+                // THEN good
+            }
+
+            // and the writer should have been released
+            try ( Writer<MutableLong,MutableLong> writer = index.writer() )
+            {
+                writer.put( new MutableLong( 2 ), new MutableLong( 2 ) );
+            }
+        }
+    }
+
+    @Test
+    public void shouldNotSeeBulkLoadedEntriesBeforeBulkLoaderIsClosed() throws Exception
+    {
+        // GIVEN
+        try ( GBPTree<MutableLong,MutableLong> index = index().build() )
+        {
+            try ( BulkLoader<MutableLong,MutableLong> bulkLoader = index.bulkLoader() )
+            {
+                // WHEN
+                for ( long i = 0; i < 1_000; i++ )
+                {
+                    bulkLoader.add( new MutableLong( i ), new MutableLong( i * 10 ) );
+                }
+
+                // THEN
+                try ( RawCursor<Hit<MutableLong,MutableLong>,IOException> seek = index.seek( new MutableLong( 0 ), new MutableLong( 1_000 ) ) )
+                {
+                    assertFalse( seek.next() );
+                }
+            }
+            assertEntries( index, 0, 1_000 );
+        }
+    }
+
+    private static void bulkLoad( GBPTree<MutableLong,MutableLong> index, long from, long to ) throws IOException
+    {
+        try ( BulkLoader<MutableLong,MutableLong> bulkLoader = index.bulkLoader() )
+        {
+            for ( long i = from; i < to; i++ )
+            {
+                bulkLoader.add( new MutableLong( i ), new MutableLong( i * 10 ) );
+            }
+        }
+    }
+
+    private static void assertEntries( GBPTree<MutableLong,MutableLong> index, long from, long to ) throws IOException
+    {
+        try ( RawCursor<Hit<MutableLong,MutableLong>,IOException> seek = index.seek( new MutableLong( from ), new MutableLong( Long.MAX_VALUE ) ) )
+        {
+            long expected = from;
+            while ( seek.next() )
+            {
+                assertEquals( expected, seek.get().key().longValue() );
+                assertEquals( expected * 10, seek.get().value().longValue() );
+                expected++;
+            }
+            assertEquals( to, expected );
+        }
+    }
+
+    private GBPTreeBuilder<MutableLong,MutableLong> index()
+    {
+        File indexFile = directory.file( "index" );
+        SimpleLongLayout layout = longLayout().withFixedSize( fixedSize ).build();
+        return new GBPTreeBuilder<>( pageCacheRule.getPageCache( fs.get(), config().withPageSize( PAGE_SIZE ) ), indexFile, layout );
+    }
+}
@@ -37,6 +37,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
+import static org.neo4j.io.pagecache.IOLimiter.UNLIMITED;
 
 public abstract class GBPTreeReadWriteTestBase<KEY,VALUE>
 {
@@ -110,6 +111,34 @@ public abstract class GBPTreeReadWriteTestBase<KEY,VALUE>
         }
     }
 
+    @Test
+    public void shouldSeeInsertionsAfterReopen() throws Exception
+    {
+        int count = 1000;
+        try ( GBPTree<KEY,VALUE> index = index() )
+        {
+            try ( Writer<KEY,VALUE> writer = index.writer() )
+            {
+                for ( int i = 0; i < count; i++ )
+                {
+                    writer.put( key( i ), value( i ) );
+                }
+            }
+            index.checkpoint( UNLIMITED );
+        }
+
+        try ( GBPTree<KEY,VALUE> index = index();
+              RawCursor<Hit<KEY,VALUE>,IOException> cursor = index.seek( key( 0 ), key( Long.MAX_VALUE ) ) )
+        {
+            for ( int i = 0; i < count; i++ )
+            {
+                assertTrue( cursor.next() );
+                assertEqualsKey( key( i ), cursor.get().key() );
+            }
+            assertFalse( cursor.next() );
+        }
+    }
+
     /* Randomized tests */
 
     @Test
@@ -366,6 +366,44 @@ public class GBPTreeTest
         }
     }
 
+    @Test
+    public void shouldOpenDynamicSizeIndexCreatedWithoutCompressedKeysUsingLayoutWithCompressedKeys() throws Exception
+    {
+        // GIVEN
+        PageCache pageCache = createPageCache( DEFAULT_PAGE_SIZE );
+        SimpleByteArrayLayout layout = new SimpleByteArrayLayout( true, false );
+        GBPTreeBuilder<RawBytes,RawBytes> builder = new GBPTreeBuilder<>( pageCache, indexFile, layout );
+        int count = 1_000;
+        try ( GBPTree<RawBytes,RawBytes> index = builder.build() )
+        {
+            try ( Writer<RawBytes,RawBytes> writer = index.writer() )
+            {
+                for ( int i = 0; i < count; i++ )
+                {
+                    writer.put( layout.key( i ), layout.value( i ) );
+                }
+            }
+            index.checkpoint( UNLIMITED );
+        }
+
+        // WHEN
+        SimpleByteArrayLayout compressedLayout = new SimpleByteArrayLayout( true, true );
+        try ( GBPTree<RawBytes,RawBytes> index = builder.with( compressedLayout ).build() )
+        {
+            // THEN
+            try ( RawCursor<Hit<RawBytes,RawBytes>,IOException> seek = index.seek( compressedLayout.key( 0 ), compressedLayout.key( count ) ) )
+            {
+                int i = 0;
+                while ( seek.next() )
+                {
+                    assertEquals( 0, compressedLayout.compare( compressedLayout.key( i ), seek.get().key() ) );
+                    i++;
+                }
+                assertEquals( count, i );
+            }
+        }
+    }
+
     @Test
     public void shouldReturnNoResultsOnEmptyIndex() throws Exception
     {
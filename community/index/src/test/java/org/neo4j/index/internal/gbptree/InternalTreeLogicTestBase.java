@@ -1748,8 +1748,15 @@ public abstract class InternalTreeLogicTestBase<KEY,VALUE>
     {
         structurePropagation.hasRightKeyInsert = false;
         structurePropagation.hasMidChildUpdate = false;
-        treeLogic.insert( cursor, structurePropagation, key, value, valueMerger, stableGeneration, unstableGeneration );
+        boolean inserted = treeLogic.insert( cursor, structurePropagation, key, value, valueMerger, stableGeneration, unstableGeneration );
         handleAfterChange();
+        if ( !inserted )
+        {
+            structurePropagation.hasRightKeyInsert = false;
+            structurePropagation.hasMidChildUpdate = false;
+            assertTrue( treeLogic.insert( cursor, structurePropagation, key, value, overwrite(), stableGeneration, unstableGeneration ) );
+            handleAfterChange();
+        }
     }
 
     private void handleAfterChange() throws IOException
@@ -356,6 +356,8 @@ class PageAwareByteArrayCursor extends PageCursor
         if ( shouldRetry )
         {
             shouldRetry = false;
+            // Like a real page cursor, errors seen while reading inconsistent data are cleared on retry
+            current.clearCursorException();
 
             // To reset shouldRetry for linked cursor as well
             if ( linkedCursor != null )
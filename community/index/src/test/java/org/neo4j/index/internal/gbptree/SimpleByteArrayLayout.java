@@ -27,6 +27,7 @@ import org.neo4j.io.pagecache.PageCursor;
 public class SimpleByteArrayLayout extends TestLayout<RawBytes,RawBytes>
 {
     private final boolean useFirstLongAsSeed;
+    private final boolean compressedKeys;
 
     SimpleByteArrayLayout()
     {
@@ -34,8 +35,14 @@ public class SimpleByteArrayLayout extends TestLayout<RawBytes,RawBytes>
     }
 
     SimpleByteArrayLayout( boolean useFirstLongAsSeed )
+    {
+        this( useFirstLongAsSeed, false );
+    }
+
+    SimpleByteArrayLayout( boolean useFirstLongAsSeed, boolean compressedKeys )
     {
         this.useFirstLongAsSeed = useFirstLongAsSeed;
+        this.compressedKeys = compressedKeys;
     }
 
     @Override
@@ -114,6 +121,12 @@ public class SimpleByteArrayLayout extends TestLayout<RawBytes,RawBytes>
         return false;
     }
 
+    @Override
+    public boolean compressedKeys()
+    {
+        return compressedKeys;
+    }
+
     @Override
     public void minimalSplitter( RawBytes left, RawBytes right, RawBytes into )
     {
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import org.apache.commons.lang3.mutable.MutableLong;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.neo4j.cursor.RawCursor;
+import org.neo4j.test.rule.PageCacheRule;
+import org.neo4j.test.rule.RandomRule;
+import org.neo4j.test.rule.TestDirectory;
+import org.neo4j.test.rule.fs.DefaultFileSystemRule;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.rules.RuleChain.outerRule;
+import static org.neo4j.index.internal.gbptree.SimpleLongLayout.longLayout;
+import static org.neo4j.test.rule.PageCacheRule.config;
+
+public class SortingBulkLoaderTest
+{
+    private static final int PAGE_SIZE = 256;
+    private static final ValueMerger<MutableLong,MutableLong> SUM =
+            ( existingKey, newKey, existingValue, newValue ) ->
+            {
+                existingValue.add( newValue.longValue() );
+                return existingValue;
+            };
+
+    private final DefaultFileSystemRule fs = new DefaultFileSystemRule();
+    private final TestDirectory directory = TestDirectory.testDirectory( getClass(), fs.get() );
+    private final PageCacheRule pageCacheRule = new PageCacheRule( config().withAccessChecks( true ) );
+    private final RandomRule random = new RandomRule();
+
+    @Rule
+    public final RuleChain rules = outerRule( fs ).around( directory ).around( pageCacheRule ).around( random );
+
+    @Test
+    public void shouldLoadEntriesGivenInRandomOrderFittingInOneRun() throws Exception
+    {
+        shouldLoadEntriesGivenInRandomOrder( 1_000, 2_000 );
+    }
+
+    @Test
+    public void shouldLoadEntriesGivenInRandomOrderSpanningMultipleRuns() throws Exception
+    {
+        shouldLoadEntriesGivenInRandomOrder( 10_000, 300 );
+    }
+
+    @Test
+    public void shouldMergeRunsInMultiplePassesWhenThereAreManyRuns() throws Exception
+    {
+        shouldLoadEntriesGivenInRandomOrder( 10_000, 10_000 / (SortingBulkLoader.MAX_MERGE_WIDTH * 3) );
+    }
+
+    @Test
+    public void shouldMergeValuesOfEqualKeysWithinAndAcrossRuns() throws Exception
+    {
+        // GIVEN
+        int count = 1_000;
+        int copies = 5;
+        List<Long> keys = new ArrayList<>();
+        for ( long i = 0; i < count; i++ )
+        {
+            for ( int c = 0; c < copies; c++ )
+            {
+                keys.add( i );
+            }
+        }
+        Collections.shuffle( keys, new Random( random.seed() ) );
+
+        try ( GBPTree<MutableLong,MutableLong> index = index() )
+        {
+            // WHEN
+            try ( SortingBulkLoader<MutableLong,MutableLong> loader = sortingLoader( index, 700 ) )
+            {
+                for ( long key : keys )
+                {
+                    loader.add( new MutableLong( key ), new MutableLong( key ) );
+                }
+            }
+
+            // THEN
+            assertEntries( index, count, copies );
+            index.consistencyCheck();
+        }
+        assertNoRunFilesLeft();
+    }
+
+    private void shouldLoadEntriesGivenInRandomOrder( int count, int bufferSize ) throws IOException
+    {
+        // GIVEN
+        List<Long> keys = new ArrayList<>();
+        for ( long i = 0; i < count; i++ )
+        {
+            keys.add( i );
+        }
+        Collections.shuffle( keys, new Random( random.seed() ) );
+
+        try ( GBPTree<MutableLong,MutableLong> index = index() )
+        {
+            // WHEN
+            try ( SortingBulkLoader<MutableLong,MutableLong> loader = sortingLoader( index, bufferSize ) )
+            {
+                MutableLong key = new MutableLong();
+                MutableLong value = new MutableLong();
+                for ( long k : keys )
+                {
+                    key.setValue( k );
+                    value.setValue( k );
+                    loader.add( key, value );
+                }
+            }
+
+            // THEN
+            assertEntries( index, count, 1 );
+            index.consistencyCheck();
+        }
+        assertNoRunFilesLeft();
+    }
+
+    private SortingBulkLoader<MutableLong,MutableLong> sortingLoader( GBPTree<MutableLong,MutableLong> index, int bufferSize ) throws IOException
+    {
+        return new SortingBulkLoader<>( longLayout().build(), index.bulkLoader(), SUM, fs.get(), directory.file( "sort" ), bufferSize );
+    }
+
+    private static void assertEntries( GBPTree<MutableLong,MutableLong> index, long count, long valueFactor ) throws IOException
+    {
+        try ( RawCursor<Hit<MutableLong,MutableLong>,IOException> seek = index.seek( new MutableLong( 0 ), new MutableLong( Long.MAX_VALUE ) ) )
+        {
+            long expected = 0;
+            while ( seek.next() )
+            {
+                assertEquals( expected, seek.get().key().longValue() );
+                assertEquals( expected * valueFactor, seek.get().value().longValue() );
+                expected++;
+            }
+            assertEquals( count, expected );
+        }
+    }
+
+    private void assertNoRunFilesLeft()
+    {
+        File[] files = fs.get().listFiles( directory.directory(), ( dir, name ) -> name.startsWith( "sort" ) );
+        assertTrue( files == null || files.length == 0 );
+    }
+
+    private GBPTree<MutableLong,MutableLong> index() throws IOException
+    {
+        return new GBPTreeBuilder<>( pageCacheRule.getPageCache( fs.get(), config().withPageSize( PAGE_SIZE ) ),
+                directory.file( "index" ), longLayout().build() ).build();
+    }
+}
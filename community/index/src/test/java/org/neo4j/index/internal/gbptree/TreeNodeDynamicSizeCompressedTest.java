@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.neo4j.io.pagecache.PageCursor;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.index.internal.gbptree.TreeNode.Type.LEAF;
+
+public class TreeNodeDynamicSizeCompressedTest extends TreeNodeTestBase<RawBytes,RawBytes>
+{
+    private SimpleByteArrayLayout layout = new SimpleByteArrayLayout();
+
+    @Override
+    protected TestLayout<RawBytes,RawBytes> getLayout()
+    {
+        return layout;
+    }
+
+    @Override
+    protected TreeNodeDynamicSize<RawBytes,RawBytes> getNode( int pageSize, Layout<RawBytes,RawBytes> layout )
+    {
+        return new TreeNodeDynamicSize<>( pageSize, layout, true );
+    }
+
+    @Override
+    void assertAdditionalHeader( PageCursor cursor, TreeNode<RawBytes,RawBytes> node, int pageSize )
+    {
+        // When
+        int currentAllocSpace = ((TreeNodeDynamicSize) node).getAllocOffset( cursor );
+
+        // Then
+        assertEquals( pageSize, currentAllocSpace, "allocSpace point to end of page" );
+    }
+
+    @Test
+    void shouldStoreKeysSharingBytesWithBaseCompactly()
+    {
+        // given
+        TreeNodeDynamicSize<RawBytes,RawBytes> node = getNode( PAGE_SIZE, layout );
+        node.initializeLeaf( cursor, STABLE_GENERATION, UNSTABLE_GENERATION );
+        RawBytes value = layout.newValue();
+        value.bytes = new byte[0];
+        RawBytes first = keyWithSharedTail( 1 );
+        RawBytes second = keyWithSharedTail( 2 );
+        node.insertKeyValueAt( cursor, first, value, 0, 0 );
+
+        // when
+        int allocOffsetBefore = node.getAllocOffset( cursor );
+        node.insertKeyValueAt( cursor, second, value, 1, 1 );
+        int allocOffsetAfter = node.getAllocOffset( cursor );
+
+        // then
+        int usedSpace = allocOffsetBefore - allocOffsetAfter;
+        assertTrue( usedSpace < second.bytes.length / 2, "expected compressed key to be much smaller than raw key, but used " + usedSpace );
+        assertArrayEquals( first.bytes, node.keyAt( cursor, layout.newKey(), 0, LEAF ).bytes );
+        assertArrayEquals( second.bytes, node.keyAt( cursor, layout.newKey(), 1, LEAF ).bytes );
+    }
+
+    @Test
+    void shouldPickNewBaseWhenLeafBecomesEmpty()
+    {
+        // given
+        TreeNodeDynamicSize<RawBytes,RawBytes> node = getNode( PAGE_SIZE, layout );
+        node.initializeLeaf( cursor, STABLE_GENERATION, UNSTABLE_GENERATION );
+        RawBytes value = layout.newValue();
+        value.bytes = new byte[0];
+        node.insertKeyValueAt( cursor, keyWithSharedTail( 1 ), value, 0, 0 );
+        node.removeKeyValueAt( cursor, 0, 1 );
+
+        // when
+        RawBytes key = layout.newKey();
+        key.bytes = new byte[40];
+        Arrays.fill( key.bytes, (byte) 7 );
+        node.insertKeyValueAt( cursor, key, value, 0, 0 );
+
+        // then
+        RawBytes other = layout.newKey();
+        other.bytes = Arrays.copyOf( key.bytes, key.bytes.length );
+        other.bytes[0] = 1;
+        int allocOffsetBefore = node.getAllocOffset( cursor );
+        node.insertKeyValueAt( cursor, other, value, 0, 1 );
+        int usedSpace = allocOffsetBefore - node.getAllocOffset( cursor );
+        assertTrue( usedSpace < key.bytes.length / 2, "expected key to be compressed against new base, but used " + usedSpace );
+        assertArrayEquals( other.bytes, node.keyAt( cursor, layout.newKey(), 0, LEAF ).bytes );
+        assertArrayEquals( key.bytes, node.keyAt( cursor, layout.newKey(), 1, LEAF ).bytes );
+    }
+
+    @Test
+    void shouldSplitLeafWithoutInsertingWhenNoSplitFitsNewKey() throws IOException
+    {
+        // given a leaf holding two large keys that don't share anything with the base of the leaf
+        TreeNodeDynamicSize<RawBytes,RawBytes> node = getNode( PAGE_SIZE, layout );
+        node.initializeLeaf( cursor, STABLE_GENERATION, UNSTABLE_GENERATION );
+        RawBytes value = layout.newValue();
+        value.bytes = new byte[0];
+        int largeKeySize = TreeNodeDynamicSize.keyValueSizeCapFromPageSize( PAGE_SIZE ) - 20;
+        RawBytes baseKey = layout.newKey();
+        baseKey.bytes = new byte[40];
+        node.insertKeyValueAt( cursor, baseKey, value, 0, 0 );
+        RawBytes left = keyStartingWith( (byte) 1, largeKeySize );
+        RawBytes right = keyStartingWith( (byte) 3, largeKeySize );
+        node.insertKeyValueAt( cursor, left, value, 1, 1 );
+        node.removeKeyValueAt( cursor, 0, 2 );
+        TreeNode.setKeyCount( cursor, 1 );
+        node.defragmentLeaf( cursor );
+        node.insertKeyValueAt( cursor, right, value, 1, 1 );
+        TreeNode.setKeyCount( cursor, 2 );
+
+        // when inserting a key of max size between them
+        RawBytes newKey = keyStartingWith( (byte) 2, TreeNodeDynamicSize.keyValueSizeCapFromPageSize( PAGE_SIZE ) );
+        PageAwareByteArrayCursor rightCursor = new PageAwareByteArrayCursor( PAGE_SIZE );
+        rightCursor.next();
+        node.initializeLeaf( rightCursor, STABLE_GENERATION, UNSTABLE_GENERATION );
+        RawBytes splitter = layout.newKey();
+        boolean inserted = node.doSplitLeaf( cursor, 2, rightCursor, 1, newKey, value, splitter );
+
+        // then the leaf is split at the insert position and the new key belongs last in left
+        assertFalse( inserted );
+        assertEquals( 1, TreeNode.keyCount( cursor ) );
+        assertEquals( 1, TreeNode.keyCount( rightCursor ) );
+        assertArrayEquals( left.bytes, node.keyAt( cursor, layout.newKey(), 0, LEAF ).bytes );
+        assertArrayEquals( right.bytes, node.keyAt( rightCursor, layout.newKey(), 0, LEAF ).bytes );
+        assertTrue( layout.compare( newKey, splitter ) < 0 );
+        assertTrue( layout.compare( splitter, right ) <= 0 );
+    }
+
+    private RawBytes keyStartingWith( byte first, int size )
+    {
+        RawBytes key = layout.newKey();
+        key.bytes = new byte[size];
+        for ( int i = 0; i < size; i++ )
+        {
+            key.bytes[i] = (byte) (i % 100 + 1);
+        }
+        key.bytes[0] = first;
+        return key;
+    }
+
+    private RawBytes keyWithSharedTail( long seed )
+    {
+        RawBytes key = layout.key( seed );
+        byte[] bytes = Arrays.copyOf( key.bytes, 48 );
+        Arrays.fill( bytes, Long.BYTES, bytes.length, (byte) 'a' );
+        key.bytes = bytes;
+        return key;
+    }
+}
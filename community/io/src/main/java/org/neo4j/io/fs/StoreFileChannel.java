@@ -21,6 +21,7 @@ package org.neo4j.io.fs;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.channels.FileLock;
 
@@ -178,6 +179,11 @@ public class StoreFileChannel implements StoreChannel
         force( false );
     }
 
+    public MappedByteBuffer map( FileChannel.MapMode mode, long position, long size ) throws IOException
+    {
+        return channel.map( mode, position, size );
+    }
+
     static FileChannel unwrap( StoreChannel channel )
     {
         StoreFileChannel sfc = (StoreFileChannel) channel;
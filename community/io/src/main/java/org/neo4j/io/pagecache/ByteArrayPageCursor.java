@@ -24,8 +24,6 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.Arrays;
 
-import org.neo4j.helpers.Exceptions;
-
 /**
  * Wraps a byte array and present it as a PageCursor.
  * <p>
@@ -317,12 +315,21 @@ public class ByteArrayPageCursor extends PageCursor
     @Override
     public void setCursorException( String message )
     {
-        cursorException = Exceptions.chain( cursorException, new CursorException( message ) );
+        CursorException exception = new CursorException( message );
+        if ( cursorException == null )
+        {
+            cursorException = exception;
+        }
+        else
+        {
+            cursorException.addSuppressed( exception );
+        }
     }
 
     @Override
     public void clearCursorException()
-    {   // Don't check
+    {
+        cursorException = null;
     }
 
     @Override
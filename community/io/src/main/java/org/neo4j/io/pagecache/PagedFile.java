@@ -60,8 +60,13 @@ public interface PagedFile extends AutoCloseable
     int PF_NO_GROW = 1 << 2;
     /**
      * Read-ahead hint for sequential forward scanning.
+     * <p>
+     * When a cursor with this flag has to page fault, it will also try to fault in a number of the file pages that
+     * immediately follow the faulted page, with a single vectored read. Read-ahead is speculative; it only uses pages
+     * that are immediately available on the freelist, and it stops at the first following page that is already in
+     * memory, or being faulted in by someone else.
      */
-    int PF_READ_AHEAD = 1 << 3; // TBD
+    int PF_READ_AHEAD = 1 << 3;
     /**
      * Do not load in the page if it is not loaded already. The methods {@link PageCursor#next()} and
      * {@link PageCursor#next(long)} will always return {@code true} for pages that are within the range of the file,
@@ -74,8 +79,13 @@ public interface PagedFile extends AutoCloseable
     int PF_NO_FAULT = 1 << 4;
     /**
      * Do not update page access statistics.
+     * <p>
+     * This is a hint for large scans, that are expected to touch each page only once. Pages accessed this way will
+     * not look any hotter to the page cache than they did before. Pages that are faulted in by such a cursor will
+     * look cold, and will be recycled by the same cursor when it moves on, if nobody else accessed them in the
+     * meantime. This way, a large scan will not push the working set of other accesses out of the cache.
      */
-    int PF_TRANSIENT = 1 << 5; // TBD
+    int PF_TRANSIENT = 1 << 5;
     /**
      * Flush pages more aggressively, after they have been dirtied by a write cursor.
      */
@@ -800,34 +800,77 @@ public class MuninnPageCache implements PageCache
                     return pageRef;
                 }
             }
-            else if ( current instanceof AtomicInteger )
+            else
             {
-                int pageCount = pages.getPageCount();
-                AtomicInteger counter = (AtomicInteger) current;
-                int pageId = counter.get();
-                if ( pageId < pageCount && counter.compareAndSet( pageId, pageId + 1 ) )
-                {
-                    return pages.deref( pageId );
-                }
-                if ( pageId >= pageCount )
+                long pageRef = tryPopFreelist( current );
+                if ( pageRef != 0 )
                 {
-                    compareAndSetFreelistHead( current, null );
+                    return pageRef;
                 }
             }
-            else if ( current instanceof FreePage )
+        }
+    }
+
+    /**
+     * Like {@link #grabFreeAndExclusivelyLockedPage(PageFaultEvent)}, except this method will never evict anything.
+     * If the freelist is empty, then {@code 0} is returned instead. This is used for speculative page faults, such as
+     * read-ahead, that are not worth the cost of an eviction.
+     */
+    long tryGrabFreeAndExclusivelyLockedPage() throws IOException
+    {
+        Object current;
+        for (;;)
+        {
+            assertHealthy();
+            current = getFreelistHead();
+            if ( current == null )
             {
-                FreePage freePage = (FreePage) current;
-                if ( freePage == shutdownSignal )
-                {
-                    throw new IllegalStateException( "The PageCache has been shut down." );
-                }
+                unparkEvictor();
+                return 0;
+            }
+            long pageRef = tryPopFreelist( current );
+            if ( pageRef != 0 )
+            {
+                return pageRef;
+            }
+        }
+    }
 
-                if ( compareAndSetFreelistHead( freePage, freePage.next ) )
-                {
-                    return freePage.pageRef;
-                }
+    /**
+     * Try to grab the page at the head of the freelist, given the {@code current} freelist head.
+     *
+     * @return the grabbed page, or {@code 0} if we raced with someone else and should try again.
+     */
+    private long tryPopFreelist( Object current )
+    {
+        if ( current instanceof AtomicInteger )
+        {
+            int pageCount = pages.getPageCount();
+            AtomicInteger counter = (AtomicInteger) current;
+            int pageId = counter.get();
+            if ( pageId < pageCount && counter.compareAndSet( pageId, pageId + 1 ) )
+            {
+                return pages.deref( pageId );
+            }
+            if ( pageId >= pageCount )
+            {
+                compareAndSetFreelistHead( current, null );
+            }
+        }
+        else if ( current instanceof FreePage )
+        {
+            FreePage freePage = (FreePage) current;
+            if ( freePage == shutdownSignal )
+            {
+                throw new IllegalStateException( "The PageCache has been shut down." );
+            }
+
+            if ( compareAndSetFreelistHead( freePage, freePage.next ) )
+            {
+                return freePage.pageRef;
             }
         }
+        return 0;
     }
 
     private long cooperativelyEvict( PageFaultEvent faultEvent ) throws IOException
@@ -38,9 +38,12 @@ import org.neo4j.unsafe.impl.internal.dragons.UnsafeUtil;
 
 import static org.neo4j.io.pagecache.PagedFile.PF_EAGER_FLUSH;
 import static org.neo4j.io.pagecache.PagedFile.PF_NO_FAULT;
+import static org.neo4j.io.pagecache.PagedFile.PF_READ_AHEAD;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
+import static org.neo4j.io.pagecache.PagedFile.PF_TRANSIENT;
 import static org.neo4j.io.pagecache.impl.muninn.MuninnPagedFile.UNMAPPED_TTE;
 import static org.neo4j.util.FeatureToggles.flag;
+import static org.neo4j.util.FeatureToggles.getInteger;
 
 abstract class MuninnPageCursor extends PageCursor
 {
@@ -49,6 +52,10 @@ abstract class MuninnPageCursor extends PageCursor
 
     private static final boolean boundsCheck = flag( MuninnPageCursor.class, "boundsCheck", true );
 
+    // The number of pages following a faulted page, that a PF_READ_AHEAD cursor will try to fault in as part of the
+    // same vectored read.
+    private static final int readAheadPages = getInteger( MuninnPageCursor.class, "readAheadPages", 7 );
+
     // Size of the respective primitive types in bytes.
     private static final int SIZE_OF_BYTE = Byte.BYTES;
     private static final int SIZE_OF_SHORT = Short.BYTES;
@@ -67,6 +74,8 @@ abstract class MuninnPageCursor extends PageCursor
     protected boolean eagerFlush;
     protected boolean noFault;
     protected boolean noGrow;
+    protected boolean transientAccess;
+    protected boolean readAhead;
     protected long currentPageId;
     protected long nextPageId;
     protected MuninnPageCursor linkedCursor;
@@ -78,6 +87,19 @@ abstract class MuninnPageCursor extends PageCursor
     private int mark;
     private boolean outOfBounds;
     private boolean isLinkedCursor;
+    // The pages most recently faulted in by this cursor, if it is a transient cursor. If no one else touches those
+    // pages before we need to fault again, then we can recycle them instead of taking pages from the freelist.
+    private long[] recyclablePageRefs;
+    private long[] recyclableFilePageIds;
+    private int recyclableCount;
+    // The state of an in-progress read-ahead. Index 0 is the page being faulted, and the following indexes are the
+    // read-ahead pages we have reserved; latched, grabbed and exclusively locked.
+    private long[] readAheadPageRefs;
+    private long[] readAheadBufferAddresses;
+    private LatchMap.Latch[] readAheadLatches;
+    private int[][] readAheadChunks;
+    private long[] readAheadChunkOffsets;
+    private int readAheadCount;
     // This is a String with the exception message if usePreciseCursorErrorStackTraces is false, otherwise it is a
     // CursorExceptionWithPreciseStackTrace with the message and stack trace pointing more or less directly at the
     // offending code.
@@ -102,6 +124,23 @@ abstract class MuninnPageCursor extends PageCursor
         this.eagerFlush = isFlagRaised( pf_flags, PF_EAGER_FLUSH );
         this.noFault = isFlagRaised( pf_flags, PF_NO_FAULT );
         this.noGrow = noFault | isFlagRaised( pf_flags, PagedFile.PF_NO_GROW );
+        this.transientAccess = isFlagRaised( pf_flags, PF_TRANSIENT );
+        this.readAhead = !noFault && readAheadPages > 0 && isFlagRaised( pf_flags, PF_READ_AHEAD );
+        this.recyclableCount = 0;
+        if ( transientAccess && recyclablePageRefs == null )
+        {
+            recyclablePageRefs = new long[1 + Math.max( readAheadPages, 0 )];
+            recyclableFilePageIds = new long[recyclablePageRefs.length];
+        }
+        if ( readAhead && readAheadPageRefs == null )
+        {
+            int length = 1 + readAheadPages;
+            readAheadPageRefs = new long[length];
+            readAheadBufferAddresses = new long[length];
+            readAheadLatches = new LatchMap.Latch[length];
+            readAheadChunks = new int[length][];
+            readAheadChunkOffsets = new long[length];
+        }
     }
 
     private boolean isFlagRaised( int flagSet, int flag )
@@ -367,7 +406,8 @@ abstract class MuninnPageCursor extends PageCursor
         try
         {
             // The grabFreePage method might throw.
-            pageRef = pagedFile.grabFreeAndExclusivelyLockedPage( faultEvent );
+            pageRef = transientAccess ? recycleOrGrabFreePage( faultEvent )
+                                      : pagedFile.grabFreeAndExclusivelyLockedPage( faultEvent );
 
             // We got a free page, and we know that we have race-free access to it. Well, it's not entirely race
             // free, because other paged files might have it in their translation tables (or rather, their reads of
@@ -381,18 +421,33 @@ abstract class MuninnPageCursor extends PageCursor
             abortPageFault( throwable, chunk, chunkOffset, latch, faultEvent );
             throw throwable;
         }
+        readAheadCount = 0;
         try
         {
             // Check if we're racing with unmapping. We have the page lock
             // here, so the unmapping would have already happened. We do this
             // check before page.fault(), because that would otherwise reopen
             // the file channel.
-            assertPagedFileStillMappedAndGetIdOfLastPage();
+            long lastPageId = assertPagedFileStillMappedAndGetIdOfLastPage();
             pagedFile.initBuffer( pageRef );
-            pagedFile.fault( pageRef, swapper, pagedFile.swapperId, filePageId, faultEvent );
+            if ( readAhead )
+            {
+                reserveReadAheadPages( filePageId, lastPageId, faultEvent );
+            }
+            if ( readAheadCount == 0 )
+            {
+                pagedFile.fault( pageRef, swapper, pagedFile.swapperId, filePageId, faultEvent );
+            }
+            else
+            {
+                readAheadPageRefs[0] = pageRef;
+                pagedFile.fault( readAheadPageRefs, readAheadBufferAddresses, readAheadCount + 1,
+                        swapper, pagedFile.swapperId, filePageId, faultEvent );
+            }
         }
         catch ( Throwable throwable )
         {
+            abortReadAhead();
             // Make sure to unlock the page, so the eviction thread can pick up our trash.
             pagedFile.unlockExclusive( pageRef );
             // Make sure to unstuck the page fault latch.
@@ -406,10 +461,148 @@ abstract class MuninnPageCursor extends PageCursor
         // need for the page cursor.
         convertPageFaultLock( pageRef );
         latch.release();
+        int pagesFaulted = 1 + readAheadCount;
+        publishReadAheadPages();
         faultEvent.done();
+        if ( transientAccess )
+        {
+            recyclablePageRefs[0] = pageRef;
+            recyclableFilePageIds[0] = filePageId;
+            for ( int i = 1; i < pagesFaulted; i++ )
+            {
+                recyclablePageRefs[i] = readAheadPageRefs[i];
+                recyclableFilePageIds[i] = filePageId + i;
+            }
+            recyclableCount = pagesFaulted;
+        }
         return pageRef;
     }
 
+    private long recycleOrGrabFreePage( PageFaultEvent faultEvent ) throws IOException
+    {
+        long pageRef = tryRecyclePage( faultEvent );
+        if ( pageRef != 0 )
+        {
+            return pageRef;
+        }
+        return pagedFile.grabFreeAndExclusivelyLockedPage( faultEvent );
+    }
+
+    private long tryRecyclePage( PageFaultEvent faultEvent ) throws IOException
+    {
+        while ( recyclableCount > 0 )
+        {
+            recyclableCount--;
+            long pageRef = pagedFile.tryRecycleTransientPage(
+                    recyclablePageRefs[recyclableCount], recyclableFilePageIds[recyclableCount], faultEvent );
+            if ( pageRef != 0 )
+            {
+                return pageRef;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Reserve pages for faulting in the file pages that immediately follow the given filePageId, as part of the same
+     * vectored read. We stop at the first file page that is already mapped, or is being faulted by someone else, or
+     * when we run out of free pages. Read-ahead is speculative, so we never wait for latches or evict pages for it,
+     * except for recycling the pages of our own previous read-ahead if this is a transient cursor.
+     */
+    private void reserveReadAheadPages( long filePageId, long lastPageId, PageFaultEvent faultEvent )
+            throws IOException
+    {
+        int[][] tt = pagedFile.translationTable;
+        int maxCount = (int) Math.min( readAheadPages, lastPageId - filePageId );
+        for ( int i = 1; i <= maxCount; i++ )
+        {
+            long readAheadPageId = filePageId + i;
+            int chunkId = MuninnPagedFile.computeChunkId( readAheadPageId );
+            if ( tt.length <= chunkId )
+            {
+                return;
+            }
+            int[] chunk = tt[chunkId];
+            long chunkOffset = MuninnPagedFile.computeChunkOffset( readAheadPageId );
+            if ( UnsafeUtil.getIntVolatile( chunk, chunkOffset ) != UNMAPPED_TTE )
+            {
+                return;
+            }
+            LatchMap.Latch latch = pagedFile.pageFaultLatches.tryTakeLatch( readAheadPageId );
+            if ( latch == null )
+            {
+                return;
+            }
+            long pageRef = 0;
+            try
+            {
+                if ( UnsafeUtil.getIntVolatile( chunk, chunkOffset ) == UNMAPPED_TTE )
+                {
+                    pageRef = transientAccess ? tryRecyclePage( faultEvent ) : 0;
+                    if ( pageRef == 0 )
+                    {
+                        pageRef = pagedFile.tryGrabFreeAndExclusivelyLockedPage();
+                    }
+                }
+            }
+            catch ( Throwable throwable )
+            {
+                latch.release();
+                throw throwable;
+            }
+            if ( pageRef == 0 )
+            {
+                latch.release();
+                return;
+            }
+            readAheadPageRefs[i] = pageRef;
+            readAheadLatches[i] = latch;
+            readAheadChunks[i] = chunk;
+            readAheadChunkOffsets[i] = chunkOffset;
+            readAheadCount = i;
+            pagedFile.initBuffer( pageRef );
+        }
+    }
+
+    private void publishReadAheadPages()
+    {
+        for ( int i = 1; i <= readAheadCount; i++ )
+        {
+            long pageRef = readAheadPageRefs[i];
+            UnsafeUtil.putIntVolatile( readAheadChunks[i], readAheadChunkOffsets[i], pagedFile.toId( pageRef ) );
+            pagedFile.unlockExclusive( pageRef );
+            releaseReadAheadLatch( i );
+        }
+        readAheadCount = 0;
+    }
+
+    private void abortReadAhead()
+    {
+        for ( int i = 1; i <= readAheadCount; i++ )
+        {
+            long pageRef = readAheadPageRefs[i];
+            if ( pagedFile.isLoaded( pageRef ) )
+            {
+                // The eviction thread will pick up our trash.
+                pagedFile.unlockExclusive( pageRef );
+            }
+            else
+            {
+                // We never got as far as swapping in, so nobody but us knows about this page.
+                pagedFile.returnFreePage( pageRef );
+            }
+            releaseReadAheadLatch( i );
+        }
+        readAheadCount = 0;
+    }
+
+    private void releaseReadAheadLatch( int index )
+    {
+        readAheadLatches[index].release();
+        readAheadLatches[index] = null;
+        readAheadChunks[index] = null;
+    }
+
     private void abortPageFault( Throwable throwable, int[] chunk, long chunkOffset,
                                  LatchMap.Latch latch,
                                  PageFaultEvent faultEvent )
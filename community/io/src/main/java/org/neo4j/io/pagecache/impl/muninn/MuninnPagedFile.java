@@ -663,6 +663,37 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
         return pageCache.grabFreeAndExclusivelyLockedPage( faultEvent );
     }
 
+    /**
+     * Grab a free page for the purpose of a speculative page fault, such as read-ahead. Never blocks or evicts.
+     * @return The exclusively locked page, or {@code 0} if no free page was immediately available.
+     */
+    long tryGrabFreeAndExclusivelyLockedPage() throws IOException
+    {
+        return pageCache.tryGrabFreeAndExclusivelyLockedPage();
+    }
+
+    /**
+     * Give back an exclusively locked page, that was grabbed from the freelist but never faulted into.
+     */
+    void returnFreePage( long pageRef )
+    {
+        pageCache.addFreePageToFreelist( pageRef );
+    }
+
+    /**
+     * Try to recycle a page that was previously faulted in by a {@link PagedFile#PF_TRANSIENT transient} cursor,
+     * for the purpose of page faulting. The page is only recycled if it is still bound to the given file page, and
+     * nobody has accessed it since.
+     * @param pageRef The page that was previously faulted in.
+     * @param filePageId The file page id that page was faulted in for.
+     * @param faultEvent The trace event for the current page fault.
+     * @return The exclusively locked page, or {@code 0} if the page could not be recycled.
+     */
+    long tryRecycleTransientPage( long pageRef, long filePageId, PageFaultEvent faultEvent ) throws IOException
+    {
+        return tryEvictUnused( pageRef, swapperId, filePageId, faultEvent ) ? pageRef : 0;
+    }
+
     /**
      * Remove the mapping of the given filePageId from the translation table, and return the evicted page object.
      * @param filePageId The id of the file page to evict.
@@ -437,6 +437,51 @@ class PageList
         setSwapperId( pageRef, swapperId ); // Page now considered isBoundTo( swapper, filePageId )
     }
 
+    /**
+     * Fault the given consecutive file pages into the given pages, with a single vectored read. The file page ids
+     * start at the given {@code startFilePageId}. All of the pages must be exclusively locked and unbound, just like
+     * for {@link #fault(long, PageSwapper, int, long, PageFaultEvent)}.
+     *
+     * @param pageRefs The pages to fault into, in file page order.
+     * @param bufferAddresses Scratch space for the buffer addresses of the pages. Must be at least {@code length} long.
+     * @param length The number of pages to fault.
+     */
+    void fault( long[] pageRefs, long[] bufferAddresses, int length, PageSwapper swapper, int swapperId,
+                long startFilePageId, PageFaultEvent event ) throws IOException
+    {
+        if ( swapper == null )
+        {
+            throw swapperCannotBeNull();
+        }
+        for ( int i = 0; i < length; i++ )
+        {
+            long pageRef = pageRefs[i];
+            long filePageId = startFilePageId + i;
+            int currentSwapper = getSwapperId( pageRef );
+            long currentFilePageId = getFilePageId( pageRef );
+            if ( filePageId == PageCursor.UNBOUND_PAGE_ID || !isExclusivelyLocked( pageRef )
+                 || currentSwapper != 0 || currentFilePageId != PageCursor.UNBOUND_PAGE_ID )
+            {
+                throw cannotFaultException( pageRef, swapper, swapperId, filePageId, currentSwapper,
+                        currentFilePageId );
+            }
+        }
+        // See the single page fault method for why the file page id must be assigned before we swap in.
+        for ( int i = 0; i < length; i++ )
+        {
+            long pageRef = pageRefs[i];
+            setFilePageId( pageRef, startFilePageId + i ); // Page now considered isLoaded()
+            bufferAddresses[i] = getAddress( pageRef );
+        }
+        long bytesRead = swapper.read( startFilePageId, bufferAddresses, cachePageSize, 0, length );
+        event.addBytesRead( bytesRead );
+        event.setCachePageId( toId( pageRefs[0] ) );
+        for ( int i = 0; i < length; i++ )
+        {
+            setSwapperId( pageRefs[i], swapperId ); // Page now considered isBoundTo( swapper, filePageId )
+        }
+    }
+
     private static IllegalArgumentException swapperCannotBeNull()
     {
         return new IllegalArgumentException( "swapper cannot be null" );
@@ -471,6 +516,35 @@ class PageList
         return false;
     }
 
+    /**
+     * Evict the given page, but only if it is still bound to the given file page, has not been accessed since it was
+     * faulted in, and is not modified. This is used for recycling pages that were faulted in by
+     * {@link org.neo4j.io.pagecache.PagedFile#PF_TRANSIENT transient} cursors.
+     * <p>
+     * If the eviction succeeds, then the page is left exclusively locked, just like it would be if it had been taken
+     * from the freelist.
+     *
+     * @return {@code true} if the page was evicted, otherwise {@code false}.
+     */
+    boolean tryEvictUnused( long pageRef, int swapperId, long filePageId, EvictionEventOpportunity evictionOpportunity )
+            throws IOException
+    {
+        if ( tryExclusiveLock( pageRef ) )
+        {
+            if ( isBoundTo( pageRef, swapperId, filePageId ) && getUsageCounter( pageRef ) == 0 &&
+                 !isModified( pageRef ) )
+            {
+                try ( EvictionEvent evictionEvent = evictionOpportunity.beginEviction() )
+                {
+                    evict( pageRef, evictionEvent );
+                    return true;
+                }
+            }
+            unlockExclusive( pageRef );
+        }
+        return false;
+    }
+
     private void evict( long pageRef, EvictionEvent evictionEvent ) throws IOException
     {
         long filePageId = getFilePageId( pageRef );
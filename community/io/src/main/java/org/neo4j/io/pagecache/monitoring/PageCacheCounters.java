@@ -19,6 +19,8 @@
  */
 package org.neo4j.io.pagecache.monitoring;
 
+import java.io.File;
+
 /**
  * The PageCacheCounters exposes internal counters from the page cache.
  * The data for these counters is sourced through the PageCacheTracer API.
@@ -50,6 +52,20 @@ public interface PageCacheCounters
      */
     long hits();
 
+    /**
+     * @param file a file currently mapped by the page cache.
+     * @return The number of page cache hits on pages of the given file since it was mapped,
+     * or {@code 0} if the file is not mapped.
+     */
+    long hits( File file );
+
+    /**
+     * @param file a file currently mapped by the page cache.
+     * @return The number of evictions of pages of the given file since it was mapped,
+     * or {@code 0} if the file is not mapped.
+     */
+    long evictions( File file );
+
     /**
      * @return The number of page flushes observed thus far.
      */
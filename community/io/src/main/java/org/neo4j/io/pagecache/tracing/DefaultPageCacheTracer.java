@@ -21,6 +21,8 @@ package org.neo4j.io.pagecache.tracing;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.LongAdder;
 
@@ -44,6 +46,7 @@ public class DefaultPageCacheTracer implements PageCacheTracer
     protected final LongAdder filesUnmapped = new LongAdder();
     protected final LongAdder evictionExceptions = new LongAdder();
     protected final AtomicLong maxPages = new AtomicLong();
+    private final ConcurrentMap<File,FileCounters> fileCounters = new ConcurrentHashMap<>();
 
     private final FlushEvent flushEvent = new FlushEvent()
     {
@@ -83,6 +86,7 @@ public class DefaultPageCacheTracer implements PageCacheTracer
         @Override
         public void setSwapper( PageSwapper swapper )
         {
+            evictions( swapper.file(), 1 );
         }
 
         @Override
@@ -141,12 +145,14 @@ public class DefaultPageCacheTracer implements PageCacheTracer
     public void mappedFile( File file )
     {
         filesMapped.increment();
+        fileCounters.put( file, new FileCounters() );
     }
 
     @Override
     public void unmappedFile( File file )
     {
         filesUnmapped.increment();
+        fileCounters.remove( file );
     }
 
     @Override
@@ -197,6 +203,20 @@ public class DefaultPageCacheTracer implements PageCacheTracer
         return hits.sum();
     }
 
+    @Override
+    public long hits( File file )
+    {
+        FileCounters counters = fileCounters.get( file );
+        return counters == null ? 0 : counters.hits.sum();
+    }
+
+    @Override
+    public long evictions( File file )
+    {
+        FileCounters counters = fileCounters.get( file );
+        return counters == null ? 0 : counters.evictions.sum();
+    }
+
     @Override
     public long flushes()
     {
@@ -263,6 +283,16 @@ public class DefaultPageCacheTracer implements PageCacheTracer
         this.hits.add( hits );
     }
 
+    @Override
+    public void hits( File file, long hits )
+    {
+        FileCounters counters = fileCounters.get( file );
+        if ( counters != null )
+        {
+            counters.hits.add( hits );
+        }
+    }
+
     @Override
     public void faults( long faults )
     {
@@ -281,6 +311,16 @@ public class DefaultPageCacheTracer implements PageCacheTracer
         this.evictions.add( evictions );
     }
 
+    @Override
+    public void evictions( File file, long evictions )
+    {
+        FileCounters counters = fileCounters.get( file );
+        if ( counters != null )
+        {
+            counters.evictions.add( evictions );
+        }
+    }
+
     @Override
     public void evictionExceptions( long evictionExceptions )
     {
@@ -304,4 +344,14 @@ public class DefaultPageCacheTracer implements PageCacheTracer
     {
         this.maxPages.set( maxPages );
     }
+
+    /**
+     * Counters of a single mapped file. They are dropped when the file is unmapped, and reports for files
+     * that are not mapped are ignored.
+     */
+    private static class FileCounters
+    {
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder evictions = new LongAdder();
+    }
 }
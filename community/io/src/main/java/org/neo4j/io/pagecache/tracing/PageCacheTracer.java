@@ -130,6 +130,18 @@ public interface PageCacheTracer extends PageCacheCounters
             return 0;
         }
 
+        @Override
+        public long hits( File file )
+        {
+            return 0;
+        }
+
+        @Override
+        public long evictions( File file )
+        {
+            return 0;
+        }
+
         @Override
         public double hitRatio()
         {
@@ -157,6 +169,11 @@ public interface PageCacheTracer extends PageCacheCounters
         {
         }
 
+        @Override
+        public void hits( File file, long hits )
+        {
+        }
+
         @Override
         public void faults( long faults )
         {
@@ -172,6 +189,11 @@ public interface PageCacheTracer extends PageCacheCounters
         {
         }
 
+        @Override
+        public void evictions( File file, long evictions )
+        {
+        }
+
         @Override
         public void evictionExceptions( long evictionExceptions )
         {
@@ -246,6 +268,13 @@ public interface PageCacheTracer extends PageCacheCounters
      */
     void hits( long hits );
 
+    /**
+     * Report number of observed hits on pages of the given file
+     * @param file the mapped file
+     * @param hits number of hits
+     */
+    void hits( File file, long hits );
+
     /**
      * Report number of observed faults
      * @param faults number of faults
@@ -264,6 +293,13 @@ public interface PageCacheTracer extends PageCacheCounters
      */
     void evictions( long evictions );
 
+    /**
+     * Report number of observed evictions of pages of the given file
+     * @param file the mapped file
+     * @param evictions number of evictions
+     */
+    void evictions( File file, long evictions );
+
     /**
      * Report number of eviction exceptions
      * @param evictionExceptions number of eviction exceptions
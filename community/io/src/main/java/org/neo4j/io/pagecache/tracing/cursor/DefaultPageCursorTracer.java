@@ -19,6 +19,7 @@
  */
 package org.neo4j.io.pagecache.tracing.cursor;
 
+import java.io.File;
 import java.io.IOException;
 
 import org.neo4j.helpers.MathUtil;
@@ -32,6 +33,12 @@ import org.neo4j.io.pagecache.tracing.PinEvent;
 
 public class DefaultPageCursorTracer implements PageCursorTracer
 {
+    /**
+     * Number of files to keep hits and evictions for between reports. A thread rarely touches more files than
+     * this between two reports, and when it does the per-file counts are reported early to make room.
+     */
+    private static final int TRACKED_FILES = 8;
+
     private long pins;
     private long unpins;
     private long hits;
@@ -44,6 +51,12 @@ public class DefaultPageCursorTracer implements PageCursorTracer
     private long evictionExceptions;
     private long flushes;
 
+    private final PageSwapper[] fileSwappers = new PageSwapper[TRACKED_FILES];
+    private final long[] fileHits = new long[TRACKED_FILES];
+    private final long[] fileEvictions = new long[TRACKED_FILES];
+    private int trackedFiles;
+    private int lastFileIndex;
+
     private PageCacheTracer pageCacheTracer = PageCacheTracer.NULL;
     private DefaultPinEvent pinTracingEvent = new DefaultPinEvent();
 
@@ -94,9 +107,58 @@ public class DefaultPageCursorTracer implements PageCursorTracer
         {
             pageCacheTracer.flushes( flushes );
         }
+        reportFileEvents();
         reset();
     }
 
+    private void reportFileEvents()
+    {
+        for ( int i = 0; i < trackedFiles; i++ )
+        {
+            File file = fileSwappers[i].file();
+            if ( fileHits[i] > 0 )
+            {
+                pageCacheTracer.hits( file, fileHits[i] );
+            }
+            if ( fileEvictions[i] > 0 )
+            {
+                pageCacheTracer.evictions( file, fileEvictions[i] );
+            }
+            fileSwappers[i] = null;
+        }
+        trackedFiles = 0;
+        lastFileIndex = 0;
+    }
+
+    /**
+     * @return index of the given swapper in the per-file counters, adding it if it's not there already.
+     */
+    private int fileIndex( PageSwapper swapper )
+    {
+        if ( fileSwappers[lastFileIndex] == swapper )
+        {
+            return lastFileIndex;
+        }
+        for ( int i = 0; i < trackedFiles; i++ )
+        {
+            if ( fileSwappers[i] == swapper )
+            {
+                lastFileIndex = i;
+                return i;
+            }
+        }
+        if ( trackedFiles == TRACKED_FILES )
+        {
+            reportFileEvents();
+        }
+        int index = trackedFiles++;
+        fileSwappers[index] = swapper;
+        fileHits[index] = 0;
+        fileEvictions[index] = 0;
+        lastFileIndex = index;
+        return index;
+    }
+
     @Override
     public long accumulatedHits()
     {
@@ -187,6 +249,7 @@ public class DefaultPageCursorTracer implements PageCursorTracer
     {
         pins++;
         pinTracingEvent.eventHits = 1;
+        pinTracingEvent.swapper = swapper;
         return pinTracingEvent;
     }
 
@@ -200,6 +263,7 @@ public class DefaultPageCursorTracer implements PageCursorTracer
         @Override
         public void setSwapper( PageSwapper swapper )
         {
+            fileEvictions[fileIndex( swapper )]++;
         }
 
         @Override
@@ -296,6 +360,7 @@ public class DefaultPageCursorTracer implements PageCursorTracer
     private class DefaultPinEvent implements PinEvent
     {
         int eventHits = 1;
+        PageSwapper swapper;
 
         @Override
         public void setCachePageId( long cachePageId )
@@ -313,6 +378,10 @@ public class DefaultPageCursorTracer implements PageCursorTracer
         public void hit()
         {
             hits += eventHits;
+            if ( eventHits != 0 && swapper != null )
+            {
+                fileHits[fileIndex( swapper )]++;
+            }
         }
 
         @Override
@@ -49,6 +49,7 @@ import org.neo4j.io.pagecache.tracing.DelegatingPageCacheTracer;
 import org.neo4j.io.pagecache.tracing.EvictionRunEvent;
 import org.neo4j.io.pagecache.tracing.MajorFlushEvent;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.io.pagecache.tracing.cursor.DefaultPageCursorTracer;
 import org.neo4j.io.pagecache.tracing.cursor.DefaultPageCursorTracerSupplier;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracerSupplier;
 import org.neo4j.io.pagecache.tracing.cursor.context.VersionContext;
@@ -66,9 +67,12 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTimeout;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
+import static org.neo4j.io.pagecache.PagedFile.PF_NO_FAULT;
 import static org.neo4j.io.pagecache.PagedFile.PF_NO_GROW;
+import static org.neo4j.io.pagecache.PagedFile.PF_READ_AHEAD;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
+import static org.neo4j.io.pagecache.PagedFile.PF_TRANSIENT;
 import static org.neo4j.io.pagecache.tracing.recording.RecordingPageCacheTracer.Evict;
 
 public class MuninnPageCacheTest extends PageCacheTest<MuninnPageCache>
@@ -711,6 +715,143 @@ public class MuninnPageCacheTest extends PageCacheTest<MuninnPageCache>
         } );
     }
 
+    @Test
+    void transientScanMustNotEvictHotPagesOfOtherFiles() throws IOException
+    {
+        int hotPages = 5;
+        int scanPages = 100;
+        writePagesTo( file( "hot" ), hotPages );
+        writePagesTo( file( "scan" ), scanPages );
+        DefaultPageCacheTracer cacheTracer = new DefaultPageCacheTracer();
+        DefaultPageCursorTracer cursorTracer = new DefaultPageCursorTracer();
+        ConfigurablePageCursorTracerSupplier<DefaultPageCursorTracer> cursorTracerSupplier = new ConfigurablePageCursorTracerSupplier<>( cursorTracer );
+        try ( MuninnPageCache pageCache = createPageCache( fs, 20, cacheTracer, cursorTracerSupplier );
+              PagedFile hotFile = map( pageCache, file( "hot" ), 8 );
+              PagedFile scanFile = map( pageCache, file( "scan" ), 8 ) )
+        {
+            readPages( hotFile, hotPages, 4 );
+            cursorTracer.reportEvents();
+            long hotHitsBeforeScan = cacheTracer.hits( hotFile.file() );
+
+            long faultsBeforeScan = cursorTracer.accumulatedFaults();
+            try ( PageCursor cursor = scanFile.io( 0, PF_SHARED_READ_LOCK | PF_TRANSIENT ) )
+            {
+                for ( int pageId = 0; pageId < scanPages; pageId++ )
+                {
+                    assertTrue( cursor.next() );
+                }
+            }
+            readPages( hotFile, hotPages, 1 );
+            cursorTracer.reportEvents();
+
+            // The scan recycled its own pages, rather than pushing the hot pages out of the cache.
+            assertEquals( scanPages, cursorTracer.accumulatedFaults() - faultsBeforeScan );
+            assertEquals( scanPages - 1, cacheTracer.evictions( scanFile.file() ) );
+            assertEquals( 0, cacheTracer.evictions( hotFile.file() ) );
+            assertEquals( hotPages, cacheTracer.hits( hotFile.file() ) - hotHitsBeforeScan );
+            assertHotPagesStillCached( hotFile, hotPages );
+        }
+    }
+
+    private static void readPages( PagedFile pagedFile, int pages, int times ) throws IOException
+    {
+        for ( int i = 0; i < times; i++ )
+        {
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK ) )
+            {
+                for ( int pageId = 0; pageId < pages; pageId++ )
+                {
+                    assertTrue( cursor.next() );
+                }
+            }
+        }
+    }
+
+    private static void assertHotPagesStillCached( PagedFile hotFile, int hotPages ) throws IOException
+    {
+        try ( PageCursor cursor = hotFile.io( 0, PF_SHARED_READ_LOCK | PF_NO_FAULT ) )
+        {
+            for ( int pageId = 0; pageId < hotPages; pageId++ )
+            {
+                assertTrue( cursor.next() );
+                assertEquals( pageId, cursor.getCurrentPageId() );
+            }
+        }
+    }
+
+    @Test
+    void readAheadMustFaultInFollowingPagesWithTheirContents() throws IOException
+    {
+        int scanPages = 100;
+        writeNumberedPagesTo( file( "a" ), scanPages );
+        DefaultPageCursorTracer cursorTracer = new DefaultPageCursorTracer();
+        ConfigurablePageCursorTracerSupplier<DefaultPageCursorTracer> cursorTracerSupplier = new ConfigurablePageCursorTracerSupplier<>( cursorTracer );
+        try ( MuninnPageCache pageCache = createPageCache( fs, 200, PageCacheTracer.NULL, cursorTracerSupplier );
+              PagedFile pagedFile = map( pageCache, file( "a" ), 8 ) )
+        {
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK | PF_READ_AHEAD ) )
+            {
+                for ( long pageId = 0; pageId < scanPages; pageId++ )
+                {
+                    assertTrue( cursor.next() );
+                    long value;
+                    do
+                    {
+                        value = cursor.getLong();
+                    }
+                    while ( cursor.shouldRetry() );
+                    assertEquals( pageId, value );
+                }
+                assertFalse( cursor.next() );
+            }
+
+            // Most of the pages were already in memory by the time the scan got to them.
+            assertTrue( cursorTracer.faults() <= scanPages / 2, "faults: " + cursorTracer.faults() );
+            assertEquals( scanPages, cursorTracer.hits() + cursorTracer.faults() );
+        }
+    }
+
+    @Test
+    void transientReadAheadScanMustNotEvictHotPagesOfOtherFiles() throws IOException
+    {
+        int hotPages = 5;
+        int scanPages = 100;
+        writePagesTo( file( "hot" ), hotPages );
+        writeNumberedPagesTo( file( "scan" ), scanPages );
+        try ( MuninnPageCache pageCache = createPageCache( fs, 20, PageCacheTracer.NULL, PageCursorTracerSupplier.NULL );
+              PagedFile hotFile = map( pageCache, file( "hot" ), 8 );
+              PagedFile scanFile = map( pageCache, file( "scan" ), 8 ) )
+        {
+            for ( int i = 0; i < 4; i++ )
+            {
+                try ( PageCursor cursor = hotFile.io( 0, PF_SHARED_READ_LOCK ) )
+                {
+                    for ( int pageId = 0; pageId < hotPages; pageId++ )
+                    {
+                        assertTrue( cursor.next() );
+                    }
+                }
+            }
+
+            try ( PageCursor cursor = scanFile.io( 0, PF_SHARED_READ_LOCK | PF_TRANSIENT | PF_READ_AHEAD ) )
+            {
+                for ( long pageId = 0; pageId < scanPages; pageId++ )
+                {
+                    assertTrue( cursor.next() );
+                    long value;
+                    do
+                    {
+                        value = cursor.getLong();
+                    }
+                    while ( cursor.shouldRetry() );
+                    assertEquals( pageId, value );
+                }
+            }
+
+            assertHotPagesStillCached( hotFile, hotPages );
+        }
+    }
+
     private static class FlushRendezvousTracer extends DefaultPageCacheTracer
     {
         private final CountDownLatch latch;
@@ -766,6 +907,28 @@ public class MuninnPageCacheTest extends PageCacheTest<MuninnPageCache>
         }
     }
 
+    private void writePagesTo( File file, int pageCount ) throws IOException
+    {
+        try ( StoreChannel channel = fs.create( file ) )
+        {
+            channel.writeAll( ByteBuffer.allocate( 8 * pageCount ) );
+        }
+    }
+
+    private void writeNumberedPagesTo( File file, int pageCount ) throws IOException
+    {
+        try ( StoreChannel channel = fs.create( file ) )
+        {
+            ByteBuffer buf = ByteBuffer.allocate( 8 * pageCount );
+            for ( long pageId = 0; pageId < pageCount; pageId++ )
+            {
+                buf.putLong( pageId );
+            }
+            buf.flip();
+            channel.writeAll( buf );
+        }
+    }
+
     private ByteBuffer readIntoBuffer( String fileName ) throws IOException
     {
         ByteBuffer buffer = ByteBuffer.allocate( 16 );
@@ -22,6 +22,7 @@ package org.neo4j.io.pagecache.tracing;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.File;
 import java.io.IOException;
 
 import org.neo4j.io.ByteUnit;
@@ -234,6 +235,69 @@ class DefaultPageCursorTracerTest
         assertEquals( 450, cacheTracer.bytesRead() );
     }
 
+    @Test
+    void reportHitsAndEvictionsPerFile()
+    {
+        PageSwapper otherSwapper = new DummyPageSwapper( "other", (int) ByteUnit.kibiBytes( 8 ) );
+        cacheTracer.mappedFile( swapper.file() );
+        cacheTracer.mappedFile( otherSwapper.file() );
+
+        pinAndHit();
+        pinAndHit();
+        pinFaultAndHit();
+        PinEvent pinEvent = pageCursorTracer.beginPin( true, 0, otherSwapper );
+        pinEvent.hit();
+        PageFaultEvent faultEvent = pinEvent.beginPageFault();
+        EvictionEvent evictionEvent = faultEvent.beginEviction();
+        evictionEvent.setSwapper( swapper );
+        evictionEvent.close();
+        faultEvent.done();
+        pinEvent.done();
+
+        assertEquals( 0, cacheTracer.hits( swapper.file() ) );
+        pageCursorTracer.reportEvents();
+
+        assertEquals( 2, cacheTracer.hits( swapper.file() ) );
+        assertEquals( 1, cacheTracer.evictions( swapper.file() ) );
+        assertEquals( 1, cacheTracer.hits( otherSwapper.file() ) );
+        assertEquals( 0, cacheTracer.evictions( otherSwapper.file() ) );
+    }
+
+    @Test
+    void reportHitsOfManyFilesPerFile()
+    {
+        int files = 20;
+        for ( int i = 0; i < files; i++ )
+        {
+            PageSwapper fileSwapper = new DummyPageSwapper( "file" + i, (int) ByteUnit.kibiBytes( 8 ) );
+            cacheTracer.mappedFile( fileSwapper.file() );
+            for ( int hit = 0; hit <= i; hit++ )
+            {
+                PinEvent pinEvent = pageCursorTracer.beginPin( false, hit, fileSwapper );
+                pinEvent.hit();
+                pinEvent.done();
+            }
+        }
+        pageCursorTracer.reportEvents();
+
+        for ( int i = 0; i < files; i++ )
+        {
+            assertEquals( i + 1, cacheTracer.hits( new File( "file" + i ) ) );
+        }
+    }
+
+    @Test
+    void ignoreHitsOfUnmappedFiles()
+    {
+        cacheTracer.mappedFile( swapper.file() );
+        pinAndHit();
+        cacheTracer.unmappedFile( swapper.file() );
+        pageCursorTracer.reportEvents();
+
+        assertEquals( 1, cacheTracer.hits() );
+        assertEquals( 0, cacheTracer.hits( swapper.file() ) );
+    }
+
     @Test
     void shouldCalculateHitRatio()
     {
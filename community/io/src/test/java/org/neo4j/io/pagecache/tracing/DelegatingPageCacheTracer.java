@@ -73,6 +73,18 @@ public class DelegatingPageCacheTracer implements PageCacheTracer
         return delegate.hits();
     }
 
+    @Override
+    public long hits( File file )
+    {
+        return delegate.hits( file );
+    }
+
+    @Override
+    public long evictions( File file )
+    {
+        return delegate.evictions( file );
+    }
+
     @Override
     public MajorFlushEvent beginCacheFlush()
     {
@@ -139,6 +151,12 @@ public class DelegatingPageCacheTracer implements PageCacheTracer
         delegate.hits( hits );
     }
 
+    @Override
+    public void hits( File file, long hits )
+    {
+        delegate.hits( file, hits );
+    }
+
     @Override
     public void faults( long faults )
     {
@@ -157,6 +175,12 @@ public class DelegatingPageCacheTracer implements PageCacheTracer
         delegate.evictions( evictions );
     }
 
+    @Override
+    public void evictions( File file, long evictions )
+    {
+        delegate.evictions( file, evictions );
+    }
+
     @Override
     public void evictionExceptions( long evictionExceptions )
     {
@@ -108,6 +108,18 @@ public final class LinearHistoryPageCacheTracer implements PageCacheTracer
         return 0;
     }
 
+    @Override
+    public long hits( File file )
+    {
+        return 0;
+    }
+
+    @Override
+    public long evictions( File file )
+    {
+        return 0;
+    }
+
     @Override
     public long flushes()
     {
@@ -171,6 +183,11 @@ public final class LinearHistoryPageCacheTracer implements PageCacheTracer
     {
     }
 
+    @Override
+    public void hits( File file, long hits )
+    {
+    }
+
     @Override
     public void faults( long faults )
     {
@@ -186,6 +203,11 @@ public final class LinearHistoryPageCacheTracer implements PageCacheTracer
     {
     }
 
+    @Override
+    public void evictions( File file, long evictions )
+    {
+    }
+
     @Override
     public void evictionExceptions( long evictionExceptions )
     {
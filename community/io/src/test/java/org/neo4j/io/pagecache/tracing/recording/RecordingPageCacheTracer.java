@@ -113,6 +113,18 @@ public class RecordingPageCacheTracer extends RecordingTracer implements PageCac
         return 0;
     }
 
+    @Override
+    public long hits( File file )
+    {
+        return 0;
+    }
+
+    @Override
+    public long evictions( File file )
+    {
+        return 0;
+    }
+
     @Override
     public long flushes()
     {
@@ -177,6 +189,11 @@ public class RecordingPageCacheTracer extends RecordingTracer implements PageCac
     {
     }
 
+    @Override
+    public void hits( File file, long hits )
+    {
+    }
+
     @Override
     public void faults( long faults )
     {
@@ -194,6 +211,11 @@ public class RecordingPageCacheTracer extends RecordingTracer implements PageCac
         this.evictions.getAndAdd( evictions );
     }
 
+    @Override
+    public void evictions( File file, long evictions )
+    {
+    }
+
     @Override
     public void evictionExceptions( long evictionExceptions )
     {
@@ -21,11 +21,31 @@ package org.neo4j.internal.kernel.api;
 
 /**
  * Initializer for spreading a scan operator over multiple cursors for use from different threads in parallel.
+ * <p>
+ * The scan is split up in batches of disjoint ranges. Each call to {@link #initialize(org.neo4j.internal.kernel.api.Cursor)}
+ * reserves the next unclaimed batch and initializes the given cursor to scan over it, so that worker threads typically do:
+ * <pre><code>
+ *     while ( scan.initialize( cursor ) )
+ *     {
+ *         while ( cursor.next() )
+ *         {
+ *             ...
+ *         }
+ *     }
+ * </code></pre>
+ * Instances are safe to use from multiple threads concurrently, but each thread must use its own cursor.
  *
  * @param <Cursor>
  *         the type of cursor this object initializes.
  */
 public interface Scan<Cursor extends org.neo4j.internal.kernel.api.Cursor>
 {
-    void initialize( Cursor cursor );
+    /**
+     * Reserves the next batch of this scan and initializes the given cursor to scan over it.
+     *
+     * @param cursor the cursor to initialize.
+     * @return {@code true} if a batch was reserved and the cursor initialized, or {@code false} if all batches
+     * of this scan have already been handed out, in which case the cursor is left untouched.
+     */
+    boolean initialize( Cursor cursor );
 }
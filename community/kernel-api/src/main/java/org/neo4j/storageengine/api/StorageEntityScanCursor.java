@@ -32,4 +32,13 @@ public interface StorageEntityScanCursor extends StorageEntityCursor
      * @param reference entity to place this cursor at the next call to {@link #next()}.
      */
     void single( long reference );
+
+    /**
+     * Initializes this cursor so that it will scan over existing entities with ids in the range {@code [start, stop)}.
+     * This is used by parallel scans where each thread scans a batch of a larger range.
+     *
+     * @param start first entity id in the range, inclusive.
+     * @param stop last entity id in the range, exclusive.
+     */
+    void scanRange( long start, long stop );
 }
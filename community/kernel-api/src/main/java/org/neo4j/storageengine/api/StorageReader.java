@@ -313,6 +313,32 @@ public interface StorageReader extends AutoCloseable
 
     boolean relationshipExists( long id );
 
+    /**
+     * @return the highest node id that may be in use. Used as upper bound when partitioning a parallel node scan.
+     */
+    long nodeHighMark();
+
+    /**
+     * @return the highest relationship id that may be in use. Used as upper bound when partitioning a parallel relationship scan.
+     */
+    long relationshipHighMark();
+
+    /**
+     * NOTE the fact that this method is here means physical details about underlying storage leaks into this API.
+     *
+     * @return number of nodes stored in one page. Batches of a parallel node scan are aligned to this number
+     * so that no two threads read from the same page.
+     */
+    int nodesPerPage();
+
+    /**
+     * NOTE the fact that this method is here means physical details about underlying storage leaks into this API.
+     *
+     * @return number of relationships stored in one page. Batches of a parallel relationship scan are aligned to this number
+     * so that no two threads read from the same page.
+     */
+    int relationshipsPerPage();
+
     <T> T getOrCreateSchemaDependantState( Class<T> type, Function<StorageReader, T> factory );
 
     /**
@@ -31,4 +31,13 @@ public interface StorageRelationshipScanCursor extends StorageRelationshipCursor
      * @param type relationship type to scan over, or -1 for all relationships regardless of type.
      */
     void scan( int type );
+
+    /**
+     * Initializes this cursor so that it will scan over existing relationships with ids in the range {@code [start, stop)}.
+     *
+     * @param type relationship type to scan over, or -1 for all relationships regardless of type.
+     * @param start first relationship id in the range, inclusive.
+     * @param stop last relationship id in the range, exclusive.
+     */
+    void scanRange( int type, long start, long stop );
 }
@@ -46,6 +46,18 @@ public interface LabelScanReader extends Resource
      */
     void nodesWithLabel( IndexProgressor.NodeLabelClient client, int labelId );
 
+    /**
+     * Sets the client up for a label scan on <code>labelId</code>, restricted to nodes with ids in the range
+     * {@code [fromId, toId)}. Used by parallel label scans where each thread scans a batch of the whole id range.
+     * Unlike the other methods of this reader this method may be called concurrently from multiple threads.
+     *
+     * @param client the client to communicate with
+     * @param labelId label token id
+     * @param fromId first node id in the range, inclusive
+     * @param toId last node id in the range, exclusive
+     */
+    void nodesWithLabel( IndexProgressor.NodeLabelClient client, int labelId, long fromId, long toId );
+
     /**
      * @param labelIds label token ids.
      * @return node ids with any of the given label ids.
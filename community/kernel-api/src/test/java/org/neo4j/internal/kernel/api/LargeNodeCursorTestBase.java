@@ -22,8 +22,12 @@ package org.neo4j.internal.kernel.api;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.neo4j.graphdb.GraphDatabaseService;
 import org.neo4j.graphdb.Node;
@@ -90,6 +94,76 @@ public abstract class LargeNodeCursorTestBase<G extends KernelAPIReadTestSupport
         assertEquals( NODE_IDS, ids );
     }
 
+    @Test
+    public void shouldScanNodesInBatches()
+    {
+        // given
+        List<Long> ids = new ArrayList<>();
+        Scan<NodeCursor> scan = read.allNodesScan();
+        try ( NodeCursor nodes = cursors.allocateNodeCursor() )
+        {
+            // when
+            while ( scan.initialize( nodes ) )
+            {
+                while ( nodes.next() )
+                {
+                    ids.add( nodes.nodeReference() );
+                }
+            }
+        }
+
+        // then
+        assertEquals( NODE_IDS, ids );
+    }
+
+    @Test
+    public void shouldScanNodesInParallel() throws Exception
+    {
+        // given
+        int threads = 4;
+        Scan<NodeCursor> scan = read.allNodesScan();
+        List<NodeCursor> nodeCursors = new ArrayList<>();
+        for ( int i = 0; i < threads; i++ )
+        {
+            nodeCursors.add( cursors.allocateNodeCursor() );
+        }
+        ExecutorService executor = Executors.newFixedThreadPool( threads );
+        try
+        {
+            // when
+            List<Future<List<Long>>> futures = new ArrayList<>();
+            for ( NodeCursor nodes : nodeCursors )
+            {
+                futures.add( executor.submit( () ->
+                {
+                    List<Long> found = new ArrayList<>();
+                    while ( scan.initialize( nodes ) )
+                    {
+                        while ( nodes.next() )
+                        {
+                            found.add( nodes.nodeReference() );
+                        }
+                    }
+                    return found;
+                } ) );
+            }
+            List<Long> ids = new ArrayList<>();
+            for ( Future<List<Long>> future : futures )
+            {
+                ids.addAll( future.get() );
+            }
+
+            // then
+            Collections.sort( ids );
+            assertEquals( NODE_IDS, ids );
+        }
+        finally
+        {
+            executor.shutdown();
+            nodeCursors.forEach( NodeCursor::close );
+        }
+    }
+
     @Test
     public void shouldAccessNodesByReference()
     {
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.kernel.api;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Label;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Transaction;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.junit.Assert.assertEquals;
+import static org.neo4j.internal.kernel.api.ScanTestSupport.scanBatches;
+import static org.neo4j.internal.kernel.api.ScanTestSupport.scanInParallel;
+
+public abstract class LargeNodeLabelIndexCursorTestBase<G extends KernelAPIReadTestSupport> extends KernelAPIReadTestBase<G>
+{
+    private static final Label LABEL = Label.label( "Label" );
+    private static List<Long> LABELED_NODE_IDS = new ArrayList<>();
+    private static int N_NODES = 100_000;
+
+    private static Random random = new Random( 2 );
+
+    @Override
+    public void createTestGraph( GraphDatabaseService graphDb )
+    {
+        List<Node> deleted = new ArrayList<>();
+        try ( Transaction tx = graphDb.beginTx() )
+        {
+            for ( int i = 0; i < N_NODES; i++ )
+            {
+                if ( random.nextBoolean() )
+                {
+                    graphDb.createNode();
+                    continue;
+                }
+                Node node = graphDb.createNode( LABEL );
+                if ( random.nextBoolean() )
+                {
+                    LABELED_NODE_IDS.add( node.getId() );
+                }
+                else
+                {
+                    deleted.add( node );
+                }
+            }
+            tx.success();
+        }
+
+        try ( Transaction tx = graphDb.beginTx() )
+        {
+            for ( Node node : deleted )
+            {
+                node.delete();
+            }
+            tx.success();
+        }
+    }
+
+    @Test
+    public void shouldScanLabelInBatches()
+    {
+        // given
+        int label = token.nodeLabel( LABEL.name() );
+        List<Long> ids = new ArrayList<>();
+        try ( NodeLabelIndexCursor nodes = cursors.allocateNodeLabelIndexCursor() )
+        {
+            // when
+            List<List<Long>> batches = scanBatches( read.nodeLabelScan( label ), nodes, NodeLabelIndexCursor::nodeReference );
+            batches.forEach( ids::addAll );
+
+            // then
+            assertThat( batches.size(), greaterThan( 1 ) );
+        }
+        assertEquals( LABELED_NODE_IDS, ids );
+    }
+
+    @Test
+    public void shouldScanLabelInParallel() throws Exception
+    {
+        // given
+        int label = token.nodeLabel( LABEL.name() );
+
+        // when
+        List<Long> ids = scanInParallel( read.nodeLabelScan( label ), cursors::allocateNodeLabelIndexCursor,
+                NodeLabelIndexCursor::nodeReference, 4 );
+
+        // then
+        assertEquals( LABELED_NODE_IDS, ids );
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.kernel.api;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.RelationshipType;
+import org.neo4j.graphdb.Transaction;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.junit.Assert.assertEquals;
+import static org.neo4j.internal.kernel.api.ScanTestSupport.scanBatches;
+import static org.neo4j.internal.kernel.api.ScanTestSupport.scanInParallel;
+
+public abstract class LargeRelationshipCursorTestBase<G extends KernelAPIReadTestSupport> extends KernelAPIReadTestBase<G>
+{
+    private static final RelationshipType TYPE = RelationshipType.withName( "TYPE" );
+    private static final RelationshipType OTHER = RelationshipType.withName( "OTHER" );
+    private static List<Long> RELATIONSHIP_IDS = new ArrayList<>();
+    private static List<Long> TYPE_IDS = new ArrayList<>();
+    private static int N_NODES = 100;
+    private static int N_RELATIONSHIPS = 10000;
+
+    private static Random random = new Random( 2 );
+
+    @Override
+    public void createTestGraph( GraphDatabaseService graphDb )
+    {
+        List<Relationship> deleted = new ArrayList<>();
+        try ( Transaction tx = graphDb.beginTx() )
+        {
+            Node[] nodes = new Node[N_NODES];
+            for ( int i = 0; i < N_NODES; i++ )
+            {
+                nodes[i] = graphDb.createNode();
+            }
+            for ( int i = 0; i < N_RELATIONSHIPS; i++ )
+            {
+                Node start = nodes[random.nextInt( N_NODES )];
+                Node end = nodes[random.nextInt( N_NODES )];
+                RelationshipType type = random.nextBoolean() ? TYPE : OTHER;
+                Relationship relationship = start.createRelationshipTo( end, type );
+                if ( random.nextBoolean() )
+                {
+                    RELATIONSHIP_IDS.add( relationship.getId() );
+                    if ( type == TYPE )
+                    {
+                        TYPE_IDS.add( relationship.getId() );
+                    }
+                }
+                else
+                {
+                    deleted.add( relationship );
+                }
+            }
+            tx.success();
+        }
+
+        try ( Transaction tx = graphDb.beginTx() )
+        {
+            for ( Relationship relationship : deleted )
+            {
+                relationship.delete();
+            }
+            tx.success();
+        }
+    }
+
+    @Test
+    public void shouldScanRelationshipsInBatches()
+    {
+        // given
+        List<Long> ids = new ArrayList<>();
+        try ( RelationshipScanCursor relationships = cursors.allocateRelationshipScanCursor() )
+        {
+            // when
+            List<List<Long>> batches = scanBatches( read.allRelationshipsScan(), relationships,
+                    RelationshipScanCursor::relationshipReference );
+            batches.forEach( ids::addAll );
+
+            // then
+            assertThat( batches.size(), greaterThan( 1 ) );
+        }
+        assertEquals( RELATIONSHIP_IDS, ids );
+    }
+
+    @Test
+    public void shouldScanRelationshipsInParallel() throws Exception
+    {
+        // when
+        List<Long> ids = scanInParallel( read.allRelationshipsScan(), cursors::allocateRelationshipScanCursor,
+                RelationshipScanCursor::relationshipReference, 4 );
+
+        // then
+        assertEquals( RELATIONSHIP_IDS, ids );
+    }
+
+    @Test
+    public void shouldScanRelationshipTypeInBatches()
+    {
+        // given
+        int type = token.relationshipType( TYPE.name() );
+        List<Long> ids = new ArrayList<>();
+        try ( RelationshipScanCursor relationships = cursors.allocateRelationshipScanCursor() )
+        {
+            // when
+            List<List<Long>> batches = scanBatches( read.relationshipTypeScan( type ), relationships,
+                    RelationshipScanCursor::relationshipReference );
+            batches.forEach( ids::addAll );
+
+            // then
+            assertThat( batches.size(), greaterThan( 1 ) );
+        }
+        assertEquals( TYPE_IDS, ids );
+    }
+
+    @Test
+    public void shouldScanRelationshipTypeInParallel() throws Exception
+    {
+        // given
+        int type = token.relationshipType( TYPE.name() );
+
+        // when
+        List<Long> ids = scanInParallel( read.relationshipTypeScan( type ), cursors::allocateRelationshipScanCursor,
+                RelationshipScanCursor::relationshipReference, 4 );
+
+        // then
+        assertEquals( TYPE_IDS, ids );
+    }
+}
@@ -22,7 +22,10 @@ package org.neo4j.internal.kernel.api;
 import org.junit.Ignore;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 import org.neo4j.helpers.collection.Iterables;
 import org.neo4j.values.storable.ValueGroup;
@@ -30,10 +33,13 @@ import org.neo4j.values.storable.ValueGroup;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.neo4j.graphdb.Label.label;
+import static org.neo4j.internal.kernel.api.ScanTestSupport.scanBatches;
+import static org.neo4j.internal.kernel.api.ScanTestSupport.scanInParallel;
 import static org.neo4j.values.storable.Values.NO_VALUE;
 import static org.neo4j.values.storable.Values.longValue;
 import static org.neo4j.values.storable.Values.stringValue;
@@ -605,6 +611,55 @@ public abstract class NodeTransactionStateTestBase<G extends KernelAPIWriteTestS
         }
     }
 
+    @Test
+    public void shouldSeeAddedNodesOnceInPartitionedScan() throws Exception
+    {
+        // given
+        List<Long> expected = createNodes( 2_000 );
+
+        try ( Transaction tx = beginTransaction();
+              NodeCursor nodes = tx.cursors().allocateNodeCursor() )
+        {
+            // when
+            for ( int i = 0; i < 100; i++ )
+            {
+                expected.add( tx.dataWrite().nodeCreate() );
+            }
+            tx.dataWrite().nodeDelete( expected.remove( 0 ) );
+            List<List<Long>> batches = scanBatches( tx.dataRead().allNodesScan(), nodes, NodeCursor::nodeReference );
+
+            // then
+            assertThat( batches.size(), greaterThan( 1 ) );
+            List<Long> ids = new ArrayList<>();
+            batches.forEach( ids::addAll );
+            Collections.sort( ids );
+            Collections.sort( expected );
+            assertEquals( expected, ids );
+        }
+    }
+
+    @Test
+    public void shouldSeeAddedNodesOnceInParallelPartitionedScan() throws Exception
+    {
+        // given
+        List<Long> expected = createNodes( 2_000 );
+
+        try ( Transaction tx = beginTransaction() )
+        {
+            // when
+            for ( int i = 0; i < 100; i++ )
+            {
+                expected.add( tx.dataWrite().nodeCreate() );
+            }
+            List<Long> ids = scanInParallel( tx.dataRead().allNodesScan(), tx.cursors()::allocateNodeCursor,
+                    NodeCursor::nodeReference, 4 );
+
+            // then
+            Collections.sort( expected );
+            assertEquals( expected, ids );
+        }
+    }
+
     @Ignore
     public void shouldNotFindDeletedNodeInDisjunctionLabelScan() throws Exception
     {
@@ -991,6 +1046,20 @@ public abstract class NodeTransactionStateTestBase<G extends KernelAPIWriteTestS
         assertTrue( "labels match expected", Arrays.equals( expected, labelArray ) );
     }
 
+    private List<Long> createNodes( int count ) throws Exception
+    {
+        List<Long> nodes = new ArrayList<>();
+        try ( Transaction tx = beginTransaction() )
+        {
+            for ( int i = 0; i < count; i++ )
+            {
+                nodes.add( tx.dataWrite().nodeCreate() );
+            }
+            tx.success();
+        }
+        return nodes;
+    }
+
     public Node createNode( String... labels ) throws Exception
     {
         long node;
@@ -23,6 +23,8 @@ import org.eclipse.collections.api.set.primitive.MutableLongSet;
 import org.eclipse.collections.impl.set.mutable.primitive.LongHashSet;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -35,6 +37,7 @@ import org.neo4j.values.storable.ValueGroup;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
@@ -49,6 +52,7 @@ import static org.neo4j.internal.kernel.api.RelationshipTestSupport.sparse;
 import static org.neo4j.internal.kernel.api.RelationshipTransactionStateTestBase.RelationshipDirection.IN;
 import static org.neo4j.internal.kernel.api.RelationshipTransactionStateTestBase.RelationshipDirection.LOOP;
 import static org.neo4j.internal.kernel.api.RelationshipTransactionStateTestBase.RelationshipDirection.OUT;
+import static org.neo4j.internal.kernel.api.ScanTestSupport.scanBatches;
 import static org.neo4j.values.storable.Values.NO_VALUE;
 import static org.neo4j.values.storable.Values.longValue;
 import static org.neo4j.values.storable.Values.stringValue;
@@ -154,6 +158,68 @@ public abstract class RelationshipTransactionStateTestBase<G extends KernelAPIWr
         }
     }
 
+    @Test
+    public void shouldSeeAddedRelationshipsOnceInPartitionedScan() throws Exception
+    {
+        shouldSeeAddedRelationshipsOnceInPartitionedScan( false );
+    }
+
+    @Test
+    public void shouldSeeAddedRelationshipsOnceInPartitionedTypeScan() throws Exception
+    {
+        shouldSeeAddedRelationshipsOnceInPartitionedScan( true );
+    }
+
+    private void shouldSeeAddedRelationshipsOnceInPartitionedScan( boolean typeScan ) throws Exception
+    {
+        int type;
+        int otherType;
+        long n1, n2;
+        List<Long> expected = new ArrayList<>();
+        try ( Transaction tx = beginTransaction() )
+        {
+            n1 = tx.dataWrite().nodeCreate();
+            n2 = tx.dataWrite().nodeCreate();
+            type = tx.tokenWrite().relationshipTypeGetOrCreateForName( "R" );
+            otherType = tx.tokenWrite().relationshipTypeGetOrCreateForName( "OTHER" );
+            for ( int i = 0; i < 1_000; i++ )
+            {
+                expected.add( tx.dataWrite().relationshipCreate( n1, type, n2 ) );
+                long other = tx.dataWrite().relationshipCreate( n2, otherType, n1 );
+                if ( !typeScan )
+                {
+                    expected.add( other );
+                }
+            }
+            tx.success();
+        }
+
+        try ( Transaction tx = beginTransaction();
+              RelationshipScanCursor relationships = tx.cursors().allocateRelationshipScanCursor() )
+        {
+            for ( int i = 0; i < 100; i++ )
+            {
+                expected.add( tx.dataWrite().relationshipCreate( n1, type, n2 ) );
+                long other = tx.dataWrite().relationshipCreate( n2, otherType, n1 );
+                if ( !typeScan )
+                {
+                    expected.add( other );
+                }
+            }
+            tx.dataWrite().relationshipDelete( expected.remove( 0 ) );
+            Scan<RelationshipScanCursor> scan =
+                    typeScan ? tx.dataRead().relationshipTypeScan( type ) : tx.dataRead().allRelationshipsScan();
+            List<List<Long>> batches = scanBatches( scan, relationships, RelationshipScanCursor::relationshipReference );
+
+            assertThat( batches.size(), greaterThan( 1 ) );
+            List<Long> ids = new ArrayList<>();
+            batches.forEach( ids::addAll );
+            Collections.sort( ids );
+            Collections.sort( expected );
+            assertEquals( expected, ids );
+        }
+    }
+
     @Test
     public void shouldNotScanRelationshipWhichWasDeletedInTransaction() throws Exception
     {
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.kernel.api;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Drives partitioned {@link Scan scans}, either one batch at a time from one thread, or from several threads at once.
+ */
+class ScanTestSupport
+{
+    private ScanTestSupport()
+    {
+    }
+
+    /**
+     * Exhausts the given scan from the calling thread, one batch at a time.
+     *
+     * @return the references found, one list per batch handed out by the scan.
+     */
+    static <C extends Cursor> List<List<Long>> scanBatches( Scan<C> scan, C cursor, ToLongFunction<C> reference )
+    {
+        List<List<Long>> batches = new ArrayList<>();
+        while ( scan.initialize( cursor ) )
+        {
+            List<Long> batch = new ArrayList<>();
+            while ( cursor.next() )
+            {
+                batch.add( reference.applyAsLong( cursor ) );
+            }
+            batches.add( batch );
+        }
+        return batches;
+    }
+
+    /**
+     * Exhausts the given scan from {@code threads} threads, each with its own cursor.
+     *
+     * @return the references found by all threads, sorted.
+     */
+    static <C extends Cursor> List<Long> scanInParallel( Scan<C> scan, Supplier<C> cursors, ToLongFunction<C> reference, int threads )
+            throws Exception
+    {
+        List<C> allocated = new ArrayList<>();
+        for ( int i = 0; i < threads; i++ )
+        {
+            allocated.add( cursors.get() );
+        }
+        ExecutorService executor = Executors.newFixedThreadPool( threads );
+        try
+        {
+            List<Future<List<List<Long>>>> futures = new ArrayList<>();
+            for ( C cursor : allocated )
+            {
+                futures.add( executor.submit( () -> scanBatches( scan, cursor, reference ) ) );
+            }
+            List<Long> references = new ArrayList<>();
+            for ( Future<List<List<Long>>> future : futures )
+            {
+                future.get().forEach( references::addAll );
+            }
+            Collections.sort( references );
+            return references;
+        }
+        finally
+        {
+            executor.shutdown();
+            allocated.forEach( Cursor::close );
+        }
+    }
+}
@@ -235,6 +235,16 @@ public class GraphDatabaseSettings implements LoadableConfig
             "simply not performed and execution continues." )
     public static final Setting<Boolean> cypher_lenient_create_relationship = setting( "cypher.lenient_create_relationship", BOOLEAN, FALSE );
 
+    @Description( "The maximum number of rows that the sorting, distinct, aggregating and eager operators of a single Cypher " +
+            "query are allowed to hold in memory, when running in the interpreted or slotted runtime. Operators that need to " +
+            "hold more rows than that spill them to temporary files on disk instead. A value of 0 means no limit." )
+    public static final Setting<Long> cypher_query_max_rows_in_memory =
+            buildSetting( "cypher.query_max_rows_in_memory", LONG, "0" ).constraint( min( 0L ) ).build();
+
+    @Description( "The directory that Cypher queries write rows to when they hold more rows in memory than " +
+            "cypher.query_max_rows_in_memory allows. If not set, the temporary directory of the JVM is used." )
+    public static final Setting<File> cypher_query_spill_directory = pathSetting( "cypher.query_spill_directory", NO_DEFAULT );
+
     @Description( "Set this to specify the default runtime for the default language version." )
     @Internal
     public static final Setting<String> cypher_runtime = setting(
@@ -542,6 +552,15 @@ public class GraphDatabaseSettings implements LoadableConfig
                   "Set this to -1 to disable the IOPS limit." )
     public static final Setting<Integer> check_point_iops_limit = setting( "dbms.checkpoint.iops.limit", INTEGER, "300" );
 
+    @Description( "Spread the flushing done by scheduled check points out over this period of time, instead of flushing " +
+                  "as fast as the configured IOPS limit allows. The pace is based on the amount of flushing needed by " +
+                  "the previous check point, which gives a flatter I/O profile at the cost of check points taking " +
+                  "longer to complete. Should be shorter than 'dbms.checkpoint.interval.time'. " +
+                  "Set to 0 to disable spreading." )
+    @Internal
+    public static final Setting<Duration> check_point_flush_spread =
+            setting( "unsupported.dbms.checkpoint.flush_spread", DURATION, "0s" );
+
     // Auto Indexing
     @Description( "Controls the auto indexing feature for nodes. Setting it to `false` shuts it down, " +
             "while `true` enables it by default for properties listed in the dbms.auto_index.nodes.keys setting." )
@@ -701,6 +720,20 @@ public class GraphDatabaseSettings implements LoadableConfig
     @Internal
     public static final Setting<Boolean> fail_on_corrupted_log_files = setting("unsupported.dbms.tx_log.fail_on_corrupted_log_files", BOOLEAN, TRUE );
 
+    @Description( "If `true`, transaction log files which have been rotated away, and so no longer change, are memory mapped " +
+            "when read, e.g. when streaming transactions to other cluster members or to backups, instead of having their " +
+            "content copied through heap buffers." )
+    @Internal
+    public static final Setting<Boolean> tx_log_memory_mapped_reads =
+            setting( "unsupported.dbms.tx_log.memory_mapped_reads", BOOLEAN, FALSE );
+
+    @Description( "If `true`, the next transaction log file is created and zero-filled up to the rotation threshold in the " +
+            "background, so that appending to it does not grow the file and forcing it only has to write the appended data. " +
+            "The unused, zero-filled, tail of the file is truncated away when rotating away from it or shutting down." )
+    @Internal
+    public static final Setting<Boolean> tx_log_preallocate =
+            setting( "unsupported.dbms.tx_log.preallocate", BOOLEAN, FALSE );
+
     @Description( "Use a quick approach for rebuilding the ID generators. This give quicker recovery time, " +
             "but will limit the ability to reuse the space of deleted entities." )
     @Internal
@@ -755,6 +788,15 @@ public class GraphDatabaseSettings implements LoadableConfig
             "This feature available in Neo4j Enterprise Edition." )
     public static final Setting<Boolean> pagecache_warmup_enabled = setting( "unsupported.dbms.memory.pagecache.warmup.enable", BOOLEAN, TRUE );
 
+    @Internal
+    @Description( "The maximum number of pages per second the page cache warmup may read from disk, across all files. " +
+            "Pages that are already in the page cache don't count against the limit. A lower number leaves more IO " +
+            "bandwidth for the page faults of queries that run while the page cache is warming up, at the cost of a " +
+            "longer warmup. Set this to -1 to disable the limit. " +
+            "This feature available in Neo4j Enterprise Edition." )
+    public static final Setting<Integer> pagecache_warmup_iops_limit =
+            setting( "unsupported.dbms.memory.pagecache.warmup.iops.limit", INTEGER, "-1" );
+
     @Description( "Allows the enabling or disabling of the file watcher service." +
             " This is an auxiliary service but should be left enabled in almost all cases." )
     public static final Setting<Boolean> filewatcher_enabled = setting( "dbms.filewatcher.enabled", BOOLEAN, TRUE );
@@ -1077,6 +1119,15 @@ public class GraphDatabaseSettings implements LoadableConfig
             .constraint( min( 0L ) )
             .build();
 
+    @Description( "The maximum amount of off-heap memory that a single transaction can use to store its transaction state data. " +
+            "A transaction exceeding it fails, instead of exhausting the memory shared by all active transactions. " +
+            "Zero means 'unlimited'. Only off-heap transaction state is limited: the setting has no effect when " +
+            "dbms.tx_state.memory_allocation is set to 'ON_HEAP', since on-heap transaction state memory is not tracked." )
+    public static final Setting<Long> tx_state_max_off_heap_memory_per_transaction = buildSetting(
+            "dbms.tx_state.max_off_heap_memory_per_transaction", BYTES, "0" )
+            .constraint( min( 0L ) )
+            .build();
+
     @Description( "Defines the maximum size of an off-heap memory block that can be cached to speed up allocations for transaction state data. " +
             "The value must be a power of 2." )
     public static final Setting<Long> tx_state_off_heap_max_cacheable_block_size = buildSetting(
@@ -29,7 +29,9 @@ import org.neo4j.helpers.AdvertisedSocketAddress;
 import org.neo4j.helpers.ListenSocketAddress;
 
 import static org.neo4j.kernel.configuration.BoltConnector.EncryptionLevel.OPTIONAL;
+import static org.neo4j.kernel.configuration.Settings.BOOLEAN;
 import static org.neo4j.kernel.configuration.Settings.DURATION;
+import static org.neo4j.kernel.configuration.Settings.FALSE;
 import static org.neo4j.kernel.configuration.Settings.INTEGER;
 import static org.neo4j.kernel.configuration.Settings.advertisedAddress;
 import static org.neo4j.kernel.configuration.Settings.legacyFallback;
@@ -70,6 +72,11 @@ public class BoltConnector extends Connector
     @Internal
     public final Setting<Integer> unsupported_thread_pool_queue_size;
 
+    @Description( "Whether messages that never block, like RESET and ACK_FAILURE, are processed on the network thread that received them, " +
+            "instead of being handed over to the thread pool bound to this connector" )
+    @Internal
+    public final Setting<Boolean> unsupported_inline_non_blocking_jobs;
+
     // Used by config doc generator
     public BoltConnector()
     {
@@ -92,6 +99,7 @@ public class BoltConnector extends Connector
         this.thread_pool_max_size = group.scope( setting( "thread_pool_max_size", INTEGER, String.valueOf( 400 ) ) );
         this.thread_pool_keep_alive = group.scope( setting( "thread_pool_keep_alive", DURATION, "5m" ) );
         this.unsupported_thread_pool_queue_size = group.scope( setting( "unsupported_thread_pool_queue_size", INTEGER, String.valueOf( 0 ) ) );
+        this.unsupported_inline_non_blocking_jobs = group.scope( setting( "unsupported_inline_non_blocking_jobs", BOOLEAN, FALSE ) );
     }
 
     public enum EncryptionLevel
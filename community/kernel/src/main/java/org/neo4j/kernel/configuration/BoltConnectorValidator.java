@@ -106,6 +106,11 @@ public class BoltConnectorValidator extends ConnectorValidator
             setting = (BaseSetting) setting( settingName, INTEGER, NO_DEFAULT );
             setting.setDescription( "The queue size of the thread pool bound to this connector (-1 for unbounded, 0 for direct handoff, > 0 for bounded)" );
             break;
+        case "unsupported_inline_non_blocking_jobs":
+            setting = (BaseSetting) setting( settingName, BOOLEAN, "false" );
+            setting.setDescription( "Whether messages that never block, like RESET and ACK_FAILURE, are processed on the network thread that " +
+                    "received them, instead of being handed over to the thread pool bound to this connector" );
+            break;
         default:
             return Optional.empty();
         }
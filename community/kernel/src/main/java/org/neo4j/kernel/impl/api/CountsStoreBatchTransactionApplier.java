@@ -19,9 +19,6 @@
  */
 package org.neo4j.kernel.impl.api;
 
-import java.io.IOException;
-import java.util.Optional;
-
 import org.neo4j.kernel.impl.store.counts.CountsTracker;
 import org.neo4j.storageengine.api.CommandsToApply;
 import org.neo4j.storageengine.api.TransactionApplicationMode;
@@ -29,7 +26,6 @@ import org.neo4j.storageengine.api.TransactionApplicationMode;
 public class CountsStoreBatchTransactionApplier extends BatchTransactionApplier.Adapter
 {
     private final CountsTracker countsTracker;
-    private CountsTracker.Updater countsUpdater;
     private final TransactionApplicationMode mode;
 
     public CountsStoreBatchTransactionApplier( CountsTracker countsTracker, TransactionApplicationMode mode )
@@ -41,10 +37,6 @@ public class CountsStoreBatchTransactionApplier extends BatchTransactionApplier.
     @Override
     public TransactionApplier startTx( CommandsToApply transaction )
     {
-        Optional<CountsAccessor.Updater> result = countsTracker.apply( transaction.transactionId() );
-        result.ifPresent( updater -> this.countsUpdater = updater );
-        assert this.countsUpdater != null || mode == TransactionApplicationMode.RECOVERY;
-
-        return new CountsStoreTransactionApplier( mode, countsUpdater );
+        return new CountsStoreTransactionApplier( mode, countsTracker, transaction.transactionId() );
     }
 }
@@ -19,60 +19,85 @@
  */
 package org.neo4j.kernel.impl.api;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
 import org.neo4j.kernel.impl.store.counts.CountsTracker;
 import org.neo4j.kernel.impl.transaction.command.Command;
 import org.neo4j.kernel.impl.transaction.command.Command.SchemaRuleCommand;
 import org.neo4j.storageengine.api.TransactionApplicationMode;
 
+/**
+ * Collects the count commands of a transaction and applies them to the counts store when the transaction is closed.
+ * <p>
+ * An updater of the counts store holds the counts store update lock until it is closed, and a rotation of the counts store
+ * needs that lock exclusively. Opening the updater only once all other stores have applied the transaction keeps it
+ * open for as short a time as possible, so that a rotation doesn't have to wait for, and hold back, the application
+ * of whole transactions. The count deltas of a transaction are already summed up per key, so there are few to collect.
+ */
 public class CountsStoreTransactionApplier extends TransactionApplier.Adapter
 {
     private final TransactionApplicationMode mode;
-    private final CountsTracker.Updater countsUpdater;
+    private final CountsTracker countsTracker;
+    private final long transactionId;
+    private final List<Command.NodeCountsCommand> nodeCounts = new ArrayList<>();
+    private final List<Command.RelationshipCountsCommand> relationshipCounts = new ArrayList<>();
     private boolean haveUpdates;
+    private boolean applied;
 
-    public CountsStoreTransactionApplier( TransactionApplicationMode mode, CountsAccessor.Updater countsUpdater )
+    public CountsStoreTransactionApplier( TransactionApplicationMode mode, CountsTracker countsTracker, long transactionId )
     {
         this.mode = mode;
-        this.countsUpdater = countsUpdater;
+        this.countsTracker = countsTracker;
+        this.transactionId = transactionId;
     }
 
     @Override
     public void close()
     {
-        assert countsUpdater != null || mode == TransactionApplicationMode.RECOVERY : "You must call begin first";
-        closeCountsUpdaterIfOpen();
+        applyCounts();
     }
 
-    private void closeCountsUpdaterIfOpen()
+    private void applyCounts()
     {
-        if ( countsUpdater != null )
-        {   // CountsUpdater is null if we're in recovery and the counts store already has had this transaction applied.
-            countsUpdater.close();
+        if ( applied )
+        {
+            return;
+        }
+        applied = true;
+        Optional<CountsAccessor.Updater> updater = countsTracker.apply( transactionId );
+        assert updater.isPresent() || mode == TransactionApplicationMode.RECOVERY : "Counts store already had transaction " + transactionId;
+        if ( updater.isPresent() )
+        {   // The updater is absent if we're in recovery and the counts store already has had this transaction applied.
+            try ( CountsAccessor.Updater countsUpdater = updater.get() )
+            {
+                for ( Command.NodeCountsCommand command : nodeCounts )
+                {
+                    countsUpdater.incrementNodeCount( command.labelId(), command.delta() );
+                }
+                for ( Command.RelationshipCountsCommand command : relationshipCounts )
+                {
+                    countsUpdater.incrementRelationshipCount(
+                            command.startLabelId(), command.typeId(), command.endLabelId(), command.delta() );
+                }
+            }
         }
     }
 
     @Override
     public boolean visitNodeCountsCommand( Command.NodeCountsCommand command )
     {
-        assert countsUpdater != null || mode == TransactionApplicationMode.RECOVERY : "You must call begin first";
         haveUpdates = true;
-        if ( countsUpdater != null )
-        {   // CountsUpdater is null if we're in recovery and the counts store already has had this transaction applied.
-            countsUpdater.incrementNodeCount( command.labelId(), command.delta() );
-        }
+        nodeCounts.add( command );
         return false;
     }
 
     @Override
     public boolean visitRelationshipCountsCommand( Command.RelationshipCountsCommand command )
     {
-        assert countsUpdater != null || mode == TransactionApplicationMode.RECOVERY : "You must call begin first";
         haveUpdates = true;
-        if ( countsUpdater != null )
-        {   // CountsUpdater is null if we're in recovery and the counts store already has had this transaction applied.
-            countsUpdater.incrementRelationshipCount(
-                    command.startLabelId(), command.typeId(), command.endLabelId(), command.delta() );
-        }
+        relationshipCounts.add( command );
         return false;
     }
 
@@ -80,12 +105,12 @@ public class CountsStoreTransactionApplier extends TransactionApplier.Adapter
     public boolean visitSchemaRuleCommand( SchemaRuleCommand command )
     {
         // This shows that this transaction is a schema transaction, so it cannot have commands
-        // updating any counts anyway. Therefore the counts updater is closed right away.
+        // updating any counts anyway. Therefore the transaction is applied to the counts store right away.
         // This also breaks an otherwise deadlocking scenario between check pointer, this applier
         // and an index population thread wanting to apply index sampling to the counts store.
         assert !haveUpdates : "Assumed that a schema transaction wouldn't also contain data commands affecting " +
                 "counts store, but was proven wrong with this transaction";
-        closeCountsUpdaterIfOpen();
+        applyCounts();
         return false;
     }
 }
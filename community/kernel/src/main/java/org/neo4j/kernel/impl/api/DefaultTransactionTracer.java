@@ -36,7 +36,7 @@ import org.neo4j.scheduler.JobScheduler;
 import org.neo4j.time.Clocks;
 import org.neo4j.time.SystemNanoClock;
 
-public class DefaultTransactionTracer implements TransactionTracer, LogRotationMonitor
+public class DefaultTransactionTracer implements TransactionTracer, LogRotationMonitor, LogForceMonitor
 {
     public interface Monitor
     {
@@ -49,11 +49,30 @@ public class DefaultTransactionTracer implements TransactionTracer, LogRotationM
 
     private final AtomicLong counter = new AtomicLong();
     private final AtomicLong accumulatedTotalTimeNanos = new AtomicLong();
+    private final AtomicLong logForceCounter = new AtomicLong();
+    private final AtomicLong accumulatedLogForceBatchSize = new AtomicLong();
+    private final AtomicLong accumulatedLogForceBatchWaitNanos = new AtomicLong();
 
     private long startTimeNanos;
 
     private final LogRotateEvent logRotateEvent = this::updateCountersAndNotifyListeners;
 
+    private final LogForceEvent logForceEvent = new LogForceEvent()
+    {
+        @Override
+        public void setBatch( int batchSize, long batchWaitNanos )
+        {
+            logForceCounter.incrementAndGet();
+            accumulatedLogForceBatchSize.addAndGet( batchSize );
+            accumulatedLogForceBatchWaitNanos.addAndGet( batchWaitNanos );
+        }
+
+        @Override
+        public void close()
+        {
+        }
+    };
+
     private final LogAppendEvent logAppendEvent = new LogAppendEvent()
     {
         @Override
@@ -89,7 +108,7 @@ public class DefaultTransactionTracer implements TransactionTracer, LogRotationM
         @Override
         public LogForceEvent beginLogForce()
         {
-            return LogForceEvent.NULL;
+            return logForceEvent;
         }
     };
 
@@ -178,6 +197,24 @@ public class DefaultTransactionTracer implements TransactionTracer, LogRotationM
         return TimeUnit.NANOSECONDS.toMillis( accumulatedTotalTimeNanos.get() );
     }
 
+    @Override
+    public long numberOfLogForceEvents()
+    {
+        return logForceCounter.get();
+    }
+
+    @Override
+    public long logForceAccumulatedBatchSize()
+    {
+        return accumulatedLogForceBatchSize.get();
+    }
+
+    @Override
+    public long logForceAccumulatedBatchWaitTimeMicros()
+    {
+        return TimeUnit.NANOSECONDS.toMicros( accumulatedLogForceBatchWaitNanos.get() );
+    }
+
     private void updateCountersAndNotifyListeners()
     {
         counter.incrementAndGet();
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.labelscan;
+
+import org.eclipse.collections.api.map.primitive.MutableIntLongMap;
+import org.eclipse.collections.impl.map.mutable.primitive.IntLongHashMap;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.neo4j.index.internal.gbptree.BulkLoader;
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.SortingBulkLoader;
+import org.neo4j.kernel.api.labelscan.LabelScanWriter;
+import org.neo4j.kernel.api.labelscan.NodeLabelUpdate;
+
+import static java.lang.Math.toIntExact;
+import static org.neo4j.kernel.impl.index.labelscan.LabelScanValue.RANGE_SIZE;
+
+/**
+ * {@link LabelScanWriter} for populating an empty {@link NativeLabelScanStore}, used when rebuilding it.
+ * Instead of merging each update into the tree, it fills the tree bottom-up through a {@link GBPTree#bulkLoader()}.
+ * <p>
+ * Updates are expected to only add labels and to come in ascending node id order, which is what a full store scan
+ * gives. The labels of all nodes in one node id range are collected into one bit set per label. When the updates
+ * move on to the next range those bit sets are handed to a {@link SortingBulkLoader}, which puts them in
+ * {@link LabelScanKey label id, range} order for the bulk loader.
+ */
+class BulkLabelScanWriter implements LabelScanWriter
+{
+    private final SortingBulkLoader<LabelScanKey,LabelScanValue> loader;
+    private final MutableIntLongMap rangeBits = new IntLongHashMap();
+    private final LabelScanKey key = new LabelScanKey();
+    private final LabelScanValue value = new LabelScanValue();
+    private long currentRange = -1;
+
+    BulkLabelScanWriter( SortingBulkLoader<LabelScanKey,LabelScanValue> loader )
+    {
+        this.loader = loader;
+    }
+
+    @Override
+    public void write( NodeLabelUpdate update ) throws IOException
+    {
+        long range = update.getNodeId() / RANGE_SIZE;
+        if ( range != currentRange )
+        {
+            if ( range < currentRange )
+            {
+                throw new IllegalArgumentException( "Updates must come in ascending node id order, but got node " +
+                        update.getNodeId() + " after node id range " + currentRange );
+            }
+            flushRange();
+            currentRange = range;
+        }
+        long bit = 1L << toIntExact( update.getNodeId() % RANGE_SIZE );
+        long[] labels = update.getLabelsAfter();
+        for ( int i = 0; i < labels.length && labels[i] != -1; i++ )
+        {
+            if ( i > 0 && labels[i] < labels[i - 1] )
+            {
+                throw new IllegalArgumentException( "The node label update contained unsorted label ids " + Arrays.toString( labels ) );
+            }
+            int label = toIntExact( labels[i] );
+            rangeBits.put( label, rangeBits.get( label ) | bit );
+        }
+    }
+
+    private void flushRange() throws IOException
+    {
+        if ( rangeBits.isEmpty() )
+        {
+            return;
+        }
+        for ( int labelId : rangeBits.keySet().toArray() )
+        {
+            key.set( labelId, currentRange );
+            value.bits = rangeBits.get( labelId );
+            loader.add( key, value );
+        }
+        rangeBits.clear();
+    }
+
+    /**
+     * Hands the last range to the {@link SortingBulkLoader} and closes it, which loads the sorted entries
+     * into the tree through its {@link BulkLoader}.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        try
+        {
+            flushRange();
+        }
+        finally
+        {
+            loader.close();
+        }
+    }
+}
@@ -37,13 +37,27 @@ public class LabelScanValueIndexProgressor extends LabelScanValueIndexAccessor i
 {
 
     private final NodeLabelClient client;
+    /**
+     * Node ids outside of the range {@code [fromId, toId)} are skipped, used for ranged scans.
+     */
+    private final long fromId;
+    private final long toId;
 
     LabelScanValueIndexProgressor( RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException> cursor,
             Collection<RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException>> toRemoveFromWhenClosed,
             NodeLabelClient client )
+    {
+        this( cursor, toRemoveFromWhenClosed, client, 0, Long.MAX_VALUE );
+    }
+
+    LabelScanValueIndexProgressor( RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException> cursor,
+            Collection<RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException>> toRemoveFromWhenClosed,
+            NodeLabelClient client, long fromId, long toId )
     {
         super( toRemoveFromWhenClosed, cursor );
         this.client = client;
+        this.fromId = fromId;
+        this.toId = toId;
     }
 
     /**
@@ -62,7 +76,8 @@ public class LabelScanValueIndexProgressor extends LabelScanValueIndexAccessor i
             {
                 int delta = Long.numberOfTrailingZeros( bits );
                 bits &= bits - 1;
-                if ( client.acceptNode( baseNodeId + delta, null ) )
+                long nodeId = baseNodeId + delta;
+                if ( nodeId >= fromId && nodeId < toId && client.acceptNode( nodeId, null ) )
                 {
                     return true;
                 }
@@ -24,9 +24,9 @@ import org.eclipse.collections.api.iterator.LongIterator;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.neo4j.collection.PrimitiveLongResourceIterator;
 import org.neo4j.cursor.RawCursor;
@@ -55,14 +55,15 @@ class NativeLabelScanReader implements LabelScanReader
 
     /**
      * Currently open {@link RawCursor} from query methods below. Open cursors are closed when calling
-     * new query methods or when {@link #close() closing} this reader.
+     * new query methods or when {@link #close() closing} this reader. Concurrent since ranged label scans
+     * may be opened from multiple threads at the same time.
      */
     private final Set<RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException>> openCursors;
 
     NativeLabelScanReader( GBPTree<LabelScanKey,LabelScanValue> index )
     {
         this.index = index;
-        this.openCursors = new HashSet<>();
+        this.openCursors = ConcurrentHashMap.newKeySet();
     }
 
     /**
@@ -129,6 +130,23 @@ class NativeLabelScanReader implements LabelScanReader
         client.scan( new LabelScanValueIndexProgressor( cursor, openCursors, client ), false, labelId );
     }
 
+    @Override
+    public void nodesWithLabel( IndexProgressor.NodeLabelClient client, int labelId, long fromId, long toId )
+    {
+        RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException> cursor;
+        try
+        {
+            cursor = seekerForLabel( fromId, toId, labelId );
+            openCursors.add( cursor );
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+
+        client.scan( new LabelScanValueIndexProgressor( cursor, openCursors, client, fromId, toId ), false, labelId );
+    }
+
     private List<PrimitiveLongResourceIterator> iteratorsForLabels( long fromId, int[] labelIds )
     {
         List<PrimitiveLongResourceIterator> iterators = new ArrayList<>();
@@ -155,6 +173,15 @@ class NativeLabelScanReader implements LabelScanReader
         return index.seek( from, to );
     }
 
+    private RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException> seekerForLabel( long fromId, long toId, int labelId ) throws IOException
+    {
+        // the ranges containing fromId and the id just before toId are both included, since the batch boundaries
+        // need not be aligned to ranges. Ids outside of [fromId, toId) are filtered out by the progressor
+        LabelScanKey from = new LabelScanKey( labelId, rangeOf( fromId ) );
+        LabelScanKey to = new LabelScanKey( labelId, rangeOf( toId - 1 ) + 1 );
+        return index.seek( from, to );
+    }
+
     private void ensureOpenCursorsClosed() throws IOException
     {
         for ( RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException> cursor : openCursors )
@@ -36,6 +36,7 @@ import org.neo4j.index.internal.gbptree.Hit;
 import org.neo4j.index.internal.gbptree.Layout;
 import org.neo4j.index.internal.gbptree.MetadataMismatchException;
 import org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector;
+import org.neo4j.index.internal.gbptree.SortingBulkLoader;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.layout.DatabaseLayout;
 import org.neo4j.io.pagecache.IOLimiter;
@@ -47,6 +48,7 @@ import org.neo4j.kernel.api.labelscan.LabelScanWriter;
 import org.neo4j.kernel.impl.api.scan.FullStoreChangeStream;
 import org.neo4j.kernel.monitoring.Monitors;
 import org.neo4j.storageengine.api.schema.LabelScanReader;
+import org.neo4j.util.FeatureToggles;
 
 import static org.neo4j.helpers.collection.Iterators.asResourceIterator;
 import static org.neo4j.helpers.collection.Iterators.iterator;
@@ -85,6 +87,12 @@ public class NativeLabelScanStore implements LabelScanStore
      */
     private static final byte NEEDS_REBUILDING = (byte) 0x01;
 
+    /**
+     * Number of entries, i.e. (label, node id range) pairs, sorted in memory at a time when rebuilding the store.
+     */
+    private static final int rebuildSortBufferSize =
+            FeatureToggles.getInteger( NativeLabelScanStore.class, "rebuildSortBufferSize", 500_000 );
+
     /**
      * Whether or not this label scan store is read-only.
      */
@@ -401,7 +409,7 @@ public class NativeLabelScanStore implements LabelScanStore
             long numberOfNodes;
 
             // Intentionally ignore read-only flag here when rebuilding.
-            try ( LabelScanWriter writer = writer() )
+            try ( LabelScanWriter writer = rebuildWriter() )
             {
                 numberOfNodes = fullStoreChangeStream.applyTo( writer );
             }
@@ -418,6 +426,20 @@ public class NativeLabelScanStore implements LabelScanStore
         return singleWriter.initialize( index.writer() );
     }
 
+    /**
+     * An empty tree is filled by {@link BulkLabelScanWriter bulk loading} it, using temporary files next to the store
+     * file for sorting the entries. Otherwise the rebuild merges the entries in using a normal {@link #writer()}.
+     */
+    private LabelScanWriter rebuildWriter() throws IOException
+    {
+        if ( !isEmpty() )
+        {
+            return writer();
+        }
+        return new BulkLabelScanWriter( new SortingBulkLoader<>( new LabelScanLayout(), index.bulkLoader(), NativeLabelScanWriter.ADD_MERGER,
+                fileSystem, storeFile, rebuildSortBufferSize ) );
+    }
+
     @Override
     public boolean isEmpty() throws IOException
     {
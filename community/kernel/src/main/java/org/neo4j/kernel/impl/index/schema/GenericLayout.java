@@ -75,6 +75,12 @@ class GenericLayout extends IndexLayout<GenericKey,NativeIndexValue>
         return false;
     }
 
+    @Override
+    public boolean compressedKeys()
+    {
+        return true;
+    }
+
     @Override
     public void minimalSplitter( GenericKey left, GenericKey right, GenericKey into )
     {
@@ -84,6 +84,12 @@ class StringLayout extends IndexLayout<StringIndexKey,NativeIndexValue>
         return false;
     }
 
+    @Override
+    public boolean compressedKeys()
+    {
+        return true;
+    }
+
     @Override
     public void minimalSplitter( StringIndexKey left, StringIndexKey right, StringIndexKey into )
     {
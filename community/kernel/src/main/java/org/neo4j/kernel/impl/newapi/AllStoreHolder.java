@@ -255,6 +255,30 @@ public class AllStoreHolder extends Read
         return storageReader.getLabelScanReader();
     }
 
+    @Override
+    long nodeHighMark()
+    {
+        return storageReader.nodeHighMark();
+    }
+
+    @Override
+    long relationshipHighMark()
+    {
+        return storageReader.relationshipHighMark();
+    }
+
+    @Override
+    int nodesPerPage()
+    {
+        return storageReader.nodesPerPage();
+    }
+
+    @Override
+    int relationshipsPerPage()
+    {
+        return storageReader.relationshipsPerPage();
+    }
+
     @Override
     ExplicitIndex explicitNodeIndex( String indexName ) throws ExplicitIndexNotFoundKernelException
     {
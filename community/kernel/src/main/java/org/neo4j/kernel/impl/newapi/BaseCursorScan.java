@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.newapi;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.neo4j.internal.kernel.api.Cursor;
+import org.neo4j.internal.kernel.api.Scan;
+
+/**
+ * Base class for {@link Scan} implementations that split an id range {@code [0, highMark]} into disjoint batches
+ * of equal size and hand them out to cursors, possibly from multiple threads.
+ * <p>
+ * Entities added in the transaction are not part of any id range. They are instead handed to exactly one batch,
+ * the first one reserved, so that they are seen once regardless of how many cursors take part in the scan.
+ *
+ * @param <C> the type of cursor this scan initializes.
+ */
+abstract class BaseCursorScan<C extends Cursor> implements Scan<C>
+{
+    final Read read;
+    private final long highMark;
+    private final int batchSize;
+    private final AtomicLong nextStart = new AtomicLong();
+    private final AtomicBoolean addedEntitiesClaimed = new AtomicBoolean();
+
+    BaseCursorScan( Read read, long highMark, int batchSize )
+    {
+        assert batchSize > 0 : "batch size must be positive, was " + batchSize;
+        this.read = read;
+        this.highMark = highMark;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public boolean initialize( C cursor )
+    {
+        read.ktx.assertOpen();
+        long start = nextStart.getAndAdd( batchSize );
+        boolean includeAddedEntities = addedEntitiesClaimed.compareAndSet( false, true );
+        if ( start > highMark && !includeAddedEntities )
+        {
+            return false;
+        }
+        long stop = Math.max( start, Math.min( start + batchSize, highMark + 1 ) );
+        scanBatch( cursor, start, stop, includeAddedEntities );
+        return true;
+    }
+
+    /**
+     * Initializes the cursor to scan over entities with ids in the range {@code [start, stop)}.
+     *
+     * @param cursor the cursor to initialize.
+     * @param start first id in the batch, inclusive.
+     * @param stop last id in the batch, exclusive.
+     * @param includeAddedEntities whether or not entities added in the transaction should be included in this batch.
+     */
+    abstract void scanBatch( C cursor, long start, long stop, boolean includeAddedEntities );
+}
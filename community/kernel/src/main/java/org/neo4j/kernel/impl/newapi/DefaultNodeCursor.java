@@ -43,6 +43,7 @@ class DefaultNodeCursor implements NodeCursor
     private LongIterator addedNodes;
     private StorageNodeCursor storeCursor;
     private long single;
+    private boolean includeAddedNodes;
 
     private final DefaultCursors pool;
 
@@ -57,6 +58,21 @@ class DefaultNodeCursor implements NodeCursor
         storeCursor.scan();
         this.read = read;
         this.single = NO_ID;
+        this.includeAddedNodes = true;
+        this.hasChanges = HasChanges.MAYBE;
+        this.addedNodes = ImmutableEmptyLongIterator.INSTANCE;
+    }
+
+    /**
+     * Scan over one batch of a partitioned node scan. Nodes added in the transaction are only included
+     * in one of the batches, as decided by {@code includeAddedNodes}.
+     */
+    void scanBatch( Read read, long start, long stop, boolean includeAddedNodes )
+    {
+        storeCursor.scanRange( start, stop );
+        this.read = read;
+        this.single = NO_ID;
+        this.includeAddedNodes = includeAddedNodes;
         this.hasChanges = HasChanges.MAYBE;
         this.addedNodes = ImmutableEmptyLongIterator.INSTANCE;
     }
@@ -230,10 +246,14 @@ class DefaultNodeCursor implements NodeCursor
                     addedNodes = read.txState().nodeIsAddedInThisTx( single ) ?
                                  LongSets.immutable.of( single ).longIterator() : ImmutableEmptyLongIterator.INSTANCE;
                 }
-                else
+                else if ( includeAddedNodes )
                 {
                     addedNodes = read.txState().addedAndRemovedNodes().getAdded().freeze().longIterator();
                 }
+                else
+                {
+                    addedNodes = ImmutableEmptyLongIterator.INSTANCE;
+                }
                 hasChanges = HasChanges.YES;
             }
             else
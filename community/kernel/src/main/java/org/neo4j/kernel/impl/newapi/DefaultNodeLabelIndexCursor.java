@@ -29,6 +29,7 @@ import org.neo4j.internal.kernel.api.NodeLabelIndexCursor;
 import org.neo4j.kernel.impl.index.labelscan.LabelScanValueIndexProgressor;
 import org.neo4j.storageengine.api.schema.IndexProgressor;
 import org.neo4j.storageengine.api.schema.IndexProgressor.NodeLabelClient;
+import org.neo4j.storageengine.api.schema.LabelScanReader;
 import org.neo4j.storageengine.api.txstate.LongDiffSets;
 
 import static org.neo4j.collection.PrimitiveLongCollections.mergeToSet;
@@ -63,6 +64,20 @@ class DefaultNodeLabelIndexCursor extends IndexCursor<IndexProgressor>
         }
     }
 
+    /**
+     * Scan over one batch of a partitioned label scan. Nodes that got the label in the transaction are only included
+     * in one of the batches, as decided by {@code includeAddedNodes}.
+     */
+    void scanBatch( Read read, LabelScanReader reader, int label, long start, long stop, boolean includeAddedNodes )
+    {
+        setRead( read );
+        reader.nodesWithLabel( this, label, start, stop );
+        if ( !includeAddedNodes )
+        {
+            added = null;
+        }
+    }
+
     @Override
     public void unionScan( IndexProgressor progressor, boolean providesLabels, int... labels )
     {
@@ -147,6 +162,7 @@ class DefaultNodeLabelIndexCursor extends IndexCursor<IndexProgressor>
             node = NO_ID;
             labels = null;
             read = null;
+            added = null;
             removed = null;
 
             pool.accept( this );
@@ -32,6 +32,7 @@ class DefaultRelationshipScanCursor extends DefaultRelationshipCursor<StorageRel
 {
     private int type;
     private long single;
+    private boolean includeAddedRelationships;
     private LongIterator addedRelationships;
 
     DefaultRelationshipScanCursor( DefaultCursors pool, StorageRelationshipScanCursor storeCursor )
@@ -44,6 +45,21 @@ class DefaultRelationshipScanCursor extends DefaultRelationshipCursor<StorageRel
         storeCursor.scan( type );
         this.type = type;
         this.single = NO_ID;
+        this.includeAddedRelationships = true;
+        init( read );
+        this.addedRelationships = ImmutableEmptyLongIterator.INSTANCE;
+    }
+
+    /**
+     * Scan over one batch of a partitioned relationship scan. Relationships added in the transaction are only included
+     * in one of the batches, as decided by {@code includeAddedRelationships}.
+     */
+    void scanBatch( int type, Read read, long start, long stop, boolean includeAddedRelationships )
+    {
+        storeCursor.scanRange( type, start, stop );
+        this.type = type;
+        this.single = NO_ID;
+        this.includeAddedRelationships = includeAddedRelationships;
         init( read );
         this.addedRelationships = ImmutableEmptyLongIterator.INSTANCE;
     }
@@ -63,10 +79,16 @@ class DefaultRelationshipScanCursor extends DefaultRelationshipCursor<StorageRel
         // Check tx state
         boolean hasChanges = hasChanges();
 
-        if ( hasChanges && addedRelationships.hasNext() )
+        if ( hasChanges )
         {
-            read.txState().relationshipVisit( addedRelationships.next(), storeCursor );
-            return true;
+            while ( addedRelationships.hasNext() )
+            {
+                read.txState().relationshipVisit( addedRelationships.next(), storeCursor );
+                if ( type == -1 || storeCursor.type() == type )
+                {
+                    return true;
+                }
+            }
         }
 
         while ( storeCursor.next() )
@@ -122,10 +144,14 @@ class DefaultRelationshipScanCursor extends DefaultRelationshipCursor<StorageRel
                                  ? LongHashSet.newSetWith( single ).longIterator()
                                  : ImmutableEmptyLongIterator.INSTANCE;
         }
-        else
+        else if ( includeAddedRelationships )
         {
             addedRelationships = read.txState().addedAndRemovedRelationships().getAdded().longIterator();
         }
+        else
+        {
+            addedRelationships = ImmutableEmptyLongIterator.INSTANCE;
+        }
     }
 
     private boolean isSingle()
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.newapi;
+
+import org.neo4j.internal.kernel.api.NodeLabelIndexCursor;
+import org.neo4j.storageengine.api.schema.LabelScanReader;
+
+/**
+ * Partitioned scan over all nodes with a given label. Batches are ranges of node ids which are looked up in the
+ * label scan store, so that each thread seeks its own, disjoint, part of the label scan tree.
+ */
+class NodeLabelIndexCursorScan extends BaseCursorScan<NodeLabelIndexCursor>
+{
+    private final LabelScanReader labelScanReader;
+    private final int label;
+
+    NodeLabelIndexCursorScan( Read read, LabelScanReader labelScanReader, int label, long highMark, int batchSize )
+    {
+        super( read, highMark, batchSize );
+        this.labelScanReader = labelScanReader;
+        this.label = label;
+    }
+
+    @Override
+    void scanBatch( NodeLabelIndexCursor cursor, long start, long stop, boolean includeAddedEntities )
+    {
+        ((DefaultNodeLabelIndexCursor) cursor).scanBatch( read, labelScanReader, label, start, stop, includeAddedEntities );
+    }
+}
@@ -243,7 +243,10 @@ abstract class Read implements TxStateHolder,
     public final Scan<NodeLabelIndexCursor> nodeLabelScan( int label )
     {
         ktx.assertOpen();
-        throw new UnsupportedOperationException( "not implemented" );
+        // Each label scan tree entry covers 64 nodes, so batches of this size are aligned with tree entries
+        // and cover roughly one leaf of the tree each
+        int batchSize = Long.SIZE * nodesPerPage();
+        return new NodeLabelIndexCursorScan( this, labelScanReader(), label, nodeHighMark(), batchSize );
     }
 
     @Override
@@ -257,7 +260,7 @@ abstract class Read implements TxStateHolder,
     public final Scan<NodeCursor> allNodesScan()
     {
         ktx.assertOpen();
-        throw new UnsupportedOperationException( "not implemented" );
+        return new NodeCursorScan( this, nodeHighMark(), nodesPerPage() );
     }
 
     @Override
@@ -285,7 +288,7 @@ abstract class Read implements TxStateHolder,
     public final Scan<RelationshipScanCursor> allRelationshipsScan()
     {
         ktx.assertOpen();
-        throw new UnsupportedOperationException( "not implemented" );
+        return new RelationshipCursorScan( this, -1/*include all types*/, relationshipHighMark(), relationshipsPerPage() );
     }
 
     @Override
@@ -299,7 +302,7 @@ abstract class Read implements TxStateHolder,
     public final Scan<RelationshipScanCursor> relationshipTypeScan( int type )
     {
         ktx.assertOpen();
-        throw new UnsupportedOperationException( "not implemented" );
+        return new RelationshipCursorScan( this, type, relationshipHighMark(), relationshipsPerPage() );
     }
 
     @Override
@@ -450,6 +453,14 @@ abstract class Read implements TxStateHolder,
 
     abstract LabelScanReader labelScanReader();
 
+    abstract long nodeHighMark();
+
+    abstract long relationshipHighMark();
+
+    abstract int nodesPerPage();
+
+    abstract int relationshipsPerPage();
+
     abstract ExplicitIndex explicitNodeIndex( String indexName ) throws ExplicitIndexNotFoundKernelException;
 
     abstract ExplicitIndex explicitRelationshipIndex( String indexName ) throws ExplicitIndexNotFoundKernelException;
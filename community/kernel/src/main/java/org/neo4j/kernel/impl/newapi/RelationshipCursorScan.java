@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.newapi;
+
+import org.neo4j.internal.kernel.api.RelationshipScanCursor;
+
+/**
+ * Partitioned scan over all relationships, or relationships of a single type, where each batch covers
+ * a whole number of pages of the relationship store.
+ */
+class RelationshipCursorScan extends BaseCursorScan<RelationshipScanCursor>
+{
+    private final int type;
+
+    RelationshipCursorScan( Read read, int type, long highMark, int relationshipsPerPage )
+    {
+        super( read, highMark, relationshipsPerPage );
+        this.type = type;
+    }
+
+    @Override
+    void scanBatch( RelationshipScanCursor cursor, long start, long stop, boolean includeAddedEntities )
+    {
+        ((DefaultRelationshipScanCursor) cursor).scanBatch( type, read, start, stop, includeAddedEntities );
+    }
+}
@@ -63,7 +63,7 @@ public class RecoveryRequiredChecker
             return false;
         }
 
-        LogEntryReader<ReadableClosablePositionAwareChannel> reader = new VersionAwareLogEntryReader<>();
+        LogEntryReader<ReadableClosablePositionAwareChannel> reader = VersionAwareLogEntryReader.forConfig( config );
         LogFiles logFiles = LogFilesBuilder.activeFilesBuilder( databaseLayout, fs, pageCache )
                                            .withConfig( config )
                                            .withLogEntryReader( reader ).build();
@@ -33,6 +33,7 @@ public class RecordNodeCursor extends NodeRecord implements StorageNodeCursor
     private PageCursor pageCursor;
     private long next;
     private long highMark;
+    private long stop;
     private long nextStoreReference;
     private boolean open;
 
@@ -54,11 +55,30 @@ public class RecordNodeCursor extends NodeRecord implements StorageNodeCursor
             pageCursor = nodePage( 0 );
         }
         this.next = 0;
+        this.stop = Long.MAX_VALUE;
         this.highMark = nodeHighMark();
         this.nextStoreReference = NO_ID;
         this.open = true;
     }
 
+    @Override
+    public void scanRange( long start, long stop )
+    {
+        if ( getId() != NO_ID )
+        {
+            reset();
+        }
+        if ( pageCursor == null )
+        {
+            pageCursor = nodePage( start );
+        }
+        this.stop = stop;
+        this.highMark = Math.min( stop - 1, nodeHighMark() );
+        this.next = start <= highMark ? start : NO_ID;
+        this.nextStoreReference = NO_ID;
+        this.open = true;
+    }
+
     @Override
     public void single( long reference )
     {
@@ -163,8 +183,8 @@ public class RecordNodeCursor extends NodeRecord implements StorageNodeCursor
                 else
                 {
                     //we are a "scan cursor"
-                    //Check if there is a new high mark
-                    highMark = nodeHighMark();
+                    //Check if there is a new high mark, but never go beyond the end of the scanned range
+                    highMark = Math.min( stop - 1, nodeHighMark() );
                     if ( next > highMark )
                     {
                         next = NO_ID;
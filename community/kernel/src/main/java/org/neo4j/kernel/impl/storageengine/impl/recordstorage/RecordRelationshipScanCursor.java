@@ -31,6 +31,7 @@ class RecordRelationshipScanCursor extends RecordRelationshipCursor implements S
     private int filterType;
     private long next;
     private long highMark;
+    private long stop;
     private long nextStoreReference;
     private PageCursor pageCursor;
     private boolean open;
@@ -59,11 +60,37 @@ class RecordRelationshipScanCursor extends RecordRelationshipCursor implements S
         }
         this.next = 0;
         this.filterType = type;
+        this.stop = Long.MAX_VALUE;
         this.highMark = relationshipHighMark();
         this.nextStoreReference = NO_ID;
         this.open = true;
     }
 
+    @Override
+    public void scanRange( long start, long stop )
+    {
+        scanRange( -1, start, stop );
+    }
+
+    @Override
+    public void scanRange( int type, long start, long stop )
+    {
+        if ( getId() != NO_ID )
+        {
+            reset();
+        }
+        if ( pageCursor == null )
+        {
+            pageCursor = relationshipPage( start );
+        }
+        this.filterType = type;
+        this.stop = stop;
+        this.highMark = Math.min( stop - 1, relationshipHighMark() );
+        this.next = start <= highMark ? start : NO_ID;
+        this.nextStoreReference = NO_ID;
+        this.open = true;
+    }
+
     @Override
     public void single( long reference )
     {
@@ -116,8 +143,8 @@ class RecordRelationshipScanCursor extends RecordRelationshipCursor implements S
                 else
                 {
                     //we are a "scan cursor"
-                    //Check if there is a new high mark
-                    highMark = relationshipHighMark();
+                    //Check if there is a new high mark, but never go beyond the end of the scanned range
+                    highMark = Math.min( stop - 1, relationshipHighMark() );
                     if ( next > highMark )
                     {
                         next = NO_ID;
@@ -342,6 +342,30 @@ public class RecordStorageReader implements StorageReader
         return relationshipStore.isInUse( id );
     }
 
+    @Override
+    public long nodeHighMark()
+    {
+        return nodeStore.getHighestPossibleIdInUse();
+    }
+
+    @Override
+    public long relationshipHighMark()
+    {
+        return relationshipStore.getHighestPossibleIdInUse();
+    }
+
+    @Override
+    public int nodesPerPage()
+    {
+        return nodeStore.getRecordsPerPage();
+    }
+
+    @Override
+    public int relationshipsPerPage()
+    {
+        return relationshipStore.getRecordsPerPage();
+    }
+
     private StoreIndexDescriptor getStoreIndexDescriptor( IndexDescriptor index )
     {
         for ( StoreIndexDescriptor descriptor : schemaCache.indexDescriptors() )
@@ -23,6 +23,7 @@ import java.io.Flushable;
 import java.io.IOException;
 import java.nio.channels.ClosedChannelException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.LockSupport;
@@ -43,6 +44,7 @@ import org.neo4j.kernel.impl.transaction.tracing.SerializeTransactionEvent;
 import org.neo4j.kernel.impl.util.IdOrderingQueue;
 import org.neo4j.kernel.internal.DatabaseHealth;
 import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+import org.neo4j.util.FeatureToggles;
 
 import static org.neo4j.kernel.impl.api.TransactionToApply.TRANSACTION_ID_NOT_SPECIFIED;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryStart.checksum;
@@ -50,9 +52,21 @@ import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryStart.checksum
 /**
  * Concurrently appends transactions to the transaction log, while coordinating with the log rotation and forcing the
  * log file in batches for higher throughput in a concurrent scenario.
+ * <p>
+ * Forcing uses group commit: committers queue up to have the log forced and one of them forces on behalf of all.
+ * Optionally, when the {@code max_batch_wait_micros} feature toggle is set, the size of the previous group is used to
+ * predict the size of the next one, and if that is larger than one the forcing committer holds the force back for a
+ * short, bounded time to let the expected number of committers join, see {@link #awaitBatch()}. This is off by default,
+ * and a lone committer is never held back.
  */
 public class BatchingTransactionAppender extends LifecycleAdapter implements TransactionAppender
 {
+    private static final long MAX_BATCH_WAIT_NANOS = TimeUnit.MICROSECONDS.toNanos(
+            FeatureToggles.getInteger( BatchingTransactionAppender.class, "max_batch_wait_micros", 0 ) );
+    private static final int MAX_BATCH_SIZE =
+            FeatureToggles.getInteger( BatchingTransactionAppender.class, "max_batch_size", 1_000 );
+    private static final long BATCH_POLL_NANOS = TimeUnit.MICROSECONDS.toNanos( 10 );
+
     // For the graph store and schema indexes order-of-updates are managed by the high level entity locks
     // such that changes are applied to the affected records in the same order that they are written to the
     // log. For the explicit indexes there are no such locks, and hence no such ordering. This queue below
@@ -67,6 +81,9 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
     private final LogPositionMarker positionMarker = new LogPositionMarker();
     private final DatabaseHealth databaseHealth;
     private final Lock forceLock = new ReentrantLock();
+    private final AtomicInteger pendingForces = new AtomicInteger();
+    // Guarded by forceLock
+    private int lastBatchSize;
 
     private FlushablePositionAwareChannel writer;
     private TransactionLogWriter transactionLogWriter;
@@ -243,6 +260,9 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
      */
     protected boolean forceAfterAppend( LogForceEvents logForceEvents ) throws IOException
     {
+        // Count ourselves as pending before adding our link, so that the counter never falls behind the number of
+        // links a forcing committer may take, see forceLog().
+        pendingForces.incrementAndGet();
         // There's a benign race here, where we add our link before we update our next pointer.
         // This is okay, however, because unparkAll() spins when it sees a null next pointer.
         ThreadLink threadLink = new ThreadLink( Thread.currentThread() );
@@ -293,9 +313,16 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
 
     private void forceLog( LogForceEvents logForceEvents ) throws IOException
     {
+        long batchWaitNanos = awaitBatch();
         ThreadLink links = threadLinkHead.getAndSet( ThreadLink.END );
+        // Every link we took was counted before it was added, so after this the counter holds exactly the committers
+        // that have announced themselves but are not part of this batch.
+        int batchSize = countLinks( links );
+        pendingForces.addAndGet( -batchSize );
+        lastBatchSize = batchSize;
         try ( LogForceEvent logForceEvent = logForceEvents.beginLogForce() )
         {
+            logForceEvent.setBatch( batchSize, batchWaitNanos );
             force();
         }
         catch ( final Throwable panic )
@@ -309,6 +336,51 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
         }
     }
 
+    /**
+     * Called by the committer about to force the log, while holding the force lock. Waits for as many committers
+     * as were part of the previous force to queue up, or until the max batch wait time has passed, whichever
+     * comes first. If fewer committers showed up, the next batch will aim for that smaller number instead,
+     * so that the wait adapts to the current commit concurrency.
+     *
+     * @return the time spent waiting, in nanoseconds.
+     */
+    private long awaitBatch()
+    {
+        int expectedBatchSize = Math.min( lastBatchSize, MAX_BATCH_SIZE );
+        if ( expectedBatchSize <= 1 || MAX_BATCH_WAIT_NANOS <= 0 )
+        {
+            return 0;
+        }
+
+        long startTime = System.nanoTime();
+        long deadline = startTime + MAX_BATCH_WAIT_NANOS;
+        long now = startTime;
+        while ( pendingForces.get() < expectedBatchSize && now < deadline )
+        {
+            LockSupport.parkNanos( this, BATCH_POLL_NANOS );
+            now = System.nanoTime();
+        }
+        return now - startTime;
+    }
+
+    private static int countLinks( ThreadLink links )
+    {
+        int count = 0;
+        while ( links != ThreadLink.END )
+        {
+            count++;
+            ThreadLink next;
+            do
+            {
+                // Spin because of the race:y update when consing.
+                next = links.next;
+            }
+            while ( next == null );
+            links = next;
+        }
+        return count;
+    }
+
     private void unparkAll( ThreadLink links )
     {
         do
@@ -19,8 +19,20 @@
  */
 package org.neo4j.kernel.impl.transaction.log;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
 import org.neo4j.io.fs.StoreChannel;
 
 public interface LogVersionedStoreChannel extends StoreChannel, VersionableLog
 {
+    /**
+     * Memory maps, read only, the content of this channel from its current position to its end and moves
+     * the position to the end. Only to be used for log files that no longer change, i.e. that have been rotated away.
+     *
+     * @return the mapped content, or {@code null} if this channel cannot be memory mapped. The caller owns the mapping
+     * and should unmap it, with {@code UnsafeUtil.invokeCleaner}, as soon as it is done with it.
+     * @throws IOException on I/O error.
+     */
+    ByteBuffer mapRemaining() throws IOException;
 }
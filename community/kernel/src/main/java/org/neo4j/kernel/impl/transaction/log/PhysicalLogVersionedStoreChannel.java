@@ -27,8 +27,11 @@ import java.nio.channels.FileLock;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.fs.OpenMode;
 import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.io.fs.StoreFileChannel;
 import org.neo4j.kernel.impl.transaction.log.entry.LogHeader;
 
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+
 import static org.neo4j.kernel.impl.transaction.log.entry.LogHeader.LOG_HEADER_SIZE;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogHeaderReader.readLogHeader;
 
@@ -167,6 +170,19 @@ public class PhysicalLogVersionedStoreChannel implements LogVersionedStoreChanne
         return advance( delegateChannel.read( dsts ) );
     }
 
+    @Override
+    public ByteBuffer mapRemaining() throws IOException
+    {
+        if ( !(delegateChannel instanceof StoreFileChannel) )
+        {
+            return null;
+        }
+        long size = delegateChannel.size();
+        ByteBuffer mapped = ((StoreFileChannel) delegateChannel).map( READ_ONLY, position, size - position );
+        position( size );
+        return mapped;
+    }
+
     @Override
     public long getVersion()
     {
@@ -24,6 +24,7 @@ import java.nio.ByteBuffer;
 
 import org.neo4j.io.fs.StoreChannel;
 import org.neo4j.storageengine.api.ReadPastEndException;
+import org.neo4j.unsafe.impl.internal.dragons.UnsafeUtil;
 
 import static java.lang.Math.min;
 import static java.lang.Math.toIntExact;
@@ -33,7 +34,9 @@ import static org.neo4j.io.ByteUnit.kibiBytes;
 
 /**
  * A buffering implementation of {@link ReadableClosableChannel}. This class also allows subclasses to read content
- * spanning more than one file, by properly implementing {@link #next(StoreChannel)}.
+ * spanning more than one file, by properly implementing {@link #next(StoreChannel)}, and to read content
+ * straight from memory mapped files instead of copying it into the read ahead buffer, by implementing
+ * {@link #map(StoreChannel)}.
  * @param <T> The type of StoreChannel wrapped
  */
 public class ReadAheadChannel<T extends StoreChannel> implements ReadableClosableChannel, PositionableChannel
@@ -41,8 +44,10 @@ public class ReadAheadChannel<T extends StoreChannel> implements ReadableClosabl
     public static final int DEFAULT_READ_AHEAD_SIZE = toIntExact( kibiBytes( 4 ) );
 
     protected T channel;
-    private final ByteBuffer aheadBuffer;
+    private final ByteBuffer readAheadBuffer;
     private final int readAheadSize;
+    // Either the readAheadBuffer or the mapped content of the current channel
+    private ByteBuffer aheadBuffer;
 
     public ReadAheadChannel( T channel )
     {
@@ -51,8 +56,9 @@ public class ReadAheadChannel<T extends StoreChannel> implements ReadableClosabl
 
     public ReadAheadChannel( T channel, int readAheadSize )
     {
-        this.aheadBuffer = ByteBuffer.allocate( readAheadSize );
-        this.aheadBuffer.position( aheadBuffer.capacity() );
+        this.readAheadBuffer = ByteBuffer.allocate( readAheadSize );
+        this.readAheadBuffer.position( readAheadBuffer.capacity() );
+        this.aheadBuffer = readAheadBuffer;
         this.channel = channel;
         this.readAheadSize = readAheadSize;
     }
@@ -129,6 +135,11 @@ public class ReadAheadChannel<T extends StoreChannel> implements ReadableClosabl
     @Override
     public void close() throws IOException
     {
+        if ( aheadBuffer != readAheadBuffer )
+        {
+            unmap( aheadBuffer );
+            aheadBuffer = readAheadBuffer;
+        }
         channel.close();
     }
 
@@ -142,10 +153,26 @@ public class ReadAheadChannel<T extends StoreChannel> implements ReadableClosabl
 
         // We ran out, try to read some more
         // start by copying the remaining bytes to the beginning
-        compactToBeginningOfBuffer( remaining );
+        if ( aheadBuffer != readAheadBuffer )
+        {   // the mapped content of the current channel ran out, continue through the read ahead buffer
+            readAheadBuffer.clear();
+            readAheadBuffer.put( aheadBuffer );
+            unmap( aheadBuffer );
+            aheadBuffer = readAheadBuffer;
+        }
+        else
+        {
+            compactToBeginningOfBuffer( remaining );
+        }
 
         while ( aheadBuffer.position() < aheadBuffer.capacity() )
-        {   // read from the current channel to try and fill the buffer
+        {
+            if ( aheadBuffer.position() == 0 && mapCurrentChannel( requestedNumberOfBytes ) )
+            {   // nothing left over from before so the request can be served straight from the mapped content
+                return;
+            }
+
+            // read from the current channel to try and fill the buffer
             int read = channel.read( aheadBuffer );
             if ( read == -1 )
             {
@@ -184,6 +211,48 @@ public class ReadAheadChannel<T extends StoreChannel> implements ReadableClosabl
         return channel;
     }
 
+    /**
+     * Hook for allowing subclasses to have content read straight from memory instead of through the read ahead buffer.
+     * Only content that will not change while being read should be mapped. The default implementation returns
+     * {@code null}, which means that the channel cannot be mapped and that its content is read through the read ahead buffer.
+     * @param channel The channel to map, from its current position to its end.
+     * @return the mapped content, or {@code null} if the channel cannot be mapped. If mapped the channel is expected to
+     * be positioned at its end. The returned buffer is unmapped by this channel as soon as it has been read, the position
+     * is moved past it, or this channel is closed.
+     * @throws IOException on I/O error.
+     */
+    protected ByteBuffer map( T channel ) throws IOException
+    {
+        return null;
+    }
+
+    private boolean mapCurrentChannel( int requestedNumberOfBytes ) throws IOException
+    {
+        ByteBuffer mapped = map( channel );
+        if ( mapped == null )
+        {
+            return false;
+        }
+        if ( mapped.remaining() >= requestedNumberOfBytes )
+        {
+            aheadBuffer = mapped;
+            return true;
+        }
+        // Too little left in this channel to satisfy the request, the rest has to be read from the next channel
+        aheadBuffer.put( mapped );
+        unmap( mapped );
+        return false;
+    }
+
+    /*
+     * Unmaps content returned from map(channel) right away, instead of leaving it mapped until the buffer is garbage collected,
+     * which would keep the file from being deleted on some platforms and keep its address space in use.
+     */
+    private static void unmap( ByteBuffer mapped )
+    {
+        UnsafeUtil.invokeCleaner( mapped );
+    }
+
     /*
      * Moves bytes between aheadBuffer.position() and aheadBuffer.capacity() to the beginning of aheadBuffer. At the
      * end of this call the aheadBuffer is positioned in end of that moved content.
@@ -192,9 +261,9 @@ public class ReadAheadChannel<T extends StoreChannel> implements ReadableClosabl
      */
     private void compactToBeginningOfBuffer( int remaining )
     {
-        arraycopy( aheadBuffer.array(), aheadBuffer.position(), aheadBuffer.array(), 0, remaining );
-        aheadBuffer.clear();
-        aheadBuffer.position( remaining );
+        arraycopy( readAheadBuffer.array(), readAheadBuffer.position(), readAheadBuffer.array(), 0, remaining );
+        readAheadBuffer.clear();
+        readAheadBuffer.position( remaining );
     }
 
     @Override
@@ -204,6 +273,11 @@ public class ReadAheadChannel<T extends StoreChannel> implements ReadableClosabl
         if ( positionRelativeToAheadBuffer >= aheadBuffer.limit() || positionRelativeToAheadBuffer < 0 )
         {
             // Beyond what we currently have buffered
+            if ( aheadBuffer != readAheadBuffer )
+            {
+                unmap( aheadBuffer );
+                aheadBuffer = readAheadBuffer;
+            }
             aheadBuffer.position( aheadBuffer.limit() );
             channel.position( byteOffset );
         }
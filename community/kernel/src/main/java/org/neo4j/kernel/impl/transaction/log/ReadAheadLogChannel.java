@@ -20,15 +20,23 @@
 package org.neo4j.kernel.impl.transaction.log;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.function.LongPredicate;
 
 import org.neo4j.io.fs.StoreChannel;
 
 /**
  * Basically a sequence of {@link StoreChannel channels} seamlessly seen as one.
+ * <p>
+ * Log versions accepted by the given {@code mappableVersions} predicate are read straight from memory mapped files,
+ * which is only safe for log files that no longer change, i.e. ones that have been rotated away.
  */
 public class ReadAheadLogChannel extends ReadAheadChannel<LogVersionedStoreChannel> implements ReadableLogChannel
 {
+    private static final LongPredicate NO_MAPPING = version -> false;
+
     private final LogVersionBridge bridge;
+    private final LongPredicate mappableVersions;
 
     public ReadAheadLogChannel( LogVersionedStoreChannel startingChannel )
     {
@@ -41,9 +49,16 @@ public class ReadAheadLogChannel extends ReadAheadChannel<LogVersionedStoreChann
     }
 
     public ReadAheadLogChannel( LogVersionedStoreChannel startingChannel, LogVersionBridge bridge, int readAheadSize )
+    {
+        this( startingChannel, bridge, readAheadSize, NO_MAPPING );
+    }
+
+    public ReadAheadLogChannel( LogVersionedStoreChannel startingChannel, LogVersionBridge bridge, int readAheadSize,
+            LongPredicate mappableVersions )
     {
         super( startingChannel, readAheadSize );
         this.bridge = bridge;
+        this.mappableVersions = mappableVersions;
     }
 
     @Override
@@ -70,4 +85,10 @@ public class ReadAheadLogChannel extends ReadAheadChannel<LogVersionedStoreChann
     {
         return bridge.next( channel );
     }
+
+    @Override
+    protected ByteBuffer map( LogVersionedStoreChannel channel ) throws IOException
+    {
+        return mappableVersions.test( channel.getVersion() ) ? channel.mapRemaining() : null;
+    }
 }
@@ -46,7 +46,7 @@ public class ReadOnlyTransactionStore implements Lifecycle, LogicalTransactionSt
             Monitors monitors ) throws IOException
     {
         TransactionMetadataCache transactionMetadataCache = new TransactionMetadataCache();
-        LogEntryReader<ReadableClosablePositionAwareChannel> logEntryReader = new VersionAwareLogEntryReader<>();
+        LogEntryReader<ReadableClosablePositionAwareChannel> logEntryReader = VersionAwareLogEntryReader.forConfig( config );
         LogFiles logFiles = LogFilesBuilder
                 .activeFilesBuilder( fromDatabaseLayout, fs, pageCache ).withLogEntryReader( logEntryReader )
                 .withConfig( config )
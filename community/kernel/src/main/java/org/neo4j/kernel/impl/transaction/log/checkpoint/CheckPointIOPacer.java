@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.checkpoint;
+
+import java.io.Flushable;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.neo4j.graphdb.Resource;
+import org.neo4j.io.pagecache.IOLimiter;
+
+import static java.lang.Math.min;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * {@link IOLimiter} which spreads the flushing of scheduled check points out over a configured period of time,
+ * instead of flushing every dirty page as fast as possible. This gives a flatter I/O profile, compared to the bursts
+ * of I/O which otherwise hit the storage device every time a check point happens.
+ * <p>
+ * The number of I/Os needed by the next check point isn't known up front, so the pace is based on the number of I/Os
+ * that the previous paced check point needed, such that the same amount would be done over the spread period.
+ * If the spread period passes before the flush is completed, the rest is flushed without pacing.
+ * <p>
+ * Pacing only happens between {@link #beginPacing()} and closing the returned resource, and not while the limit is
+ * {@link #disableLimit() disabled}. All calls are also passed on to the wrapped {@link IOLimiter}.
+ */
+public class CheckPointIOPacer implements IOLimiter
+{
+    private static final long MAX_PARK_NANOS = MILLISECONDS.toNanos( 100 );
+
+    private final IOLimiter delegate;
+    private final long spreadNanos;
+    private final AtomicInteger disabledCounter = new AtomicInteger();
+    private final AtomicLong pacedIOs = new AtomicLong();
+
+    private volatile boolean pacing;
+    private volatile long pacingStartNanos;
+    private volatile long nanosPerIO;
+    // Only accessed by the check pointing thread
+    private long previousPacedIOs;
+
+    public CheckPointIOPacer( IOLimiter delegate, Duration spread )
+    {
+        this.delegate = delegate;
+        this.spreadNanos = spread.toNanos();
+    }
+
+    /**
+     * @return the {@link IOLimiter} to flush with. This is the wrapped limiter itself if pacing is not enabled.
+     */
+    IOLimiter flushLimiter()
+    {
+        return spreadNanos > 0 ? this : delegate;
+    }
+
+    /**
+     * Starts pacing the I/O passing through this limiter, until the returned {@link Resource} is closed.
+     * Not to be called concurrently.
+     *
+     * @return resource marking the end of the paced flush when closed.
+     */
+    Resource beginPacing()
+    {
+        if ( spreadNanos <= 0 )
+        {
+            return Resource.EMPTY;
+        }
+        pacedIOs.set( 0 );
+        nanosPerIO = previousPacedIOs > 0 ? spreadNanos / previousPacedIOs : 0;
+        pacingStartNanos = System.nanoTime();
+        pacing = true;
+        return () ->
+        {
+            pacing = false;
+            previousPacedIOs = pacedIOs.get();
+        };
+    }
+
+    @Override
+    public long maybeLimitIO( long previousStamp, int recentlyCompletedIOs, Flushable flushable )
+    {
+        if ( pacing )
+        {
+            long ios = pacedIOs.addAndGet( recentlyCompletedIOs );
+            long perIO = nanosPerIO;
+            if ( perIO > 0 )
+            {
+                awaitPace( ios * perIO );
+            }
+        }
+        return delegate.maybeLimitIO( previousStamp, recentlyCompletedIOs, flushable );
+    }
+
+    private void awaitPace( long dueNanos )
+    {
+        long elapsedNanos;
+        while ( pacing && disabledCounter.get() == 0 && !Thread.currentThread().isInterrupted() &&
+                (elapsedNanos = System.nanoTime() - pacingStartNanos) < min( dueNanos, spreadNanos ) )
+        {
+            // Park in bounded steps so that disabling the limit is noticed in a timely fashion
+            LockSupport.parkNanos( this, min( dueNanos - elapsedNanos, MAX_PARK_NANOS ) );
+        }
+    }
+
+    @Override
+    public void disableLimit()
+    {
+        disabledCounter.getAndIncrement();
+        delegate.disableLimit();
+    }
+
+    @Override
+    public void enableLimit()
+    {
+        disabledCounter.getAndDecrement();
+        delegate.enableLimit();
+    }
+
+    @Override
+    public boolean isLimited()
+    {
+        return (pacing && nanosPerIO > 0 && disabledCounter.get() == 0) || delegate.isLimited();
+    }
+}
@@ -21,7 +21,6 @@ package org.neo4j.kernel.impl.transaction.log.checkpoint;
 
 import java.io.IOException;
 import org.neo4j.graphdb.Resource;
-import org.neo4j.io.pagecache.IOLimiter;
 import org.neo4j.kernel.impl.transaction.log.LogPosition;
 import org.neo4j.kernel.impl.transaction.log.TransactionAppender;
 import org.neo4j.kernel.impl.transaction.log.TransactionIdStore;
@@ -46,7 +45,7 @@ public class CheckPointerImpl extends LifecycleAdapter implements CheckPointer
     private final StorageEngine storageEngine;
     private final LogPruning logPruning;
     private final DatabaseHealth databaseHealth;
-    private final IOLimiter ioLimiter;
+    private final CheckPointIOPacer ioLimiter;
     private final Log msgLog;
     private final CheckPointTracer tracer;
     private final StoreCopyCheckPointMutex mutex;
@@ -62,7 +61,7 @@ public class CheckPointerImpl extends LifecycleAdapter implements CheckPointer
             DatabaseHealth databaseHealth,
             LogProvider logProvider,
             CheckPointTracer tracer,
-            IOLimiter ioLimiter,
+            CheckPointIOPacer ioLimiter,
             StoreCopyCheckPointMutex mutex )
     {
         this.appender = appender;
@@ -133,7 +132,8 @@ public class CheckPointerImpl extends LifecycleAdapter implements CheckPointer
         if ( threshold.isCheckPointingNeeded( transactionIdStore.getLastClosedTransactionId(), info ) )
         {
             try ( LogCheckPointEvent event = tracer.beginCheckPoint();
-                    Resource lock = mutex.checkPoint() )
+                    Resource lock = mutex.checkPoint();
+                    Resource pacing = ioLimiter.beginPacing() )
             {
                 return doCheckPoint( info, event );
             }
@@ -161,7 +161,7 @@ public class CheckPointerImpl extends LifecycleAdapter implements CheckPointer
              */
             msgLog.info( prefix + " checkpoint started..." );
             long startTime = currentTimeMillis();
-            storageEngine.flushAndForce( ioLimiter );
+            storageEngine.flushAndForce( ioLimiter.flushLimiter() );
             /*
              * Check kernel health before going to write the next check point.  In case of a panic this check point
              * will be aborted, which is the safest alternative so that the next recovery will have a chance to
@@ -21,6 +21,8 @@ package org.neo4j.kernel.impl.transaction.log.entry;
 
 import java.io.IOException;
 
+import org.neo4j.graphdb.factory.GraphDatabaseSettings;
+import org.neo4j.kernel.configuration.Config;
 import org.neo4j.kernel.impl.storageengine.impl.recordstorage.RecordStorageCommandReaderFactory;
 import org.neo4j.kernel.impl.transaction.log.LogPosition;
 import org.neo4j.kernel.impl.transaction.log.LogPositionMarker;
@@ -45,6 +47,7 @@ public class VersionAwareLogEntryReader<SOURCE extends ReadableClosablePositionA
 {
     private final CommandReaderFactory commandReaderFactory;
     private final InvalidLogEntryHandler invalidLogEntryHandler;
+    private final boolean zeroFilledTailEndsLog;
 
     public VersionAwareLogEntryReader()
     {
@@ -53,9 +56,31 @@ public class VersionAwareLogEntryReader<SOURCE extends ReadableClosablePositionA
 
     public VersionAwareLogEntryReader( CommandReaderFactory commandReaderFactory,
             InvalidLogEntryHandler invalidLogEntryHandler )
+    {
+        this( commandReaderFactory, invalidLogEntryHandler, false );
+    }
+
+    /**
+     * @param zeroFilledTailEndsLog whether or not a zero entry version marks the end of the log, which is the case for the
+     * zero-filled tail of preallocated log files. Otherwise it's an invalid entry, like any other unknown version.
+     */
+    public VersionAwareLogEntryReader( CommandReaderFactory commandReaderFactory,
+            InvalidLogEntryHandler invalidLogEntryHandler, boolean zeroFilledTailEndsLog )
     {
         this.commandReaderFactory = commandReaderFactory;
         this.invalidLogEntryHandler = invalidLogEntryHandler;
+        this.zeroFilledTailEndsLog = zeroFilledTailEndsLog;
+    }
+
+    /**
+     * @param config configuration of the database whose transaction logs are read.
+     * @return a reader of the transaction logs of a database with the given configuration, where a zero entry version ends the log
+     * if the database preallocates its log files, see {@link GraphDatabaseSettings#tx_log_preallocate}.
+     */
+    public static <SOURCE extends ReadableClosablePositionAwareChannel> VersionAwareLogEntryReader<SOURCE> forConfig( Config config )
+    {
+        return new VersionAwareLogEntryReader<>( new RecordStorageCommandReaderFactory(), InvalidLogEntryHandler.STRICT,
+                config.get( GraphDatabaseSettings.tx_log_preallocate ) );
     }
 
     @Override
@@ -70,6 +95,11 @@ public class VersionAwareLogEntryReader<SOURCE extends ReadableClosablePositionA
                 channel.getCurrentPosition( positionMarker );
 
                 byte versionCode = channel.get();
+                if ( versionCode == 0 && zeroFilledTailEndsLog )
+                {
+                    // Zero is not a valid version, but the start of the zero-filled tail of a preallocated log file
+                    return null;
+                }
                 byte typeCode = channel.get();
 
                 LogEntryVersion version = null;
@@ -59,6 +59,11 @@ public interface LogFiles extends Lifecycle
 
     boolean hasAnyEntries( long version );
 
+    /**
+     * @return whether or not log files are preallocated, in which case a log file may end with a zero-filled tail that isn't written to yet.
+     */
+    boolean isPreallocated();
+
     void accept( LogVersionVisitor visitor );
 
     void accept( LogHeaderVisitor visitor ) throws IOException;
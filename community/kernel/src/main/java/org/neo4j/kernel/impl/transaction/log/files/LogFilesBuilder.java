@@ -38,10 +38,13 @@ import org.neo4j.kernel.impl.transaction.log.TransactionIdStore;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryReader;
 import org.neo4j.kernel.impl.transaction.log.entry.VersionAwareLogEntryReader;
 import org.neo4j.kernel.impl.util.Dependencies;
+import org.neo4j.scheduler.JobScheduler;
 
 import static java.util.Objects.requireNonNull;
 import static org.neo4j.graphdb.factory.GraphDatabaseSettings.database_path;
 import static org.neo4j.graphdb.factory.GraphDatabaseSettings.logical_log_rotation_threshold;
+import static org.neo4j.graphdb.factory.GraphDatabaseSettings.tx_log_memory_mapped_reads;
+import static org.neo4j.graphdb.factory.GraphDatabaseSettings.tx_log_preallocate;
 
 /**
  * Transactional log files facade class builder.
@@ -72,6 +75,7 @@ public class LogFilesBuilder
     private LongSupplier lastCommittedTransactionIdSupplier;
     private String logFileName = TransactionLogFiles.DEFAULT_NAME;
     private boolean fileBasedOperationsOnly;
+    private JobScheduler jobScheduler;
 
     private LogFilesBuilder()
     {
@@ -171,6 +175,12 @@ public class LogFilesBuilder
         return this;
     }
 
+    public LogFilesBuilder withJobScheduler( JobScheduler jobScheduler )
+    {
+        this.jobScheduler = jobScheduler;
+        return this;
+    }
+
     public LogFilesBuilder withDependencies( Dependencies dependencies )
     {
         this.dependencies = dependencies;
@@ -224,7 +234,7 @@ public class LogFilesBuilder
     {
         if ( logEntryReader == null )
         {
-            logEntryReader = new VersionAwareLogEntryReader();
+            logEntryReader = config == null ? new VersionAwareLogEntryReader() : VersionAwareLogEntryReader.forConfig( config );
         }
         if ( logFileCreationMonitor == null )
         {
@@ -239,7 +249,40 @@ public class LogFilesBuilder
         AtomicLong rotationThreshold = getRotationThresholdAndRegisterForUpdates();
 
         return new TransactionLogFilesContext( rotationThreshold, logEntryReader,
-                lastCommittedIdSupplier, committingTransactionIdSupplier, logFileCreationMonitor, logVersionRepositorySupplier, fileSystem );
+                lastCommittedIdSupplier, committingTransactionIdSupplier, logFileCreationMonitor, logVersionRepositorySupplier, fileSystem,
+                memoryMappedReads(), preallocate(), preallocated(), getJobSchedulerSupplier() );
+    }
+
+    private boolean memoryMappedReads()
+    {
+        return config != null && config.get( tx_log_memory_mapped_reads );
+    }
+
+    private boolean preallocate()
+    {
+        return !readOnly && preallocated();
+    }
+
+    /**
+     * Log files may have been preallocated by the database, even if they're only read through these log files.
+     */
+    private boolean preallocated()
+    {
+        return config != null && config.get( tx_log_preallocate );
+    }
+
+    private Supplier<JobScheduler> getJobSchedulerSupplier()
+    {
+        if ( jobScheduler != null )
+        {
+            return () -> jobScheduler;
+        }
+        if ( preallocate() )
+        {
+            requireNonNull( dependencies, JobScheduler.class.getSimpleName() + " is required to preallocate log files. " +
+                    "Please provide an instance or a dependencies where it can be found." );
+        }
+        return getSupplier( JobScheduler.class );
     }
 
     private AtomicLong getRotationThresholdAndRegisterForUpdates()
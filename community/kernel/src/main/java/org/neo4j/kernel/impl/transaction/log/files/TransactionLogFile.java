@@ -19,8 +19,10 @@
  */
 package org.neo4j.kernel.impl.transaction.log.files;
 
+import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.neo4j.io.fs.FileSystemAbstraction;
@@ -33,10 +35,15 @@ import org.neo4j.kernel.impl.transaction.log.LogVersionedStoreChannel;
 import org.neo4j.kernel.impl.transaction.log.PhysicalLogVersionedStoreChannel;
 import org.neo4j.kernel.impl.transaction.log.PositionAwarePhysicalFlushableChannel;
 import org.neo4j.kernel.impl.transaction.log.ReadAheadLogChannel;
+import org.neo4j.kernel.impl.transaction.log.ReadableClosablePositionAwareChannel;
 import org.neo4j.kernel.impl.transaction.log.ReadableLogChannel;
 import org.neo4j.kernel.impl.transaction.log.ReaderLogVersionBridge;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryReader;
 import org.neo4j.kernel.lifecycle.LifecycleAdapter;
 
+import static org.neo4j.kernel.impl.transaction.log.ReadAheadChannel.DEFAULT_READ_AHEAD_SIZE;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogHeader.LOG_HEADER_SIZE;
+
 /**
  * {@link LogFile} backed by one or more files in a {@link FileSystemAbstraction}.
  */
@@ -46,6 +53,7 @@ class TransactionLogFile extends LifecycleAdapter implements LogFile
     private final TransactionLogFiles logFiles;
     private final TransactionLogFilesContext context;
     private final LogVersionBridge readerLogVersionBridge;
+    private final TransactionLogFilePreallocator preallocator;
     private PositionAwarePhysicalFlushableChannel writer;
     private LogVersionRepository logVersionRepository;
 
@@ -57,6 +65,10 @@ class TransactionLogFile extends LifecycleAdapter implements LogFile
         this.context = context;
         this.logFiles = logFiles;
         this.readerLogVersionBridge = new ReaderLogVersionBridge( logFiles );
+        this.preallocator = context.isPreallocate()
+                            ? new TransactionLogFilePreallocator( context.getFileSystem(), logFiles.getPreallocatedLogFile(), rotateAtSize,
+                                    context.getJobScheduler() )
+                            : null;
     }
 
     @Override
@@ -76,9 +88,50 @@ class TransactionLogFile extends LifecycleAdapter implements LogFile
         // Just read header and move to the end
         long lastLogVersionUsed = logVersionRepository.getCurrentLogVersion();
         channel = logFiles.createLogChannelForVersion( lastLogVersionUsed, OpenMode.READ_WRITE, context::getLastCommittedTransactionId );
-        // Move to the end
-        channel.position( channel.size() );
+        // Move to the end, which for a preallocated log file is where its zero-filled tail starts
+        long endPosition = channel.size();
+        if ( preallocator != null && endsWithZero( channel ) )
+        {
+            endPosition = endOfLogEntries( lastLogVersionUsed );
+            channel.truncate( endPosition );
+        }
+        channel.position( endPosition );
         writer = new PositionAwarePhysicalFlushableChannel( channel );
+        if ( preallocator != null )
+        {
+            preallocator.start();
+        }
+    }
+
+    private static boolean endsWithZero( PhysicalLogVersionedStoreChannel channel ) throws IOException
+    {
+        long size = channel.size();
+        if ( size <= LOG_HEADER_SIZE )
+        {
+            return false;
+        }
+        ByteBuffer lastByte = ByteBuffer.allocate( 1 );
+        channel.position( size - 1 );
+        channel.read( lastByte );
+        return lastByte.get( 0 ) == 0;
+    }
+
+    /**
+     * A log file may end with a zero-filled tail, either from having been preallocated or from a crash, which
+     * log entry readers see as the end of the log. Find where that is by reading through the entries.
+     */
+    private long endOfLogEntries( long version ) throws IOException
+    {
+        LogEntryReader<ReadableClosablePositionAwareChannel> logEntryReader = context.getLogEntryReader();
+        try ( ReadAheadLogChannel reader = new ReadAheadLogChannel( logFiles.openForVersion( version ) ) )
+        {
+            long endPosition = reader.position();
+            while ( logEntryReader.readLogEntry( reader ) != null )
+            {
+                endPosition = reader.position();
+            }
+            return endPosition;
+        }
     }
 
     // In order to be able to write into a logfile after life.stop during shutdown sequence
@@ -87,6 +140,16 @@ class TransactionLogFile extends LifecycleAdapter implements LogFile
     @Override
     public void shutdown() throws IOException
     {
+        if ( preallocator != null )
+        {
+            preallocator.close();
+            if ( writer != null && channel.isOpen() )
+            {
+                // Leave no zero-filled tail behind, so that the next start doesn't have to look for the end of the log
+                writer.prepareForFlush().flush();
+                channel.truncate( channel.position() );
+            }
+        }
         if ( writer != null )
         {
             writer.close();
@@ -179,6 +242,21 @@ class TransactionLogFile extends LifecycleAdapter implements LogFile
          * we can have transactions that are not yet published as committed but were already stored
          * into transaction log that was just rotated.
          */
+        if ( preallocator != null )
+        {
+            /*
+             * Cut away the unused, zero-filled, tail of the log we're rotating away, it's never going to be written to
+             * after this point. Then let the preallocated file, if ready, become the new log file. A crash in between
+             * these two steps leaves a zero-filled tail, which is where the log ends, as seen by readers and recovery.
+             */
+            currentLog.truncate( currentLog.position() );
+            File preallocated = preallocator.take();
+            if ( preallocated != null )
+            {
+                logFiles.installPreallocatedLogFile( preallocated, newLogVersion, context::committingTransactionId );
+            }
+            preallocator.preallocateNext();
+        }
         PhysicalLogVersionedStoreChannel newLog = logFiles.createLogChannelForVersion( newLogVersion,
                 OpenMode.READ_WRITE, context::committingTransactionId );
         currentLog.close();
@@ -202,9 +280,22 @@ class TransactionLogFile extends LifecycleAdapter implements LogFile
     {
         PhysicalLogVersionedStoreChannel logChannel = logFiles.openForVersion( position.getLogVersion() );
         logChannel.position( position.getByteOffset() );
+        if ( context.isMemoryMappedReads() )
+        {
+            return new ReadAheadLogChannel( logChannel, logVersionBridge, DEFAULT_READ_AHEAD_SIZE, this::isRotatedAway );
+        }
         return new ReadAheadLogChannel( logChannel, logVersionBridge );
     }
 
+    /**
+     * Synchronized with {@link #rotate()} since the log version is incremented before the last bytes are flushed
+     * into the log file being rotated away.
+     */
+    private synchronized boolean isRotatedAway( long version )
+    {
+        return logVersionRepository != null && version < logVersionRepository.getCurrentLogVersion();
+    }
+
     @Override
     public void accept( LogFileVisitor visitor, LogPosition startingFromPosition ) throws IOException
     {
@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.files;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.neo4j.io.ByteUnit;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.scheduler.Group;
+import org.neo4j.scheduler.JobHandle;
+import org.neo4j.scheduler.JobScheduler;
+
+import static java.lang.Math.min;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogHeader.LOG_HEADER_SIZE;
+
+/**
+ * Creates the file for the next transaction log version ahead of time, as a {@link Group#TRANSACTION_LOG_PREALLOCATION} job.
+ * The file is zero-filled up to the rotation threshold and forced, so that appending transactions to it later on only overwrites
+ * already allocated blocks instead of growing the file, which keeps the file system from having to update file metadata on every force.
+ * <p>
+ * Zero-filled files are safe to use as log files since a zero byte is not a valid log entry version, see
+ * {@link #isZeroFilled(StoreChannel, long)}. When log files are preallocated, readers treat it the same way as the end of the file.
+ */
+public class TransactionLogFilePreallocator implements AutoCloseable
+{
+    private static final int ZEROS_BUFFER_SIZE = (int) ByteUnit.mebiBytes( 1 );
+
+    private final FileSystemAbstraction fileSystem;
+    private final File preallocatedFile;
+    private final AtomicLong size;
+    private final JobScheduler scheduler;
+    private boolean started;
+    private JobHandle preallocation;
+    private volatile boolean preallocated;
+    private volatile boolean finished;
+    private volatile boolean closed;
+
+    TransactionLogFilePreallocator( FileSystemAbstraction fileSystem, File preallocatedFile, AtomicLong size, JobScheduler scheduler )
+    {
+        this.fileSystem = fileSystem;
+        this.preallocatedFile = preallocatedFile;
+        this.size = size;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Removes any file left behind by a previous run and starts preallocating the file for the next log version.
+     */
+    synchronized void start()
+    {
+        fileSystem.deleteFile( preallocatedFile );
+        closed = false;
+        started = true;
+        preallocateNext();
+    }
+
+    /**
+     * @return the preallocated file, if it has been fully preallocated, otherwise {@code null}. The caller is expected to move
+     * the returned file away and to then call {@link #preallocateNext()}.
+     */
+    synchronized File take()
+    {
+        if ( preallocation == null || !finished )
+        {
+            return null;
+        }
+        preallocation = null;
+        if ( preallocated )
+        {
+            return preallocatedFile;
+        }
+        // A failed preallocation is not a problem, the next log file will simply be created on demand instead
+        fileSystem.deleteFile( preallocatedFile );
+        return null;
+    }
+
+    /**
+     * Starts preallocating the file for the next log version, unless already in progress.
+     */
+    synchronized void preallocateNext()
+    {
+        if ( started && preallocation == null )
+        {
+            preallocated = false;
+            finished = false;
+            preallocation = scheduler.schedule( Group.TRANSACTION_LOG_PREALLOCATION, this::preallocate );
+        }
+    }
+
+    private void preallocate()
+    {
+        try
+        {
+            ByteBuffer zeros = ByteBuffer.allocateDirect( ZEROS_BUFFER_SIZE );
+            try ( StoreChannel channel = fileSystem.create( preallocatedFile ) )
+            {
+                long remaining = LOG_HEADER_SIZE + size.get();
+                while ( remaining > 0 )
+                {
+                    if ( closed )
+                    {
+                        return;
+                    }
+                    zeros.clear();
+                    zeros.limit( (int) min( remaining, zeros.capacity() ) );
+                    remaining -= zeros.remaining();
+                    channel.writeAll( zeros );
+                }
+                channel.force( true );
+            }
+            preallocated = true;
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+        finally
+        {
+            finished = true;
+        }
+    }
+
+    @Override
+    public synchronized void close()
+    {
+        if ( !started )
+        {
+            return;
+        }
+        started = false;
+        // Let an ongoing preallocation notice that it should stop, and wait for it so that it doesn't write to the file after it's deleted
+        closed = true;
+        if ( preallocation != null )
+        {
+            try
+            {
+                preallocation.waitTermination();
+            }
+            catch ( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+            }
+            catch ( ExecutionException e )
+            {
+                // Failing to preallocate is fine, the file is deleted below either way
+            }
+            preallocation = null;
+        }
+        fileSystem.deleteFile( preallocatedFile );
+    }
+
+    /**
+     * Checks whether or not the content of the given channel, from the given position to its end, consists of only zeros,
+     * i.e. is the unused part of a preallocated log file. The position of the channel is changed by this call.
+     *
+     * @param channel channel to check.
+     * @param position position to check from.
+     * @return {@code true} if there are only zeros from the given position to the end of the channel, otherwise {@code false}.
+     * @throws IOException on error reading from the channel.
+     */
+    public static boolean isZeroFilled( StoreChannel channel, long position ) throws IOException
+    {
+        ByteBuffer buffer = ByteBuffer.allocate( (int) ByteUnit.kibiBytes( 64 ) );
+        channel.position( position );
+        while ( true )
+        {
+            buffer.clear();
+            if ( channel.read( buffer ) == -1 )
+            {
+                return true;
+            }
+            buffer.flip();
+            while ( buffer.hasRemaining() )
+            {
+                if ( buffer.get() != 0 )
+                {
+                    return false;
+                }
+            }
+        }
+    }
+}
@@ -158,6 +158,12 @@ public class TransactionLogFiles extends LifecycleAdapter implements LogFiles
         return fileSystem.getFileSize( getLogFileForVersion( version ) ) > LOG_HEADER_SIZE;
     }
 
+    @Override
+    public boolean isPreallocated()
+    {
+        return logFilesContext.isPreallocated();
+    }
+
     @Override
     public long getHighestLogVersion()
     {
@@ -262,6 +268,36 @@ public class TransactionLogFiles extends LifecycleAdapter implements LogFiles
         return new PhysicalLogVersionedStoreChannel( storeChannel, forVersion, formatVersion );
     }
 
+    File getPreallocatedLogFile()
+    {
+        return fileHelper.getPreallocatedLogFile();
+    }
+
+    /**
+     * Turns a zero-filled, preallocated, file into the log file for the given version by writing the log header into it
+     * and moving it in place. Nothing is done if there already is a log file for that version.
+     *
+     * @return {@code true} if the preallocated file became the log file for the given version, otherwise {@code false}.
+     */
+    boolean installPreallocatedLogFile( File preallocated, long forVersion, LongSupplier lastTransactionIdSupplier )
+            throws IOException
+    {
+        File target = getLogFileForVersion( forVersion );
+        if ( fileSystem.fileExists( target ) )
+        {
+            return false;
+        }
+        long lastTxId = lastTransactionIdSupplier.getAsLong();
+        try ( StoreChannel storeChannel = fileSystem.open( preallocated, OpenMode.READ_WRITE ) )
+        {
+            writeLogHeader( storeChannel, forVersion, lastTxId );
+        }
+        fileSystem.renameFile( preallocated, target );
+        logHeaderCache.putHeader( forVersion, lastTxId );
+        monitor.created( target, forVersion, lastTxId );
+        return true;
+    }
+
     @Override
     public void accept( LogHeaderVisitor visitor ) throws IOException
     {
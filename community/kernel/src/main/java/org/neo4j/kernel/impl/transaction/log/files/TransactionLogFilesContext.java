@@ -26,6 +26,7 @@ import java.util.function.Supplier;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.kernel.impl.transaction.log.LogVersionRepository;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryReader;
+import org.neo4j.scheduler.JobScheduler;
 
 class TransactionLogFilesContext
 {
@@ -36,11 +37,16 @@ class TransactionLogFilesContext
     private final Supplier<LogVersionRepository> logVersionRepositorySupplier;
     private final LogFileCreationMonitor logFileCreationMonitor;
     private final FileSystemAbstraction fileSystem;
+    private final boolean memoryMappedReads;
+    private final boolean preallocate;
+    private final boolean preallocated;
+    private final Supplier<JobScheduler> jobSchedulerSupplier;
 
     TransactionLogFilesContext( AtomicLong rotationThreshold, LogEntryReader logEntryReader,
             LongSupplier lastCommittedTransactionIdSupplier, LongSupplier committingTransactionIdSupplier,
             LogFileCreationMonitor logFileCreationMonitor, Supplier<LogVersionRepository> logVersionRepositorySupplier,
-            FileSystemAbstraction fileSystem )
+            FileSystemAbstraction fileSystem, boolean memoryMappedReads, boolean preallocate,
+            boolean preallocated, Supplier<JobScheduler> jobSchedulerSupplier )
     {
         this.rotationThreshold = rotationThreshold;
         this.logEntryReader = logEntryReader;
@@ -49,6 +55,10 @@ class TransactionLogFilesContext
         this.logVersionRepositorySupplier = logVersionRepositorySupplier;
         this.logFileCreationMonitor = logFileCreationMonitor;
         this.fileSystem = fileSystem;
+        this.memoryMappedReads = memoryMappedReads;
+        this.preallocate = preallocate;
+        this.preallocated = preallocated;
+        this.jobSchedulerSupplier = jobSchedulerSupplier;
     }
 
     AtomicLong getRotationThreshold()
@@ -85,4 +95,24 @@ class TransactionLogFilesContext
     {
         return fileSystem;
     }
+
+    boolean isMemoryMappedReads()
+    {
+        return memoryMappedReads;
+    }
+
+    boolean isPreallocate()
+    {
+        return preallocate;
+    }
+
+    boolean isPreallocated()
+    {
+        return preallocated;
+    }
+
+    JobScheduler getJobScheduler()
+    {
+        return jobSchedulerSupplier.get();
+    }
 }
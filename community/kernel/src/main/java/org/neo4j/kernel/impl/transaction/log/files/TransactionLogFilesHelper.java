@@ -30,6 +30,7 @@ class TransactionLogFilesHelper
     private static final String REGEX_DEFAULT_NAME = "neostore\\.transaction\\.db";
     private static final String VERSION_SUFFIX = ".";
     private static final String REGEX_VERSION_SUFFIX = "\\.";
+    private static final String PREALLOCATED_SUFFIX = "-preallocated";
 
     static final FilenameFilter DEFAULT_FILENAME_FILTER = new LogicalLogFilenameFilter( REGEX_DEFAULT_NAME );
 
@@ -47,6 +48,11 @@ class TransactionLogFilesHelper
         return new File( logBaseName.getPath() + VERSION_SUFFIX + version );
     }
 
+    File getPreallocatedLogFile()
+    {
+        return new File( logBaseName.getPath() + PREALLOCATED_SUFFIX );
+    }
+
     long getLogVersion( String historyLogFilename )
     {
         int index = historyLogFilename.lastIndexOf( VERSION_SUFFIX );
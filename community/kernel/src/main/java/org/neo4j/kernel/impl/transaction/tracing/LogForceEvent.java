@@ -30,6 +30,16 @@ public interface LogForceEvent extends AutoCloseable
     {
     };
 
+    /**
+     * Describes the group of committers covered by this force.
+     *
+     * @param batchSize number of committers that will be released by this single force.
+     * @param batchWaitNanos time spent holding the force back to let more committers join the group.
+     */
+    default void setBatch( int batchSize, long batchWaitNanos )
+    {
+    }
+
     /**
      * Marks the end of the force call on the transaction log file.
      */
@@ -45,7 +45,17 @@ public class OffHeapCollectionsFactory implements CollectionsFactory
 
     public OffHeapCollectionsFactory( OffHeapBlockAllocator blockAllocator )
     {
-        this.allocator = new OffHeapMemoryAllocator( memoryTracker, blockAllocator );
+        this( blockAllocator, 0 );
+    }
+
+    /**
+     * @param maxMemory maximum number of bytes the collections created by this factory may occupy in total, or zero for no limit.
+     * Allocations beyond it fail with {@link TransactionMemoryLimitExceededException}.
+     */
+    public OffHeapCollectionsFactory( OffHeapBlockAllocator blockAllocator, long maxMemory )
+    {
+        OffHeapBlockAllocator limitedAllocator = maxMemory > 0 ? new LimitingBlockAllocator( blockAllocator, maxMemory ) : blockAllocator;
+        this.allocator = new OffHeapMemoryAllocator( memoryTracker, limitedAllocator );
     }
 
     @Override
@@ -91,4 +101,42 @@ public class OffHeapCollectionsFactory implements CollectionsFactory
             valuesContainer = null;
         }
     }
+
+    /**
+     * Checks allocations against the memory used by this factory only, as reported by the tracker it is handed.
+     * The wrapped allocator is shared with other factories and released by its owner, not by this one.
+     */
+    private static class LimitingBlockAllocator implements OffHeapBlockAllocator
+    {
+        private final OffHeapBlockAllocator impl;
+        private final long maxMemory;
+
+        LimitingBlockAllocator( OffHeapBlockAllocator impl, long maxMemory )
+        {
+            this.impl = impl;
+            this.maxMemory = maxMemory;
+        }
+
+        @Override
+        public MemoryBlock allocate( long size, MemoryAllocationTracker tracker )
+        {
+            long usedMemory = tracker.usedDirectMemory();
+            if ( usedMemory + size > maxMemory )
+            {
+                throw new TransactionMemoryLimitExceededException( size, usedMemory, maxMemory );
+            }
+            return impl.allocate( size, tracker );
+        }
+
+        @Override
+        public void free( MemoryBlock block, MemoryAllocationTracker tracker )
+        {
+            impl.free( block, tracker );
+        }
+
+        @Override
+        public void release()
+        {
+        }
+    }
 }
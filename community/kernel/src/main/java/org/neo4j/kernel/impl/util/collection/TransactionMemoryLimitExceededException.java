@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.util.collection;
+
+import org.neo4j.graphdb.TransactionFailureException;
+import org.neo4j.kernel.api.exceptions.Status;
+
+import static java.lang.String.format;
+
+/**
+ * Thrown when a transaction would need more memory for its transaction state than it is allowed to use.
+ */
+public class TransactionMemoryLimitExceededException extends TransactionFailureException implements Status.HasStatus
+{
+    public TransactionMemoryLimitExceededException( long size, long usedMemory, long maxMemory )
+    {
+        super( format( "Can't allocate %d bytes due to exceeding the memory limit of the transaction; used=%d, max=%d",
+                size, usedMemory, maxMemory ) );
+    }
+
+    @Override
+    public Status status()
+    {
+        return Status.Transaction.TransactionMemoryLimitExceeded;
+    }
+}
@@ -34,6 +34,7 @@ import org.neo4j.io.fs.OpenMode;
 import org.neo4j.io.fs.StoreChannel;
 import org.neo4j.kernel.impl.transaction.log.LogPosition;
 import org.neo4j.kernel.impl.transaction.log.files.LogFiles;
+import org.neo4j.kernel.impl.transaction.log.files.TransactionLogFilePreallocator;
 import org.neo4j.kernel.impl.transaction.log.files.TransactionLogFiles;
 
 import static java.lang.String.format;
@@ -163,7 +164,21 @@ public class CorruptedLogsTruncator
     }
 
     private boolean isRecoveredLogCorrupted( long recoveredTransactionLogVersion, long recoveredTransactionOffset )
+            throws IOException
     {
-        return logFiles.getLogFileForVersion( recoveredTransactionLogVersion ).length() > recoveredTransactionOffset;
+        File logFile = logFiles.getLogFileForVersion( recoveredTransactionLogVersion );
+        if ( logFile.length() <= recoveredTransactionOffset )
+        {
+            return false;
+        }
+        if ( !logFiles.isPreallocated() )
+        {
+            return true;
+        }
+        // The zero-filled tail of a preallocated log file is not corrupted content, it's truncated away on start
+        try ( StoreChannel channel = fs.open( logFile, OpenMode.READ ) )
+        {
+            return !TransactionLogFilePreallocator.isZeroFilled( channel, recoveredTransactionOffset );
+        }
     }
 }
@@ -21,6 +21,7 @@ package org.neo4j.kernel.recovery;
 
 import java.io.IOException;
 
+import org.neo4j.kernel.impl.api.TransactionQueue;
 import org.neo4j.kernel.impl.api.TransactionToApply;
 import org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation;
 import org.neo4j.kernel.impl.transaction.TransactionRepresentation;
@@ -31,24 +32,41 @@ import org.neo4j.kernel.impl.transaction.log.TransactionCursor;
 import org.neo4j.kernel.impl.transaction.log.TransactionIdStore;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryCommit;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryStart;
+import org.neo4j.scheduler.JobScheduler;
 import org.neo4j.storageengine.api.StorageEngine;
 import org.neo4j.storageengine.api.TransactionApplicationMode;
 
 import static org.neo4j.kernel.impl.transaction.log.Commitment.NO_COMMITMENT;
+import static org.neo4j.storageengine.api.TransactionApplicationMode.RECOVERY;
+import static org.neo4j.util.FeatureToggles.getInteger;
 
 public class DefaultRecoveryService implements RecoveryService
 {
+    /**
+     * Number of transactions read and deserialized ahead of the transaction currently being applied, by a separate job.
+     * Setting this to zero reads the log in the applying thread.
+     */
+    private static final int PREFETCHED_TRANSACTIONS = getInteger( DefaultRecoveryService.class, "prefetched_transactions", 100 );
+
+    /**
+     * Number of recovered transactions applied to the storage engine as one batch. Batching lets index and counts updates
+     * of all transactions in a batch be applied together.
+     */
+    private static final int APPLY_BATCH_SIZE = getInteger( DefaultRecoveryService.class, "apply_batch_size", 100 );
+
     private final RecoveryStartInformationProvider recoveryStartInformationProvider;
     private final StorageEngine storageEngine;
     private final TransactionIdStore transactionIdStore;
     private final LogicalTransactionStore logicalTransactionStore;
     private final LogVersionRepository logVersionRepository;
+    private final JobScheduler scheduler;
 
     public DefaultRecoveryService( StorageEngine storageEngine, LogTailScanner logTailScanner,
             TransactionIdStore transactionIdStore, LogicalTransactionStore logicalTransactionStore,
-            LogVersionRepository logVersionRepository, RecoveryStartInformationProvider.Monitor monitor )
+            LogVersionRepository logVersionRepository, RecoveryStartInformationProvider.Monitor monitor, JobScheduler scheduler )
     {
         this.storageEngine = storageEngine;
+        this.scheduler = scheduler;
         this.transactionIdStore = transactionIdStore;
         this.logicalTransactionStore = logicalTransactionStore;
         this.logVersionRepository = logVersionRepository;
@@ -75,19 +93,28 @@ public class DefaultRecoveryService implements RecoveryService
     @Override
     public RecoveryApplier getRecoveryApplier( TransactionApplicationMode mode ) throws Exception
     {
-        return new RecoveryVisitor( storageEngine, mode );
+        // Reverse recovery visits transactions newest first, so only batch when replaying them in commit order
+        int batchSize = mode == RECOVERY ? Math.max( APPLY_BATCH_SIZE, 1 ) : 1;
+        return new RecoveryVisitor( storageEngine, mode, batchSize );
     }
 
     @Override
     public TransactionCursor getTransactions( LogPosition position ) throws IOException
     {
-        return logicalTransactionStore.getTransactions( position );
+        return prefetching( logicalTransactionStore.getTransactions( position ), true );
     }
 
     @Override
     public TransactionCursor getTransactionsInReverseOrder( LogPosition position ) throws IOException
     {
-        return logicalTransactionStore.getTransactionsInReverseOrder( position );
+        return prefetching( logicalTransactionStore.getTransactionsInReverseOrder( position ), false );
+    }
+
+    private TransactionCursor prefetching( TransactionCursor cursor, boolean trackPositions )
+    {
+        return PREFETCHED_TRANSACTIONS > 0
+               ? new PrefetchingTransactionCursor( cursor, PREFETCHED_TRANSACTIONS, trackPositions, scheduler )
+               : cursor;
     }
 
     @Override
@@ -111,13 +138,25 @@ public class DefaultRecoveryService implements RecoveryService
 
     static class RecoveryVisitor implements RecoveryApplier
     {
-        private final StorageEngine storageEngine;
-        private final TransactionApplicationMode mode;
+        private final TransactionQueue queue;
+        private int pending;
+        private boolean failed;
 
-        RecoveryVisitor( StorageEngine storageEngine, TransactionApplicationMode mode )
+        RecoveryVisitor( StorageEngine storageEngine, TransactionApplicationMode mode, int batchSize )
         {
-            this.storageEngine = storageEngine;
-            this.mode = mode;
+            this.queue = new TransactionQueue( batchSize, ( first, last ) ->
+            {
+                try
+                {
+                    storageEngine.apply( first, mode );
+                }
+                catch ( Throwable t )
+                {
+                    failed = true;
+                    throw t;
+                }
+                pending = 0;
+            } );
         }
 
         @Override
@@ -128,13 +167,25 @@ public class DefaultRecoveryService implements RecoveryService
             TransactionToApply tx = new TransactionToApply( txRepresentation, txId );
             tx.commitment( NO_COMMITMENT, txId );
             tx.logPosition( transaction.getStartEntry().getStartPosition() );
-            storageEngine.apply( tx, mode );
+            pending++;
+            queue.queue( tx );
             return false;
         }
 
         @Override
-        public void close()
-        {   // nothing to close
+        public int pendingTransactions()
+        {
+            return pending;
+        }
+
+        @Override
+        public void close() throws Exception
+        {
+            // Apply whatever is left of the last batch, unless applying a batch has already failed
+            if ( !failed )
+            {
+                queue.empty();
+            }
         }
     }
 }
@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.recovery;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.log.LogPosition;
+import org.neo4j.kernel.impl.transaction.log.TransactionCursor;
+import org.neo4j.scheduler.Group;
+import org.neo4j.scheduler.JobHandle;
+import org.neo4j.scheduler.JobScheduler;
+
+/**
+ * {@link TransactionCursor} which reads and deserializes transactions from another {@link TransactionCursor} in a job of its own,
+ * keeping up to a fixed number of transactions ahead of the consumer. This lets recovery apply one transaction while
+ * the following ones are read from the log.
+ * <p>
+ * Failures from the wrapped cursor are handed over to the consumer in the order they happened, i.e. after all transactions
+ * read before the failure have been returned, so that the consumer sees the same sequence as when reading the wrapped cursor directly.
+ * The wrapped cursor is owned by this cursor and closed by {@link #close()}.
+ * <p>
+ * Not all cursors know their {@link #position()}, e.g. the ones reading transactions in reverse order. Positions are only
+ * kept track of if asked to, otherwise {@link #position()} is unsupported, just like it is for such a wrapped cursor.
+ */
+class PrefetchingTransactionCursor implements TransactionCursor
+{
+    private static final long OFFER_TIMEOUT_MILLIS = 10;
+
+    private final TransactionCursor source;
+    private final BlockingQueue<Prefetched> queue;
+    private final JobHandle reader;
+    private final boolean trackPositions;
+    private volatile boolean closed;
+
+    private CommittedTransactionRepresentation current;
+    private LogPosition position;
+    private boolean exhausted;
+
+    PrefetchingTransactionCursor( TransactionCursor source, int maxPrefetched, boolean trackPositions, JobScheduler scheduler )
+    {
+        this.source = source;
+        this.trackPositions = trackPositions;
+        this.queue = new ArrayBlockingQueue<>( maxPrefetched );
+        this.reader = scheduler.schedule( Group.RECOVERY_LOG_READER, this::readAll );
+    }
+
+    private void readAll()
+    {
+        try
+        {
+            while ( source.next() )
+            {
+                if ( !hand( new Prefetched( source.get(), sourcePosition(), null ) ) )
+                {
+                    return;
+                }
+            }
+            hand( new Prefetched( null, sourcePosition(), null ) );
+        }
+        catch ( Throwable t )
+        {
+            hand( new Prefetched( null, null, t ) );
+        }
+    }
+
+    private LogPosition sourcePosition()
+    {
+        return trackPositions ? source.position() : null;
+    }
+
+    /**
+     * @return {@code true} if handed over to the consumer, or {@code false} if this cursor got closed in the meantime.
+     */
+    private boolean hand( Prefetched prefetched )
+    {
+        try
+        {
+            while ( !closed )
+            {
+                if ( queue.offer( prefetched, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS ) )
+                {
+                    return true;
+                }
+            }
+            return false;
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @Override
+    public boolean next() throws IOException
+    {
+        current = null;
+        if ( exhausted )
+        {
+            return false;
+        }
+
+        Prefetched prefetched;
+        try
+        {
+            prefetched = queue.take();
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new IOException( "Interrupted while waiting for transactions to be read", e );
+        }
+
+        if ( prefetched.failure != null )
+        {
+            exhausted = true;
+            throwAsIs( prefetched.failure );
+        }
+        position = prefetched.position;
+        if ( prefetched.transaction == null )
+        {
+            exhausted = true;
+            return false;
+        }
+        current = prefetched.transaction;
+        return true;
+    }
+
+    private static void throwAsIs( Throwable failure ) throws IOException
+    {
+        if ( failure instanceof IOException )
+        {
+            throw (IOException) failure;
+        }
+        if ( failure instanceof RuntimeException )
+        {
+            throw (RuntimeException) failure;
+        }
+        if ( failure instanceof Error )
+        {
+            throw (Error) failure;
+        }
+        throw new IOException( failure );
+    }
+
+    @Override
+    public CommittedTransactionRepresentation get()
+    {
+        return current;
+    }
+
+    @Override
+    public LogPosition position()
+    {
+        if ( !trackPositions )
+        {
+            throw new UnsupportedOperationException( "Positions are not tracked by this cursor" );
+        }
+        return position;
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        closed = true;
+        queue.clear();
+        try
+        {
+            reader.waitTermination();
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+        }
+        catch ( ExecutionException e )
+        {
+            // readAll hands over all its failures, so there is nothing more to report here
+        }
+        finally
+        {
+            source.close();
+        }
+    }
+
+    private static class Prefetched
+    {
+        private final CommittedTransactionRepresentation transaction;
+        private final LogPosition position;
+        private final Throwable failure;
+
+        Prefetched( CommittedTransactionRepresentation transaction, LogPosition position, Throwable failure )
+        {
+            this.transaction = transaction;
+            this.position = position;
+            this.failure = failure;
+        }
+    }
+}
@@ -21,6 +21,8 @@ package org.neo4j.kernel.recovery;
 
 import java.io.IOException;
 import java.nio.channels.ClosedByInterruptException;
+import java.util.ArrayDeque;
+import java.util.Deque;
 
 import org.neo4j.graphdb.factory.GraphDatabaseSettings;
 import org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation;
@@ -46,7 +48,10 @@ public class Recovery extends LifecycleAdapter
     private final CorruptedLogsTruncator logsTruncator;
     private final ProgressReporter progressReporter;
     private final boolean failOnCorruptedLogFiles;
+    private final Deque<VisitedTransaction> notYetApplied = new ArrayDeque<>();
     private int numberOfRecoveredTransactions;
+    private CommittedTransactionRepresentation lastTransaction;
+    private LogPosition recoveryToPosition;
 
     public Recovery( RecoveryService recoveryService, CorruptedLogsTruncator logsTruncator, RecoveryMonitor monitor, ProgressReporter progressReporter,
             boolean failOnCorruptedLogFiles )
@@ -72,8 +77,7 @@ public class Recovery extends LifecycleAdapter
         monitor.recoveryRequired( recoveryPosition );
         recoveryService.startRecovery();
 
-        LogPosition recoveryToPosition = recoveryPosition;
-        CommittedTransactionRepresentation lastTransaction = null;
+        recoveryToPosition = recoveryPosition;
         CommittedTransactionRepresentation lastReversedTransaction = null;
         try
         {
@@ -97,19 +101,27 @@ public class Recovery extends LifecycleAdapter
 
             monitor.reverseStoreRecoveryCompleted( lowestRecoveredTxId );
 
-            try ( TransactionCursor transactionsToRecover = recoveryService.getTransactions( recoveryPosition );
-                    RecoveryApplier recoveryVisitor = recoveryService.getRecoveryApplier( RECOVERY ) )
+            try ( TransactionCursor transactionsToRecover = recoveryService.getTransactions( recoveryPosition ) )
             {
-                while ( transactionsToRecover.next() )
+                RecoveryApplier recoveryVisitor = recoveryService.getRecoveryApplier( RECOVERY );
+                try
                 {
-                    lastTransaction = transactionsToRecover.get();
-                    long txId = lastTransaction.getCommitEntry().getTxId();
-                    recoveryVisitor.visit( lastTransaction );
-                    monitor.transactionRecovered( txId );
-                    numberOfRecoveredTransactions++;
-                    recoveryToPosition = transactionsToRecover.position();
-                    reportProgress();
+                    while ( transactionsToRecover.next() )
+                    {
+                        CommittedTransactionRepresentation transaction = transactionsToRecover.get();
+                        notYetApplied.add( new VisitedTransaction( transaction, transactionsToRecover.position() ) );
+                        recoveryVisitor.visit( transaction );
+                        reportProgress();
+                        transactionsApplied( recoveryVisitor.pendingTransactions() );
+                    }
                 }
+                catch ( Throwable t )
+                {
+                    closeAfterFailure( recoveryVisitor, t );
+                    throw t;
+                }
+                recoveryVisitor.close();
+                transactionsApplied( 0 );
                 recoveryToPosition = transactionsToRecover.position();
             }
         }
@@ -143,6 +155,38 @@ public class Recovery extends LifecycleAdapter
         monitor.recoveryCompleted( numberOfRecoveredTransactions );
     }
 
+    /**
+     * Transactions may be applied in batches, some time after they were visited. Only transactions that have actually been applied
+     * are reported as recovered, and only their position is one that the log can be truncated to.
+     *
+     * @param pending number of the most recently visited transactions that have not been applied yet.
+     */
+    private void transactionsApplied( int pending )
+    {
+        while ( notYetApplied.size() > pending )
+        {
+            VisitedTransaction applied = notYetApplied.poll();
+            lastTransaction = applied.transaction;
+            recoveryToPosition = applied.positionAfter;
+            monitor.transactionRecovered( lastTransaction.getCommitEntry().getTxId() );
+            numberOfRecoveredTransactions++;
+        }
+    }
+
+    private void closeAfterFailure( RecoveryApplier recoveryVisitor, Throwable failure )
+    {
+        try
+        {
+            // Closing applies transactions still held back, so they are recovered as well unless that fails too
+            recoveryVisitor.close();
+            transactionsApplied( 0 );
+        }
+        catch ( Throwable closeFailure )
+        {
+            failure.addSuppressed( closeFailure );
+        }
+    }
+
     static void throwUnableToCleanRecover( Throwable t )
     {
         throw new RuntimeException(
@@ -173,4 +217,16 @@ public class Recovery extends LifecycleAdapter
         return lastReversedTransaction.getCommitEntry().getTxId() -
                 recoveryStartInformation.getFirstTxIdAfterLastCheckPoint() + 1;
     }
+
+    private static class VisitedTransaction
+    {
+        private final CommittedTransactionRepresentation transaction;
+        private final LogPosition positionAfter;
+
+        VisitedTransaction( CommittedTransactionRepresentation transaction, LogPosition positionAfter )
+        {
+            this.transaction = transaction;
+            this.positionAfter = positionAfter;
+        }
+    }
 }
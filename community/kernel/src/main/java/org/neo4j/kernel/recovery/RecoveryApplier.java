@@ -27,4 +27,14 @@ import org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation;
  */
 public interface RecoveryApplier extends Visitor<CommittedTransactionRepresentation,Exception>, AutoCloseable
 {
+    /**
+     * An applier may hold back visited transactions to apply them together with transactions visited later, as one batch.
+     * Held back transactions are applied by a later {@link #visit(Object) visit}, or by {@link #close()}.
+     *
+     * @return the number of most recently visited transactions that have not been applied yet.
+     */
+    default int pendingTransactions()
+    {
+        return 0;
+    }
 }
@@ -20,6 +20,7 @@
 package org.neo4j.kernel;
 
 import org.apache.commons.lang3.ArrayUtils;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -66,6 +67,7 @@ import org.neo4j.kernel.recovery.LogTailScanner;
 import org.neo4j.kernel.recovery.Recovery;
 import org.neo4j.kernel.recovery.RecoveryApplier;
 import org.neo4j.kernel.recovery.RecoveryMonitor;
+import org.neo4j.scheduler.ThreadPoolJobScheduler;
 import org.neo4j.storageengine.api.StorageEngine;
 import org.neo4j.storageengine.api.TransactionApplicationMode;
 import org.neo4j.test.rule.TestDirectory;
@@ -103,6 +105,7 @@ public class RecoveryTest
     private LogEntry expectedCheckPointEntry;
     private Monitors monitors = new Monitors();
     private final SimpleLogVersionRepository versionRepository = new SimpleLogVersionRepository();
+    private final ThreadPoolJobScheduler jobScheduler = new ThreadPoolJobScheduler();
     private LogFiles logFiles;
     private File storeDir;
 
@@ -116,6 +119,12 @@ public class RecoveryTest
                 .build();
     }
 
+    @After
+    public void tearDown()
+    {
+        jobScheduler.shutdown();
+    }
+
     @Test
     public void shouldRecoverExistingData() throws Exception
     {
@@ -164,7 +173,7 @@ public class RecoveryTest
                     monitors, false );
             CorruptedLogsTruncator logPruner = new CorruptedLogsTruncator( storeDir, logFiles, fileSystemRule.get() );
             life.add( new Recovery( new DefaultRecoveryService( storageEngine, tailScanner, transactionIdStore,
-                    txStore, versionRepository,  NO_MONITOR )
+                    txStore, versionRepository, NO_MONITOR, jobScheduler )
             {
                 private int nr;
 
@@ -263,7 +272,7 @@ public class RecoveryTest
                     monitors, false );
             CorruptedLogsTruncator logPruner = new CorruptedLogsTruncator( storeDir, logFiles, fileSystemRule.get() );
             life.add( new Recovery( new DefaultRecoveryService( storageEngine, tailScanner, transactionIdStore,
-                    txStore, versionRepository, NO_MONITOR )
+                    txStore, versionRepository, NO_MONITOR, jobScheduler )
             {
                 @Override
                 public void startRecovery()
@@ -417,7 +426,7 @@ public class RecoveryTest
             LogicalTransactionStore txStore = new PhysicalLogicalTransactionStore( logFiles, metadataCache, reader, monitors, false );
             CorruptedLogsTruncator logPruner = new CorruptedLogsTruncator( storeDir, logFiles, fileSystemRule.get() );
             life.add( new Recovery( new DefaultRecoveryService( storageEngine, tailScanner, transactionIdStore,
-                    txStore, versionRepository, NO_MONITOR )
+                    txStore, versionRepository, NO_MONITOR, jobScheduler )
             {
                 @Override
                 public void startRecovery()
@@ -20,6 +20,7 @@
 package org.neo4j.kernel.impl.api;
 
 import org.junit.Test;
+import org.mockito.InOrder;
 
 import java.util.Optional;
 
@@ -29,9 +30,11 @@ import org.neo4j.kernel.impl.transaction.command.Command;
 import org.neo4j.storageengine.api.TransactionApplicationMode;
 
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
 public class CountsStoreTransactionApplierTest
@@ -55,4 +58,53 @@ public class CountsStoreTransactionApplierTest
         // THEN
         verify( updater, times( 1 ) ).incrementNodeCount( StatementConstants.ANY_LABEL, 1 );
     }
+
+    @Test
+    public void shouldNotOpenCountsUpdaterUntilTransactionIsClosed() throws Exception
+    {
+        // GIVEN
+        final CountsTracker tracker = mock( CountsTracker.class );
+        final CountsAccessor.Updater updater = mock( CountsAccessor.Updater.class );
+        when( tracker.apply( anyLong() ) ).thenReturn( Optional.of( updater ) );
+        final CountsStoreBatchTransactionApplier applier = new CountsStoreBatchTransactionApplier( tracker,
+                TransactionApplicationMode.INTERNAL );
+
+        // WHEN
+        try ( TransactionApplier txApplier = applier.startTx( new TransactionToApply( null, 2L ) ) )
+        {
+            txApplier.visitNodeCountsCommand( new Command.NodeCountsCommand( 1, 2 ) );
+            txApplier.visitRelationshipCountsCommand( new Command.RelationshipCountsCommand( 1, 2, 3, 4 ) );
+
+            // THEN
+            verifyZeroInteractions( tracker );
+        }
+        InOrder inOrder = inOrder( tracker, updater );
+        inOrder.verify( tracker ).apply( 2L );
+        inOrder.verify( updater ).incrementNodeCount( 1, 2 );
+        inOrder.verify( updater ).incrementRelationshipCount( 1, 2, 3, 4 );
+        inOrder.verify( updater ).close();
+        inOrder.verifyNoMoreInteractions();
+    }
+
+    @Test
+    public void shouldApplySchemaTransactionToCountsStoreRightAway() throws Exception
+    {
+        // GIVEN
+        final CountsTracker tracker = mock( CountsTracker.class );
+        final CountsAccessor.Updater updater = mock( CountsAccessor.Updater.class );
+        when( tracker.apply( anyLong() ) ).thenReturn( Optional.of( updater ) );
+        final CountsStoreBatchTransactionApplier applier = new CountsStoreBatchTransactionApplier( tracker,
+                TransactionApplicationMode.INTERNAL );
+
+        // WHEN
+        try ( TransactionApplier txApplier = applier.startTx( new TransactionToApply( null, 2L ) ) )
+        {
+            txApplier.visitSchemaRuleCommand( mock( Command.SchemaRuleCommand.class ) );
+
+            // THEN
+            verify( tracker ).apply( 2L );
+            verify( updater ).close();
+        }
+        verify( tracker, times( 1 ) ).apply( anyLong() );
+    }
 }
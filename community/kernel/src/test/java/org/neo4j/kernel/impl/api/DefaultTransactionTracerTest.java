@@ -27,6 +27,7 @@ import java.util.concurrent.TimeUnit;
 import org.neo4j.kernel.impl.api.DefaultTransactionTracer.Monitor;
 import org.neo4j.kernel.impl.transaction.tracing.CommitEvent;
 import org.neo4j.kernel.impl.transaction.tracing.LogAppendEvent;
+import org.neo4j.kernel.impl.transaction.tracing.LogForceEvent;
 import org.neo4j.kernel.impl.transaction.tracing.LogRotateEvent;
 import org.neo4j.kernel.impl.transaction.tracing.TransactionEvent;
 import org.neo4j.test.OnDemandJobScheduler;
@@ -76,6 +77,30 @@ public class DefaultTransactionTracerTest
         verifyZeroInteractions( monitor );
     }
 
+    @Test
+    public void shouldAccumulateBatchSizeAndWaitTimeForLogForce()
+    {
+        DefaultTransactionTracer tracer = new DefaultTransactionTracer( clock, monitor, jobScheduler );
+
+        triggerForceEvent( tracer, 1, 0 );
+        triggerForceEvent( tracer, 7, TimeUnit.MICROSECONDS.toNanos( 300 ) );
+
+        assertEquals( 2, tracer.numberOfLogForceEvents() );
+        assertEquals( 8, tracer.logForceAccumulatedBatchSize() );
+        assertEquals( 300, tracer.logForceAccumulatedBatchWaitTimeMicros() );
+    }
+
+    private void triggerForceEvent( DefaultTransactionTracer tracer, int batchSize, long batchWaitNanos )
+    {
+        try ( TransactionEvent txEvent = tracer.beginTransaction();
+              CommitEvent commitEvent = txEvent.beginCommitEvent();
+              LogAppendEvent logAppendEvent = commitEvent.beginLogAppend();
+              LogForceEvent event = logAppendEvent.beginLogForce() )
+        {
+            event.setBatch( batchSize, batchWaitNanos );
+        }
+    }
+
     private void triggerEvent( DefaultTransactionTracer tracer, int eventDuration )
     {
         try ( TransactionEvent txEvent = tracer.beginTransaction() )
@@ -24,21 +24,27 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.RuleChain;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.neo4j.collection.PrimitiveLongCollections;
 import org.neo4j.helpers.collection.Iterables;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.kernel.api.labelscan.LabelScanStore;
 import org.neo4j.kernel.api.labelscan.NodeLabelUpdate;
 import org.neo4j.kernel.impl.api.scan.FullStoreChangeStream;
 import org.neo4j.kernel.monitoring.Monitors;
+import org.neo4j.storageengine.api.schema.LabelScanReader;
 import org.neo4j.test.rule.PageCacheRule;
 import org.neo4j.test.rule.TestDirectory;
 import org.neo4j.test.rule.fs.DefaultFileSystemRule;
 import org.neo4j.test.rule.fs.FileSystemRule;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
@@ -160,6 +166,59 @@ public class NativeLabelScanStoreRebuildTest
         }
     }
 
+    @Test
+    public void shouldBulkLoadNodesWithManyLabelsSpanningManyRangesWhenRebuilding() throws Exception
+    {
+        // given
+        PageCache pageCache = pageCacheRule.getPageCache( fileSystemRule.get() );
+        int labelCount = 5;
+        int nodeCount = 20_000;
+        List<NodeLabelUpdate> existingData = new ArrayList<>();
+        List<List<Long>> expectedNodes = new ArrayList<>();
+        for ( int labelId = 0; labelId < labelCount; labelId++ )
+        {
+            expectedNodes.add( new ArrayList<>() );
+        }
+        for ( long nodeId = 0; nodeId < nodeCount; nodeId++ )
+        {
+            List<Long> labels = new ArrayList<>();
+            for ( int labelId = 0; labelId < labelCount; labelId++ )
+            {
+                if ( nodeId % (labelId + 2) == 0 )
+                {
+                    labels.add( (long) labelId );
+                    expectedNodes.get( labelId ).add( nodeId );
+                }
+            }
+            existingData.add( NodeLabelUpdate.labelChanges( nodeId, new long[0], labels.stream().mapToLong( Long::longValue ).toArray() ) );
+        }
+
+        // when
+        NativeLabelScanStore nativeLabelScanStore = new NativeLabelScanStore( pageCache, testDirectory.databaseLayout(), fileSystemRule.get(),
+                asStream( existingData ), false, new Monitors(), immediate() );
+        try
+        {
+            nativeLabelScanStore.init();
+            nativeLabelScanStore.start();
+
+            // then
+            try ( LabelScanReader reader = nativeLabelScanStore.newReader() )
+            {
+                for ( int labelId = 0; labelId < labelCount; labelId++ )
+                {
+                    long[] expected = expectedNodes.get( labelId ).stream().mapToLong( Long::longValue ).toArray();
+                    assertArrayEquals( expected, PrimitiveLongCollections.asArray( reader.nodesWithLabel( labelId ) ) );
+                }
+            }
+            File[] files = fileSystemRule.get().listFiles( testDirectory.databaseDir() );
+            assertEquals( 1, Stream.of( files ).filter( file -> file.getName().startsWith( nativeLabelScanStore.getLabelScanStoreFile().getName() ) ).count() );
+        }
+        finally
+        {
+            nativeLabelScanStore.shutdown();
+        }
+    }
+
     private void createDirtyIndex( PageCache pageCache ) throws IOException
     {
         NativeLabelScanStore nativeLabelScanStore = null;
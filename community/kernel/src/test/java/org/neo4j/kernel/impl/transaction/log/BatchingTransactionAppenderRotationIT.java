@@ -137,13 +137,13 @@ public class BatchingTransactionAppenderRotationIT
         @Override
         public LogForceWaitEvent beginLogForceWait()
         {
-            return null;
+            return LogForceWaitEvent.NULL;
         }
 
         @Override
         public LogForceEvent beginLogForce()
         {
-            return null;
+            return LogForceEvent.NULL;
         }
 
         @Override
@@ -28,6 +28,13 @@ import java.io.Flushable;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.neo4j.kernel.impl.api.TransactionToApply;
 import org.neo4j.kernel.impl.store.record.NodeRecord;
@@ -43,6 +50,9 @@ import org.neo4j.kernel.impl.transaction.log.files.LogFiles;
 import org.neo4j.kernel.impl.transaction.log.files.TransactionLogFiles;
 import org.neo4j.kernel.impl.transaction.tracing.LogAppendEvent;
 import org.neo4j.kernel.impl.transaction.tracing.LogCheckPointEvent;
+import org.neo4j.kernel.impl.transaction.tracing.LogForceEvent;
+import org.neo4j.kernel.impl.transaction.tracing.LogForceWaitEvent;
+import org.neo4j.kernel.impl.transaction.tracing.SerializeTransactionEvent;
 import org.neo4j.kernel.internal.DatabaseHealth;
 import org.neo4j.kernel.lifecycle.LifeRule;
 import org.neo4j.storageengine.api.StorageCommand;
@@ -125,6 +135,100 @@ public class BatchingTransactionAppenderTest
         }
     }
 
+    @Test
+    public void shouldNotHoldBackForceOfLoneCommitter() throws Exception
+    {
+        // GIVEN
+        when( logFile.getWriter() ).thenReturn( channel );
+        when( transactionIdStore.nextCommittingTransactionId() ).thenReturn( 1L, 2L );
+        TransactionAppender appender = life.add( createTransactionAppender() );
+        LogForceEvent logForceEvent = mock( LogForceEvent.class );
+        LogAppendEvent appendEvent = mock( LogAppendEvent.class );
+        when( appendEvent.beginSerializeTransaction() ).thenReturn( SerializeTransactionEvent.NULL );
+        when( appendEvent.beginLogForceWait() ).thenReturn( LogForceWaitEvent.NULL );
+        when( appendEvent.beginLogForce() ).thenReturn( logForceEvent );
+
+        // WHEN
+        appender.append( new TransactionToApply( transaction( singleCreateNodeCommand( 0 ),
+                new byte[0], 0, 0, 0, 1, 0 ) ), appendEvent );
+        appender.append( new TransactionToApply( transaction( singleCreateNodeCommand( 1 ),
+                new byte[0], 0, 0, 0, 1, 0 ) ), appendEvent );
+
+        // THEN
+        verify( logForceEvent, times( 2 ) ).setBatch( 1, 0 );
+    }
+
+    @Test
+    public void shouldForceOnceForAllCommittersQueuedUpDuringPreviousForce() throws Exception
+    {
+        // GIVEN
+        int queuedCommitters = 5;
+        CountDownLatch firstForceStarted = new CountDownLatch( 1 );
+        CountDownLatch allCommittersQueued = new CountDownLatch( queuedCommitters + 1 );
+        CountDownLatch releaseFirstForce = new CountDownLatch( 1 );
+        AtomicInteger forces = new AtomicInteger();
+        InMemoryVersionableReadableClosablePositionAwareChannel channel = new InMemoryVersionableReadableClosablePositionAwareChannel()
+        {
+            @Override
+            public Flushable prepareForFlush()
+            {
+                return () ->
+                {
+                    if ( forces.getAndIncrement() == 0 )
+                    {
+                        firstForceStarted.countDown();
+                        awaitLatch( releaseFirstForce );
+                    }
+                };
+            }
+        };
+        when( logFile.getWriter() ).thenReturn( channel );
+        AtomicLong txIds = new AtomicLong();
+        when( transactionIdStore.nextCommittingTransactionId() ).thenAnswer( invocation -> txIds.incrementAndGet() );
+        TransactionAppender appender = life.add( createTransactionAppender() );
+        LogForceEvent logForceEvent = mock( LogForceEvent.class );
+        LogAppendEvent appendEvent = mock( LogAppendEvent.class );
+        when( appendEvent.beginSerializeTransaction() ).thenReturn( SerializeTransactionEvent.NULL );
+        when( appendEvent.beginLogForceWait() ).thenAnswer( invocation ->
+        {
+            allCommittersQueued.countDown();
+            return LogForceWaitEvent.NULL;
+        } );
+        when( appendEvent.beginLogForce() ).thenReturn( logForceEvent );
+
+        ExecutorService executor = Executors.newFixedThreadPool( queuedCommitters + 1 );
+        try
+        {
+            // WHEN
+            List<Future<Long>> commits = new ArrayList<>();
+            commits.add( executor.submit( () -> appender.append( new TransactionToApply( transaction( singleCreateNodeCommand( 0 ),
+                    new byte[0], 0, 0, 0, 1, 0 ) ), appendEvent ) ) );
+            firstForceStarted.await();
+            for ( int i = 1; i <= queuedCommitters; i++ )
+            {
+                long nodeId = i;
+                commits.add( executor.submit( () -> appender.append( new TransactionToApply( transaction( singleCreateNodeCommand( nodeId ),
+                        new byte[0], 0, 0, 0, 1, 0 ) ), appendEvent ) ) );
+            }
+            allCommittersQueued.await();
+            releaseFirstForce.countDown();
+            for ( Future<Long> commit : commits )
+            {
+                commit.get();
+            }
+        }
+        finally
+        {
+            releaseFirstForce.countDown();
+            executor.shutdown();
+        }
+
+        // THEN
+        assertEquals( 2, forces.get() );
+        verify( logForceEvent ).setBatch( 1, 0 );
+        verify( logForceEvent ).setBatch( queuedCommitters, 0 );
+    }
+
     @Test
     public void shouldAppendBatchOfTransactions() throws Exception
     {
@@ -387,6 +491,18 @@ public class BatchingTransactionAppenderTest
         return new BatchingTransactionAppender( logFiles, NO_ROTATION, positionCache, transactionIdStore, BYPASS, databaseHealth );
     }
 
+    private static void awaitLatch( CountDownLatch latch )
+    {
+        try
+        {
+            latch.await();
+        }
+        catch ( InterruptedException e )
+        {
+            throw new RuntimeException( e );
+        }
+    }
+
     private TransactionRepresentation transaction( Collection<StorageCommand> commands, byte[] additionalHeader,
             int masterId, int authorId, long timeStarted, long latestCommittedTxWhenStarted, long timeCommitted )
     {
@@ -213,6 +213,64 @@ public class ReadAheadChannelTest
         assertEquals( fileSize, bufferedReader.position() );
     }
 
+    @Test
+    public void shouldReadValuesSpanningMappedAndUnmappedChannels() throws Exception
+    {
+        // given
+        EphemeralFileSystemAbstraction fsa = fileSystemRule.get();
+        ByteBuffer content = ByteBuffer.allocate( 100 );
+        for ( long value = 0; value < content.capacity() / Long.BYTES; value++ )
+        {
+            content.putLong( value );
+        }
+        byte[] bytes = content.array();
+        int splitAt = 3 * Long.BYTES + 3;
+        writeFile( fsa, new File( "foo.1" ), bytes, 0, splitAt );
+        writeFile( fsa, new File( "foo.2" ), bytes, splitAt, bytes.length - splitAt );
+        StoreChannel first = fsa.open( new File( "foo.1" ), OpenMode.READ );
+        StoreChannel second = fsa.open( new File( "foo.2" ), OpenMode.READ );
+
+        ReadAheadChannel<StoreChannel> channel = new ReadAheadChannel<StoreChannel>( first, 16 )
+        {
+            @Override
+            protected StoreChannel next( StoreChannel channel )
+            {
+                return second;
+            }
+
+            @Override
+            protected ByteBuffer map( StoreChannel channel ) throws IOException
+            {
+                if ( channel != first )
+                {
+                    return null;
+                }
+                // mimic memory mapping by handing out the remaining content of the channel in one buffer
+                ByteBuffer mapped = ByteBuffer.allocate( (int) (channel.size() - channel.position()) );
+                channel.read( mapped );
+                mapped.flip();
+                return mapped;
+            }
+        };
+
+        // when/then
+        for ( long value = 0; value < content.capacity() / Long.BYTES; value++ )
+        {
+            long expectedPosition = value * Long.BYTES - (channel.channel == second ? splitAt : 0);
+            assertEquals( expectedPosition, channel.position() );
+            assertEquals( value, channel.getLong() );
+        }
+        assertEquals( bytes[bytes.length - 4], channel.get() );
+    }
+
+    private void writeFile( EphemeralFileSystemAbstraction fsa, File name, byte[] bytes, int offset, int length ) throws IOException
+    {
+        try ( StoreChannel storeChannel = fsa.open( name, OpenMode.READ_WRITE ) )
+        {
+            storeChannel.writeAll( ByteBuffer.wrap( bytes, offset, length ) );
+        }
+    }
+
     private void createFile( EphemeralFileSystemAbstraction fsa, File name, int bufferSize ) throws IOException
     {
         StoreChannel storeChannel = fsa.open( name, OpenMode.READ_WRITE );
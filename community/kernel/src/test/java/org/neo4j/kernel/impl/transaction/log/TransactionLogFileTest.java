@@ -19,6 +19,7 @@
  */
 package org.neo4j.kernel.impl.transaction.log;
 
+import org.junit.After;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.RuleChain;
@@ -28,22 +29,29 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import org.neo4j.graphdb.factory.GraphDatabaseSettings;
+import org.neo4j.io.ByteUnit;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.fs.OpenMode;
 import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.kernel.configuration.Config;
 import org.neo4j.kernel.impl.transaction.SimpleLogVersionRepository;
 import org.neo4j.kernel.impl.transaction.SimpleTransactionIdStore;
 import org.neo4j.kernel.impl.transaction.log.entry.IncompleteLogHeaderException;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryWriter;
 import org.neo4j.kernel.impl.transaction.log.entry.LogHeader;
 import org.neo4j.kernel.impl.transaction.log.files.LogFile;
 import org.neo4j.kernel.impl.transaction.log.files.LogFiles;
 import org.neo4j.kernel.impl.transaction.log.files.LogFilesBuilder;
 import org.neo4j.kernel.lifecycle.LifeRule;
+import org.neo4j.kernel.lifecycle.LifeSupport;
+import org.neo4j.scheduler.ThreadPoolJobScheduler;
 import org.neo4j.test.rule.TestDirectory;
 import org.neo4j.test.rule.fs.DefaultFileSystemRule;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
@@ -67,6 +75,13 @@ public class TransactionLogFileTest
     private final LogVersionRepository logVersionRepository = new SimpleLogVersionRepository( 1L );
     private final TransactionIdStore transactionIdStore =
             new SimpleTransactionIdStore( 2L, 0, BASE_TX_COMMIT_TIMESTAMP, 0, 0 );
+    private final ThreadPoolJobScheduler jobScheduler = new ThreadPoolJobScheduler();
+
+    @After
+    public void tearDown()
+    {
+        jobScheduler.shutdown();
+    }
 
     @Test
     public void skipLogFileWithoutHeader() throws IOException
@@ -187,6 +202,83 @@ public class TransactionLogFileTest
         }
     }
 
+    @Test
+    public void shouldReadRotatedLogsThroughMemoryMappingAndContinueIntoCurrentLog() throws Exception
+    {
+        // GIVEN
+        FileSystemAbstraction fs = fileSystemRule.get();
+        LogFiles logFiles = LogFilesBuilder.builder( directory.databaseLayout(), fs )
+                .withTransactionIdStore( transactionIdStore )
+                .withLogVersionRepository( logVersionRepository )
+                .withConfig( Config.defaults( GraphDatabaseSettings.tx_log_memory_mapped_reads, "true" ) ).build();
+        life.start();
+        life.add( logFiles );
+
+        LogFile logFile = logFiles.getLogFile();
+        FlushablePositionAwareChannel writer = logFile.getWriter();
+        LogPositionMarker positionMarker = new LogPositionMarker();
+        writer.getCurrentPosition( positionMarker );
+        LogPosition position = positionMarker.newPosition();
+        byte[] someBytes = someBytes( 5_000 );
+        writer.putInt( 45 );
+        writer.put( someBytes, someBytes.length );
+        writer.putLong( 4854587 );
+        logFile.rotate();
+        writer.putLong( 123456789L );
+        writer.put( someBytes, someBytes.length );
+        writer.prepareForFlush().flush();
+
+        // WHEN/THEN
+        try ( ReadableLogChannel reader = logFile.getReader( position ) )
+        {
+            assertEquals( 45, reader.getInt() );
+            assertArrayEquals( someBytes, readBytes( reader, someBytes.length ) );
+            assertEquals( 4854587, reader.getLong() );
+            assertEquals( position.getLogVersion(), reader.getVersion() );
+            assertEquals( 123456789L, reader.getLong() );
+            assertEquals( position.getLogVersion() + 1, reader.getVersion() );
+            assertArrayEquals( someBytes, readBytes( reader, someBytes.length ) );
+        }
+    }
+
+    @Test
+    public void shouldDeleteRotatedLogRightAfterReadingItThroughMemoryMapping() throws Exception
+    {
+        // GIVEN
+        FileSystemAbstraction fs = fileSystemRule.get();
+        LogFiles logFiles = LogFilesBuilder.builder( directory.databaseLayout(), fs )
+                .withTransactionIdStore( transactionIdStore )
+                .withLogVersionRepository( logVersionRepository )
+                .withConfig( Config.defaults( GraphDatabaseSettings.tx_log_memory_mapped_reads, "true" ) ).build();
+        life.start();
+        life.add( logFiles );
+
+        LogFile logFile = logFiles.getLogFile();
+        FlushablePositionAwareChannel writer = logFile.getWriter();
+        LogPositionMarker positionMarker = new LogPositionMarker();
+        writer.getCurrentPosition( positionMarker );
+        LogPosition position = positionMarker.newPosition();
+        byte[] someBytes = someBytes( 5_000 );
+        writer.put( someBytes, someBytes.length );
+        logFile.rotate();
+        writer.putLong( 123456789L );
+        writer.put( someBytes, someBytes.length );
+        writer.prepareForFlush().flush();
+        File rotatedLog = logFiles.getLogFileForVersion( position.getLogVersion() );
+
+        // WHEN
+        try ( ReadableLogChannel reader = logFile.getReader( position ) )
+        {
+            assertArrayEquals( someBytes, readBytes( reader, someBytes.length ) );
+            assertEquals( 123456789L, reader.getLong() );
+
+            // THEN the mapping of the rotated log is gone and it can be deleted while the current log is still read
+            assertTrue( fs.deleteFile( rotatedLog ) );
+            assertFalse( fs.fileExists( rotatedLog ) );
+            assertArrayEquals( someBytes, readBytes( reader, someBytes.length ) );
+        }
+    }
+
     @Test
     public void shouldVisitLogFile() throws Exception
     {
@@ -282,6 +374,124 @@ public class TransactionLogFileTest
         }
     }
 
+    @Test
+    public void shouldTruncateZeroFilledTailsOfPreallocatedLogFiles() throws Exception
+    {
+        // GIVEN
+        FileSystemAbstraction fs = fileSystemRule.get();
+        LogFiles logFiles = LogFilesBuilder.builder( directory.databaseLayout(), fs )
+                .withTransactionIdStore( transactionIdStore )
+                .withLogVersionRepository( logVersionRepository )
+                .withRotationThreshold( ByteUnit.kibiBytes( 128 ) )
+                .withJobScheduler( jobScheduler )
+                .withConfig( Config.defaults( GraphDatabaseSettings.tx_log_preallocate, "true" ) ).build();
+        life.add( logFiles );
+
+        // WHEN
+        LogFile logFile = logFiles.getLogFile();
+        LogPosition endOfFirstLog = writeCheckPoint( logFile );
+        logFile.rotate();
+        LogPosition endOfSecondLog = writeCheckPoint( logFile );
+        life.shutdown();
+
+        // THEN
+        assertEquals( endOfFirstLog.getByteOffset(), fs.getFileSize( logFiles.getLogFileForVersion( endOfFirstLog.getLogVersion() ) ) );
+        assertEquals( endOfSecondLog.getByteOffset(), fs.getFileSize( logFiles.getLogFileForVersion( endOfSecondLog.getLogVersion() ) ) );
+        for ( File file : fs.listFiles( logFiles.logFilesDirectory() ) )
+        {
+            assertFalse( file.getName(), file.getName().endsWith( "-preallocated" ) );
+        }
+    }
+
+    @Test
+    public void shouldContinueWritingWhereZeroFilledTailStarts() throws Exception
+    {
+        // GIVEN
+        FileSystemAbstraction fs = fileSystemRule.get();
+        LogFiles logFiles = LogFilesBuilder.builder( directory.databaseLayout(), fs )
+                .withTransactionIdStore( transactionIdStore )
+                .withLogVersionRepository( logVersionRepository ).build();
+        life.add( logFiles );
+        LogPosition endOfLog = writeCheckPoint( logFiles.getLogFile() );
+        life.shutdown();
+        File file = logFiles.getLogFileForVersion( endOfLog.getLogVersion() );
+        try ( StoreChannel channel = fs.open( file, OpenMode.READ_WRITE ) )
+        {
+            channel.writeAll( ByteBuffer.allocate( 1_000 ), channel.size() );
+        }
+
+        // WHEN
+        LifeSupport restartedLife = new LifeSupport();
+        LogFiles restartedLogFiles = LogFilesBuilder.builder( directory.databaseLayout(), fs )
+                .withTransactionIdStore( transactionIdStore )
+                .withLogVersionRepository( logVersionRepository )
+                .withJobScheduler( jobScheduler )
+                .withConfig( Config.defaults( GraphDatabaseSettings.tx_log_preallocate, "true" ) ).build();
+        restartedLife.add( restartedLogFiles );
+        restartedLife.start();
+        try
+        {
+            // THEN
+            LogPositionMarker positionMarker = new LogPositionMarker();
+            restartedLogFiles.getLogFile().getWriter().getCurrentPosition( positionMarker );
+            assertEquals( endOfLog, positionMarker.newPosition() );
+            assertEquals( endOfLog.getByteOffset(), fs.getFileSize( file ) );
+        }
+        finally
+        {
+            restartedLife.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldNotLookForZeroFilledTailUnlessPreallocating() throws Exception
+    {
+        // GIVEN
+        FileSystemAbstraction fs = fileSystemRule.get();
+        LogFiles logFiles = LogFilesBuilder.builder( directory.databaseLayout(), fs )
+                .withTransactionIdStore( transactionIdStore )
+                .withLogVersionRepository( logVersionRepository ).build();
+        life.add( logFiles );
+        LogPosition endOfLog = writeCheckPoint( logFiles.getLogFile() );
+        life.shutdown();
+        File file = logFiles.getLogFileForVersion( endOfLog.getLogVersion() );
+        try ( StoreChannel channel = fs.open( file, OpenMode.READ_WRITE ) )
+        {
+            channel.writeAll( ByteBuffer.allocate( 1_000 ), channel.size() );
+        }
+        long sizeWithZeros = fs.getFileSize( file );
+
+        // WHEN
+        LifeSupport restartedLife = new LifeSupport();
+        LogFiles restartedLogFiles = LogFilesBuilder.builder( directory.databaseLayout(), fs )
+                .withTransactionIdStore( transactionIdStore )
+                .withLogVersionRepository( logVersionRepository ).build();
+        restartedLife.add( restartedLogFiles );
+        restartedLife.start();
+        try
+        {
+            // THEN
+            LogPositionMarker positionMarker = new LogPositionMarker();
+            restartedLogFiles.getLogFile().getWriter().getCurrentPosition( positionMarker );
+            assertEquals( sizeWithZeros, positionMarker.newPosition().getByteOffset() );
+            assertEquals( sizeWithZeros, fs.getFileSize( file ) );
+        }
+        finally
+        {
+            restartedLife.shutdown();
+        }
+    }
+
+    private static LogPosition writeCheckPoint( LogFile logFile ) throws IOException
+    {
+        FlushablePositionAwareChannel writer = logFile.getWriter();
+        new LogEntryWriter( writer ).writeCheckPointEntry( new LogPosition( 1, LogHeader.LOG_HEADER_SIZE ) );
+        writer.prepareForFlush().flush();
+        LogPositionMarker positionMarker = new LogPositionMarker();
+        writer.getCurrentPosition( positionMarker );
+        return positionMarker.newPosition();
+    }
+
     private static byte[] readBytes( ReadableClosableChannel reader, int length ) throws IOException
     {
         byte[] result = new byte[length];
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.checkpoint;
+
+import org.junit.Test;
+
+import java.io.Flushable;
+import java.time.Duration;
+
+import org.neo4j.graphdb.Resource;
+import org.neo4j.io.pagecache.IOLimiter;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class CheckPointIOPacerTest
+{
+    private static final Flushable FLUSHABLE = () -> {};
+
+    @Test
+    public void shouldFlushWithWrappedLimiterIfNoSpreadConfigured()
+    {
+        IOLimiter delegate = mock( IOLimiter.class );
+        CheckPointIOPacer pacer = new CheckPointIOPacer( delegate, Duration.ZERO );
+
+        assertSame( delegate, pacer.flushLimiter() );
+        assertSame( Resource.EMPTY, pacer.beginPacing() );
+    }
+
+    @Test
+    public void shouldPassCallsOnToWrappedLimiter()
+    {
+        IOLimiter delegate = mock( IOLimiter.class );
+        CheckPointIOPacer pacer = new CheckPointIOPacer( delegate, Duration.ofSeconds( 1 ) );
+
+        pacer.maybeLimitIO( 5, 10, FLUSHABLE );
+        pacer.disableLimit();
+        pacer.enableLimit();
+
+        verify( delegate ).maybeLimitIO( 5, 10, FLUSHABLE );
+        verify( delegate ).disableLimit();
+        verify( delegate ).enableLimit();
+    }
+
+    @Test
+    public void shouldNotPaceFirstCheckPoint()
+    {
+        CheckPointIOPacer pacer = new CheckPointIOPacer( IOLimiter.UNLIMITED, Duration.ofMinutes( 1 ) );
+
+        long startTime = System.nanoTime();
+        try ( Resource pacing = pacer.beginPacing() )
+        {
+            flush( pacer, 100 );
+            assertFalse( pacer.isLimited() );
+        }
+
+        assertTrue( System.nanoTime() - startTime < Duration.ofSeconds( 10 ).toNanos() );
+    }
+
+    @Test( timeout = 10_000 )
+    public void shouldSpreadCheckPointOverConfiguredPeriodBasedOnPreviousCheckPoint()
+    {
+        Duration spread = Duration.ofMillis( 500 );
+        CheckPointIOPacer pacer = new CheckPointIOPacer( IOLimiter.UNLIMITED, spread );
+        try ( Resource pacing = pacer.beginPacing() )
+        {
+            flush( pacer, 100 );
+        }
+
+        long startTime = System.nanoTime();
+        try ( Resource pacing = pacer.beginPacing() )
+        {
+            assertTrue( pacer.isLimited() );
+            flush( pacer, 100 );
+        }
+
+        long elapsedMillis = NANOSECONDS.toMillis( System.nanoTime() - startTime );
+        assertTrue( "Flush took " + elapsedMillis + "ms", elapsedMillis >= spread.toMillis() * 9 / 10 );
+        assertFalse( pacer.isLimited() );
+    }
+
+    @Test( timeout = 10_000 )
+    public void shouldStopPacingWhenLimitIsDisabled()
+    {
+        CheckPointIOPacer pacer = new CheckPointIOPacer( IOLimiter.UNLIMITED, Duration.ofHours( 1 ) );
+        try ( Resource pacing = pacer.beginPacing() )
+        {
+            flush( pacer, 100 );
+        }
+
+        try ( Resource pacing = pacer.beginPacing() )
+        {
+            pacer.disableLimit();
+            try
+            {
+                flush( pacer, 100 );
+            }
+            finally
+            {
+                pacer.enableLimit();
+            }
+        }
+    }
+
+    private static void flush( IOLimiter limiter, int ios )
+    {
+        long stamp = IOLimiter.INITIAL_STAMP;
+        for ( int i = 0; i < ios; i += 10 )
+        {
+            stamp = limiter.maybeLimitIO( stamp, 10, FLUSHABLE );
+        }
+    }
+}
@@ -23,6 +23,7 @@ import org.junit.Test;
 
 import java.io.Flushable;
 import java.io.IOException;
+import java.time.Duration;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -432,7 +433,7 @@ public class CheckPointerImplTest
     private CheckPointerImpl checkPointer( StoreCopyCheckPointMutex mutex )
     {
         return new CheckPointerImpl( txIdStore, threshold, storageEngine, logPruning, appender, health,
-                NullLogProvider.getInstance(), tracer, limiter, mutex );
+                NullLogProvider.getInstance(), tracer, new CheckPointIOPacer( limiter, Duration.ZERO ), mutex );
     }
 
     private CheckPointerImpl checkPointer()
@@ -35,6 +35,7 @@ import static java.lang.System.currentTimeMillis;
 import static java.util.Collections.singletonList;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
 
 public class VersionAwareLogEntryReaderTest
 {
@@ -84,6 +85,56 @@ public class VersionAwareLogEntryReaderTest
         assertEquals( commit, logEntry );
     }
 
+    @Test
+    public void shouldTreatZeroFilledTailAsEndOfLog() throws IOException
+    {
+        // given
+        LogEntryVersion version = LogEntryVersion.CURRENT;
+        final InMemoryClosableChannel channel = new InMemoryClosableChannel();
+
+        channel.put( version.byteCode() );
+        channel.put( LogEntryByteCodes.TX_COMMIT );
+        channel.putLong( 42 );
+        channel.putLong( 21 );
+        channel.put( new byte[100], 100 );
+
+        // when
+        LogEntryReader<ReadableClosablePositionAwareChannel> logEntryReader =
+                new VersionAwareLogEntryReader<>( new RecordStorageCommandReaderFactory(), InvalidLogEntryHandler.STRICT, true );
+        final LogEntry commit = logEntryReader.readLogEntry( channel );
+        final LogEntry logEntry = logEntryReader.readLogEntry( channel );
+
+        // then
+        assertEquals( new LogEntryCommit( version, 42, 21 ), commit );
+        assertNull( logEntry );
+    }
+
+    @Test
+    public void shouldNotTreatZeroFilledTailAsEndOfLogUnlessLogFilesArePreallocated() throws IOException
+    {
+        // given
+        LogEntryVersion version = LogEntryVersion.CURRENT;
+        final InMemoryClosableChannel channel = new InMemoryClosableChannel();
+
+        channel.put( version.byteCode() );
+        channel.put( LogEntryByteCodes.TX_COMMIT );
+        channel.putLong( 42 );
+        channel.putLong( 21 );
+        channel.put( new byte[100], 100 );
+        logEntryReader.readLogEntry( channel );
+
+        try
+        {
+            // when
+            logEntryReader.readLogEntry( channel );
+            fail( "Should have failed on zero log entry version" );
+        }
+        catch ( UnsupportedLogVersionException e )
+        {
+            // then good
+        }
+    }
+
     @Test
     public void shouldReadACommandLogEntry() throws IOException
     {
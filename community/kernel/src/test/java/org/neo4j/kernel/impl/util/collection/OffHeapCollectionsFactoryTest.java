@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.util.collection;
+
+import org.eclipse.collections.api.set.primitive.MutableLongSet;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import org.neo4j.kernel.api.exceptions.Status;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OffHeapCollectionsFactoryTest
+{
+    private final CachingOffHeapBlockAllocator blockAllocator = new CachingOffHeapBlockAllocator();
+
+    @AfterEach
+    void tearDown()
+    {
+        blockAllocator.release();
+    }
+
+    @Test
+    void shouldFailAllocationsBeyondMemoryLimit()
+    {
+        final OffHeapCollectionsFactory factory = new OffHeapCollectionsFactory( blockAllocator, 64 * 1024 );
+        final MutableLongSet set = factory.newLongSet();
+
+        final TransactionMemoryLimitExceededException e = assertThrows( TransactionMemoryLimitExceededException.class, () ->
+        {
+            for ( long i = 0; i < 1_000_000; i++ )
+            {
+                set.add( i );
+            }
+        } );
+
+        assertEquals( Status.Transaction.TransactionMemoryLimitExceeded, e.status() );
+        assertTrue( factory.getMemoryTracker().usedDirectMemory() <= 64 * 1024 );
+        factory.release();
+        assertEquals( 0, factory.getMemoryTracker().usedDirectMemory() );
+    }
+
+    @Test
+    void shouldLimitMemoryOfEachFactorySeparately()
+    {
+        final OffHeapCollectionsFactory first = new OffHeapCollectionsFactory( blockAllocator, 64 * 1024 );
+        final OffHeapCollectionsFactory second = new OffHeapCollectionsFactory( blockAllocator, 64 * 1024 );
+        final MutableLongSet firstSet = first.newLongSet();
+        final MutableLongSet secondSet = second.newLongSet();
+
+        for ( long i = 0; i < 1_000; i++ )
+        {
+            firstSet.add( i );
+            secondSet.add( i );
+        }
+
+        assertEquals( 1_000, firstSet.size() );
+        assertEquals( 1_000, secondSet.size() );
+        first.release();
+        second.release();
+    }
+
+    @Test
+    void shouldNotLimitMemoryWithoutLimit()
+    {
+        final OffHeapCollectionsFactory factory = new OffHeapCollectionsFactory( blockAllocator, 0 );
+        final MutableLongSet set = factory.newLongSet();
+
+        for ( long i = 0; i < 100_000; i++ )
+        {
+            set.add( i );
+        }
+
+        assertEquals( 100_000, set.size() );
+        factory.release();
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.recovery;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.log.LogPosition;
+import org.neo4j.kernel.impl.transaction.log.TransactionCursor;
+import org.neo4j.scheduler.ThreadPoolJobScheduler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+
+public class PrefetchingTransactionCursorTest
+{
+    private final ThreadPoolJobScheduler jobScheduler = new ThreadPoolJobScheduler();
+
+    @After
+    public void tearDown()
+    {
+        jobScheduler.shutdown();
+    }
+
+    @Test
+    public void shouldReturnSameTransactionsAndPositionsAsSource() throws Exception
+    {
+        // given
+        FakeCursor source = new FakeCursor( 100, null );
+
+        // when
+        try ( PrefetchingTransactionCursor cursor = new PrefetchingTransactionCursor( source, 3, true, jobScheduler ) )
+        {
+            // then
+            for ( int i = 0; i < 100; i++ )
+            {
+                assertTrue( cursor.next() );
+                assertSame( source.transactions.get( i ), cursor.get() );
+                assertEquals( source.positionAt( i + 1 ), cursor.position() );
+            }
+            assertFalse( cursor.next() );
+            assertEquals( source.positionAt( 100 ), cursor.position() );
+            assertFalse( cursor.next() );
+        }
+        assertTrue( source.closed );
+    }
+
+    @Test
+    public void shouldThrowSourceFailureAfterTransactionsReadBeforeIt() throws Exception
+    {
+        // given
+        IOException failure = new IOException( "Corrupt log" );
+        FakeCursor source = new FakeCursor( 10, failure );
+
+        // when
+        try ( PrefetchingTransactionCursor cursor = new PrefetchingTransactionCursor( source, 3, true, jobScheduler ) )
+        {
+            for ( int i = 0; i < 10; i++ )
+            {
+                assertTrue( cursor.next() );
+                assertSame( source.transactions.get( i ), cursor.get() );
+            }
+            cursor.next();
+            fail( "Should have failed" );
+        }
+        catch ( IOException e )
+        {
+            // then
+            assertSame( failure, e );
+        }
+        assertTrue( source.closed );
+    }
+
+    @Test
+    public void shouldStopReadingAndCloseSourceWhenClosedEarly() throws Exception
+    {
+        // given
+        FakeCursor source = new FakeCursor( 1_000, null );
+
+        // when
+        try ( PrefetchingTransactionCursor cursor = new PrefetchingTransactionCursor( source, 3, true, jobScheduler ) )
+        {
+            assertTrue( cursor.next() );
+        }
+
+        // then
+        assertTrue( source.closed );
+        assertTrue( source.read < 1_000 );
+    }
+
+    @Test
+    public void shouldNotAskSourceForPositionsUnlessTracked() throws Exception
+    {
+        // given
+        FakeCursor source = new FakeCursor( 10, null );
+        source.positionSupported = false;
+
+        // when
+        try ( PrefetchingTransactionCursor cursor = new PrefetchingTransactionCursor( source, 3, false, jobScheduler ) )
+        {
+            // then
+            for ( int i = 0; i < 10; i++ )
+            {
+                assertTrue( cursor.next() );
+                assertSame( source.transactions.get( i ), cursor.get() );
+            }
+            assertFalse( cursor.next() );
+        }
+    }
+
+    private static class FakeCursor implements TransactionCursor
+    {
+        private final List<CommittedTransactionRepresentation> transactions = new ArrayList<>();
+        private final IOException failure;
+        private volatile int read;
+        private volatile boolean closed;
+        private boolean positionSupported = true;
+
+        FakeCursor( int count, IOException failure )
+        {
+            for ( int i = 0; i < count; i++ )
+            {
+                transactions.add( mock( CommittedTransactionRepresentation.class ) );
+            }
+            this.failure = failure;
+        }
+
+        LogPosition positionAt( int index )
+        {
+            return new LogPosition( 0, index * 10 );
+        }
+
+        @Override
+        public boolean next() throws IOException
+        {
+            if ( read < transactions.size() )
+            {
+                read++;
+                return true;
+            }
+            if ( failure != null )
+            {
+                throw failure;
+            }
+            return false;
+        }
+
+        @Override
+        public CommittedTransactionRepresentation get()
+        {
+            return transactions.get( read - 1 );
+        }
+
+        @Override
+        public LogPosition position()
+        {
+            if ( !positionSupported )
+            {
+                throw new UnsupportedOperationException();
+            }
+            return positionAt( read );
+        }
+
+        @Override
+        public void close()
+        {
+            closed = true;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.recovery;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Answers;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.log.LogPosition;
+import org.neo4j.kernel.impl.transaction.log.TransactionCursor;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryCommit;
+import org.neo4j.kernel.impl.util.monitoring.SilentProgressReporter;
+
+import static java.util.Collections.reverse;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.neo4j.storageengine.api.TransactionApplicationMode.RECOVERY;
+
+public class RecoveryBatchApplicationTest
+{
+    private final LogPosition recoveryStartPosition = LogPosition.start( 0 );
+    private final RecoveryService recoveryService = mock( RecoveryService.class, Answers.RETURNS_MOCKS );
+    private final CorruptedLogsTruncator logsTruncator = mock( CorruptedLogsTruncator.class );
+    private final RecoveryMonitor recoveryMonitor = mock( RecoveryMonitor.class );
+    private final List<CommittedTransactionRepresentation> transactions = new ArrayList<>();
+    private final List<LogPosition> positions = new ArrayList<>();
+
+    @Before
+    public void setUp() throws Exception
+    {
+        for ( int i = 0; i < 3; i++ )
+        {
+            CommittedTransactionRepresentation transaction = mock( CommittedTransactionRepresentation.class );
+            when( transaction.getCommitEntry() ).thenReturn( new LogEntryCommit( 10 + i, 1L ) );
+            transactions.add( transaction );
+            positions.add( new LogPosition( 0, 100 * (i + 1) ) );
+        }
+        List<CommittedTransactionRepresentation> reversed = new ArrayList<>( transactions );
+        reverse( reversed );
+        when( recoveryService.getRecoveryStartInformation() ).thenReturn( new RecoveryStartInformation( recoveryStartPosition, 10 ) );
+        when( recoveryService.getTransactionsInReverseOrder( recoveryStartPosition ) ).thenReturn( new ListCursor( reversed, null, null ) );
+    }
+
+    @Test
+    public void shouldNotRecoverTransactionsWhoseBatchFailedToApply() throws Exception
+    {
+        // given
+        when( recoveryService.getTransactions( recoveryStartPosition ) ).thenReturn( new ListCursor( transactions, positions, null ) );
+        when( recoveryService.getRecoveryApplier( RECOVERY ) ).thenReturn( new BatchingApplier( 2, true ) );
+
+        // when
+        new Recovery( recoveryService, logsTruncator, recoveryMonitor, SilentProgressReporter.INSTANCE, false ).init();
+
+        // then
+        verify( recoveryMonitor ).transactionRecovered( 10 );
+        verify( recoveryMonitor ).transactionRecovered( 11 );
+        verify( recoveryMonitor, times( 2 ) ).transactionRecovered( anyLong() );
+        verify( logsTruncator ).truncate( positions.get( 1 ) );
+        verify( recoveryService ).transactionsRecovered( transactions.get( 1 ), positions.get( 1 ) );
+        verify( recoveryMonitor ).recoveryCompleted( 2 );
+    }
+
+    @Test
+    public void shouldRecoverTransactionsAppliedOnCloseAfterFailingToReadLog() throws Exception
+    {
+        // given
+        IOException failure = new IOException( "Corrupt log" );
+        when( recoveryService.getTransactions( recoveryStartPosition ) ).thenReturn( new ListCursor( transactions, positions, failure ) );
+        when( recoveryService.getRecoveryApplier( RECOVERY ) ).thenReturn( new BatchingApplier( 2, false ) );
+
+        // when
+        new Recovery( recoveryService, logsTruncator, recoveryMonitor, SilentProgressReporter.INSTANCE, false ).init();
+
+        // then
+        verify( recoveryMonitor, times( 3 ) ).transactionRecovered( anyLong() );
+        verify( recoveryMonitor ).failToRecoverTransactionsAfterCommit( failure, transactions.get( 2 ).getCommitEntry(), positions.get( 2 ) );
+        verify( logsTruncator ).truncate( positions.get( 2 ) );
+        verify( recoveryService ).transactionsRecovered( transactions.get( 2 ), positions.get( 2 ) );
+    }
+
+    private static class BatchingApplier implements RecoveryApplier
+    {
+        private final int batchSize;
+        private final boolean failOnClose;
+        private int pending;
+
+        BatchingApplier( int batchSize, boolean failOnClose )
+        {
+            this.batchSize = batchSize;
+            this.failOnClose = failOnClose;
+        }
+
+        @Override
+        public boolean visit( CommittedTransactionRepresentation transaction )
+        {
+            if ( ++pending == batchSize )
+            {
+                pending = 0;
+            }
+            return false;
+        }
+
+        @Override
+        public int pendingTransactions()
+        {
+            return pending;
+        }
+
+        @Override
+        public void close() throws Exception
+        {
+            if ( failOnClose )
+            {
+                throw new Exception( "Failed to apply last batch" );
+            }
+            pending = 0;
+        }
+    }
+
+    private static class ListCursor implements TransactionCursor
+    {
+        private final List<CommittedTransactionRepresentation> transactions;
+        private final List<LogPosition> positions;
+        private final IOException failureAtEnd;
+        private int index = -1;
+
+        ListCursor( List<CommittedTransactionRepresentation> transactions, List<LogPosition> positions, IOException failureAtEnd )
+        {
+            this.transactions = transactions;
+            this.positions = positions;
+            this.failureAtEnd = failureAtEnd;
+        }
+
+        @Override
+        public boolean next() throws IOException
+        {
+            if ( index + 1 < transactions.size() )
+            {
+                index++;
+                return true;
+            }
+            if ( failureAtEnd != null )
+            {
+                throw failureAtEnd;
+            }
+            return false;
+        }
+
+        @Override
+        public CommittedTransactionRepresentation get()
+        {
+            return transactions.get( index );
+        }
+
+        @Override
+        public LogPosition position()
+        {
+            return positions.get( index );
+        }
+
+        @Override
+        public void close()
+        {
+        }
+    }
+}
@@ -378,6 +378,30 @@ public class StubStorageCursors implements StorageReader
         throw new UnsupportedOperationException( "Not implemented yet" );
     }
 
+    @Override
+    public long nodeHighMark()
+    {
+        throw new UnsupportedOperationException( "Not implemented yet" );
+    }
+
+    @Override
+    public long relationshipHighMark()
+    {
+        throw new UnsupportedOperationException( "Not implemented yet" );
+    }
+
+    @Override
+    public int nodesPerPage()
+    {
+        throw new UnsupportedOperationException( "Not implemented yet" );
+    }
+
+    @Override
+    public int relationshipsPerPage()
+    {
+        throw new UnsupportedOperationException( "Not implemented yet" );
+    }
+
     @Override
     public <T> T getOrCreateSchemaDependantState( Class<T> type, Function<StorageReader,T> factory )
     {
@@ -477,6 +501,12 @@ public class StubStorageCursors implements StorageReader
             this.next = reference;
         }
 
+        @Override
+        public void scanRange( long start, long stop )
+        {
+            throw new UnsupportedOperationException( "Not implemented yet" );
+        }
+
         @Override
         public long entityReference()
         {
@@ -591,6 +621,18 @@ public class StubStorageCursors implements StorageReader
             next = reference;
         }
 
+        @Override
+        public void scanRange( long start, long stop )
+        {
+            throw new UnsupportedOperationException( "Not implemented yet" );
+        }
+
+        @Override
+        public void scanRange( int type, long start, long stop )
+        {
+            throw new UnsupportedOperationException( "Not implemented yet" );
+        }
+
         @Override
         public long entityReference()
         {
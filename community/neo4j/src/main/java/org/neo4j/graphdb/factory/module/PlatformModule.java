@@ -42,6 +42,7 @@ import org.neo4j.kernel.configuration.ConnectorPortRegister;
 import org.neo4j.kernel.extension.GlobalKernelExtensions;
 import org.neo4j.kernel.extension.KernelExtensionFactory;
 import org.neo4j.kernel.extension.UnsatisfiedDependencyStrategies;
+import org.neo4j.kernel.impl.api.LogForceMonitor;
 import org.neo4j.kernel.impl.api.LogRotationMonitor;
 import org.neo4j.kernel.impl.context.TransactionVersionContextSupplier;
 import org.neo4j.kernel.impl.core.DatabasePanicEventGenerator;
@@ -194,12 +195,14 @@ public class PlatformModule
         dependencies.satisfyDependency( tracers.pageCacheTracer );
         dependencies.satisfyDependency( firstImplementor(
                 LogRotationMonitor.class, tracers.transactionTracer, LogRotationMonitor.NULL ) );
+        dependencies.satisfyDependency( firstImplementor(
+                LogForceMonitor.class, tracers.transactionTracer, LogForceMonitor.NULL ) );
         dependencies.satisfyDependency( firstImplementor(
                 CheckPointerMonitor.class, tracers.checkPointTracer, CheckPointerMonitor.NULL ) );
 
         versionContextSupplier = createCursorContextSupplier( config );
 
-        collectionsFactorySupplier = createCollectionsFactorySupplier( config, life );
+        collectionsFactorySupplier = createCollectionsFactorySupplier( config, life, logging.getInternalLog( CollectionsFactorySupplier.class ) );
 
         dependencies.satisfyDependency( versionContextSupplier );
         pageCache = dependencies.satisfyDependency( createPageCache( fileSystem, config, logging, tracers, versionContextSupplier, jobScheduler ) );
@@ -347,12 +350,20 @@ public class PlatformModule
         return pageCache;
     }
 
-    private static CollectionsFactorySupplier createCollectionsFactorySupplier( Config config, LifeSupport life )
+    private static CollectionsFactorySupplier createCollectionsFactorySupplier( Config config, LifeSupport life, Log log )
     {
         final GraphDatabaseSettings.TransactionStateMemoryAllocation allocation = config.get( GraphDatabaseSettings.tx_state_memory_allocation );
         switch ( allocation )
         {
         case ON_HEAP:
+            if ( config.get( GraphDatabaseSettings.tx_state_max_off_heap_memory_per_transaction ) > 0 )
+            {
+                log.warn( "%s has no effect since transaction state is kept on heap, where its memory is not tracked. " +
+                          "Set %s to %s to limit the transaction state memory of a single transaction.",
+                        GraphDatabaseSettings.tx_state_max_off_heap_memory_per_transaction.name(),
+                        GraphDatabaseSettings.tx_state_memory_allocation.name(),
+                        GraphDatabaseSettings.TransactionStateMemoryAllocation.OFF_HEAP );
+            }
             return CollectionsFactorySupplier.ON_HEAP;
         case OFF_HEAP:
             final CachingOffHeapBlockAllocator allocator = new CachingOffHeapBlockAllocator(
@@ -369,7 +380,8 @@ public class PlatformModule
                 sharedBlockAllocator = allocator;
             }
             life.add( onShutdown( sharedBlockAllocator::release ) );
-            return () -> new OffHeapCollectionsFactory( sharedBlockAllocator );
+            final long maxTransactionMemory = config.get( GraphDatabaseSettings.tx_state_max_off_heap_memory_per_transaction );
+            return () -> new OffHeapCollectionsFactory( sharedBlockAllocator, maxTransactionMemory );
         default:
             throw new IllegalArgumentException( "Unknown transaction state memory allocation value: " + allocation );
         }
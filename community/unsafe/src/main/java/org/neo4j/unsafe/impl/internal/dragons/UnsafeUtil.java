@@ -23,6 +23,7 @@ import sun.misc.Unsafe;
 
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
@@ -69,6 +70,7 @@ public final class UnsafeUtil
 
     private static final Unsafe unsafe;
     private static final MethodHandle sharedStringConstructor;
+    private static final MethodHandle bufferCleaner;
     private static final String allowUnalignedMemoryAccessProperty =
             "org.neo4j.unsafe.impl.internal.dragons.UnsafeUtil.allowUnalignedMemoryAccess";
 
@@ -96,6 +98,7 @@ public final class UnsafeUtil
 
         MethodHandles.Lookup lookup = MethodHandles.lookup();
         sharedStringConstructor = getSharedStringConstructorMethodHandle( lookup );
+        bufferCleaner = getBufferCleanerMethodHandle( lookup );
 
         Class<?> dbbClass = null;
         Constructor<?> ctor = null;
@@ -224,6 +227,41 @@ public final class UnsafeUtil
         }
     }
 
+    /**
+     * @return a {@code (ByteBuffer)void} method handle that releases the memory of a direct buffer, or {@code null} if
+     * that cannot be done on this JVM.
+     */
+    private static MethodHandle getBufferCleanerMethodHandle( MethodHandles.Lookup lookup )
+    {
+        try
+        {
+            // Java 9 and later
+            return lookup.findVirtual( Unsafe.class, "invokeCleaner", MethodType.methodType( void.class, ByteBuffer.class ) )
+                    .bindTo( unsafe );
+        }
+        catch ( Exception e )
+        {
+            try
+            {
+                // Java 8: ((DirectBuffer) buffer).cleaner().clean(), where buffers without memory of their own have no cleaner
+                Class<?> directBufferClass = Class.forName( "sun.nio.ch.DirectBuffer" );
+                Class<?> cleanerClass = Class.forName( "sun.misc.Cleaner" );
+                MethodHandle cleaner = lookup.findVirtual( directBufferClass, "cleaner", MethodType.methodType( cleanerClass ) );
+                MethodHandle clean = lookup.findVirtual( cleanerClass, "clean", MethodType.methodType( void.class ) );
+                MethodHandle nonNull = lookup.findStatic( Objects.class, "nonNull", MethodType.methodType( boolean.class, Object.class ) )
+                        .asType( MethodType.methodType( boolean.class, cleanerClass ) );
+                MethodHandle skip = MethodHandles.dropArguments(
+                        MethodHandles.constant( Object.class, null ).asType( MethodType.methodType( void.class ) ), 0, cleanerClass );
+                MethodHandle cleanIfPresent = MethodHandles.guardWithTest( nonNull, clean, skip );
+                return MethodHandles.filterReturnValue( cleaner, cleanIfPresent ).asType( MethodType.methodType( void.class, ByteBuffer.class ) );
+            }
+            catch ( Exception e1 )
+            {
+                return null;
+            }
+        }
+    }
+
     private static MethodHandle getSharedStringConstructorMethodHandle(
             MethodHandles.Lookup lookup )
     {
@@ -972,6 +1010,26 @@ public final class UnsafeUtil
         return (ByteBuffer) directByteBufferCtor.newInstance( addr, cap );
     }
 
+    /**
+     * Release the memory of the given direct, or memory mapped, buffer right away, instead of when it is garbage collected.
+     * Memory mapped buffers are unmapped. The buffer must be the one that was allocated or mapped, not a slice or duplicate
+     * of it, and must not be accessed after this call. Does nothing for heap buffers, or if this JVM does not allow it.
+     */
+    public static void invokeCleaner( ByteBuffer buffer )
+    {
+        if ( bufferCleaner != null && buffer.isDirect() )
+        {
+            try
+            {
+                bufferCleaner.invokeExact( buffer );
+            }
+            catch ( Throwable throwable )
+            {
+                throw new LinkageError( "Unexpected 'buffer cleaner' failure", throwable );
+            }
+        }
+    }
+
     /**
      * Initialize (simulate calling the constructor of) the given DirectByteBuffer.
      */
@@ -146,7 +146,7 @@ public class BackupProtocolService implements AutoCloseable
                     loadKernelExtensions(), logProvider, fileSystem, pageCacheContianer.getPageCache(),
                     monitors.newMonitor( StoreCopyClientMonitor.class, getClass().getName() ), forensics );
             FullBackupStoreCopyRequester storeCopyRequester =
-                    new FullBackupStoreCopyRequester( sourceHostNameOrIp, sourcePort, timeout, forensics, monitors );
+                    new FullBackupStoreCopyRequester( sourceHostNameOrIp, sourcePort, timeout, forensics, monitors, tuningConfiguration );
             storeCopier.copyStore(
                     storeCopyRequester,
                     CancellationRequest.NEVER_CANCELLED,
@@ -369,7 +369,8 @@ public class BackupProtocolService implements AutoCloseable
         LogProvider logProvider = resolver.resolveDependency( LogService.class ).getInternalLogProvider();
         BackupClient client = new BackupClient( sourceHostNameOrIp, sourcePort, null, logProvider, targetDb.storeId(),
                 timeout, unpacker, monitors.newMonitor( ByteCounterMonitor.class, BackupClient.class.getName() ),
-                monitors.newMonitor( RequestMonitor.class, BackupClient.class.getName() ), new VersionAwareLogEntryReader<>() );
+                monitors.newMonitor( RequestMonitor.class, BackupClient.class.getName() ),
+                VersionAwareLogEntryReader.forConfig( resolver.resolveDependency( Config.class ) ) );
 
         try ( Lifespan lifespan = new Lifespan( unpacker, client ) )
         {
@@ -465,17 +466,19 @@ public class BackupProtocolService implements AutoCloseable
         private final long timeout;
         private final boolean forensics;
         private final Monitors monitors;
+        private final Config config;
 
         private BackupClient client;
 
         private FullBackupStoreCopyRequester( String sourceHostNameOrIp, int sourcePort, long timeout,
-                                             boolean forensics, Monitors monitors )
+                                             boolean forensics, Monitors monitors, Config config )
         {
             this.sourceHostNameOrIp = sourceHostNameOrIp;
             this.sourcePort = sourcePort;
             this.timeout = timeout;
             this.forensics = forensics;
             this.monitors = monitors;
+            this.config = config;
         }
 
         @Override
@@ -484,7 +487,7 @@ public class BackupProtocolService implements AutoCloseable
             client = new BackupClient( sourceHostNameOrIp, sourcePort, null, NullLogProvider.getInstance(),
                     StoreId.DEFAULT, timeout, ResponseUnpacker.NO_OP_RESPONSE_UNPACKER, monitors.newMonitor(
                     ByteCounterMonitor.class ), monitors.newMonitor( RequestMonitor.class ),
-                    new VersionAwareLogEntryReader<>() );
+                    VersionAwareLogEntryReader.forConfig( config ) );
             client.start();
             return client.fullBackup( writer, forensics );
         }
@@ -23,12 +23,16 @@
 package org.neo4j.causalclustering.core.state.machines.tx;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufUtil;
 import io.netty.handler.stream.ChunkedInput;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 
 import org.neo4j.causalclustering.messaging.ByteBufBacked;
+import org.neo4j.causalclustering.messaging.NetworkWritableChannel;
 import org.neo4j.causalclustering.messaging.marshalling.ByteArrayChunkedEncoder;
 import org.neo4j.causalclustering.messaging.marshalling.OutputStreamWritableChannel;
 import org.neo4j.kernel.impl.transaction.TransactionRepresentation;
@@ -39,6 +43,12 @@ import static org.neo4j.causalclustering.core.state.machines.tx.ReplicatedTransa
 
 public class ReplicatedTransactionSerializer
 {
+    /**
+     * Transactions that serialize to at most this many bytes are serialized once and the bytes are kept for every later
+     * marshal and encode. Larger transactions are streamed each time instead, so that they are never held on heap in full.
+     */
+    static final int MAX_SERIALIZED_TX_SIZE = 1024 * 1024;
+
     private ReplicatedTransactionSerializer()
     {
     }
@@ -68,7 +78,13 @@ public class ReplicatedTransactionSerializer
 
     public static void marshal( WritableChannel writableChannel, TransactionRepresentationReplicatedTransaction replicatedTransaction ) throws IOException
     {
-        if ( writableChannel instanceof ByteBufBacked )
+        byte[] txBytes = replicatedTransaction.txBytes();
+        if ( txBytes != null )
+        {
+            writableChannel.putInt( txBytes.length );
+            writableChannel.put( txBytes, txBytes.length );
+        }
+        else if ( writableChannel instanceof ByteBufBacked )
         {
             /*
              * Marshals more efficiently if Channel is going over the network. In practice, this means maintaining support for
@@ -98,6 +114,35 @@ public class ReplicatedTransactionSerializer
         }
     }
 
+    /**
+     * Serializes the transaction into the same form as is later read from {@link ByteArrayReplicatedTransaction#getTxBytes()}.
+     * It is written into a pooled buffer, which is copied once into the returned array.
+     *
+     * @return the serialized transaction, or {@code null} if it is larger than {@link #MAX_SERIALIZED_TX_SIZE}.
+     */
+    static byte[] serialize( TransactionRepresentation tx )
+    {
+        ByteBuf buffer = ByteBufAllocator.DEFAULT.heapBuffer( 1024, MAX_SERIALIZED_TX_SIZE );
+        try
+        {
+            writeTx( new NetworkWritableChannel( buffer ), tx );
+            return ByteBufUtil.getBytes( buffer );
+        }
+        catch ( IndexOutOfBoundsException e )
+        {
+            // did not fit in the max capacity of the buffer
+            return null;
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+        finally
+        {
+            buffer.release();
+        }
+    }
+
     private static void writeTx( WritableChannel writableChannel, TransactionRepresentation tx ) throws IOException
     {
         ReplicatedTransactionFactory.TransactionRepresentationWriter txWriter = transactionalRepresentationWriter( tx );
@@ -109,6 +154,11 @@ public class ReplicatedTransactionSerializer
 
     public static ChunkedInput<ByteBuf> encode( TransactionRepresentationReplicatedTransaction representationReplicatedTransaction )
     {
+        byte[] txBytes = representationReplicatedTransaction.txBytes();
+        if ( txBytes != null )
+        {
+            return new ByteArrayChunkedEncoder( txBytes );
+        }
         return new ChunkedTransaction( representationReplicatedTransaction.tx() );
     }
 
@@ -26,14 +26,24 @@ import io.netty.buffer.ByteBuf;
 import io.netty.handler.stream.ChunkedInput;
 
 import java.io.IOException;
+import java.util.OptionalLong;
 
 import org.neo4j.causalclustering.messaging.marshalling.ReplicatedContentHandler;
 import org.neo4j.kernel.impl.transaction.TransactionRepresentation;
 import org.neo4j.storageengine.api.WritableChannel;
 
+/**
+ * A transaction replicated from this member. It is serialized at most once, on first use, and the same bytes are then
+ * sent to every follower and written to the Raft log, instead of the commands being encoded again for each of them.
+ * Transactions larger than {@link ReplicatedTransactionSerializer#MAX_SERIALIZED_TX_SIZE} are not kept serialized, but
+ * streamed from the commands every time.
+ */
 public class TransactionRepresentationReplicatedTransaction implements ReplicatedTransaction
 {
+    private static final byte[] TOO_LARGE = new byte[0];
+
     private final TransactionRepresentation tx;
+    private volatile byte[] txBytes;
 
     TransactionRepresentationReplicatedTransaction( TransactionRepresentation tx )
     {
@@ -63,6 +73,34 @@ public class TransactionRepresentationReplicatedTransaction implements Replicate
         return tx;
     }
 
+    @Override
+    public OptionalLong size()
+    {
+        byte[] bytes = txBytes();
+        return bytes == null ? OptionalLong.empty() : OptionalLong.of( (long) bytes.length );
+    }
+
+    /**
+     * @return the serialized transaction, or {@code null} if it is too large to be kept and has to be streamed.
+     */
+    byte[] txBytes()
+    {
+        byte[] bytes = txBytes;
+        if ( bytes == null )
+        {
+            synchronized ( this )
+            {
+                bytes = txBytes;
+                if ( bytes == null )
+                {
+                    bytes = ReplicatedTransactionSerializer.serialize( tx );
+                    txBytes = bytes = bytes == null ? TOO_LARGE : bytes;
+                }
+            }
+        }
+        return bytes == TOO_LARGE ? null : bytes;
+    }
+
     @Override
     public void handle( ReplicatedContentHandler contentHandler ) throws IOException
     {
@@ -23,14 +23,20 @@
 package org.neo4j.causalclustering.core.state.machines.tx;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.stream.ChunkedInput;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.jupiter.api.Assertions;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.OptionalLong;
 
 import org.neo4j.causalclustering.helpers.Buffers;
 import org.neo4j.causalclustering.messaging.BoundedNetworkWritableChannel;
@@ -40,8 +46,14 @@ import org.neo4j.causalclustering.messaging.marshalling.OutputStreamWritableChan
 import org.neo4j.kernel.impl.store.record.NodeRecord;
 import org.neo4j.kernel.impl.transaction.command.Command;
 import org.neo4j.kernel.impl.transaction.log.PhysicalTransactionRepresentation;
+import org.neo4j.storageengine.api.StorageCommand;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 public class TransactionRepresentationReplicatedTransactionTest
 {
@@ -69,4 +81,86 @@ public class TransactionRepresentationReplicatedTransactionTest
 
         Assertions.assertArrayEquals( bufferArray, stream.toByteArray() );
     }
+
+    @Test
+    public void shouldSerializeOnceForAllMarshalsAndEncodes() throws Exception
+    {
+        PhysicalTransactionRepresentation expectedTx = spy(
+                new PhysicalTransactionRepresentation( Collections.singleton( new Command.NodeCommand( new NodeRecord( 1 ), new NodeRecord( 2 ) ) ) ) );
+        expectedTx.setHeader( new byte[0], 1, 2, 3, 4, 5, 6 );
+        TransactionRepresentationReplicatedTransaction replicatedTransaction = ReplicatedTransaction.from( expectedTx );
+
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        replicatedTransaction.marshal( new OutputStreamWritableChannel( stream ) );
+        replicatedTransaction.marshal( new NetworkWritableChannel( buffers.buffer() ) );
+        byte[] encoded = encode( replicatedTransaction.encode() );
+        byte[] encodedAgain = encode( replicatedTransaction.encode() );
+
+        verify( expectedTx, times( 1 ) ).iterator();
+        byte[] marshalled = stream.toByteArray();
+        Assertions.assertArrayEquals( Arrays.copyOfRange( marshalled, Integer.BYTES, marshalled.length ), encoded );
+        Assertions.assertArrayEquals( encoded, encodedAgain );
+    }
+
+    @Test
+    public void shouldReportSizeOfSerializedTransaction() throws Exception
+    {
+        PhysicalTransactionRepresentation expectedTx =
+                new PhysicalTransactionRepresentation( Collections.singleton( new Command.NodeCommand( new NodeRecord( 1 ), new NodeRecord( 2 ) ) ) );
+        expectedTx.setHeader( new byte[0], 1, 2, 3, 4, 5, 6 );
+        TransactionRepresentationReplicatedTransaction replicatedTransaction = ReplicatedTransaction.from( expectedTx );
+
+        byte[] encoded = encode( replicatedTransaction.encode() );
+
+        assertEquals( OptionalLong.of( encoded.length ), replicatedTransaction.size() );
+    }
+
+    @Test
+    public void shouldStreamTransactionLargerThanMaxSerializedSizeOnEveryUse() throws Exception
+    {
+        List<StorageCommand> commands = new ArrayList<>();
+        for ( int i = 0; i < 100_000; i++ )
+        {
+            commands.add( new Command.NodeCommand( new NodeRecord( i ), new NodeRecord( i ) ) );
+        }
+        PhysicalTransactionRepresentation expectedTx = spy( new PhysicalTransactionRepresentation( commands ) );
+        expectedTx.setHeader( new byte[0], 1, 2, 3, 4, 5, 6 );
+        TransactionRepresentationReplicatedTransaction replicatedTransaction = ReplicatedTransaction.from( expectedTx );
+
+        assertEquals( OptionalLong.empty(), replicatedTransaction.size() );
+
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        replicatedTransaction.marshal( new OutputStreamWritableChannel( stream ) );
+        ByteBuf buffer = buffers.buffer();
+        replicatedTransaction.marshal( new NetworkWritableChannel( buffer ) );
+        byte[] encoded = encode( replicatedTransaction.encode() );
+
+        verify( expectedTx, atLeast( 3 ) ).iterator();
+        byte[] marshalled = stream.toByteArray();
+        assertTrue( marshalled.length > ReplicatedTransactionSerializer.MAX_SERIALIZED_TX_SIZE );
+        Assertions.assertArrayEquals( marshalled, Arrays.copyOf( buffer.array(), buffer.writerIndex() ) );
+        Assertions.assertArrayEquals( Arrays.copyOfRange( marshalled, Integer.BYTES, marshalled.length ), encoded );
+    }
+
+    private static byte[] encode( ChunkedInput<ByteBuf> input ) throws Exception
+    {
+        ByteBuf composite = Unpooled.buffer();
+        try
+        {
+            ByteBuf chunk;
+            while ( (chunk = input.readChunk( ByteBufAllocator.DEFAULT )) != null )
+            {
+                composite.writeBytes( chunk );
+                chunk.release();
+            }
+            byte[] bytes = new byte[composite.readableBytes()];
+            composite.readBytes( bytes );
+            return bytes;
+        }
+        finally
+        {
+            composite.release();
+            input.close();
+        }
+    }
 }
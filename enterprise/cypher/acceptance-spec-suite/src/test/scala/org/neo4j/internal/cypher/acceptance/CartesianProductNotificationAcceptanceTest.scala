@@ -129,7 +129,9 @@ class CartesianProductNotificationAcceptanceTest extends CypherFunSuite with Gra
     csvBufferSize = CSVResources.DEFAULT_BUFFER_SIZE,
     nonIndexedLabelWarningThreshold = 10000L,
     planWithMinimumCardinalityEstimates = false,
-    lenientCreateRelationship = true
+    lenientCreateRelationship = true,
+    maxRowsInMemory = 0,
+    spillDirectory = null
   )
   private lazy val monitors = WrappedMonitors(kernelMonitors)
   private val metricsFactory = CachedMetricsFactory(SimpleMetricsFactory)
@@ -56,7 +56,7 @@ abstract class MorselRuntimeAcceptanceTest extends ExecutionEngineFunSuite {
 
   test("should fallback if morsel doesn't support query") {
     //Given
-    val result = graph.execute("CYPHER runtime=morsel MATCH (n)-[*]->(m) RETURN n")
+    val result = graph.execute("CYPHER runtime=morsel MATCH p = shortestPath((n)-[*]->(m)) RETURN p")
 
     // When (exhaust result)
     result.resultAsString()
@@ -425,7 +425,7 @@ abstract class MorselRuntimeAcceptanceTest extends ExecutionEngineFunSuite {
     asScalaResult(result).toList should have size 5
   }
 
-  ignore("should support apply") {
+  test("should support apply") {
 
     graph.createIndex("Person", "name")
     graph.inTx(graph.schema().awaitIndexesOnline(10, TimeUnit.MINUTES))
@@ -438,13 +438,62 @@ abstract class MorselRuntimeAcceptanceTest extends ExecutionEngineFunSuite {
     val query =
       """MATCH (p:Person { name:'me' })
         |MATCH (q:Person { name: p.secondName })
-        |RETURN p, q""".stripMargin
+        |RETURN p.secondName, q.name""".stripMargin
 
     // When
     val result = graph.execute(s"CYPHER runtime=morsel $query")
+
     // Then
     val resultSet = asScalaResult(result).toSet
-    println(result.getExecutionPlanDescription)
+    resultSet.map(map => (map("p.secondName"), map("q.name"))) should equal((0 until 100).map(i => (s"me$i", s"me$i")).toSet)
+    result.getExecutionPlanDescription.getArguments.get("runtime") should equal("MORSEL")
+  }
+
+  test("should support expand into") {
+    // Given
+    val nodes = (1 to 10).map(i => createLabeledNode(Map("id" -> i), "A"))
+    nodes.sliding(2).foreach(pair => relate(pair.head, pair.last))
+    relate(nodes(7), nodes(9))
+
+    // When
+    val result = graph.execute("CYPHER runtime=morsel MATCH (a:A)-->(b:A), (a)-->(c:A)-->(b) RETURN a.id, b.id, c.id")
+
+    // Then
+    asScalaResult(result).toList should equal(List(Map("a.id" -> 8, "b.id" -> 10, "c.id" -> 9)))
+    result.getExecutionPlanDescription.getArguments.get("runtime") should equal("MORSEL")
+  }
+
+  test("should support optional expand") {
+    // Given
+    val a1 = createLabeledNode(Map("id" -> 1), "A")
+    val a2 = createLabeledNode(Map("id" -> 2), "A")
+    createLabeledNode(Map("id" -> 3), "A")
+    relate(a1, createNode(Map("id" -> 10)))
+    relate(a1, createNode(Map("id" -> 11)))
+    relate(a2, createNode(Map("id" -> 20)))
+
+    // When
+    val result = graph.execute("CYPHER runtime=morsel MATCH (a:A) OPTIONAL MATCH (a)-->(b) WHERE b.id > 10 RETURN a.id, b.id")
+
+    // Then
+    asScalaResult(result).toSet should equal(Set(
+      Map("a.id" -> 1, "b.id" -> 11),
+      Map("a.id" -> 2, "b.id" -> 20),
+      Map("a.id" -> 3, "b.id" -> null)))
+    result.getExecutionPlanDescription.getArguments.get("runtime") should equal("MORSEL")
+  }
+
+  test("should support var length expand") {
+    // Given
+    val nodes = (1 to 10).map(i => createLabeledNode(Map("id" -> i), "A"))
+    nodes.sliding(2).foreach(pair => relate(pair.head, pair.last))
+
+    // When
+    val result = graph.execute("CYPHER runtime=morsel MATCH (a:A {id: 1})-[*2..4]->(b) RETURN b.id")
+
+    // Then
+    asScalaResult(result).toList.map(_("b.id")).toSet should equal(Set(3, 4, 5))
+    result.getExecutionPlanDescription.getArguments.get("runtime") should equal("MORSEL")
   }
 }
 
@@ -104,7 +104,7 @@ case class RuntimeEnvironment(config:CypherRuntimeConfiguration, jobScheduler: J
 
   def getDispatcher(debugOptions: Set[String]): Dispatcher =
     if (singleThreadedRequested(debugOptions) && !isAlreadySingleThreaded)
-      new Dispatcher(config.morselSize, new SingleThreadScheduler())
+      new Dispatcher(config.morselSize, new SingleThreadScheduler(), 1)
     else
       dispatcher
 
@@ -113,14 +113,14 @@ case class RuntimeEnvironment(config:CypherRuntimeConfiguration, jobScheduler: J
   private def isAlreadySingleThreaded = config.workers == 1
 
   private def createDispatcher(): Dispatcher = {
+    val numberOfThreads = if (config.workers == 0) java.lang.Runtime.getRuntime.availableProcessors() else config.workers
     val scheduler =
       if (config.workers == 1) new SingleThreadScheduler()
       else {
-        val numberOfThreads = if (config.workers == 0) java.lang.Runtime.getRuntime.availableProcessors() else config.workers
         val executorService = jobScheduler.workStealingExecutor(Group.CYPHER_WORKER, numberOfThreads)
-        new SimpleScheduler(executorService, config.waitTimeout)
+        new WorkStealingScheduler(executorService, config.waitTimeout)
       }
-    new Dispatcher(config.morselSize, scheduler)
+    new Dispatcher(config.morselSize, scheduler, numberOfThreads)
   }
 
   private def createTracer(): SchedulerTracer = {
@@ -87,7 +87,9 @@ object SlottedRuntime extends CypherRuntime[EnterpriseRuntimeContext] with Debug
                                                  columns,
                                                  logicalPlan,
                                                  physicalPlan.slotConfigurations,
-                                                 context.config.lenientCreateRelationship)
+                                                 context.config.lenientCreateRelationship,
+                                                 context.config.maxRowsInMemory,
+                                                 context.config.spillDirectory)
 
       if (ENABLE_DEBUG_PRINTS) {
         if (!PRINT_PLAN_INFO_EARLY) {
@@ -72,7 +72,9 @@ object CypherReductionSupport {
     csvBufferSize = CSVResources.DEFAULT_BUFFER_SIZE,
     nonIndexedLabelWarningThreshold = 0,
     planWithMinimumCardinalityEstimates = true,
-    lenientCreateRelationship = true)
+    lenientCreateRelationship = true,
+    maxRowsInMemory = 0,
+    spillDirectory = null)
   private val kernelMonitors = new Monitors
   private val compiler = CypherPlanner(WrappedMonitors(kernelMonitors), stepSequencer, metricsFactory, config, defaultUpdateStrategy,
     MasterCompiler.CLOCK, PlannerContextCreator)
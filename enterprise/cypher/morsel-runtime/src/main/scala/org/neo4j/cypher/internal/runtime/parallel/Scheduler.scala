@@ -36,7 +36,17 @@ trait Scheduler {
     * @param task the initial task to execute
     * @return QueryExecution representing the ongoing execution
     */
-  def execute(task: Task, tracer: SchedulerTracer): QueryExecution
+  def execute(task: Task, tracer: SchedulerTracer): QueryExecution = execute(List(task), tracer)
+
+  /**
+    * Execute the provided tasks, which are independent of each other and may be executed concurrently,
+    * in the same fashion as [[execute(task, tracer)]]. The returned QueryExecution completes when all
+    * tasks, and all tasks spawned by them, have completed.
+    *
+    * @param tasks the initial tasks to execute
+    * @return QueryExecution representing the ongoing execution
+    */
+  def execute(tasks: Seq[Task], tracer: SchedulerTracer): QueryExecution
 
   def isMultiThreaded: Boolean
 }
@@ -72,4 +82,13 @@ trait QueryExecution {
     * @return An optional error if anything when wrong with the query execution.
     */
   def await(): Option[Throwable]
+
+  /**
+    * Wait for this QueryExecution to complete, giving up on the work that has not been started yet
+    * as soon as the query is cancelled.
+    *
+    * @param cancellation returns the reason for cancelling the query, if it has been cancelled
+    * @return An optional error if anything when wrong with the query execution, or the cancellation reason.
+    */
+  def await(cancellation: () => Option[Throwable]): Option[Throwable] = await()
 }
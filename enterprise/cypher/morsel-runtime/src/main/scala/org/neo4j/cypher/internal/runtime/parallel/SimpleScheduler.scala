@@ -34,9 +34,9 @@ class SimpleScheduler(executor: Executor, waitTimeout: Duration) extends Schedul
 
   private val executionService = new ExecutorCompletionService[TaskResult](executor)
 
-  override def execute(task: Task, tracer: SchedulerTracer): QueryExecution = {
+  override def execute(tasks: Seq[Task], tracer: SchedulerTracer): QueryExecution = {
     val queryTracer: QueryExecutionTracer = tracer.traceQuery()
-    new SimpleQueryExecution(schedule(task, None, queryTracer), this, queryTracer, waitTimeout.toMillis)
+    new SimpleQueryExecution(tasks.map(schedule(_, None, queryTracer)), this, queryTracer, waitTimeout.toMillis)
   }
 
   def isMultiThreaded: Boolean = true
@@ -58,13 +58,13 @@ class SimpleScheduler(executor: Executor, waitTimeout: Duration) extends Schedul
     executionService.submit(callableTask)
   }
 
-  class SimpleQueryExecution(initialTask: Future[TaskResult],
+  class SimpleQueryExecution(initialTasks: Seq[Future[TaskResult]],
                              scheduler: SimpleScheduler,
                              queryTracer: QueryExecutionTracer,
                              waitTimeoutMilli: Long) extends QueryExecution {
 
     var inFlightTasks = new ArrayBuffer[Future[TaskResult]]
-    inFlightTasks += initialTask
+    inFlightTasks ++= initialTasks
 
     override def await(): Option[Throwable] = {
       while (inFlightTasks.nonEmpty) {
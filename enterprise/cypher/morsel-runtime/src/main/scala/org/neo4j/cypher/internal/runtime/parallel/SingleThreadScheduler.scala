@@ -29,15 +29,15 @@ import scala.collection.mutable
   */
 class SingleThreadScheduler() extends Scheduler {
 
-  override def execute(task: Task, tracer: SchedulerTracer): QueryExecution =
-    new SingleThreadQueryExecution(task, tracer.traceQuery())
+  override def execute(tasks: Seq[Task], tracer: SchedulerTracer): QueryExecution =
+    new SingleThreadQueryExecution(tasks, tracer.traceQuery())
 
   def isMultiThreaded: Boolean = false
 
-  class SingleThreadQueryExecution(initialTask: Task, tracer: QueryExecutionTracer) extends QueryExecution {
+  class SingleThreadQueryExecution(initialTasks: Seq[Task], tracer: QueryExecutionTracer) extends QueryExecution {
 
     private val jobStack: mutable.Stack[(Task,ScheduledWorkUnitEvent)] = new mutable.Stack()
-    schedule(initialTask, None)
+    initialTasks.reverse.foreach(schedule(_, None))
 
     override def await(): Option[Throwable] = {
 
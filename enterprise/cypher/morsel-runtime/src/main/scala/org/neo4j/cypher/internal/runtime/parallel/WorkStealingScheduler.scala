@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+package org.neo4j.cypher.internal.runtime.parallel
+
+import java.util.concurrent.atomic.{AtomicInteger, AtomicReference}
+import java.util.concurrent.{CountDownLatch, Executor, TimeUnit}
+
+import scala.concurrent.duration.Duration
+
+/**
+  * A multi-threaded implementation of the Scheduler trait, intended to be used with a work-stealing
+  * executor such as a [[java.util.concurrent.ForkJoinPool]].
+  *
+  * In contrast to [[SimpleScheduler]], where every completed work unit is handed back to the awaiting thread
+  * for rescheduling, continuations and downstream tasks are submitted directly from the worker thread that
+  * executed the work unit. With a work-stealing executor they end up in the local queue of that worker, which
+  * keeps the morsels of a pipeline on the thread that produced them, while idle workers steal from busy ones.
+  *
+  * The awaiting thread wakes up every `waitTimeout` to check whether the query has been cancelled. A cancelled
+  * query stops scheduling new work units and completes as soon as the ones in flight have finished.
+  */
+class WorkStealingScheduler(executor: Executor, waitTimeout: Duration) extends Scheduler {
+
+  override def execute(tasks: Seq[Task], tracer: SchedulerTracer): QueryExecution = {
+    val queryExecution = new WorkStealingQueryExecution(tracer.traceQuery())
+    tasks.foreach(queryExecution.schedule(_, None))
+    queryExecution.initialTasksScheduled()
+    queryExecution
+  }
+
+  def isMultiThreaded: Boolean = true
+
+  class WorkStealingQueryExecution(queryTracer: QueryExecutionTracer) extends QueryExecution {
+
+    // starts at 1 so that the execution can't complete before all initial tasks have been scheduled
+    private val inFlightTasks = new AtomicInteger(1)
+    private val failure = new AtomicReference[Throwable]()
+    private val completed = new CountDownLatch(1)
+
+    def schedule(task: Task, upstreamWorkUnit: Option[WorkUnitEvent]): Unit = {
+      if (failure.get() == null) {
+        val scheduledWorkUnitEvent = queryTracer.scheduleWorkUnit(task, upstreamWorkUnit)
+        inFlightTasks.incrementAndGet()
+        try {
+          executor.execute(new Runnable {
+            override def run(): Unit = {
+              try {
+                val workUnitEvent = scheduledWorkUnitEvent.start()
+                val downstreamTasks =
+                  try {
+                    task.executeWorkUnit()
+                  } finally {
+                    workUnitEvent.stop()
+                  }
+
+                for (newTask <- downstreamTasks)
+                  schedule(newTask, Some(workUnitEvent))
+
+                if (task.canContinue)
+                  schedule(task, Some(workUnitEvent))
+              } catch {
+                case t: Throwable => fail(t)
+              } finally {
+                taskCompleted()
+              }
+            }
+          })
+        } catch {
+          case t: Throwable =>
+            fail(t)
+            taskCompleted()
+        }
+      }
+    }
+
+    def initialTasksScheduled(): Unit = taskCompleted()
+
+    override def await(): Option[Throwable] = await(() => None)
+
+    override def await(cancellation: () => Option[Throwable]): Option[Throwable] = {
+      try {
+        while (!completed.await(waitTimeout.toMillis, TimeUnit.MILLISECONDS)) {
+          cancellation().foreach(fail)
+        }
+      } catch {
+        case e: InterruptedException =>
+          fail(e)
+          // tasks in flight may still be using the transaction, so wait for them before giving up
+          completed.await()
+          Thread.currentThread().interrupt()
+      }
+      Option(failure.get())
+    }
+
+    private def fail(t: Throwable): Unit = failure.compareAndSet(null, t)
+
+    private def taskCompleted(): Unit = {
+      if (inFlightTasks.decrementAndGet() == 0) {
+        queryTracer.stopQuery()
+        completed.countDown()
+      }
+    }
+  }
+}
@@ -25,9 +25,18 @@ package org.neo4j.cypher.internal.runtime.vectorized
 import org.neo4j.cypher.internal.runtime.QueryContext
 import org.neo4j.cypher.internal.runtime.parallel.{Scheduler, SchedulerTracer, SingleThreadScheduler}
 import org.neo4j.cypher.result.QueryResult.QueryResultVisitor
+import org.neo4j.graphdb.TransactionTerminatedException
 import org.neo4j.values.virtual.MapValue
 
-class Dispatcher(morselSize: Int, scheduler: Scheduler) {
+/**
+  * Executes pipelines on a [[Scheduler]].
+  *
+  * @param morselSize the number of rows in each morsel
+  * @param scheduler the scheduler to execute the pipeline tasks on
+  * @param parallelism the number of tasks a leaf [[ParallelStreamingOperator]] is split into, typically the number
+  *                    of workers of the scheduler
+  */
+class Dispatcher(morselSize: Int, scheduler: Scheduler, parallelism: Int) {
 
   def execute[E <: Exception](operators: Pipeline,
                               queryContext: QueryContext,
@@ -37,13 +46,18 @@ class Dispatcher(morselSize: Int, scheduler: Scheduler) {
     val leaf = getLeaf(operators)
 
     val state = QueryState(params, visitor, morselSize, singeThreaded = scheduler.isInstanceOf[SingleThreadScheduler])
-    val initialTask = leaf.init(MorselExecutionContext.EMPTY, queryContext, state)
-    val queryExecution = scheduler.execute(initialTask, schedulerTracer)
-    val maybeError = queryExecution.await()
+    val initialTasks = leaf.init(MorselExecutionContext.EMPTY, queryContext, state, parallelism)
+    val queryExecution = scheduler.execute(initialTasks, schedulerTracer)
+    val maybeError = queryExecution.await(() => terminationReason(queryContext))
     if (maybeError.isDefined)
       throw maybeError.get
   }
 
+  private def terminationReason(queryContext: QueryContext): Option[Throwable] = {
+    val reason = queryContext.transactionalContext.transaction.getReasonIfTerminated
+    if (reason.isPresent) Some(new TransactionTerminatedException(reason.get)) else None
+  }
+
   private def getLeaf(pipeline: Pipeline): StreamingPipeline = {
     var leafOp = pipeline
     while (leafOp.upstream.nonEmpty) {
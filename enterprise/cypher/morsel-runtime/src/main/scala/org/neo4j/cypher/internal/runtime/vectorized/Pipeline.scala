@@ -79,9 +79,16 @@ abstract class Pipeline() {
       case _ => downstreamReduce
     }
 
-  def initTask(startOperatorTask: ContinuableOperatorTask, context: QueryContext, state: QueryState): PipelineTask = {
+  def initTask(startOperatorTask: ContinuableOperatorTask, context: QueryContext, state: QueryState): PipelineTask =
+    initTasks(IndexedSeq(startOperatorTask), context, state).head
+
+  /**
+    * Creates tasks for start operator tasks that together produce the input of the downstream reduce, if any.
+    * They share one [[ReduceCollector]], so that the reduce is scheduled only after all of them have completed.
+    */
+  def initTasks(startOperatorTasks: IndexedSeq[ContinuableOperatorTask], context: QueryContext, state: QueryState): IndexedSeq[PipelineTask] = {
     val stateWithReduceCollector = state.copy(reduceCollector = downstreamReduce.map(_.init()))
-    pipelineTask(startOperatorTask, context, stateWithReduceCollector)
+    startOperatorTasks.map(pipelineTask(_, context, stateWithReduceCollector))
   }
 
   def pipelineTask(startOperatorTask: ContinuableOperatorTask, context: QueryContext, state: QueryState): PipelineTask = {
@@ -167,14 +174,49 @@ case class PipelineTask(start: ContinuableOperatorTask,
   */
 class StreamingPipeline(start: StreamingOperator,
                         override val slots: SlotConfiguration,
-                        override val upstream: Option[Pipeline]) extends Pipeline {
+                        source: Option[Pipeline]) extends Pipeline {
+
+  private var applySource: Option[Pipeline] = None
+
+  override def upstream: Option[Pipeline] = source.orElse(applySource)
+
+  /**
+    * Makes this leaf pipeline the right-hand side of an Apply, so that it is initialized once for every row
+    * produced by the left-hand side, with that row as argument.
+    */
+  def applyOn(lhs: Pipeline): Unit = {
+    if (upstream.nonEmpty)
+      throw new IllegalStateException(s"Only a leaf pipeline can be applied, but $this already has an upstream")
+    applySource = Some(lhs)
+  }
 
   def init(inputMorsel: MorselExecutionContext, context: QueryContext, state: QueryState): PipelineTask = {
     initTask(start.init(context, state, inputMorsel), context, state)
   }
 
+  /**
+    * Like [[init]], but lets a [[ParallelStreamingOperator]] split its work into up to `parallelism` tasks.
+    */
+  def init(inputMorsel: MorselExecutionContext, context: QueryContext, state: QueryState, parallelism: Int): IndexedSeq[PipelineTask] =
+    start match {
+      case parallelStart: ParallelStreamingOperator if parallelism > 1 =>
+        initTasks(parallelStart.init(context, state, inputMorsel, parallelism), context, state)
+
+      case _ =>
+        IndexedSeq(init(inputMorsel, context, state))
+    }
+
   override def acceptMorsel(inputMorsel: MorselExecutionContext, context: QueryContext, state: QueryState): Seq[Task] =
-    List(pipelineTask(start.init(context, state, inputMorsel), context, state))
+    if (applySource.isEmpty) {
+      List(pipelineTask(start.init(context, state, inputMorsel), context, state))
+    } else {
+      val tasks = new ArrayBuffer[Task]
+      while (inputMorsel.hasMoreRows) {
+        tasks += pipelineTask(start.init(context, state, inputMorsel.createClone()), context, state)
+        inputMorsel.moveToNextRow()
+      }
+      tasks
+    }
 
   override def toString: String = {
     val x = (start +: operators).map(x => x.getClass.getSimpleName)
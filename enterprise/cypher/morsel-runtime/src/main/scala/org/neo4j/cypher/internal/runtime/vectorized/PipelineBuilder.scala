@@ -23,9 +23,11 @@
 package org.neo4j.cypher.internal.runtime.vectorized
 
 import org.neo4j.cypher.internal.compatibility.v3_5.runtime.SlotAllocation.PhysicalPlan
-import org.neo4j.cypher.internal.compatibility.v3_5.runtime.{RefSlot, SlottedIndexedProperty}
+import org.neo4j.cypher.internal.compatibility.v3_5.runtime.{RefSlot, SlotConfiguration, SlottedIndexedProperty}
 import org.neo4j.cypher.internal.compiler.v3_5.planner.CantCompileQueryException
+import org.neo4j.cypher.internal.ir.v3_5.VarPatternLength
 import org.neo4j.cypher.internal.runtime.interpreted.commands.convert.ExpressionConverters
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Predicate
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.{IndexSeekModeFactory, LazyLabel, LazyTypes}
 import org.neo4j.cypher.internal.runtime.slotted.SlottedPipeBuilder.translateColumnOrder
 import org.neo4j.cypher.internal.runtime.vectorized.expressions.AggregationExpressionOperator
@@ -125,6 +127,38 @@ class PipelineBuilder(physicalPlan: PhysicalPlan, converters: ExpressionConverte
           val lazyTypes = LazyTypes(types.toArray)(SemanticTable())
           new ExpandAllOperator(fromOffset, relOffset, toOffset, dir, lazyTypes)
 
+        case plans.Expand(lhs, fromName, dir, types, to, relName, ExpandInto) =>
+          val fromOffset = slots.getLongOffsetFor(fromName)
+          val relOffset = slots.getLongOffsetFor(relName)
+          val toOffset = slots.getLongOffsetFor(to)
+          val lazyTypes = LazyTypes(types.toArray)(SemanticTable())
+          new ExpandIntoOperator(fromOffset, relOffset, toOffset, dir, lazyTypes)
+
+        case plans.OptionalExpand(lhs, fromName, dir, types, to, relName, mode, predicates) =>
+          val fromOffset = slots.getLongOffsetFor(fromName)
+          val relOffset = slots.getLongOffsetFor(relName)
+          val toOffset = slots.getLongOffsetFor(to)
+          val lazyTypes = LazyTypes(types.toArray)(SemanticTable())
+          val predicate = Predicate.fromSeq(predicates.map(converters.toCommandPredicate(id, _)))
+          new OptionalExpandOperator(fromOffset, relOffset, toOffset, dir, lazyTypes, predicate, mode == ExpandInto)
+
+        case plans.VarExpand(sourcePlan, fromName, dir, projectedDir, types, to, relName, VarPatternLength(min, max),
+                             mode, tempNode, tempEdge, nodePredicate, edgePredicate, _) =>
+          val fromOffset = slots.getLongOffsetFor(fromName)
+          val relOffset = slots.getReferenceOffsetFor(relName)
+          val toOffset = slots.getLongOffsetFor(to)
+          val lazyTypes = LazyTypes(types.toArray)(SemanticTable())
+          // The node/edge predicates are evaluated on the source pipeline, not the produced one
+          val sourceSlots = physicalPlan.slotConfigurations(sourcePlan.id)
+          val tempNodeOffset = sourceSlots.getLongOffsetFor(tempNode)
+          val tempEdgeOffset = sourceSlots.getLongOffsetFor(tempEdge)
+          val argumentSize = SlotConfiguration.Size(sourceSlots.numberOfLongs - 2, sourceSlots.numberOfReferences)
+          new VarExpandOperator(fromOffset, relOffset, toOffset, dir, projectedDir, lazyTypes, min, max,
+                                mode == ExpandAll, tempNodeOffset, tempEdgeOffset,
+                                converters.toCommandPredicate(id, nodePredicate),
+                                converters.toCommandPredicate(id, edgePredicate),
+                                argumentSize)
+
         case plans.Projection(_, expressions) =>
           val projectionOps = expressions.map {
             case (key, e) => slots(key) -> converters.toCommandExpression(id, e)
@@ -209,9 +243,20 @@ class PipelineBuilder(physicalPlan: PhysicalPlan, converters: ExpressionConverte
   }
 
   override protected def build(plan: LogicalPlan, lhs: Pipeline, rhs: Pipeline): Pipeline = {
-    val slots = physicalPlan.slotConfigurations(plan.id)
+    plan match {
+      case _: plans.Apply =>
+        // The rhs is run once per lhs row, which a reduce would not respect
+        var leaf = rhs
+        while (leaf.upstream.nonEmpty) {
+          if (leaf.isInstanceOf[ReducePipeline])
+            throw new CantCompileQueryException(s"$plan with a pipeline breaker on the rhs not supported in morsel runtime")
+          leaf = leaf.upstream.get
+        }
+        leaf.asInstanceOf[StreamingPipeline].applyOn(lhs)
+        rhs
 
-    throw new CantCompileQueryException(s"$plan not supported in morsel runtime")
+      case p => throw new CantCompileQueryException(s"$p not supported in morsel runtime")
+    }
   }
 }
 
@@ -36,6 +36,15 @@ trait StreamingOperator {
   def init(context: QueryContext, state: QueryState, inputMorsel: MorselExecutionContext): ContinuableOperatorTask
 }
 
+/**
+  * A [[StreamingOperator]] which is able to split the work for one input morsel into several tasks that can be
+  * executed concurrently, e.g. a scan where each task reads disjoint batches of the store through a shared
+  * [[org.neo4j.internal.kernel.api.Scan]]. [[ParallelStreamingOperator#init]] is thread-safe.
+  */
+trait ParallelStreamingOperator extends StreamingOperator {
+  def init(context: QueryContext, state: QueryState, inputMorsel: MorselExecutionContext, parallelism: Int): IndexedSeq[ContinuableOperatorTask]
+}
+
 /**
   * Physical immutable operator. [[ReduceOperator#init]] is thread-safe, and creates a [[ContinuableOperatorTask]]
   * which can be executed.
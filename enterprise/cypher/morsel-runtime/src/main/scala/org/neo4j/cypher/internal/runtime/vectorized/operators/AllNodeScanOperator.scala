@@ -25,9 +25,9 @@ package org.neo4j.cypher.internal.runtime.vectorized.operators
 import org.neo4j.cypher.internal.compatibility.v3_5.runtime.SlotConfiguration
 import org.neo4j.cypher.internal.runtime.QueryContext
 import org.neo4j.cypher.internal.runtime.vectorized._
-import org.neo4j.internal.kernel.api.NodeCursor
+import org.neo4j.internal.kernel.api.{NodeCursor, Scan}
 
-class AllNodeScanOperator(offset: Int, argumentSize: SlotConfiguration.Size) extends StreamingOperator {
+class AllNodeScanOperator(offset: Int, argumentSize: SlotConfiguration.Size) extends ParallelStreamingOperator {
 
   override def init(queryContext: QueryContext,
                     state: QueryState,
@@ -37,6 +37,14 @@ class AllNodeScanOperator(offset: Int, argumentSize: SlotConfiguration.Size) ext
     new OTask(nodeCursor, inputMorsel)
   }
 
+  override def init(queryContext: QueryContext,
+                    state: QueryState,
+                    inputMorsel: MorselExecutionContext,
+                    parallelism: Int): IndexedSeq[ContinuableOperatorTask] = {
+    val scan = queryContext.transactionalContext.dataRead.allNodesScan()
+    for (_ <- 0 until parallelism) yield new ParallelTask(scan, inputMorsel)
+  }
+
   class OTask(var nodeCursor: NodeCursor, argument: MorselExecutionContext) extends ContinuableOperatorTask {
 
     var cursorHasMore = true
@@ -66,4 +74,13 @@ class AllNodeScanOperator(offset: Int, argumentSize: SlotConfiguration.Size) ext
 
     override def canContinue: Boolean = cursorHasMore
   }
+
+  class ParallelTask(scan: Scan[NodeCursor], argument: MorselExecutionContext)
+    extends ParallelScanTask[NodeCursor](scan, offset, argument, argumentSize) {
+
+    override protected def allocateCursor(context: QueryContext): NodeCursor =
+      context.transactionalContext.cursors.allocateNodeCursor()
+
+    override protected def reference(cursor: NodeCursor): Long = cursor.nodeReference()
+  }
 }
@@ -26,28 +26,53 @@ import org.neo4j.cypher.internal.compatibility.v3_5.runtime.SlotConfiguration
 import org.neo4j.cypher.internal.runtime.QueryContext
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.LazyLabel
 import org.neo4j.cypher.internal.runtime.vectorized._
-import org.neo4j.internal.kernel.api.NodeLabelIndexCursor
+import org.neo4j.internal.kernel.api.{NodeLabelIndexCursor, Scan}
 
 class LabelScanOperator(offset: Int, label: LazyLabel, argumentSize: SlotConfiguration.Size)
-  extends NodeIndexOperator[NodeLabelIndexCursor](offset) {
+  extends NodeIndexOperator[NodeLabelIndexCursor](offset) with ParallelStreamingOperator {
 
   override def init(context: QueryContext, state: QueryState, inputMorsel: MorselExecutionContext): ContinuableOperatorTask = {
     val cursor = context.transactionalContext.cursors.allocateNodeLabelIndexCursor()
     val read = context.transactionalContext.dataRead
     val labelId = label.getOptId(context)
     read.nodeLabelScan(labelId.get.id, cursor)
-    new OTask(cursor)
+    new OTask(cursor, inputMorsel)
   }
 
-  class OTask(nodeCursor: NodeLabelIndexCursor) extends ContinuableOperatorTask {
+  override def init(context: QueryContext,
+                    state: QueryState,
+                    inputMorsel: MorselExecutionContext,
+                    parallelism: Int): IndexedSeq[ContinuableOperatorTask] = {
+    val read = context.transactionalContext.dataRead
+    label.getOptId(context) match {
+      case Some(labelId) =>
+        val scan = read.nodeLabelScan(labelId.id)
+        for (_ <- 0 until parallelism) yield new ParallelTask(scan, inputMorsel)
+
+      case None =>
+        // the label doesn't exist, so there is nothing to scan
+        IndexedSeq(new OTask(context.transactionalContext.cursors.allocateNodeLabelIndexCursor(), inputMorsel))
+    }
+  }
+
+  class OTask(nodeCursor: NodeLabelIndexCursor, argument: MorselExecutionContext) extends ContinuableOperatorTask {
 
     var hasMore = false
     override def operate(currentRow: MorselExecutionContext,
                          context: QueryContext,
                          state: QueryState): Unit = {
-      hasMore = iterate(currentRow, nodeCursor, argumentSize)
+      hasMore = iterate(currentRow, nodeCursor, argument, argumentSize)
     }
 
     override def canContinue: Boolean = hasMore
   }
+
+  class ParallelTask(scan: Scan[NodeLabelIndexCursor], argument: MorselExecutionContext)
+    extends ParallelScanTask[NodeLabelIndexCursor](scan, offset, argument, argumentSize) {
+
+    override protected def allocateCursor(context: QueryContext): NodeLabelIndexCursor =
+      context.transactionalContext.cursors.allocateNodeLabelIndexCursor()
+
+    override protected def reference(cursor: NodeLabelIndexCursor): Long = cursor.nodeReference()
+  }
 }
@@ -43,10 +43,10 @@ class NodeIndexContainsScanOperator(nodeOffset: Int,
                     inputMorsel: MorselExecutionContext): ContinuableOperatorTask = {
     val valueIndexCursor: NodeValueIndexCursor = context.transactionalContext.cursors.allocateNodeValueIndexCursor()
     val index = context.transactionalContext.schemaRead.index(label, property.propertyKeyId)
-    new OTask(valueIndexCursor, index)
+    new OTask(valueIndexCursor, index, inputMorsel)
   }
 
-  class OTask(valueIndexCursor: NodeValueIndexCursor, index: IndexReference) extends ContinuableOperatorTask {
+  class OTask(valueIndexCursor: NodeValueIndexCursor, index: IndexReference, argument: MorselExecutionContext) extends ContinuableOperatorTask {
 
     var hasMore = false
     override def operate(currentRow: MorselExecutionContext,
@@ -59,7 +59,7 @@ class NodeIndexContainsScanOperator(nodeOffset: Int,
 
       if (!hasMore) {
         val queryState = new OldQueryState(context, resources = null, params = state.params)
-        val value = valueExpr(currentRow, queryState)
+        val value = valueExpr(argument, queryState)
 
         value match {
           case value: TextValue =>
@@ -78,7 +78,7 @@ class NodeIndexContainsScanOperator(nodeOffset: Int,
       }
 
       if (!nullExpression)
-        hasMore = iterate(currentRow, valueIndexCursor, argumentSize)
+        hasMore = iterate(currentRow, valueIndexCursor, argument, argumentSize)
       else
         hasMore = false
     }
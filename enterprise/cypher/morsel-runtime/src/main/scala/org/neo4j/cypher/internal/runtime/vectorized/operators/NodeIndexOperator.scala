@@ -28,11 +28,15 @@ import org.neo4j.internal.kernel.api.{NodeIndexCursor, NodeValueIndexCursor}
 
 abstract class NodeIndexOperator[CURSOR <: NodeIndexCursor](nodeOffset: Int) extends StreamingOperator {
 
-  protected def iterate(currentRow: MorselExecutionContext, cursor: CURSOR, argumentSize: SlotConfiguration.Size): Boolean = {
+  protected def iterate(currentRow: MorselExecutionContext,
+                        cursor: CURSOR,
+                        argument: MorselExecutionContext,
+                        argumentSize: SlotConfiguration.Size): Boolean = {
     var cursorHasMore = true
     while (currentRow.hasMoreRows && cursorHasMore) {
       cursorHasMore = cursor.next()
       if (cursorHasMore) {
+        currentRow.copyFrom(argument, argumentSize.nLongs, argumentSize.nReferences)
         currentRow.setLongAt(nodeOffset, cursor.nodeReference())
         extensionForEachRow(cursor, currentRow)
         currentRow.moveToNextRow()
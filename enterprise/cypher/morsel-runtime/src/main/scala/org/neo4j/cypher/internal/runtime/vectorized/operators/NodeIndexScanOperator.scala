@@ -37,10 +37,10 @@ class NodeIndexScanOperator(nodeOffset: Int,
   override def init(context: QueryContext, state: QueryState, inputMorsel: MorselExecutionContext): ContinuableOperatorTask = {
     val valueIndexCursor = context.transactionalContext.cursors.allocateNodeValueIndexCursor()
     val index = context.transactionalContext.schemaRead.index(label, property.propertyKeyId)
-    new OTask(valueIndexCursor, index)
+    new OTask(valueIndexCursor, index, inputMorsel)
   }
 
-  class OTask(valueIndexCursor: NodeValueIndexCursor, index: IndexReference) extends ContinuableOperatorTask {
+  class OTask(valueIndexCursor: NodeValueIndexCursor, index: IndexReference, argument: MorselExecutionContext) extends ContinuableOperatorTask {
 
     var hasMore = false
     override def operate(currentRow: MorselExecutionContext,
@@ -53,7 +53,7 @@ class NodeIndexScanOperator(nodeOffset: Int,
         read.nodeIndexScan(index, valueIndexCursor, IndexOrder.NONE, property.maybeCachedNodePropertySlot.isDefined)
       }
 
-      hasMore = iterate(currentRow, valueIndexCursor, argumentSize)
+      hasMore = iterate(currentRow, valueIndexCursor, argument, argumentSize)
     }
 
     override def canContinue: Boolean = hasMore
@@ -49,7 +49,7 @@ class NodeIndexSeekOperator(offset: Int,
     val queryState = new OldQueryState(context, resources = null, params = state.params)
     val indexReference = reference(context)
     val nodeCursor = indexSeek(queryState, indexReference, needsValues, indexOrder, currentRow)
-    new OTask(nodeCursor)
+    new OTask(nodeCursor, currentRow)
   }
 
   override val propertyIds: Array[Int] = properties.map(_.propertyKeyId)
@@ -63,7 +63,7 @@ class NodeIndexSeekOperator(offset: Int,
     reference
   }
 
-  class OTask(nodeCursors: Iterator[NodeValueIndexCursor]) extends ContinuableOperatorTask {
+  class OTask(nodeCursors: Iterator[NodeValueIndexCursor], argument: MorselExecutionContext) extends ContinuableOperatorTask {
 
     private var nodeCursor: NodeValueIndexCursor = _
     private var _canContinue: Boolean = true
@@ -87,6 +87,7 @@ class NodeIndexSeekOperator(offset: Int,
                          state: QueryState): Unit = {
 
       while (currentRow.hasMoreRows && next()) {
+        currentRow.copyFrom(argument, argumentSize.nLongs, argumentSize.nReferences)
         currentRow.setLongAt(offset, nodeCursor.nodeReference())
         var i = 0
         while (i < indexPropertyIndices.length) {
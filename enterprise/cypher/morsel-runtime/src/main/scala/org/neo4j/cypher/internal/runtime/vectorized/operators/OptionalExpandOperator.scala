@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+package org.neo4j.cypher.internal.runtime.vectorized.operators
+
+import org.neo4j.cypher.internal.runtime.QueryContext
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Predicate
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.{LazyTypes, QueryState => OldQueryState}
+import org.neo4j.cypher.internal.runtime.slotted.helpers.NullChecker.entityIsNull
+import org.neo4j.cypher.internal.runtime.vectorized._
+import org.neo4j.internal.kernel.api.helpers.RelationshipSelectionCursor
+import org.opencypher.v9_0.expressions.SemanticDirection
+
+/**
+  * Expands every input row like [[ExpandAllOperator]] (or [[ExpandIntoOperator]] if `expandInto` is set), but only
+  * keeps the relationships matching the predicate. Input rows without any such relationship are kept, with the
+  * relationship (and, when expanding all, the to-node) set to null.
+  */
+class OptionalExpandOperator(fromOffset: Int,
+                             relOffset: Int,
+                             toOffset: Int,
+                             dir: SemanticDirection,
+                             types: LazyTypes,
+                             predicate: Predicate,
+                             expandInto: Boolean) extends StreamingOperator {
+
+  override def init(queryContext: QueryContext, state: QueryState, inputMorsel: MorselExecutionContext): ContinuableOperatorTask =
+    new OTask(inputMorsel)
+
+  class OTask(val inputRow: MorselExecutionContext) extends ContinuableOperatorTask {
+
+    var relationships: RelationshipSelectionCursor = _
+    var foundMatch = false
+
+    override def operate(outputRow: MorselExecutionContext,
+                         context: QueryContext,
+                         state: QueryState): Unit = {
+
+      val queryState = new OldQueryState(context, resources = null, params = state.params)
+
+      while (inputRow.hasMoreRows && outputRow.hasMoreRows) {
+
+        val fromNode = inputRow.getLongAt(fromOffset)
+        val toNode = if (expandInto) inputRow.getLongAt(toOffset) else -1L
+        if (entityIsNull(fromNode) || (expandInto && entityIsNull(toNode))) {
+          writeNullRow(outputRow)
+          inputRow.moveToNextRow()
+        }
+        else {
+          if (relationships == null) {
+            relationships = context.getRelationshipsCursor(fromNode, dir, types.types(context))
+            foundMatch = false
+          }
+
+          while (outputRow.hasMoreRows && relationships.next()) {
+            val otherSide = relationships.otherNodeReference()
+            if (!expandInto || otherSide == toNode) {
+              outputRow.copyFrom(inputRow)
+              outputRow.setLongAt(relOffset, relationships.relationshipReference())
+              outputRow.setLongAt(toOffset, otherSide)
+              // The predicate is evaluated on the candidate row; rows that don't match are simply overwritten
+              if (predicate.isTrue(outputRow, queryState)) {
+                foundMatch = true
+                outputRow.moveToNextRow()
+              }
+            }
+          }
+
+          //we haven't filled up the rows
+          if (outputRow.hasMoreRows) {
+            relationships.close()
+            relationships = null
+            if (!foundMatch) {
+              writeNullRow(outputRow)
+            }
+            inputRow.moveToNextRow()
+          }
+        }
+      }
+      outputRow.finishedWriting()
+    }
+
+    private def writeNullRow(outputRow: MorselExecutionContext): Unit = {
+      outputRow.copyFrom(inputRow)
+      outputRow.setLongAt(relOffset, -1L)
+      if (!expandInto) {
+        outputRow.setLongAt(toOffset, -1L)
+      }
+      outputRow.moveToNextRow()
+    }
+
+    override def canContinue: Boolean = inputRow.hasMoreRows || relationships != null
+  }
+}
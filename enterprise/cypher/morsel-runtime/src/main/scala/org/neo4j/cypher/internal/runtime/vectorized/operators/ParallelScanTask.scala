@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+package org.neo4j.cypher.internal.runtime.vectorized.operators
+
+import org.neo4j.cypher.internal.compatibility.v3_5.runtime.SlotConfiguration
+import org.neo4j.cypher.internal.runtime.QueryContext
+import org.neo4j.cypher.internal.runtime.vectorized._
+import org.neo4j.internal.kernel.api.{Cursor, Scan}
+
+/**
+  * One of several tasks sharing a [[Scan]], each repeatedly reserving a batch of the scan
+  * for its own cursor until the whole scan has been handed out.
+  *
+  * The cursor is allocated from the query context the task is first operated with, i.e. on the worker,
+  * and closed back into it once the scan is exhausted. In parallel execution every work unit has a query
+  * context of its own, so the cursor pool of that context is not shared with any other task.
+  */
+abstract class ParallelScanTask[CURSOR >: Null <: Cursor](scan: Scan[CURSOR],
+                                                          offset: Int,
+                                                          argument: MorselExecutionContext,
+                                                          argumentSize: SlotConfiguration.Size) extends ContinuableOperatorTask {
+
+  private var cursor: CURSOR = _
+  private var batchHasMore = false
+  private var scanHasMore = true
+
+  protected def allocateCursor(context: QueryContext): CURSOR
+
+  protected def reference(cursor: CURSOR): Long
+
+  override def operate(currentRow: MorselExecutionContext,
+                       context: QueryContext,
+                       state: QueryState): Unit = {
+
+    if (cursor == null && scanHasMore) {
+      cursor = allocateCursor(context)
+    }
+
+    while (currentRow.hasMoreRows && scanHasMore) {
+      if (!batchHasMore) {
+        scanHasMore = scan.initialize(cursor)
+      }
+      batchHasMore = scanHasMore && cursor.next()
+      if (batchHasMore) {
+        currentRow.copyFrom(argument, argumentSize.nLongs, argumentSize.nReferences)
+        currentRow.setLongAt(offset, reference(cursor))
+        currentRow.moveToNextRow()
+      }
+    }
+
+    currentRow.finishedWriting()
+
+    if (!scanHasMore) {
+      if (cursor != null) {
+        cursor.close()
+        cursor = null
+      }
+    }
+  }
+
+  override def canContinue: Boolean = scanHasMore
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+package org.neo4j.cypher.internal.runtime.vectorized.operators
+
+import org.neo4j.cypher.internal.compatibility.v3_5.runtime.SlotConfiguration
+import org.neo4j.cypher.internal.runtime.QueryContext
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Predicate
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.{LazyTypes, QueryState => OldQueryState}
+import org.neo4j.cypher.internal.runtime.slotted.helpers.NullChecker.entityIsNull
+import org.neo4j.cypher.internal.runtime.vectorized._
+import org.neo4j.kernel.impl.api.store.RelationshipIterator
+import org.neo4j.storageengine.api.RelationshipVisitor
+import org.neo4j.values.storable.Values
+import org.neo4j.values.virtual.{RelationshipValue, VirtualValues}
+import org.opencypher.v9_0.expressions.SemanticDirection
+import org.opencypher.v9_0.util.InternalException
+
+import scala.collection.mutable
+
+/**
+  * Variable length expand, doing a depth first traversal from the from-node of every input row.
+  *
+  * The node and relationship predicates are evaluated on the input row, using the temporary node and relationship
+  * slots that the slot allocation reserves in the incoming slot configuration.
+  */
+class VarExpandOperator(fromOffset: Int,
+                        relOffset: Int,
+                        toOffset: Int,
+                        dir: SemanticDirection,
+                        projectedDir: SemanticDirection,
+                        types: LazyTypes,
+                        min: Int,
+                        maxDepth: Option[Int],
+                        shouldExpandAll: Boolean,
+                        tempNodeOffset: Int,
+                        tempEdgeOffset: Int,
+                        nodePredicate: Predicate,
+                        edgePredicate: Predicate,
+                        argumentSize: SlotConfiguration.Size) extends StreamingOperator {
+
+  private val needsFlipping =
+    if (dir == SemanticDirection.BOTH) projectedDir == SemanticDirection.INCOMING
+    else dir != projectedDir
+
+  override def init(queryContext: QueryContext, state: QueryState, inputMorsel: MorselExecutionContext): ContinuableOperatorTask =
+    new OTask(inputMorsel)
+
+  class OTask(val inputRow: MorselExecutionContext) extends ContinuableOperatorTask {
+
+    var paths: Iterator[(Long, Seq[RelationshipValue])] = _
+
+    override def operate(outputRow: MorselExecutionContext,
+                         context: QueryContext,
+                         state: QueryState): Unit = {
+
+      val queryState = new OldQueryState(context, resources = null, params = state.params)
+
+      while (inputRow.hasMoreRows && outputRow.hasMoreRows) {
+
+        val fromNode = inputRow.getLongAt(fromOffset)
+        if (entityIsNull(fromNode)) {
+          outputRow.copyFrom(inputRow, argumentSize.nLongs, argumentSize.nReferences)
+          outputRow.setRefAt(relOffset, Values.NO_VALUE)
+          if (shouldExpandAll)
+            outputRow.setLongAt(toOffset, -1L)
+          outputRow.moveToNextRow()
+          inputRow.moveToNextRow()
+        }
+        else {
+          if (paths == null) {
+            // We set the fromNode on the temp node offset as well, to be able to run our node predicate and make
+            // sure the start node is valid
+            inputRow.setLongAt(tempNodeOffset, fromNode)
+            paths =
+              if (nodePredicate.isTrue(inputRow, queryState)) varLengthExpand(fromNode, context, queryState)
+              else Iterator.empty
+          }
+
+          while (outputRow.hasMoreRows && paths.hasNext) {
+            val (toNode, rels) = paths.next()
+            if (rels.length >= min && (shouldExpandAll || inputRow.getLongAt(toOffset) == toNode)) {
+              outputRow.copyFrom(inputRow, argumentSize.nLongs, argumentSize.nReferences)
+              if (shouldExpandAll)
+                outputRow.setLongAt(toOffset, toNode)
+              outputRow.setRefAt(relOffset, VirtualValues.list(rels.toArray: _*))
+              outputRow.moveToNextRow()
+            }
+          }
+
+          //we haven't filled up the rows
+          if (outputRow.hasMoreRows) {
+            paths = null
+            inputRow.moveToNextRow()
+          }
+        }
+      }
+      outputRow.finishedWriting()
+    }
+
+    override def canContinue: Boolean = inputRow.hasMoreRows || paths != null
+
+    private def varLengthExpand(node: Long,
+                                context: QueryContext,
+                                queryState: OldQueryState): Iterator[(Long, Seq[RelationshipValue])] = {
+      val stack = new mutable.Stack[(Long, Seq[RelationshipValue])]
+      stack.push((node, Seq.empty))
+
+      new Iterator[(Long, Seq[RelationshipValue])] {
+        override def next(): (Long, Seq[RelationshipValue]) = {
+          val (fromNode, rels) = stack.pop()
+          if (rels.length < maxDepth.getOrElse(Int.MaxValue)) {
+            val relationships: RelationshipIterator = context.getRelationshipsForIdsPrimitive(fromNode, dir, types.types(context))
+
+            var relationship: RelationshipValue = null
+
+            val relVisitor = new RelationshipVisitor[InternalException] {
+              override def visit(relationshipId: Long, typeId: Int, startNodeId: Long, endNodeId: Long): Unit = {
+                relationship = context.getRelationshipFor(relationshipId, typeId, startNodeId, endNodeId)
+              }
+            }
+
+            while (relationships.hasNext) {
+              val relId = relationships.next()
+              relationships.relationshipVisit(relId, relVisitor)
+              val relationshipIsUniqueInPath = !rels.contains(relationship)
+
+              if (relationshipIsUniqueInPath) {
+                inputRow.setLongAt(tempEdgeOffset, relId)
+                inputRow.setLongAt(tempNodeOffset, relationship.otherNodeId(fromNode))
+                // Before expanding, check that both the edge and node in question fulfil the predicate
+                if (edgePredicate.isTrue(inputRow, queryState) && nodePredicate.isTrue(inputRow, queryState)) {
+                  stack.push((relationship.otherNodeId(fromNode), rels :+ relationship))
+                }
+              }
+            }
+          }
+
+          (fromNode, if (needsFlipping) rels.reverse else rels)
+        }
+
+        override def hasNext: Boolean = stack.nonEmpty
+      }
+    }
+  }
+}
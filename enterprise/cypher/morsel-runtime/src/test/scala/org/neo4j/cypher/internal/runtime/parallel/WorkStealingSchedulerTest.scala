@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+package org.neo4j.cypher.internal.runtime.parallel
+
+import java.util.concurrent.{Executors, ForkJoinPool, TimeUnit}
+import java.util.concurrent.atomic.AtomicBoolean
+
+import scala.concurrent.duration.Duration
+
+class WorkStealingSchedulerTest extends SchedulerTest {
+  private val waitTimeout = Duration(10, TimeUnit.MILLISECONDS)
+
+  // a ForkJoinPool does not guarantee that tiny tasks are spread over all of its threads, which the
+  // shared scheduler tests check, so those run on a fixed pool
+  override def newScheduler(maxConcurrency: Int): Scheduler =
+    new WorkStealingScheduler(Executors.newFixedThreadPool(maxConcurrency), waitTimeout)
+
+  test("execute several initial tasks") {
+    val s = new WorkStealingScheduler(new ForkJoinPool(4), waitTimeout)
+
+    val result = new java.util.concurrent.ConcurrentLinkedQueue[String]
+    val queryExecution = s.execute(List(
+      NoopTask(() => result.add("once")),
+      NoopTask(() => result.add("upon")),
+      NoopTask(() => result.add("a")),
+      NoopTask(() => result.add("time"))), SchedulerTracer.NoSchedulerTracer)
+
+    queryExecution.await() should be(None)
+    result.toArray.toSet should equal(Set("once", "upon", "a", "time"))
+  }
+
+  test("report failure of a task") {
+    val s = newScheduler(2)
+    val failure = new IllegalStateException("failing task")
+
+    val queryExecution = s.execute(NoopTask(() => throw failure), SchedulerTracer.NoSchedulerTracer)
+
+    queryExecution.await() should be(Some(failure))
+  }
+
+  test("stop scheduling work units of a cancelled query") {
+    val s = newScheduler(2)
+    val cancelled = new AtomicBoolean()
+    val reason = new IllegalStateException("cancelled")
+
+    val endlessTask = new Task {
+      override def executeWorkUnit(): Seq[Task] = {
+        Thread.sleep(1)
+        Seq.empty
+      }
+      override def canContinue: Boolean = true
+    }
+    val queryExecution = s.execute(endlessTask, SchedulerTracer.NoSchedulerTracer)
+    cancelled.set(true)
+
+    queryExecution.await(() => if (cancelled.get()) Some(reason) else None) should be(Some(reason))
+  }
+}
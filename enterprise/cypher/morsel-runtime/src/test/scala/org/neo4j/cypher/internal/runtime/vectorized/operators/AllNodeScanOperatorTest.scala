@@ -26,7 +26,7 @@ import org.mockito.Mockito._
 import org.neo4j.cypher.internal.compatibility.v3_5.runtime.SlotConfiguration
 import org.neo4j.cypher.internal.runtime.QueryContext
 import org.neo4j.cypher.internal.runtime.vectorized._
-import org.neo4j.internal.kernel.api.NodeCursor
+import org.neo4j.internal.kernel.api.{NodeCursor, Scan}
 import org.neo4j.values.AnyValue
 import org.neo4j.values.storable.Values
 import org.opencypher.v9_0.util.test_helpers.CypherFunSuite
@@ -110,4 +110,84 @@ class AllNodeScanOperatorTest extends CypherFunSuite {
     outputMorsel.validRows should equal(5)
   }
 
+  test("should split scan into tasks that together scan all batches") {
+    // Given
+    val argument = MorselExecutionContext(new Morsel(Array.empty, Array.empty, 1), 0, 0)
+    val outputRows = 10
+    val outputMorsel1 = new Morsel(new Array[Long](outputRows), new Array[AnyValue](0), outputRows)
+    val outputMorsel2 = new Morsel(new Array[Long](outputRows), new Array[AnyValue](0), outputRows)
+
+    val operator = new AllNodeScanOperator(0, SlotConfiguration.Size(0, 0))
+
+    // mock cursors and scan, where the scan hands out two batches in total
+    val context = mock[QueryContext](RETURNS_DEEP_STUBS)
+    val cursor1 = mock[NodeCursor]
+    val cursor2 = mock[NodeCursor]
+    val scan = mock[Scan[NodeCursor]]
+    when(scan.initialize(cursor1)).thenReturn(true, true, false)
+    when(scan.initialize(cursor2)).thenReturn(false)
+    when(cursor1.next()).thenReturn(true, true, false, true, false)
+    when(cursor1.nodeReference()).thenReturn(10, 11, 20)
+    when(context.transactionalContext.dataRead.allNodesScan()).thenReturn(scan)
+    when(context.transactionalContext.cursors.allocateNodeCursor()).thenReturn(cursor1, cursor2)
+
+    // When
+    val tasks = operator.init(context, null, argument, 2)
+    tasks(0).operate(MorselExecutionContext(outputMorsel1, 1, 0), context, QueryState.EMPTY)
+    tasks(1).operate(MorselExecutionContext(outputMorsel2, 1, 0), context, QueryState.EMPTY)
+
+    // Then
+    tasks should have size 2
+    tasks.exists(_.canContinue) should be(false)
+    outputMorsel1.longs.take(3) should equal(Array(10, 11, 20))
+    outputMorsel1.validRows should equal(3)
+    outputMorsel2.validRows should equal(0)
+    verify(cursor1).close()
+    verify(cursor2).close()
+  }
+
+  test("should allocate and close the cursor of each task in the context the task is operated with") {
+    // Given
+    val argument = MorselExecutionContext(new Morsel(Array.empty, Array.empty, 1), 0, 0)
+    val outputRows = 10
+    val outputMorsel1 = new Morsel(new Array[Long](outputRows), new Array[AnyValue](0), outputRows)
+    val outputMorsel2 = new Morsel(new Array[Long](outputRows), new Array[AnyValue](0), outputRows)
+
+    val operator = new AllNodeScanOperator(0, SlotConfiguration.Size(0, 0))
+
+    // the dispatcher only creates the scan, each worker has a context, and with that a cursor pool, of its own
+    val dispatcherContext = mock[QueryContext](RETURNS_DEEP_STUBS)
+    val workerContext1 = mock[QueryContext](RETURNS_DEEP_STUBS)
+    val workerContext2 = mock[QueryContext](RETURNS_DEEP_STUBS)
+    val cursor1 = mock[NodeCursor]
+    val cursor2 = mock[NodeCursor]
+    val scan = mock[Scan[NodeCursor]]
+    when(scan.initialize(cursor1)).thenReturn(true, false)
+    when(scan.initialize(cursor2)).thenReturn(true, false)
+    when(cursor1.next()).thenReturn(true, false)
+    when(cursor2.next()).thenReturn(true, false)
+    when(cursor1.nodeReference()).thenReturn(10)
+    when(cursor2.nodeReference()).thenReturn(20)
+    when(dispatcherContext.transactionalContext.dataRead.allNodesScan()).thenReturn(scan)
+    when(workerContext1.transactionalContext.cursors.allocateNodeCursor()).thenReturn(cursor1)
+    when(workerContext2.transactionalContext.cursors.allocateNodeCursor()).thenReturn(cursor2)
+
+    // When
+    val tasks = operator.init(dispatcherContext, null, argument, 2)
+
+    // Then
+    verify(dispatcherContext.transactionalContext.cursors, never()).allocateNodeCursor()
+
+    // And when
+    tasks(0).operate(MorselExecutionContext(outputMorsel1, 1, 0), workerContext1, QueryState.EMPTY)
+    tasks(1).operate(MorselExecutionContext(outputMorsel2, 1, 0), workerContext2, QueryState.EMPTY)
+
+    // Then
+    tasks.exists(_.canContinue) should be(false)
+    outputMorsel1.longs.take(1) should equal(Array(10))
+    outputMorsel2.longs.take(1) should equal(Array(20))
+    verify(dispatcherContext.transactionalContext.cursors, never()).allocateNodeCursor()
+    verify(cursor1).close()
+    verify(cursor2).close()
+  }
 }
@@ -76,7 +76,7 @@ class NodeIndexSeekOperatorTest extends CypherFunSuite with ImplicitDummyPos wit
     val slots = SlotConfiguration.empty.newLong("n", nullable = false, CTNode)
       .newReference("n." + propertyKey(0).name, nullable = false, CTAny)
     val properties = propertyKey.map(pk => SlottedIndexedProperty(pk.nameId.id, Some(slots.getReferenceOffsetFor("n." + pk.name)))).toArray
-    val operator = new NodeIndexSeekOperator(slots.getLongOffsetFor("n"), label, properties, IndexOrderNone, slots.size(),
+    val operator = new NodeIndexSeekOperator(slots.getLongOffsetFor("n"), label, properties, IndexOrderNone, SlotConfiguration.Size.zero,
       ManyQueryExpression(ListLiteral(
         Literal("hello"),
         Literal("bye")
@@ -120,7 +120,7 @@ class NodeIndexSeekOperatorTest extends CypherFunSuite with ImplicitDummyPos wit
       .newReference("n." + propertyKeys(0).name, nullable = false, CTAny)
       .newReference("n." + propertyKeys(1).name, nullable = false, CTAny)
     val properties = propertyKeys.map(pk => SlottedIndexedProperty(pk.nameId.id, Some(slots.getReferenceOffsetFor("n." + pk.name)))).toArray
-    val operator = new NodeIndexSeekOperator(slots.getLongOffsetFor("n"), label, properties, IndexOrderNone, slots.size(),
+    val operator = new NodeIndexSeekOperator(slots.getLongOffsetFor("n"), label, properties, IndexOrderNone, SlotConfiguration.Size.zero,
       CompositeQueryExpression(Seq(
         ManyQueryExpression(ListLiteral(
           Literal("hello"), Literal("bye")
@@ -167,7 +167,7 @@ class NodeIndexSeekOperatorTest extends CypherFunSuite with ImplicitDummyPos wit
       .newReference("n." + propertyKey(0).name, nullable = false, CTAny)
     val properties = propertyKey.map(pk => SlottedIndexedProperty(pk.nameId.id, Some(slots.getReferenceOffsetFor("n." + pk.name)))).toArray
 
-    val operator = new NodeIndexSeekOperator(slots.getLongOffsetFor("n"), label, properties, IndexOrderNone, slots.size(),
+    val operator = new NodeIndexSeekOperator(slots.getLongOffsetFor("n"), label, properties, IndexOrderNone, SlotConfiguration.Size.zero,
       ManyQueryExpression(ListLiteral(Literal("hello"), Literal("world"))), LockingUniqueIndexSeek)
 
     // When
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+package org.neo4j.cypher.internal.runtime.vectorized.operators
+
+import org.mockito.ArgumentMatchers.any
+import org.mockito.Mockito._
+import org.mockito.invocation.InvocationOnMock
+import org.mockito.stubbing.Answer
+import org.neo4j.cypher.internal.runtime.QueryContext
+import org.neo4j.cypher.internal.runtime.interpreted.ExecutionContext
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.{Predicate, True}
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.{LazyTypes, QueryState => OldQueryState}
+import org.neo4j.cypher.internal.runtime.vectorized._
+import org.neo4j.internal.kernel.api.helpers.RelationshipSelectionCursor
+import org.neo4j.values.AnyValue
+import org.opencypher.v9_0.expressions.SemanticDirection
+import org.opencypher.v9_0.util.test_helpers.CypherFunSuite
+
+class OptionalExpandOperatorTest extends CypherFunSuite {
+
+  test("should expand all and produce null rows for nodes without relationships") {
+    // Given
+    val inputMorsel = new Morsel(Array[Long](1, 2, -1), new Array[AnyValue](0), 3)
+    val outputMorsel = new Morsel(new Array[Long](3 * 5), new Array[AnyValue](0), 5)
+
+    val context = mock[QueryContext]
+    val cursor1 = relationships(10L -> 100L, 11L -> 101L)
+    val cursor2 = relationships()
+    when(context.getRelationshipsCursor(1, SemanticDirection.OUTGOING, None)).thenReturn(cursor1)
+    when(context.getRelationshipsCursor(2, SemanticDirection.OUTGOING, None)).thenReturn(cursor2)
+
+    val operator = new OptionalExpandOperator(0, 1, 2, SemanticDirection.OUTGOING, LazyTypes.empty, True(),
+                                              expandInto = false)
+
+    // When
+    val task = operator.init(context, QueryState.EMPTY, MorselExecutionContext(inputMorsel, 1, 0))
+    task.operate(MorselExecutionContext(outputMorsel, 3, 0), context, QueryState.EMPTY)
+
+    // Then
+    outputMorsel.longs should equal(Array(
+      1, 10, 100,
+      1, 11, 101,
+      2, -1, -1,
+      -1, -1, -1,
+      0, 0, 0))
+    outputMorsel.validRows should equal(4)
+    task.canContinue should be(false)
+  }
+
+  test("should expand into and filter relationships on predicate") {
+    // Given
+    val inputMorsel = new Morsel(Array[Long](1, 100, 2, 200), new Array[AnyValue](0), 2)
+    val outputMorsel = new Morsel(new Array[Long](3 * 5), new Array[AnyValue](0), 5)
+
+    val context = mock[QueryContext]
+    val cursor1 = relationships(10L -> 100L, 11L -> 102L, 12L -> 100L)
+    val cursor2 = relationships(20L -> 200L)
+    when(context.getRelationshipsCursor(1, SemanticDirection.BOTH, None)).thenReturn(cursor1)
+    when(context.getRelationshipsCursor(2, SemanticDirection.BOTH, None)).thenReturn(cursor2)
+
+    // only keeps relationships with an even id
+    val predicate = mock[Predicate]
+    when(predicate.isTrue(any[ExecutionContext](), any[OldQueryState]())).thenAnswer(new Answer[Boolean] {
+      override def answer(invocation: InvocationOnMock): Boolean =
+        invocation.getArgument[ExecutionContext](0).getLongAt(2) % 2 == 0
+    })
+
+    val operator = new OptionalExpandOperator(0, 2, 1, SemanticDirection.BOTH, LazyTypes.empty, predicate,
+                                              expandInto = true)
+
+    // When
+    val task = operator.init(context, QueryState.EMPTY, MorselExecutionContext(inputMorsel, 2, 0))
+    task.operate(MorselExecutionContext(outputMorsel, 3, 0), context, QueryState.EMPTY)
+
+    // Then
+    outputMorsel.longs should equal(Array(
+      1, 100, 10,
+      1, 100, 12,
+      2, 200, 20,
+      0, 0, 0,
+      0, 0, 0))
+    outputMorsel.validRows should equal(3)
+  }
+
+  private def relationships(relationshipsAndOtherNodes: (Long, Long)*): RelationshipSelectionCursor = {
+    val cursor = mock[RelationshipSelectionCursor]
+    var current = -1
+    when(cursor.next()).thenAnswer(new Answer[Boolean] {
+      override def answer(invocation: InvocationOnMock): Boolean = {
+        current += 1
+        current < relationshipsAndOtherNodes.size
+      }
+    })
+    when(cursor.relationshipReference()).thenAnswer(new Answer[Long] {
+      override def answer(invocation: InvocationOnMock): Long = relationshipsAndOtherNodes(current)._1
+    })
+    when(cursor.otherNodeReference()).thenAnswer(new Answer[Long] {
+      override def answer(invocation: InvocationOnMock): Long = relationshipsAndOtherNodes(current)._2
+    })
+    cursor
+  }
+}
@@ -19,12 +19,15 @@
  */
 package org.neo4j.cypher.internal.runtime.slotted
 
+import java.io.File
+
 import org.neo4j.cypher.internal.compatibility.v3_5.runtime.PhysicalPlanningAttributes.SlotConfigurations
 import org.neo4j.cypher.internal.compatibility.v3_5.runtime.IteratorBasedResult
 import org.neo4j.cypher.internal.compatibility.v3_5.runtime.executionplan.{BaseExecutionResultBuilderFactory, ExecutionResultBuilder, PipeInfo}
 import org.neo4j.cypher.internal.runtime.QueryContext
 import org.neo4j.cypher.internal.runtime.interpreted.ExecutionContext
-import org.neo4j.cypher.internal.runtime.interpreted.pipes.Pipe
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.SpillDirectory
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.{Pipe, QueryMemoryBudget}
 import org.neo4j.cypher.internal.v3_5.logical.plans.LogicalPlan
 import org.neo4j.cypher.result.QueryResult
 import org.neo4j.values.virtual.MapValue
@@ -36,7 +39,9 @@ class SlottedExecutionResultBuilderFactory(pipe: Pipe,
                                            columns: List[String],
                                            logicalPlan: LogicalPlan,
                                            pipelines: SlotConfigurations,
-                                           lenientCreateRelationship: Boolean)
+                                           lenientCreateRelationship: Boolean,
+                                           maxRowsInMemory: Long,
+                                           spillDirectory: File)
   extends BaseExecutionResultBuilderFactory(pipe, readOnly, columns, logicalPlan) {
 
   override def create(queryContext: QueryContext): ExecutionResultBuilder = SlottedExecutionWorkflowBuilder(queryContext)
@@ -49,7 +54,8 @@ class SlottedExecutionResultBuilderFactory(pipe: Pipe,
                             pipeDecorator,
                             triadicState = mutable.Map.empty,
                             repeatableReads = mutable.Map.empty,
-                            lenientCreateRelationship = lenientCreateRelationship)
+                            lenientCreateRelationship = lenientCreateRelationship,
+                            memoryBudget = new QueryMemoryBudget(maxRowsInMemory, SpillDirectory(spillDirectory)))
     }
 
     override def buildResultIterator(results: Iterator[ExecutionContext], readOnly: Boolean): IteratorBasedResult = {
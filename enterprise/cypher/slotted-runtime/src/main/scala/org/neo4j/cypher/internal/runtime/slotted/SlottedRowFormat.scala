@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.slotted
+
+import java.io.{DataInputStream, DataOutputStream}
+
+import org.neo4j.cypher.internal.compatibility.v3_5.runtime.SlotConfiguration
+import org.neo4j.cypher.internal.runtime.QueryContext
+import org.neo4j.cypher.internal.runtime.interpreted.ExecutionContext
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.{RowFormat, SpilledValues}
+import org.opencypher.v9_0.util.InternalException
+
+/**
+  * Format of the rows of the slotted runtime. Only the values of the slots are written, the slot configuration is kept
+  * in memory, since all rows written by an operator share the same configuration.
+  */
+class SlottedRowFormat extends RowFormat {
+
+  private var slots: SlotConfiguration = _
+
+  override def write(row: ExecutionContext, out: DataOutputStream): Unit = {
+    val context = row.asInstanceOf[SlottedExecutionContext]
+    if (slots == null) {
+      slots = context.slots
+    } else if (slots != context.slots) {
+      throw new InternalException(s"Tried writing rows of different slot configurations to disk: $slots and ${context.slots}")
+    }
+
+    context.longs.foreach(out.writeLong)
+    context.refs.foreach { value =>
+      out.writeBoolean(value != null)
+      if (value != null) {
+        SpilledValues.write(value, out)
+      }
+    }
+  }
+
+  override def read(in: DataInputStream, query: QueryContext): ExecutionContext = {
+    val context = SlottedExecutionContext(slots)
+    for (i <- context.longs.indices) {
+      context.longs(i) = in.readLong()
+    }
+    for (i <- context.refs.indices) {
+      if (in.readBoolean()) {
+        context.refs(i) = SpilledValues.read(in, query)
+      }
+    }
+    context
+  }
+}
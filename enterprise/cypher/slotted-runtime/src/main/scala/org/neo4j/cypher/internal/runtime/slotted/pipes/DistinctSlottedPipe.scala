@@ -22,15 +22,13 @@ package org.neo4j.cypher.internal.runtime.slotted.pipes
 import org.neo4j.cypher.internal.compatibility.v3_5.runtime.{Slot, SlotConfiguration}
 import org.neo4j.cypher.internal.runtime.interpreted.ExecutionContext
 import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Expression
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.SpillingDistinct
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.{Pipe, PipeWithSource, QueryState}
-import org.neo4j.cypher.internal.runtime.slotted.SlottedExecutionContext
+import org.neo4j.cypher.internal.runtime.slotted.{SlottedExecutionContext, SlottedRowFormat}
 import org.neo4j.cypher.internal.runtime.slotted.helpers.SlottedPipeBuilderUtils
 import org.opencypher.v9_0.util.attribution.Id
-import org.neo4j.values.AnyValue
 import org.neo4j.values.virtual.VirtualValues
 
-import scala.collection.mutable
-
 case class DistinctSlottedPipe(source: Pipe,
                                slots: SlotConfiguration,
                                groupingExpressions: Map[Slot, Expression])
@@ -69,15 +67,6 @@ case class DistinctSlottedPipe(source: Pipe,
     /*
      * Filter out rows we have already seen
      */
-    var seen = mutable.Set[AnyValue]()
-    result.filter { ctx =>
-      val values = VirtualValues.list(groupingGetFromSlotFunctions.map(f => f(ctx)): _*)
-      if (seen.contains(values)) {
-        false
-      } else {
-        seen += values
-        true
-      }
-    }
+    SpillingDistinct(result, ctx => VirtualValues.list(groupingGetFromSlotFunctions.map(f => f(ctx)): _*), new SlottedRowFormat, state)
   }
 }
@@ -23,14 +23,15 @@ import org.neo4j.cypher.internal.compatibility.v3_5.runtime.{Slot, SlotConfigura
 import org.neo4j.cypher.internal.runtime.interpreted.ExecutionContext
 import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.{AggregationExpression, Expression}
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.aggregation.AggregationFunction
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.SpillingAggregation
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.{Pipe, PipeWithSource, QueryState}
-import org.neo4j.cypher.internal.runtime.slotted.SlottedExecutionContext
+import org.neo4j.cypher.internal.runtime.slotted.{SlottedExecutionContext, SlottedRowFormat}
 import org.neo4j.cypher.internal.runtime.slotted.helpers.SlottedPipeBuilderUtils
 import org.opencypher.v9_0.util.attribution.Id
 import org.neo4j.values.AnyValue
 import org.neo4j.values.virtual.{ListValue, MapValue, VirtualValues}
 
-import scala.collection.{immutable, mutable}
+import scala.collection.immutable
 
 // Eager aggregation means that this pipe will eagerly load the whole resulting sub graphs before starting
 // to emit aggregated results.
@@ -117,8 +118,6 @@ case class EagerAggregationSlottedPipe(source: Pipe,
   protected def internalCreateResults(input: Iterator[ExecutionContext],
                                       state: QueryState): Iterator[ExecutionContext] = {
 
-    val result = mutable.LinkedHashMap[AnyValue, Seq[AggregationFunction]]()
-
     // Used when we have no input and no grouping expressions. In this case, we'll return a single row
     def createEmptyResult(params: MapValue): Iterator[ExecutionContext] = {
       val context = SlottedExecutionContext(slots)
@@ -141,19 +140,18 @@ case class EagerAggregationSlottedPipe(source: Pipe,
     }
 
     // Consume all input and aggregate
-    input.foreach(ctx => {
-      val groupingValue: AnyValue = groupingFunction(ctx, state)
-      val functions = result.getOrElseUpdate(groupingValue, aggregationFunctions.map(_.createAggregationFunction))
-      functions.foreach(func => func(ctx, state))
-    })
+    val result = SpillingAggregation(input,
+                                     groupingFunction(_, state),
+                                     () => aggregationFunctions.map(_.createAggregationFunction),
+                                     writeAggregationResultToContext,
+                                     new SlottedRowFormat,
+                                     state)
 
     // Write the produced aggregation map to the output pipeline
-    if (result.isEmpty && groupingExpressions.isEmpty) {
+    if (groupingExpressions.isEmpty && !result.hasNext) {
       createEmptyResult(state.params)
     } else {
-      result.map {
-        case (key, aggregator) => writeAggregationResultToContext(key, aggregator)
-      }.toIterator
+      result
     }
   }
 }
@@ -21,19 +21,21 @@ package org.neo4j.cypher.internal.runtime.slotted.pipes
 
 import org.neo4j.cypher.internal.compatibility.v3_5.runtime.SlotConfiguration
 import org.neo4j.cypher.internal.runtime.interpreted.ExecutionContext
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.SpillingEager
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.{Pipe, PipeWithSource, QueryState}
-import org.neo4j.cypher.internal.runtime.slotted.SlottedExecutionContext
+import org.neo4j.cypher.internal.runtime.slotted.{SlottedExecutionContext, SlottedRowFormat}
 import org.opencypher.v9_0.util.attribution.Id
 
 case class EagerSlottedPipe(source: Pipe, slots: SlotConfiguration)(val id: Id = Id.INVALID_ID)
   extends PipeWithSource(source) {
 
   override protected def internalCreateResults(input: Iterator[ExecutionContext], state: QueryState): Iterator[ExecutionContext] = {
-    input.map { inputRow =>
+    val rows = input.map { inputRow =>
       // this is necessary because Eager is the beginning of a new pipeline
       val outputRow = SlottedExecutionContext(slots)
       inputRow.copyTo(outputRow)
       outputRow
-    }.toIndexedSeq.iterator
+    }
+    SpillingEager(rows, new SlottedRowFormat, state)
   }
 }
@@ -23,9 +23,10 @@ import java.util.Comparator
 
 import org.neo4j.cypher.internal.compatibility.v3_5.runtime.{LongSlot, RefSlot, Slot, SlotConfiguration}
 import org.neo4j.cypher.internal.runtime.interpreted.ExecutionContext
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.spill.SpillingSort
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.{Pipe, PipeWithSource, QueryState}
 import org.opencypher.v9_0.util.attribution.Id
-import org.neo4j.cypher.internal.runtime.slotted.ExecutionContextOrdering
+import org.neo4j.cypher.internal.runtime.slotted.{ExecutionContextOrdering, SlottedRowFormat}
 import org.neo4j.values.{AnyValue, AnyValues}
 
 case class SortSlottedPipe(source: Pipe,
@@ -39,11 +40,8 @@ case class SortSlottedPipe(source: Pipe,
     .map(ExecutionContextOrdering.comparator)
     .reduceLeft[Comparator[ExecutionContext]]((a, b) => a.thenComparing(b))
 
-  override protected def internalCreateResults(input: Iterator[ExecutionContext], state: QueryState): Iterator[ExecutionContext] = {
-    val array = input.toArray
-    java.util.Arrays.sort(array, comparator)
-    array.toIterator
-  }
+  override protected def internalCreateResults(input: Iterator[ExecutionContext], state: QueryState): Iterator[ExecutionContext] =
+    SpillingSort(input, comparator, new SlottedRowFormat, state)
 }
 
 sealed trait ColumnOrder {
@@ -52,6 +52,24 @@ class EagerAggregationSlottedPipeTest extends CypherFunSuite with SlottedPipeTes
     ))
   }
 
+  test("should aggregate more groups than fit into the memory budget") {
+    val slots = SlotConfiguration.empty
+      .newReference("a", nullable = false, CTInteger)
+      .newReference("count(*)", nullable = false, CTInteger)
+
+    val source = FakeSlottedPipe((0 until 1000).map(i => Map[String, Any]("a" -> i % 300)), slots)
+
+    val grouping = createReturnItemsFor(slots, "a")
+    val aggregation = Map(slots("count(*)").offset -> CountStar())
+    val aggregationPipe = EagerAggregationSlottedPipe(source, slots, grouping, aggregation)()
+    val state = QueryStateHelper.emptyWithMemoryBudget(10)
+
+    testableResult(aggregationPipe.createResults(state), slots) should contain theSameElementsAs (0 until 300).map { a =>
+      Map[String, AnyValue]("a" -> intValue(a), "count(*)" -> longValue(if (a < 100) 4 else 3))
+    }
+    state.query.resources.allResources shouldBe empty
+  }
+
   private def createReturnItemsFor(slots: SlotConfiguration, names: String*): Map[Slot, Expression] = names.map(k => slots(k) -> ReferenceFromSlot(slots(k).offset)).toMap
 
 }
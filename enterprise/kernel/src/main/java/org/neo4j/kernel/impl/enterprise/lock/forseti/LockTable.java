@@ -0,0 +1,266 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+package org.neo4j.kernel.impl.enterprise.lock.forseti;
+
+import org.eclipse.collections.api.block.procedure.primitive.LongObjectProcedure;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The global lock table of one resource type, mapping resource ids to the {@link ForsetiLockManager.Lock} currently
+ * held on them.
+ * <p/>
+ * The table is split into stripes by the hash of the resource id, and each stripe is an open addressing hash table
+ * with primitive {@code long} keys, so looking up a resource never boxes its id. Lookups are lock-free and only do
+ * volatile reads, which keeps the uncontended shared lock path free from both allocation and CAS on shared map
+ * state. Modifications synchronize on the stripe they touch.
+ * <p/>
+ * A slot is free as long as its value is {@code null}, and becomes a tombstone when its lock is removed. A slot is
+ * only ever reused for the same resource id, so a reader that sees a lock in a slot can trust the key it reads next.
+ * Tombstones are dropped when a stripe is rehashed into a new table, which is then published as a whole. Readers may
+ * briefly keep looking at the previous table, which is fine for Forseti: a stale lock is either released, in which
+ * case it can no longer be acquired and the client retries, or it is still held and the client has to wait anyway.
+ */
+final class LockTable
+{
+    private static final int STRIPE_BITS = 6;
+    private static final int STRIPES = 1 << STRIPE_BITS;
+    private static final int MIN_CAPACITY = 16;
+    private static final Object TOMBSTONE = new Object();
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    LockTable()
+    {
+        for ( int i = 0; i < STRIPES; i++ )
+        {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * @return the lock held on the given resource, or {@code null} if there is none.
+     */
+    ForsetiLockManager.Lock get( long resourceId )
+    {
+        int hash = hash( resourceId );
+        Table table = stripes[hash >>> (Integer.SIZE - STRIPE_BITS)].table;
+        for ( int slot = hash & table.mask; ; slot = (slot + 1) & table.mask )
+        {
+            Object value = table.values.get( slot );
+            if ( value == null )
+            {
+                return null;
+            }
+            if ( value != TOMBSTONE && table.keys[slot] == resourceId )
+            {
+                return (ForsetiLockManager.Lock) value;
+            }
+        }
+    }
+
+    /**
+     * Associate the given lock with the resource, unless there already is a lock on it.
+     *
+     * @return the lock already held on the resource, or {@code null} if the given lock was put in the table.
+     */
+    ForsetiLockManager.Lock putIfAbsent( long resourceId, ForsetiLockManager.Lock lock )
+    {
+        int hash = hash( resourceId );
+        return stripes[hash >>> (Integer.SIZE - STRIPE_BITS)].put( hash, resourceId, lock, true );
+    }
+
+    /**
+     * Associate the given lock with the resource, replacing any lock that is already there.
+     */
+    void put( long resourceId, ForsetiLockManager.Lock lock )
+    {
+        int hash = hash( resourceId );
+        stripes[hash >>> (Integer.SIZE - STRIPE_BITS)].put( hash, resourceId, lock, false );
+    }
+
+    /**
+     * Remove whatever lock is held on the given resource.
+     */
+    void remove( long resourceId )
+    {
+        int hash = hash( resourceId );
+        stripes[hash >>> (Integer.SIZE - STRIPE_BITS)].remove( hash, resourceId );
+    }
+
+    /**
+     * Visit all locks in the table. Like iterating over a concurrent map, this reflects some state of every stripe
+     * at or after the time the visit of that stripe started.
+     */
+    void forEach( LongObjectProcedure<ForsetiLockManager.Lock> procedure )
+    {
+        for ( Stripe stripe : stripes )
+        {
+            Table table = stripe.table;
+            for ( int slot = 0; slot <= table.mask; slot++ )
+            {
+                Object value = table.values.get( slot );
+                if ( value != null && value != TOMBSTONE )
+                {
+                    procedure.value( table.keys[slot], (ForsetiLockManager.Lock) value );
+                }
+            }
+        }
+    }
+
+    int size()
+    {
+        int size = 0;
+        for ( Stripe stripe : stripes )
+        {
+            synchronized ( stripe )
+            {
+                size += stripe.size;
+            }
+        }
+        return size;
+    }
+
+    private static int hash( long resourceId )
+    {
+        long hash = resourceId * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    private static final class Table
+    {
+        private final long[] keys;
+        private final AtomicReferenceArray<Object> values;
+        private final int mask;
+
+        Table( int capacity )
+        {
+            keys = new long[capacity];
+            values = new AtomicReferenceArray<>( capacity );
+            mask = capacity - 1;
+        }
+    }
+
+    private static final class Stripe
+    {
+        private volatile Table table = new Table( MIN_CAPACITY );
+        /** Number of locks in the table, guarded by this. */
+        private int size;
+        /** Number of slots that are not free, meaning locks and tombstones, guarded by this. */
+        private int used;
+
+        synchronized ForsetiLockManager.Lock put( int hash, long resourceId, ForsetiLockManager.Lock lock,
+                boolean onlyIfAbsent )
+        {
+            Table table = this.table;
+            int slot = hash & table.mask;
+            while ( true )
+            {
+                Object value = table.values.get( slot );
+                if ( value == null )
+                {
+                    break;
+                }
+                if ( table.keys[slot] == resourceId )
+                {
+                    if ( value == TOMBSTONE )
+                    {
+                        // Slots are only reused for the same key, see class javadoc
+                        size++;
+                    }
+                    else if ( onlyIfAbsent )
+                    {
+                        return (ForsetiLockManager.Lock) value;
+                    }
+                    table.values.set( slot, lock );
+                    return null;
+                }
+                slot = (slot + 1) & table.mask;
+            }
+
+            if ( (used + 1) * 4 > table.mask * 3 )
+            {
+                table = rehash( table );
+                slot = hash & table.mask;
+                while ( table.values.get( slot ) != null )
+                {
+                    slot = (slot + 1) & table.mask;
+                }
+            }
+            // Write the key before publishing the value, readers rely on that ordering
+            table.keys[slot] = resourceId;
+            table.values.set( slot, lock );
+            size++;
+            used++;
+            return null;
+        }
+
+        synchronized void remove( int hash, long resourceId )
+        {
+            Table table = this.table;
+            for ( int slot = hash & table.mask; ; slot = (slot + 1) & table.mask )
+            {
+                Object value = table.values.get( slot );
+                if ( value == null )
+                {
+                    return;
+                }
+                if ( value != TOMBSTONE && table.keys[slot] == resourceId )
+                {
+                    table.values.set( slot, TOMBSTONE );
+                    size--;
+                    return;
+                }
+            }
+        }
+
+        private Table rehash( Table table )
+        {
+            int capacity = MIN_CAPACITY;
+            while ( capacity < (size + 1) * 2 )
+            {
+                capacity <<= 1;
+            }
+            Table newTable = new Table( capacity );
+            for ( int slot = 0; slot <= table.mask; slot++ )
+            {
+                Object value = table.values.get( slot );
+                if ( value != null && value != TOMBSTONE )
+                {
+                    long resourceId = table.keys[slot];
+                    int newSlot = hash( resourceId ) & newTable.mask;
+                    while ( newTable.values.get( newSlot ) != null )
+                    {
+                        newSlot = (newSlot + 1) & newTable.mask;
+                    }
+                    newTable.keys[newSlot] = resourceId;
+                    newTable.values.lazySet( newSlot, value );
+                }
+            }
+            // The volatile write of the table publishes all of its content
+            this.table = newTable;
+            used = size;
+            return newTable;
+        }
+    }
+}
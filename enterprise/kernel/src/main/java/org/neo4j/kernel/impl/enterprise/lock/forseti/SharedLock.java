@@ -23,7 +23,7 @@
 package org.neo4j.kernel.impl.enterprise.lock.forseti;
 
 import java.util.Set;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import org.neo4j.kernel.impl.util.collection.SimpleBitSet;
@@ -47,10 +47,14 @@ class SharedLock implements ForsetiLockManager.Lock
      */
     private static final int MAX_HOLDERS = 4680;
 
-    // TODO Investigate inlining and padding the refCount.
-    // TODO My gut feeling tells me there's a high chance of false-sharing
-    // TODO on these unpadded AtomicIntegers.
-    private final AtomicInteger refCount = new AtomicInteger( 1 );
+    private static final AtomicIntegerFieldUpdater<SharedLock> REF_COUNT =
+            AtomicIntegerFieldUpdater.newUpdater( SharedLock.class, "refCount" );
+
+    /**
+     * The ref count is inlined into the lock rather than kept in a separate {@code AtomicInteger}, so that creating a
+     * new shared lock allocates one object less. It is updated through {@link #REF_COUNT}.
+     */
+    private volatile int refCount = 1;
 
     /**
      * When reading this, keep in mind the main design goals here: Releasing and acquiring this lock should not require
@@ -150,10 +154,10 @@ class SharedLock implements ForsetiLockManager.Lock
     {
         while ( true )
         {
-            int refs = refCount.get();
+            int refs = refCount;
             if ( refs > 0 /* UPDATE_LOCK flips the sign bit, so refs will be < 0 if it is an update lock. */ )
             {
-                if ( refCount.compareAndSet( refs, refs | UPDATE_LOCK_FLAG ) )
+                if ( REF_COUNT.compareAndSet( this, refs, refs | UPDATE_LOCK_FLAG ) )
                 {
                     updateHolder = client;
                     return true;
@@ -170,9 +174,9 @@ class SharedLock implements ForsetiLockManager.Lock
     {
         while ( true )
         {
-            int refs = refCount.get();
+            int refs = refCount;
             cleanUpdateHolder();
-            if ( refCount.compareAndSet( refs, refs & ~UPDATE_LOCK_FLAG ) )
+            if ( REF_COUNT.compareAndSet( this, refs, refs & ~UPDATE_LOCK_FLAG ) )
             {
                 return;
             }
@@ -186,12 +190,12 @@ class SharedLock implements ForsetiLockManager.Lock
 
     public int numberOfHolders()
     {
-        return refCount.get() & ~UPDATE_LOCK_FLAG;
+        return refCount & ~UPDATE_LOCK_FLAG;
     }
 
     public boolean isUpdateLock()
     {
-        return (refCount.get() & UPDATE_LOCK_FLAG) == UPDATE_LOCK_FLAG;
+        return (refCount & UPDATE_LOCK_FLAG) == UPDATE_LOCK_FLAG;
     }
 
     @Override
@@ -242,7 +246,7 @@ class SharedLock implements ForsetiLockManager.Lock
         {
             return "UpdateLock{" +
                    "objectId=" + System.identityHashCode( this ) +
-                   ", refCount=" + (refCount.get() & ~UPDATE_LOCK_FLAG) +
+                   ", refCount=" + (refCount & ~UPDATE_LOCK_FLAG) +
                    ", holder=" + updateHolder +
                    '}';
         }
@@ -314,11 +318,11 @@ class SharedLock implements ForsetiLockManager.Lock
     {
         while ( true )
         {
-            int refs = refCount.get();
+            int refs = refCount;
             // UPDATE_LOCK flips the sign bit, so refs will be < 0 if it is an update lock.
             if ( refs > 0 && refs < MAX_HOLDERS )
             {
-                if ( refCount.compareAndSet( refs, refs + 1 ) )
+                if ( REF_COUNT.compareAndSet( this, refs, refs + 1 ) )
                 {
                     return true;
                 }
@@ -334,9 +338,9 @@ class SharedLock implements ForsetiLockManager.Lock
     {
         while ( true )
         {
-            int refAndUpdateFlag = refCount.get();
+            int refAndUpdateFlag = refCount;
             int newRefCount = (refAndUpdateFlag & ~UPDATE_LOCK_FLAG) - 1;
-            if ( refCount.compareAndSet( refAndUpdateFlag, newRefCount | (refAndUpdateFlag & UPDATE_LOCK_FLAG) ) )
+            if ( REF_COUNT.compareAndSet( this, refAndUpdateFlag, newRefCount | (refAndUpdateFlag & UPDATE_LOCK_FLAG) ) )
             {
                 return newRefCount == 0;
             }
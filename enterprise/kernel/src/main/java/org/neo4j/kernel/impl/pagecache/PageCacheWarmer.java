@@ -22,36 +22,47 @@
  */
 package org.neo4j.kernel.impl.pagecache;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.InterruptedIOException;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Optional;
 import java.util.OptionalLong;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.RejectedExecutionHandler;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 import java.util.stream.Stream;
 
 import org.neo4j.graphdb.Resource;
 import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.FileUtils;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.io.pagecache.PagedFile;
 import org.neo4j.io.pagecache.impl.FileIsNotMappedException;
+import org.neo4j.kernel.impl.pagecache.monitor.PageCacheWarmerMonitor;
+import org.neo4j.kernel.impl.pagecache.monitor.PageCacheWarmerMonitorAdapter;
 import org.neo4j.kernel.impl.transaction.state.NeoStoreFileListing;
 import org.neo4j.scheduler.Group;
 import org.neo4j.scheduler.JobScheduler;
 import org.neo4j.storageengine.api.StoreFileMetadata;
 
+import static java.util.Comparator.comparingLong;
 import static java.util.Comparator.naturalOrder;
 import static org.neo4j.io.pagecache.PagedFile.PF_NO_FAULT;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
@@ -69,28 +80,70 @@ import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
  * <p>
  * These cacheprof files are compressed bitmaps where each raised bit indicates that the page identified by the
  * bit-index was in memory.
+ * <p>
+ * When reheating, each profiled file is split into ranges of pages. The ranges are loaded in parallel if the database
+ * lives on a device that can handle parallel IO, and one at a time otherwise. Each range is loaded in ascending page
+ * order, which is the order of the bitmap, so the reads within a range are as sequential as the profile allows.
+ * Pages already in memory, e.g. because queries touched them while warming up, are skipped. Only the pages that miss
+ * count against the optional limit on the number of pages read per second, which leaves IO bandwidth for the page
+ * faults of queries.
  */
 public class PageCacheWarmer implements NeoStoreFileListing.StoreFileProvider
 {
     public static final String SUFFIX_CACHEPROF = ".cacheprof";
 
     private static final int IO_PARALLELISM = Runtime.getRuntime().availableProcessors();
+    /**
+     * Reheat in parallel if the database lives on a device that can handle parallel IO, and one file at a time
+     * otherwise.
+     */
+    static final int PARALLELISM_BY_DEVICE = 0;
+    /**
+     * No limit on the number of pages read per second.
+     */
+    static final long UNLIMITED_IOPS = -1;
+    /**
+     * Number of profiled pages in each range of a file that is loaded as a separate task.
+     */
+    static final long PAGES_PER_RANGE = 4096;
+    private static final int PROGRESS_REPORTS = 10;
 
     private final FileSystemAbstraction fs;
     private final PageCache pageCache;
     private final JobScheduler scheduler;
     private final File databaseDirectory;
+    private final PageCacheWarmerMonitor monitor;
+    private final int reheatParallelism;
+    private final long iopsLimit;
     private final ProfileRefCounts refCounts;
     private volatile boolean stopped;
     private ExecutorService executor;
-    private PageLoaderFactory pageLoaderFactory;
 
     PageCacheWarmer( FileSystemAbstraction fs, PageCache pageCache, JobScheduler scheduler, File databaseDirectory )
+    {
+        this( fs, pageCache, scheduler, databaseDirectory, new PageCacheWarmerMonitorAdapter() );
+    }
+
+    PageCacheWarmer( FileSystemAbstraction fs, PageCache pageCache, JobScheduler scheduler, File databaseDirectory,
+            PageCacheWarmerMonitor monitor )
+    {
+        this( fs, pageCache, scheduler, databaseDirectory, monitor, PARALLELISM_BY_DEVICE, UNLIMITED_IOPS );
+    }
+
+    /**
+     * @param reheatParallelism the number of page ranges to reheat at the same time, or {@link #PARALLELISM_BY_DEVICE}.
+     * @param iopsLimit the maximum number of pages to read from disk per second when reheating, or {@link #UNLIMITED_IOPS}.
+     */
+    PageCacheWarmer( FileSystemAbstraction fs, PageCache pageCache, JobScheduler scheduler, File databaseDirectory,
+            PageCacheWarmerMonitor monitor, int reheatParallelism, long iopsLimit )
     {
         this.fs = fs;
         this.pageCache = pageCache;
         this.scheduler = scheduler;
         this.databaseDirectory = databaseDirectory;
+        this.monitor = monitor;
+        this.reheatParallelism = reheatParallelism;
+        this.iopsLimit = iopsLimit;
         this.refCounts = new ProfileRefCounts();
     }
 
@@ -114,8 +167,12 @@ public class PageCacheWarmer implements NeoStoreFileListing.StoreFileProvider
     public synchronized void start()
     {
         stopped = false;
-        executor = buildExecutorService( scheduler );
-        pageLoaderFactory = new PageLoaderFactory( executor, pageCache );
+        int parallelism = reheatParallelism;
+        if ( parallelism == PARALLELISM_BY_DEVICE )
+        {
+            parallelism = FileUtils.highIODevice( databaseDirectory.toPath(), false ) ? IO_PARALLELISM : 1;
+        }
+        executor = parallelism > 1 ? buildExecutorService( scheduler, parallelism ) : null;
     }
 
     public void stop()
@@ -148,21 +205,86 @@ public class PageCacheWarmer implements NeoStoreFileListing.StoreFileProvider
         {
             return OptionalLong.empty();
         }
-        long pagesLoaded = 0;
         List<PagedFile> files = pageCache.listExistingMappings();
         Profile[] existingProfiles = findExistingProfiles( files );
+        List<FileWarmup> warmups = new ArrayList<>();
+        long pagesToLoad = 0;
         for ( PagedFile file : files )
+        {
+            FileWarmup warmup = findWarmup( file, existingProfiles );
+            if ( warmup != null )
+            {
+                warmups.add( warmup );
+                pagesToLoad += warmup.pages;
+            }
+        }
+        // Start with the biggest files, so we don't end up with one big file being loaded on its own at the end.
+        warmups.sort( comparingLong( ( FileWarmup warmup ) -> warmup.pages ).reversed() );
+        List<PageRange> ranges = new ArrayList<>();
+        for ( FileWarmup warmup : warmups )
+        {
+            warmup.splitInto( ranges );
+        }
+
+        WarmupProgress progress = new WarmupProgress( monitor, pagesToLoad );
+        IOBudget budget = new IOBudget( iopsLimit );
+        if ( executor != null )
+        {
+            reheatInParallel( ranges, progress, budget );
+        }
+        else
+        {
+            for ( PageRange range : ranges )
+            {
+                reheat( range, progress, budget );
+            }
+        }
+        return OptionalLong.of( progress.pagesLoaded() );
+    }
+
+    private void reheatInParallel( List<PageRange> ranges, WarmupProgress progress, IOBudget budget ) throws IOException
+    {
+        // The executor has a bounded number of threads, and runs tasks in the calling thread when it is saturated.
+        // This bounds the number of concurrent range loads, and thus the IO the warmup can put on the device.
+        List<Future<?>> futures = new ArrayList<>( ranges.size() );
+        for ( PageRange range : ranges )
+        {
+            futures.add( executor.submit( () ->
+            {
+                reheat( range, progress, budget );
+                return null;
+            } ) );
+        }
+        IOException failure = null;
+        for ( Future<?> future : futures )
         {
             try
             {
-                pagesLoaded += reheat( file, existingProfiles );
+                future.get();
             }
-            catch ( FileIsNotMappedException ignore )
+            catch ( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException( "Interrupted while waiting for page cache warmup to finish." );
+            }
+            catch ( ExecutionException e )
             {
-                // The database is allowed to map and unmap files while we are trying to heat it up.
+                IOException exception = e.getCause() instanceof IOException
+                                        ? (IOException) e.getCause() : new IOException( e.getCause() );
+                if ( failure == null )
+                {
+                    failure = exception;
+                }
+                else
+                {
+                    failure.addSuppressed( exception );
+                }
             }
         }
-        return OptionalLong.of( pagesLoaded );
+        if ( failure != null )
+        {
+            throw failure;
+        }
     }
 
     /**
@@ -204,65 +326,80 @@ public class PageCacheWarmer implements NeoStoreFileListing.StoreFileProvider
         return OptionalLong.of( pagesInMemory );
     }
 
-    private long reheat( PagedFile file, Profile[] existingProfiles ) throws IOException
+    private FileWarmup findWarmup( PagedFile file, Profile[] existingProfiles )
     {
-        Optional<Profile> savedProfile = filterRelevant( existingProfiles, file )
-                .sorted( Comparator.reverseOrder() ) // Try most recent profile first.
-                .filter( this::verifyChecksum )
-                .findFirst();
-
-        if ( !savedProfile.isPresent() )
+        // Try most recent profile first.
+        Iterator<Profile> profiles = filterRelevant( existingProfiles, file )
+                .sorted( Comparator.reverseOrder() )
+                .iterator();
+        while ( profiles.hasNext() )
         {
-            return 0;
+            Profile profile = profiles.next();
+            byte[] bitmap = readProfile( profile );
+            if ( bitmap != null )
+            {
+                return new FileWarmup( file, bitmap );
+            }
         }
+        return null;
+    }
 
-        // The file contents checks out. Let's load it in.
-        long pagesLoaded = 0;
-        try ( InputStream input = savedProfile.get().read( fs );
-              PageLoader loader = pageLoaderFactory.getLoader( file ) )
+    private void reheat( PageRange range, WarmupProgress progress, IOBudget budget ) throws IOException
+    {
+        byte[] bitmap = range.warmup.bitmap;
+        try ( PageLoader loader = new SingleCursorPageLoader( range.warmup.file ) )
         {
-            long pageId = 0;
-            int b;
-            while ( (b = input.read()) != -1 )
+            for ( int index = range.fromIndex; index < range.toIndex; index++ )
             {
+                int b = bitmap[index] & 0xFF;
+                long pageId = index * 8L;
                 for ( int i = 0; i < 8; i++ )
                 {
                     if ( stopped )
                     {
-                        pageCache.reportEvents();
-                        return pagesLoaded;
+                        return;
                     }
                     if ( (b & 1) == 1 )
                     {
-                        loader.load( pageId );
-                        pagesLoaded++;
+                        loader.load( pageId, budget );
+                        progress.pageLoaded();
                     }
                     b >>= 1;
                     pageId++;
                 }
             }
         }
-        pageCache.reportEvents();
-        return pagesLoaded;
+        catch ( FileIsNotMappedException ignore )
+        {
+            // The database is allowed to map and unmap files while we are trying to heat it up.
+        }
+        finally
+        {
+            pageCache.reportEvents();
+        }
     }
 
-    private boolean verifyChecksum( Profile profile )
+    /**
+     * @return the bitmap of profiled pages in the given profile, or {@code null} if the profile could not be read.
+     */
+    private byte[] readProfile( Profile profile )
     {
         // Successfully reading through and closing the compressed file implies verifying the gzip checksum.
         try ( InputStream input = profile.read( fs ) )
         {
-            int b;
-            do
+            ByteArrayOutputStream bitmap = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ( (read = input.read( buffer )) != -1 )
             {
-                b = input.read();
+                bitmap.write( buffer, 0, read );
             }
-            while ( b != -1 );
+            return bitmap.toByteArray();
         }
         catch ( IOException ignore )
         {
-            return false;
+            return null;
         }
-        return true;
     }
 
     private long profile( PagedFile file, Profile[] existingProfiles ) throws IOException
@@ -305,14 +442,18 @@ public class PageCacheWarmer implements NeoStoreFileListing.StoreFileProvider
         return pagesInMemory;
     }
 
-    private static ExecutorService buildExecutorService( JobScheduler scheduler )
+    private static ExecutorService buildExecutorService( JobScheduler scheduler, int parallelism )
     {
-        BlockingQueue<Runnable> workQueue = new LinkedBlockingQueue<>( IO_PARALLELISM * 4 );
+        BlockingQueue<Runnable> workQueue = new LinkedBlockingQueue<>( parallelism * 4 );
         RejectedExecutionHandler rejectionPolicy = new ThreadPoolExecutor.CallerRunsPolicy();
         ThreadFactory threadFactory = scheduler.threadFactory( Group.FILE_IO_HELPER );
-        return new ThreadPoolExecutor(
-                0, IO_PARALLELISM, 10, TimeUnit.SECONDS, workQueue,
+        // The pool only grows beyond its core size when the queue is full, so the core size must be the full
+        // parallelism. The threads still go away when the warmer is idle.
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                parallelism, parallelism, 10, TimeUnit.SECONDS, workQueue,
                 threadFactory, rejectionPolicy );
+        executor.allowCoreThreadTimeOut( true );
+        return executor;
     }
 
     private static Stream<Profile> filterRelevant( Profile[] profiles, PagedFile pagedFile )
@@ -320,6 +461,132 @@ public class PageCacheWarmer implements NeoStoreFileListing.StoreFileProvider
         return Stream.of( profiles ).filter( Profile.relevantTo( pagedFile ) );
     }
 
+    private static final class FileWarmup
+    {
+        private final PagedFile file;
+        private final byte[] bitmap;
+        private final long pages;
+
+        FileWarmup( PagedFile file, byte[] bitmap )
+        {
+            this.file = file;
+            this.bitmap = bitmap;
+            long pages = 0;
+            for ( byte b : bitmap )
+            {
+                pages += Integer.bitCount( b & 0xFF );
+            }
+            this.pages = pages;
+        }
+
+        /**
+         * Splits the profiled pages of this file into ascending ranges of about {@link #PAGES_PER_RANGE} pages each.
+         */
+        void splitInto( List<PageRange> ranges )
+        {
+            int fromIndex = 0;
+            long pagesInRange = 0;
+            for ( int index = 0; index < bitmap.length; index++ )
+            {
+                pagesInRange += Integer.bitCount( bitmap[index] & 0xFF );
+                if ( pagesInRange >= PAGES_PER_RANGE )
+                {
+                    ranges.add( new PageRange( this, fromIndex, index + 1 ) );
+                    fromIndex = index + 1;
+                    pagesInRange = 0;
+                }
+            }
+            if ( pagesInRange > 0 )
+            {
+                ranges.add( new PageRange( this, fromIndex, bitmap.length ) );
+            }
+        }
+    }
+
+    /**
+     * The profiled pages of a file covered by a range of bytes in its bitmap, {@code fromIndex} inclusive and
+     * {@code toIndex} exclusive.
+     */
+    private static final class PageRange
+    {
+        private final FileWarmup warmup;
+        private final int fromIndex;
+        private final int toIndex;
+
+        PageRange( FileWarmup warmup, int fromIndex, int toIndex )
+        {
+            this.warmup = warmup;
+            this.fromIndex = fromIndex;
+            this.toIndex = toIndex;
+        }
+    }
+
+    /**
+     * Limits the rate at which pages are read from disk, shared by all ranges being reheated.
+     */
+    static final class IOBudget
+    {
+        private final long nanosPerPage;
+        private long nextFreeNanos;
+
+        IOBudget( long iopsLimit )
+        {
+            this.nanosPerPage = iopsLimit > 0 ? Math.max( TimeUnit.SECONDS.toNanos( 1 ) / iopsLimit, 1 ) : 0;
+        }
+
+        /**
+         * Waits until another page can be read without exceeding the limit.
+         */
+        void acquire()
+        {
+            if ( nanosPerPage == 0 )
+            {
+                return;
+            }
+            long waitNanos;
+            synchronized ( this )
+            {
+                long now = System.nanoTime();
+                long slot = Math.max( nextFreeNanos, now );
+                nextFreeNanos = slot + nanosPerPage;
+                waitNanos = slot - now;
+            }
+            if ( waitNanos > 0 )
+            {
+                LockSupport.parkNanos( waitNanos );
+            }
+        }
+    }
+
+    private static final class WarmupProgress
+    {
+        private final PageCacheWarmerMonitor monitor;
+        private final long pagesToLoad;
+        private final long reportInterval;
+        private final AtomicLong pagesLoaded = new AtomicLong();
+
+        WarmupProgress( PageCacheWarmerMonitor monitor, long pagesToLoad )
+        {
+            this.monitor = monitor;
+            this.pagesToLoad = pagesToLoad;
+            this.reportInterval = Math.max( pagesToLoad / PROGRESS_REPORTS, 1 );
+        }
+
+        void pageLoaded()
+        {
+            long loaded = pagesLoaded.incrementAndGet();
+            if ( loaded % reportInterval == 0 )
+            {
+                monitor.warmupProgress( loaded, pagesToLoad );
+            }
+        }
+
+        long pagesLoaded()
+        {
+            return pagesLoaded.get();
+        }
+    }
+
     private Profile[] findExistingProfiles( List<PagedFile> pagedFiles )
     {
         Path databasePath = databaseDirectory.toPath();
@@ -50,7 +50,9 @@ class PageCacheWarmerKernelExtension extends LifecycleAdapter
         this.databaseAvailabilityGuard = databaseAvailabilityGuard;
         this.dataSource = dataSource;
         this.config = config;
-        pageCacheWarmer = new PageCacheWarmer( fs, pageCache, scheduler, dataSource.getDatabaseLayout().databaseDirectory() );
+        pageCacheWarmer = new PageCacheWarmer(
+                fs, pageCache, scheduler, dataSource.getDatabaseLayout().databaseDirectory(), monitor,
+                PageCacheWarmer.PARALLELISM_BY_DEVICE, config.get( GraphDatabaseSettings.pagecache_warmup_iops_limit ) );
         availabilityListener = new WarmupAvailabilityListener( scheduler, pageCacheWarmer, config, log, monitor );
     }
 
@@ -27,5 +27,8 @@ import java.io.IOException;
 
 interface PageLoader extends Closeable
 {
-    void load( long pageId ) throws IOException;
+    /**
+     * Makes sure the given page is in memory. Only a page that has to be read from the file acquires from the budget.
+     */
+    void load( long pageId, PageCacheWarmer.IOBudget budget ) throws IOException;
 }
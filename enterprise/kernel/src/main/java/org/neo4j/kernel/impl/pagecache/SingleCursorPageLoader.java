@@ -27,26 +27,36 @@ import java.io.IOException;
 import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.io.pagecache.PagedFile;
 
+import static org.neo4j.io.pagecache.PagedFile.PF_NO_FAULT;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
 
 class SingleCursorPageLoader implements PageLoader
 {
+    private final PageCursor probe;
     private final PageCursor cursor;
 
     SingleCursorPageLoader( PagedFile file ) throws IOException
     {
+        probe = file.io( 0, PF_SHARED_READ_LOCK | PF_NO_FAULT );
         cursor = file.io( 0, PF_SHARED_READ_LOCK );
     }
 
     @Override
-    public void load( long pageId ) throws IOException
+    public void load( long pageId, PageCacheWarmer.IOBudget budget ) throws IOException
     {
+        // Pages brought in by queries since startup are left alone, the budget goes to the pages that still miss
+        if ( probe.next( pageId ) && probe.getCurrentPageId() != PageCursor.UNBOUND_PAGE_ID )
+        {
+            return;
+        }
+        budget.acquire();
         cursor.next( pageId );
     }
 
     @Override
     public void close()
     {
+        probe.close();
         cursor.close();
     }
 }
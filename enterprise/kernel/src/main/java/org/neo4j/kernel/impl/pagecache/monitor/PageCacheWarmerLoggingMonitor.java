@@ -44,6 +44,15 @@ public class PageCacheWarmerLoggingMonitor extends PageCacheWarmerMonitorAdapter
         log.info( "Page cache warmup started." );
     }
 
+    @Override
+    public void warmupProgress( long pagesLoaded, long pagesToLoad )
+    {
+        long elapsedMillis = currentTimeMillis() - warmupStartMillis;
+        long remainingMillis = elapsedMillis * (pagesToLoad - pagesLoaded) / Math.max( pagesLoaded, 1 );
+        log.info( "Page cache warmup in progress. %d of %d pages loaded (%d%%). Estimated time remaining: %s.",
+                pagesLoaded, pagesToLoad, pagesLoaded * 100 / Math.max( pagesToLoad, 1 ), duration( remainingMillis ) );
+    }
+
     @Override
     public void warmupCompleted( long pagesLoaded )
     {
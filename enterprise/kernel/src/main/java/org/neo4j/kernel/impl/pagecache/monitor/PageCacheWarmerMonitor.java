@@ -26,6 +26,12 @@ public interface PageCacheWarmerMonitor
 {
     void warmupStarted();
 
+    /**
+     * Called periodically while the warmup is loading pages, with the number of pages loaded so far, and the total
+     * number of pages the warmup is going to load.
+     */
+    void warmupProgress( long pagesLoaded, long pagesToLoad );
+
     void warmupCompleted( long pagesLoaded );
 
     void profileCompleted( long pagesInMemory );
@@ -30,6 +30,12 @@ public class PageCacheWarmerMonitorAdapter implements PageCacheWarmerMonitor
         //nothing
     }
 
+    @Override
+    public void warmupProgress( long pagesLoaded, long pagesToLoad )
+    {
+        //nothing
+    }
+
     @Override
     public void warmupCompleted( long pagesLoaded )
     {
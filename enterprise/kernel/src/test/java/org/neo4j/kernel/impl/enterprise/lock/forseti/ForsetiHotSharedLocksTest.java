@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+package org.neo4j.kernel.impl.enterprise.lock.forseti;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.neo4j.kernel.DeadlockDetectedException;
+import org.neo4j.kernel.configuration.Config;
+import org.neo4j.kernel.impl.locking.Locks;
+import org.neo4j.kernel.impl.locking.ResourceTypes;
+import org.neo4j.storageengine.api.lock.LockTracer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Many short transactions each taking one lock, mostly shared, on one of a few hot resources. Shared locks on those
+ * resources are created and die all the time, which is when a client may look up a lock that is about to go away.
+ * No transaction holds a lock while waiting for another, so any deadlock detected is a false one.
+ */
+class ForsetiHotSharedLocksTest
+{
+    private static final int THREADS = 8;
+    private static final int RESOURCES = 4;
+    private static final int TRANSACTIONS_PER_THREAD = 20_000;
+    private static final double EXCLUSIVE_RATIO = 0.05;
+
+    @Test
+    void shouldNotDetectDeadlocksWhenLockingHotSharedResources() throws Exception
+    {
+        LongAdder deadlocks = new LongAdder();
+        Locks locks = new ForsetiLockManager( Config.defaults(), Clock.systemUTC(), ResourceTypes.values() );
+        ExecutorService executor = Executors.newFixedThreadPool( THREADS );
+        try
+        {
+            List<Future<?>> futures = new ArrayList<>();
+            for ( int i = 0; i < THREADS; i++ )
+            {
+                futures.add( executor.submit( () ->
+                {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for ( int transaction = 0; transaction < TRANSACTIONS_PER_THREAD; transaction++ )
+                    {
+                        try ( Locks.Client client = locks.newClient() )
+                        {
+                            long resourceId = random.nextInt( RESOURCES );
+                            if ( random.nextDouble() < EXCLUSIVE_RATIO )
+                            {
+                                client.acquireExclusive( LockTracer.NONE, ResourceTypes.NODE, resourceId );
+                            }
+                            else
+                            {
+                                client.acquireShared( LockTracer.NONE, ResourceTypes.NODE, resourceId );
+                            }
+                        }
+                        catch ( DeadlockDetectedException e )
+                        {
+                            deadlocks.increment();
+                        }
+                    }
+                    return null;
+                } ) );
+            }
+            for ( Future<?> future : futures )
+            {
+                future.get();
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+            locks.close();
+        }
+
+        assertEquals( 0, deadlocks.sum(), "False deadlocks detected" );
+    }
+}
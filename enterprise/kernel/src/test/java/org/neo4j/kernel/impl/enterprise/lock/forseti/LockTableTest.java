@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+package org.neo4j.kernel.impl.enterprise.lock.forseti;
+
+import org.eclipse.collections.api.map.primitive.MutableLongObjectMap;
+import org.eclipse.collections.impl.map.mutable.primitive.LongObjectHashMap;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+
+class LockTableTest
+{
+    private final LockTable table = new LockTable();
+
+    @Test
+    void shouldPutGetAndRemoveLocks()
+    {
+        ForsetiLockManager.Lock lockA = mock( ForsetiLockManager.Lock.class );
+        ForsetiLockManager.Lock lockB = mock( ForsetiLockManager.Lock.class );
+
+        assertNull( table.putIfAbsent( 1, lockA ) );
+        assertSame( lockA, table.putIfAbsent( 1, lockB ) );
+        assertSame( lockA, table.get( 1 ) );
+        assertNull( table.get( 2 ) );
+
+        table.put( 1, lockB );
+        assertSame( lockB, table.get( 1 ) );
+        assertEquals( 1, table.size() );
+
+        table.remove( 1 );
+        assertNull( table.get( 1 ) );
+        assertEquals( 0, table.size() );
+
+        assertNull( table.putIfAbsent( 1, lockA ) );
+        assertSame( lockA, table.get( 1 ) );
+        assertEquals( 1, table.size() );
+    }
+
+    @Test
+    void shouldHandleNegativeAndExtremeResourceIds()
+    {
+        long[] resourceIds = {0, -1, Long.MIN_VALUE, Long.MAX_VALUE, Integer.MIN_VALUE};
+        List<ForsetiLockManager.Lock> locks = new ArrayList<>();
+        for ( long resourceId : resourceIds )
+        {
+            ForsetiLockManager.Lock lock = mock( ForsetiLockManager.Lock.class );
+            locks.add( lock );
+            assertNull( table.putIfAbsent( resourceId, lock ) );
+        }
+
+        for ( int i = 0; i < resourceIds.length; i++ )
+        {
+            assertSame( locks.get( i ), table.get( resourceIds[i] ) );
+        }
+    }
+
+    @Test
+    void shouldGrowAndShrinkWithManyResources()
+    {
+        ForsetiLockManager.Lock lock = mock( ForsetiLockManager.Lock.class );
+        for ( int round = 0; round < 3; round++ )
+        {
+            for ( long resourceId = 0; resourceId < 100_000; resourceId++ )
+            {
+                assertNull( table.putIfAbsent( resourceId, lock ) );
+            }
+            assertEquals( 100_000, table.size() );
+
+            MutableLongObjectMap<ForsetiLockManager.Lock> visited = new LongObjectHashMap<>();
+            table.forEach( visited::put );
+            assertEquals( 100_000, visited.size() );
+
+            for ( long resourceId = 0; resourceId < 100_000; resourceId++ )
+            {
+                assertSame( lock, table.get( resourceId ) );
+                table.remove( resourceId );
+            }
+            assertEquals( 0, table.size() );
+        }
+    }
+
+    @Test
+    void shouldNeverLoseOrMixUpLocksUnderConcurrentModification() throws Exception
+    {
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool( threads );
+        try
+        {
+            List<Future<?>> futures = new ArrayList<>();
+            for ( int t = 0; t < threads; t++ )
+            {
+                int thread = t;
+                futures.add( executor.submit( () ->
+                {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    ForsetiLockManager.Lock myLock = mock( ForsetiLockManager.Lock.class );
+                    for ( int i = 0; i < 100_000; i++ )
+                    {
+                        // Every thread owns the resources with id = thread (mod threads)
+                        long resourceId = random.nextInt( 1000 ) * threads + thread;
+                        assertNull( table.putIfAbsent( resourceId, myLock ) );
+                        assertSame( myLock, table.get( resourceId ) );
+                        // Also look at resources of other threads, which must never give us our own lock
+                        assertNotMine( myLock, table.get( resourceId + 1 ) );
+                        table.remove( resourceId );
+                        assertNull( table.get( resourceId ) );
+                    }
+                } ) );
+            }
+            for ( Future<?> future : futures )
+            {
+                future.get();
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+        assertEquals( 0, table.size() );
+    }
+
+    private static void assertNotMine( ForsetiLockManager.Lock myLock, ForsetiLockManager.Lock lock )
+    {
+        if ( lock == myLock )
+        {
+            throw new AssertionError( "Found own lock on a resource of another thread" );
+        }
+    }
+}
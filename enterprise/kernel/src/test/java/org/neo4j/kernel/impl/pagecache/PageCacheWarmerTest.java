@@ -39,7 +39,13 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.neo4j.graphdb.Resource;
 import org.neo4j.io.ByteUnit;
@@ -49,6 +55,8 @@ import org.neo4j.io.pagecache.PagedFile;
 import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.io.pagecache.tracing.cursor.DefaultPageCursorTracerSupplier;
+import org.neo4j.kernel.impl.pagecache.monitor.PageCacheWarmerMonitor;
+import org.neo4j.kernel.impl.pagecache.monitor.PageCacheWarmerMonitorAdapter;
 import org.neo4j.kernel.lifecycle.LifeSupport;
 import org.neo4j.scheduler.JobScheduler;
 import org.neo4j.storageengine.api.StoreFileMetadata;
@@ -58,6 +66,7 @@ import org.neo4j.test.rule.fs.EphemeralFileSystemRule;
 import org.neo4j.test.rule.fs.FileSystemRule;
 
 import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertFalse;
@@ -281,6 +290,243 @@ public class PageCacheWarmerTest
         }
     }
 
+    @Test
+    public void mustReheatAllProfiledFilesAndReportProgress() throws Exception
+    {
+        File otherFile = new File( testDirectory.databaseDir(), "b" );
+        fs.create( otherFile );
+        try ( PageCache pageCache = pageCacheRule.getPageCache( fs, cfg );
+              PagedFile pfA = pageCache.map( file, pageCache.pageSize(), StandardOpenOption.CREATE );
+              PagedFile pfB = pageCache.map( otherFile, pageCache.pageSize(), StandardOpenOption.CREATE ) )
+        {
+            for ( PagedFile pf : new PagedFile[]{pfA, pfB} )
+            {
+                try ( PageCursor writer = pf.io( 0, PagedFile.PF_SHARED_WRITE_LOCK ) )
+                {
+                    for ( int pageId = 0; pageId < 20; pageId += 2 )
+                    {
+                        assertTrue( writer.next( pageId ) );
+                    }
+                }
+                pf.flushAndForce();
+            }
+            PageCacheWarmer warmer = new PageCacheWarmer( fs, pageCache, scheduler, testDirectory.databaseDir() );
+            warmer.start();
+            warmer.profile();
+        }
+
+        clearTracerCounts();
+        long initialFaults = cacheTracer.faults();
+        List<Long> progress = new CopyOnWriteArrayList<>();
+        PageCacheWarmerMonitor monitor = new PageCacheWarmerMonitorAdapter()
+        {
+            @Override
+            public void warmupProgress( long pagesLoaded, long pagesToLoad )
+            {
+                assertThat( pagesToLoad, is( 20L ) );
+                progress.add( pagesLoaded );
+            }
+        };
+        try ( PageCache pageCache = pageCacheRule.getPageCache( fs, cfg );
+              PagedFile ignoreA = pageCache.map( file, pageCache.pageSize() );
+              PagedFile ignoreB = pageCache.map( otherFile, pageCache.pageSize() ) )
+        {
+            PageCacheWarmer warmer = new PageCacheWarmer(
+                    fs, pageCache, scheduler, testDirectory.databaseDir(), monitor );
+            warmer.start();
+            assertThat( warmer.reheat().getAsLong(), is( 20L ) );
+
+            pageCache.reportEvents();
+            assertThat( cacheTracer.faults(), is( initialFaults + 20L ) );
+            assertThat( progress, hasSize( 10 ) );
+            assertTrue( progress.contains( 20L ) );
+        }
+    }
+
+    @Test
+    public void mustReheatFilesConcurrently() throws Exception
+    {
+        File otherFile = new File( testDirectory.databaseDir(), "b" );
+        fs.create( otherFile );
+        try ( PageCache pageCache = pageCacheRule.getPageCache( fs, cfg );
+              PagedFile pfA = pageCache.map( file, pageCache.pageSize(), StandardOpenOption.CREATE );
+              PagedFile pfB = pageCache.map( otherFile, pageCache.pageSize(), StandardOpenOption.CREATE ) )
+        {
+            for ( PagedFile pf : new PagedFile[]{pfA, pfB} )
+            {
+                try ( PageCursor writer = pf.io( 0, PagedFile.PF_SHARED_WRITE_LOCK ) )
+                {
+                    for ( int pageId = 0; pageId < 10; pageId++ )
+                    {
+                        assertTrue( writer.next( pageId ) );
+                    }
+                }
+                pf.flushAndForce();
+            }
+            PageCacheWarmer warmer = new PageCacheWarmer( fs, pageCache, scheduler, testDirectory.databaseDir() );
+            warmer.start();
+            warmer.profile();
+        }
+
+        // Every thread that reports progress waits for a second thread to do so as well, which only happens if the
+        // files are reheated at the same time.
+        CountDownLatch bothFilesReheating = new CountDownLatch( 2 );
+        Set<Thread> reheatingThreads = ConcurrentHashMap.newKeySet();
+        AtomicBoolean concurrent = new AtomicBoolean( true );
+        PageCacheWarmerMonitor monitor = new PageCacheWarmerMonitorAdapter()
+        {
+            @Override
+            public void warmupProgress( long pagesLoaded, long pagesToLoad )
+            {
+                if ( reheatingThreads.add( Thread.currentThread() ) )
+                {
+                    bothFilesReheating.countDown();
+                    try
+                    {
+                        concurrent.compareAndSet( true, bothFilesReheating.await( 10, TimeUnit.SECONDS ) );
+                    }
+                    catch ( InterruptedException e )
+                    {
+                        Thread.currentThread().interrupt();
+                        concurrent.set( false );
+                    }
+                }
+            }
+        };
+        try ( PageCache pageCache = pageCacheRule.getPageCache( fs, cfg );
+              PagedFile ignoreA = pageCache.map( file, pageCache.pageSize() );
+              PagedFile ignoreB = pageCache.map( otherFile, pageCache.pageSize() ) )
+        {
+            PageCacheWarmer warmer = new PageCacheWarmer(
+                    fs, pageCache, scheduler, testDirectory.databaseDir(), monitor, 2, PageCacheWarmer.UNLIMITED_IOPS );
+            warmer.start();
+            assertThat( warmer.reheat().getAsLong(), is( 20L ) );
+            warmer.stop();
+
+            assertThat( reheatingThreads, hasSize( 2 ) );
+            assertTrue( "Files were not reheated concurrently", concurrent.get() );
+        }
+    }
+
+    @Test
+    public void mustReheatRangesOfLargeFileConcurrently() throws Exception
+    {
+        long pages = PageCacheWarmer.PAGES_PER_RANGE * 2;
+        PageCacheRule.PageCacheConfig smallPages = cfg.withPageSize( 512 ).withMemory( "16 MiB" );
+        try ( PageCache pageCache = pageCacheRule.getPageCache( fs, smallPages );
+              PagedFile pf = pageCache.map( file, pageCache.pageSize(), StandardOpenOption.CREATE ) )
+        {
+            try ( PageCursor writer = pf.io( 0, PagedFile.PF_SHARED_WRITE_LOCK ) )
+            {
+                for ( long pageId = 0; pageId < pages; pageId++ )
+                {
+                    assertTrue( writer.next( pageId ) );
+                }
+            }
+            pf.flushAndForce();
+            PageCacheWarmer warmer = new PageCacheWarmer( fs, pageCache, scheduler, testDirectory.databaseDir() );
+            warmer.start();
+            warmer.profile();
+        }
+
+        // Every thread that reports progress waits for a second thread to do so as well, which only happens if the
+        // ranges of the one file are reheated at the same time.
+        CountDownLatch bothRangesReheating = new CountDownLatch( 2 );
+        Set<Thread> reheatingThreads = ConcurrentHashMap.newKeySet();
+        AtomicBoolean concurrent = new AtomicBoolean( true );
+        PageCacheWarmerMonitor monitor = new PageCacheWarmerMonitorAdapter()
+        {
+            @Override
+            public void warmupProgress( long pagesLoaded, long pagesToLoad )
+            {
+                if ( reheatingThreads.add( Thread.currentThread() ) )
+                {
+                    bothRangesReheating.countDown();
+                    try
+                    {
+                        concurrent.compareAndSet( true, bothRangesReheating.await( 10, TimeUnit.SECONDS ) );
+                    }
+                    catch ( InterruptedException e )
+                    {
+                        Thread.currentThread().interrupt();
+                        concurrent.set( false );
+                    }
+                }
+            }
+        };
+        clearTracerCounts();
+        long initialFaults = cacheTracer.faults();
+        try ( PageCache pageCache = pageCacheRule.getPageCache( fs, smallPages );
+              PagedFile ignore = pageCache.map( file, pageCache.pageSize() ) )
+        {
+            PageCacheWarmer warmer = new PageCacheWarmer(
+                    fs, pageCache, scheduler, testDirectory.databaseDir(), monitor, 2, PageCacheWarmer.UNLIMITED_IOPS );
+            warmer.start();
+            assertThat( warmer.reheat().getAsLong(), is( pages ) );
+            warmer.stop();
+
+            pageCache.reportEvents();
+            assertThat( cacheTracer.faults(), is( initialFaults + pages ) );
+            assertThat( reheatingThreads, hasSize( 2 ) );
+            assertTrue( "Ranges were not reheated concurrently", concurrent.get() );
+        }
+    }
+
+    @Test
+    public void reheatMustNotReadPagesAlreadyInMemory() throws Exception
+    {
+        try ( PageCache pageCache = pageCacheRule.getPageCache( fs, cfg );
+              PagedFile pf = pageCache.map( file, pageCache.pageSize(), StandardOpenOption.CREATE ) )
+        {
+            try ( PageCursor writer = pf.io( 0, PagedFile.PF_SHARED_WRITE_LOCK ) )
+            {
+                for ( int pageId = 0; pageId < 10; pageId++ )
+                {
+                    assertTrue( writer.next( pageId ) );
+                }
+            }
+            pf.flushAndForce();
+            PageCacheWarmer warmer = new PageCacheWarmer( fs, pageCache, scheduler, testDirectory.databaseDir() );
+            warmer.start();
+            warmer.profile();
+        }
+
+        clearTracerCounts();
+        long initialFaults = cacheTracer.faults();
+        try ( PageCache pageCache = pageCacheRule.getPageCache( fs, cfg );
+              PagedFile pf = pageCache.map( file, pageCache.pageSize() ) )
+        {
+            // Queries already brought in half of the profiled pages
+            try ( PageCursor reader = pf.io( 0, PagedFile.PF_SHARED_READ_LOCK ) )
+            {
+                for ( int pageId = 0; pageId < 5; pageId++ )
+                {
+                    assertTrue( reader.next( pageId ) );
+                }
+            }
+
+            PageCacheWarmer warmer = new PageCacheWarmer( fs, pageCache, scheduler, testDirectory.databaseDir() );
+            warmer.start();
+            assertThat( warmer.reheat().getAsLong(), is( 10L ) );
+
+            pageCache.reportEvents();
+            assertThat( cacheTracer.faults(), is( initialFaults + 10L ) );
+        }
+    }
+
+    @Test
+    public void ioBudgetMustLimitPagesReadPerSecond()
+    {
+        PageCacheWarmer.IOBudget budget = new PageCacheWarmer.IOBudget( 1_000 );
+        long start = System.nanoTime();
+        for ( int i = 0; i < 201; i++ )
+        {
+            budget.acquire();
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis( System.nanoTime() - start );
+        assertThat( elapsedMillis, greaterThanOrEqualTo( 190L ) );
+    }
+
     @SuppressWarnings( "unused" )
     @Test
     public void profileMustNotDeleteFilesCurrentlyExposedViaFileListing() throws Exception
@@ -65,6 +65,10 @@ public class BoltMetrics extends LifecycleAdapter
                  "been taken on by a worker thread." )
     public static final String MESSAGES_STARTED = name( NAME_PREFIX, "messages_started" );
 
+    @Documented( "The total number of messages that were processed on the network thread that received them, instead of " +
+                 "being taken on by a worker thread, since this instance started." )
+    public static final String MESSAGES_INLINE = name( NAME_PREFIX, "messages_inline" );
+
     @Documented( "The total number of messages that completed processing since this instance started. This includes " +
                  "successful, failed and ignored Bolt messages." )
     public static final String MESSAGES_DONE = name( NAME_PREFIX, "messages_done" );
@@ -99,6 +103,7 @@ public class BoltMetrics extends LifecycleAdapter
         registry.register( CONNECTIONS_IDLE, (Gauge<Long>) boltMonitor.connectionsIdle::get );
         registry.register( MESSAGES_RECEIVED, (Gauge<Long>) boltMonitor.messagesReceived::get );
         registry.register( MESSAGES_STARTED, (Gauge<Long>) boltMonitor.messagesStarted::get );
+        registry.register( MESSAGES_INLINE, (Gauge<Long>) boltMonitor.messagesInline::get );
         registry.register( MESSAGES_DONE, (Gauge<Long>) boltMonitor.messagesDone::get );
         registry.register( MESSAGES_FAILED, (Gauge<Long>) boltMonitor.messagesFailed::get );
         registry.register( TOTAL_QUEUE_TIME, (Gauge<Long>) boltMonitor.queueTime::get );
@@ -115,6 +120,7 @@ public class BoltMetrics extends LifecycleAdapter
         registry.remove( CONNECTIONS_RUNNING );
         registry.remove( MESSAGES_RECEIVED );
         registry.remove( MESSAGES_STARTED );
+        registry.remove( MESSAGES_INLINE );
         registry.remove( MESSAGES_DONE );
         registry.remove( MESSAGES_FAILED );
         registry.remove( TOTAL_QUEUE_TIME );
@@ -132,6 +138,7 @@ public class BoltMetrics extends LifecycleAdapter
 
         final AtomicLong messagesReceived = new AtomicLong();
         final AtomicLong messagesStarted = new AtomicLong();
+        final AtomicLong messagesInline = new AtomicLong();
         final AtomicLong messagesDone = new AtomicLong();
         final AtomicLong messagesFailed = new AtomicLong();
 
@@ -175,6 +182,12 @@ public class BoltMetrics extends LifecycleAdapter
             messagesStarted.incrementAndGet();
         }
 
+        @Override
+        public void messageProcessedInline()
+        {
+            messagesInline.incrementAndGet();
+        }
+
         @Override
         public void messageProcessingCompleted( long processingTime )
         {
@@ -268,6 +268,12 @@ public class BoltFailuresIT
             throwIfNeeded( throwInMessageProcessingStarted );
         }
 
+        @Override
+        public void messageProcessedInline()
+        {
+
+        }
+
         @Override
         public void messageProcessingCompleted( long processingTime )
         {
@@ -110,6 +110,12 @@ class PageCacheWarmupTestSupport
             //nothing
         }
 
+        @Override
+        public void warmupProgress( long pagesLoaded, long pagesToLoad )
+        {
+            //nothing
+        }
+
         @Override
         public void warmupCompleted( long pagesLoaded )
         {
@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+package org.neo4j.kernel.stresstests.locking;
+
+import org.junit.Test;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+
+import org.neo4j.kernel.DeadlockDetectedException;
+import org.neo4j.kernel.configuration.Config;
+import org.neo4j.kernel.impl.enterprise.lock.forseti.ForsetiLockManager;
+import org.neo4j.kernel.impl.locking.Locks;
+import org.neo4j.kernel.impl.locking.ResourceTypes;
+import org.neo4j.logging.FormattedLogProvider;
+import org.neo4j.logging.Log;
+import org.neo4j.storageengine.api.lock.LockTracer;
+
+import static java.lang.Double.parseDouble;
+import static java.lang.Integer.parseInt;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.junit.Assert.assertThat;
+import static org.neo4j.function.Suppliers.untilTimeExpired;
+import static org.neo4j.helper.StressTestingHelper.fromEnv;
+
+/**
+ * Hammers the Forseti lock manager with many short, read-heavy transactions on a small set of hot resources, verifying
+ * that shared and exclusive locks stay mutually exclusive and logging the throughput, so that changes to the lock
+ * manager can be compared against each other.
+ * <p>
+ * Notice the class name: this is _not_ going to be run as part of the main build.
+ */
+public class ForsetiLockManagerStressTesting
+{
+    private static final String DEFAULT_DURATION_IN_SECONDS = "60";
+    private static final String DEFAULT_NUM_THREADS = "16";
+    private static final String DEFAULT_NUM_RESOURCES = "1000";
+    private static final String DEFAULT_LOCKS_PER_TRANSACTION = "10";
+    private static final String DEFAULT_EXCLUSIVE_RATIO = "0.01";
+
+    @Test
+    public void shouldKeepLocksMutuallyExclusiveUnderReadHeavyLoad() throws Throwable
+    {
+        int durationInSeconds = parseInt( fromEnv( "LOCKS_STRESS_DURATION", DEFAULT_DURATION_IN_SECONDS ) );
+        int threads = parseInt( fromEnv( "LOCKS_STRESS_NUM_THREADS", DEFAULT_NUM_THREADS ) );
+        int resources = parseInt( fromEnv( "LOCKS_STRESS_NUM_RESOURCES", DEFAULT_NUM_RESOURCES ) );
+        int locksPerTransaction = parseInt( fromEnv( "LOCKS_STRESS_LOCKS_PER_TRANSACTION", DEFAULT_LOCKS_PER_TRANSACTION ) );
+        double exclusiveRatio = parseDouble( fromEnv( "LOCKS_STRESS_EXCLUSIVE_RATIO", DEFAULT_EXCLUSIVE_RATIO ) );
+
+        // Holders per resource: the number of shared holders, or -1 when held exclusively
+        AtomicIntegerArray holders = new AtomicIntegerArray( resources );
+        LongAdder transactions = new LongAdder();
+        LongAdder deadlocks = new LongAdder();
+
+        Locks locks = new ForsetiLockManager( Config.defaults(), Clock.systemUTC(), ResourceTypes.values() );
+        ExecutorService executor = Executors.newFixedThreadPool( threads );
+        try
+        {
+            BooleanSupplier keepGoing = untilTimeExpired( durationInSeconds, SECONDS );
+            List<Future<?>> futures = new ArrayList<>();
+            for ( int i = 0; i < threads; i++ )
+            {
+                futures.add( executor.submit( () ->
+                {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    int[] resourceIds = new int[locksPerTransaction];
+                    boolean[] exclusive = new boolean[locksPerTransaction];
+                    while ( keepGoing.getAsBoolean() )
+                    {
+                        pickDistinctResourcesInOrder( random, resources, resourceIds );
+                        for ( int j = 0; j < locksPerTransaction; j++ )
+                        {
+                            exclusive[j] = random.nextDouble() < exclusiveRatio;
+                        }
+
+                        try ( Locks.Client client = locks.newClient() )
+                        {
+                            int acquired = 0;
+                            try
+                            {
+                                for ( ; acquired < locksPerTransaction; acquired++ )
+                                {
+                                    int resourceId = resourceIds[acquired];
+                                    if ( exclusive[acquired] )
+                                    {
+                                        client.acquireExclusive( LockTracer.NONE, ResourceTypes.NODE, resourceId );
+                                        if ( !holders.compareAndSet( resourceId, 0, -1 ) )
+                                        {
+                                            throw new AssertionError( "Exclusive lock granted while held by others" );
+                                        }
+                                    }
+                                    else
+                                    {
+                                        client.acquireShared( LockTracer.NONE, ResourceTypes.NODE, resourceId );
+                                        if ( holders.getAndIncrement( resourceId ) < 0 )
+                                        {
+                                            throw new AssertionError( "Shared lock granted while held exclusively" );
+                                        }
+                                    }
+                                }
+                                transactions.increment();
+                            }
+                            finally
+                            {
+                                // Must happen before the client is closed and releases the locks
+                                for ( int j = 0; j < acquired; j++ )
+                                {
+                                    if ( exclusive[j] )
+                                    {
+                                        holders.set( resourceIds[j], 0 );
+                                    }
+                                    else
+                                    {
+                                        holders.decrementAndGet( resourceIds[j] );
+                                    }
+                                }
+                            }
+                        }
+                        catch ( DeadlockDetectedException e )
+                        {
+                            // Can only be a false positive, since resources are locked in order
+                            deadlocks.increment();
+                        }
+                    }
+                    return null;
+                } ) );
+            }
+            for ( Future<?> future : futures )
+            {
+                future.get();
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+            locks.close();
+        }
+
+        assertThat( "No transaction completed", transactions.sum(), greaterThan( 0L ) );
+        Log log = FormattedLogProvider.toOutputStream( System.out ).getLog( getClass() );
+        log.info( "%d threads completed %d transactions (%.0f/s) with %d false deadlocks",
+                threads, transactions.sum(), transactions.sum() / (double) durationInSeconds, deadlocks.sum() );
+    }
+
+    private static void pickDistinctResourcesInOrder( ThreadLocalRandom random, int resources, int[] resourceIds )
+    {
+        int picked = 0;
+        while ( picked < resourceIds.length )
+        {
+            int resourceId = random.nextInt( resources );
+            boolean alreadyPicked = false;
+            for ( int i = 0; i < picked && !alreadyPicked; i++ )
+            {
+                alreadyPicked = resourceIds[i] == resourceId;
+            }
+            if ( !alreadyPicked )
+            {
+                resourceIds[picked++] = resourceId;
+            }
+        }
+        Arrays.sort( resourceIds );
+    }
+}